@@ -0,0 +1,63 @@
+package com.genc.hms.config;
+
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Enables @Async and defines the executors that keep follow-up work (e.g.,
+ * waitlist backfill, slot event fan-out) off the request threads.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+	public static final String WAITLIST_EXECUTOR = "waitlistExecutor";
+	public static final String SLOT_EVENTS_EXECUTOR = "slotEventsExecutor";
+
+	private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+	/**
+	 * Small bounded pool for waitlist backfill. Work for the same doctor-day is
+	 * serialized by DoctorDayLocks anyway, so a couple of threads suffice. When
+	 * the queue is full the freed slot is simply left open for regular booking.
+	 */
+	@Bean(name = WAITLIST_EXECUTOR)
+	public Executor waitlistExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(2);
+		executor.setMaxPoolSize(2);
+		executor.setQueueCapacity(1000);
+		executor.setThreadNamePrefix("waitlist-");
+		executor.setRejectedExecutionHandler(
+				(task, pool) -> logger.warn("Waitlist backfill queue is full; a freed slot will not be backfilled"));
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(10);
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * Fans committed slot changes out to SSE subscribers so a booking never waits
+	 * on client sockets. One thread keeps events in commit order; when the queue
+	 * is full the event is dropped and clients catch up on their next refresh.
+	 */
+	@Bean(name = SLOT_EVENTS_EXECUTOR)
+	public Executor slotEventsExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(10_000);
+		executor.setThreadNamePrefix("slot-events-");
+		executor.setRejectedExecutionHandler(
+				(task, pool) -> logger.warn("Slot event queue is full; a slot change was not pushed to subscribers"));
+		executor.setWaitForTasksToCompleteOnShutdown(false);
+		executor.initialize();
+		return executor;
+	}
+}
@@ -0,0 +1,12 @@
+package com.genc.hms.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled housekeeping jobs (e.g., pruning in-memory slot indexes).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -19,6 +19,8 @@ import com.genc.hms.service.CustomUserDetailService;
 import com.genc.hms.util.CustomPasswordEncoder;
 import com.genc.hms.util.JwtAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+
 /**
  * Main Spring Security configuration class.
  */
@@ -58,6 +60,9 @@ public class SecurityConfig {
 
 				// 2. Define authorization rules for endpoints
 				.authorizeHttpRequests(auth -> auth
+						// The async dispatch that ends a streaming response (SSE, exports) carries no
+						// token; the original request was already authorized
+						.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 						// Allow unauthenticated access to authentication/public endpoints
 						.requestMatchers("/api/auth/**").permitAll().requestMatchers("/api/admin/**").hasRole("ADMIN")
 						.requestMatchers("/api/doctors/**").hasAnyRole("ADMIN", "DOCTOR")
@@ -1,10 +1,13 @@
 package com.genc.hms.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize; // 🚨 New Import for Role Check
@@ -16,13 +19,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.genc.hms.dto.AdminRegisterDTO;
 import com.genc.hms.dto.AdminResponseDTO;
 import com.genc.hms.dto.AppointmentResponseDTO;
+import com.genc.hms.dto.CursorPageDTO;
 import com.genc.hms.dto.BillResponseDTO;
 import com.genc.hms.dto.DoctorProfileUpdateDTO;
 import com.genc.hms.dto.DoctorRegisterRequestDTO;
@@ -30,17 +36,31 @@ import com.genc.hms.dto.DoctorResponseDTO;
 import com.genc.hms.dto.PatientRegisterRequestDTO;
 import com.genc.hms.dto.PatientResponseDTO;
 import com.genc.hms.dto.PatientUpdateRequestDTO;
+import com.genc.hms.dto.ReminderRunDTO;
+import com.genc.hms.dto.RevenueDTO;
+import com.genc.hms.dto.ScheduleExceptionRequestDTO;
+import com.genc.hms.dto.ScheduleExceptionResponseDTO;
+import com.genc.hms.dto.SlotCacheStatsDTO;
 import com.genc.hms.dto.UserResponseDTO;
 import com.genc.hms.dto.UserUpdateRoleAndEmailDTO;
 import com.genc.hms.entity.User;
 import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.ExportFormat;
+import com.genc.hms.enums.RevenueGrouping;
+import com.genc.hms.enums.RevenuePeriod;
 import com.genc.hms.exception.GlobalExceptionHandler.ResourceNotFoundException;
 import com.genc.hms.service.AdminService;
 import com.genc.hms.service.AppointmentService;
 import com.genc.hms.service.BillingService;
+import com.genc.hms.service.ExportService;
 import com.genc.hms.service.DoctorService;
 import com.genc.hms.service.PatientService;
+import com.genc.hms.service.ReminderService;
+import com.genc.hms.service.RevenueService;
+import com.genc.hms.service.ScheduleExceptionService;
+import com.genc.hms.service.SlotListCache;
 import com.genc.hms.service.UserService;
+import com.genc.hms.util.ETags;
 
 import jakarta.validation.Valid;
 
@@ -63,16 +83,29 @@ public class AdminController {
 	private final UserService userService;
 	private final AppointmentService appointmentService;
 	private final BillingService billingService;
+	private final ExportService exportService;
+	private final ReminderService reminderService;
+	private final ScheduleExceptionService scheduleExceptionService;
+	private final SlotListCache slotListCache;
+	private final RevenueService revenueService;
 
 	// 🚨 Use full constructor injection for all dependencies
 	public AdminController(DoctorService doctorService, PatientService patientService, AdminService adminService,
-			UserService userService, AppointmentService appointmentService, BillingService billingService) {
+			UserService userService, AppointmentService appointmentService, BillingService billingService,
+			ExportService exportService, ReminderService reminderService,
+			ScheduleExceptionService scheduleExceptionService, SlotListCache slotListCache,
+			RevenueService revenueService) {
 		this.doctorService = doctorService;
 		this.patientService = patientService;
 		this.adminService = adminService;
 		this.userService = userService;
 		this.appointmentService = appointmentService;
 		this.billingService = billingService;
+		this.exportService = exportService;
+		this.reminderService = reminderService;
+		this.scheduleExceptionService = scheduleExceptionService;
+		this.slotListCache = slotListCache;
+		this.revenueService = revenueService;
 	}
 
 	// ===================== I. USER MANAGEMENT =====================
@@ -203,17 +236,20 @@ public class AdminController {
 		// Service throws ResourceNotFoundException if doctorId is invalid
 		DoctorResponseDTO doctor = doctorService.findDoctorById(doctorId)
 				.orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + doctorId));
-		return ResponseEntity.ok(doctor);
+		return ResponseEntity.ok().eTag(ETags.of(doctor.getVersion())).body(doctor);
 	}
 
 	@PutMapping("/doctors/{doctorId}")
 	public ResponseEntity<DoctorResponseDTO> updateDoctorProfile(@PathVariable Long doctorId,
-			@Valid @RequestBody DoctorProfileUpdateDTO updateDTO, @AuthenticationPrincipal User adminUser) {
+			@Valid @RequestBody DoctorProfileUpdateDTO updateDTO, @AuthenticationPrincipal User adminUser,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-		// Service throws ResourceNotFoundException if doctorId is invalid
-		DoctorResponseDTO updated = adminService.updateDoctorProfile(doctorId, updateDTO);
+		// Service throws ResourceNotFoundException if doctorId is invalid, 412 if
+		// If-Match is stale and 409 if a concurrent update wins
+		DoctorResponseDTO updated = adminService.updateDoctorProfile(doctorId, updateDTO,
+				ETags.parseIfMatch(ifMatch));
 		logger.info("Admin [{}] updated doctor [{}]", adminUser.getUserId(), doctorId);
-		return ResponseEntity.ok(updated);
+		return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
 	}
 
 	@DeleteMapping("/doctors/{id}")
@@ -240,17 +276,20 @@ public class AdminController {
 		// Service throws ResourceNotFoundException if patientId is invalid
 		PatientResponseDTO patient = patientService.findPatientProfileByPatientId(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + id));
-		return ResponseEntity.ok(patient);
+		return ResponseEntity.ok().eTag(ETags.of(patient.getVersion())).body(patient);
 	}
 
 	@PutMapping("/patients/{id}")
 	public ResponseEntity<PatientResponseDTO> updatePatientProfile(@PathVariable long id,
-			@RequestBody PatientUpdateRequestDTO updateRequestDTO, @AuthenticationPrincipal User adminUser) {
+			@RequestBody PatientUpdateRequestDTO updateRequestDTO, @AuthenticationPrincipal User adminUser,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-		// Service throws ResourceNotFoundException if patientId is invalid
-		PatientResponseDTO dto = patientService.updatePatientProfile(id, updateRequestDTO);
+		// Service throws ResourceNotFoundException if patientId is invalid, 412 if
+		// If-Match is stale and 409 if a concurrent update wins
+		PatientResponseDTO dto = patientService.updatePatientProfile(id, updateRequestDTO,
+				ETags.parseIfMatch(ifMatch));
 		logger.info("Admin [{}] updated patient [{}]", adminUser.getUserId(), id);
-		return ResponseEntity.ok(dto);
+		return ResponseEntity.ok().eTag(ETags.of(dto.getVersion())).body(dto);
 	}
 
 	@DeleteMapping("/patients/{id}")
@@ -265,9 +304,14 @@ public class AdminController {
 	// ===================== V. APPOINTMENT MANAGEMENT =====================
 
 	@GetMapping("/appointments")
-	public ResponseEntity<List<AppointmentResponseDTO>> getAllAppointments(@AuthenticationPrincipal User adminUser) {
-		logger.info("Admin [{}] requested all appointments", adminUser.getUserId());
-		return ResponseEntity.ok(adminService.getAllAppointments());
+	public ResponseEntity<CursorPageDTO<AppointmentResponseDTO>> getAllAppointments(
+			@RequestParam(required = false) AppointmentStatus status, @RequestParam(required = false) Long doctorId,
+			@RequestParam(required = false) Long patientId, @RequestParam(required = false) LocalDate from,
+			@RequestParam(required = false) LocalDate to, @RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "" + AppointmentService.DEFAULT_PAGE_SIZE) int size,
+			@AuthenticationPrincipal User adminUser) {
+		logger.info("Admin [{}] requested an appointments page", adminUser.getUserId());
+		return ResponseEntity.ok(adminService.getAppointmentsPage(status, doctorId, patientId, from, to, cursor, size));
 	}
 
 	@GetMapping("/appointments/{id}")
@@ -278,27 +322,30 @@ public class AdminController {
 		// conversion fails
 		AppointmentResponseDTO dto = appointmentService.findAppointmentById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("No appointment found : " + id));
-		return ResponseEntity.ok(dto);
+		return ResponseEntity.ok().eTag(ETags.of(dto.getVersion())).body(dto);
 	}
 
 	@PutMapping("/appointments/{appointmentId}/status")
 	public ResponseEntity<AppointmentResponseDTO> updateAppointmentStatus(@PathVariable Long appointmentId,
 			@RequestParam AppointmentStatus newStatus, @RequestParam(required = false) String remarks,
-			@AuthenticationPrincipal User adminUser) {
+			@AuthenticationPrincipal User adminUser,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-		// Service throws ResourceNotFoundException if appointment is missing
+		// Service throws ResourceNotFoundException if appointment is missing, 412
+		// if If-Match is stale and 409 if a concurrent update wins
 		AppointmentResponseDTO updatedAppointment = appointmentService.updateAppointmentStatus(appointmentId, newStatus,
-				remarks);
-		return ResponseEntity.ok(updatedAppointment);
+				remarks, ETags.parseIfMatch(ifMatch));
+		return ResponseEntity.ok().eTag(ETags.of(updatedAppointment.getVersion())).body(updatedAppointment);
 	}
 
 	@PostMapping("/appointments/{appointmentId}/cancel")
 	public ResponseEntity<Void> cancelAppointment(@PathVariable Long appointmentId,
-			@AuthenticationPrincipal User adminUser) {
+			@AuthenticationPrincipal User adminUser,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
 		// Service should throw a specific exception (e.g., IllegalStateException or
-		// ResourceNotFoundException)
-		appointmentService.cancelAppointment(appointmentId);
+		// ResourceNotFoundException), or 412 if If-Match is stale
+		appointmentService.cancelAppointment(appointmentId, ETags.parseIfMatch(ifMatch));
 		return ResponseEntity.noContent().build();
 	}
 
@@ -312,11 +359,28 @@ public class AdminController {
 
 	@PostMapping("/billing/{billId}/pay")
 	public ResponseEntity<BillResponseDTO> recordPayment(@PathVariable Long billId,
-			@AuthenticationPrincipal User adminUser) {
+			@AuthenticationPrincipal User adminUser,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-		// Service throws ResourceNotFoundException if bill is missing
-		BillResponseDTO updatedBill = billingService.recordPayment(billId);
-		return ResponseEntity.ok(updatedBill);
+		// Service throws ResourceNotFoundException if bill is missing, or 412 if
+		// If-Match is stale
+		BillResponseDTO updatedBill = billingService.recordPayment(billId, ETags.parseIfMatch(ifMatch));
+		return ResponseEntity.ok().eTag(ETags.of(updatedBill.version())).body(updatedBill);
+	}
+
+	/**
+	 * GET /api/admin/billing/revenue Bill counts and totals for bills dated in
+	 * [from, to] per DAY, WEEK or MONTH, grouped by DOCTOR, SPECIALIZATION or
+	 * TOTAL and split by payment status. Service throws IllegalArgumentException
+	 * for an invalid range.
+	 */
+	@GetMapping("/billing/revenue")
+	public ResponseEntity<List<RevenueDTO>> getRevenue(@RequestParam LocalDate from, @RequestParam LocalDate to,
+			@RequestParam(defaultValue = "DAY") RevenuePeriod period,
+			@RequestParam(defaultValue = "TOTAL") RevenueGrouping groupBy, @AuthenticationPrincipal User adminUser) {
+		logger.info("Admin [{}] requested revenue from {} to {} by {} and {}", adminUser.getUserId(), from, to, period,
+				groupBy);
+		return ResponseEntity.ok(revenueService.getRevenue(from, to, period, groupBy));
 	}
 
 	// ===================== VII. COUNT MANAGEMENT =====================
@@ -341,4 +405,118 @@ public class AdminController {
 
 		return ResponseEntity.ok(count);
 	}
+
+	// ===================== VIII. EXPORTS =====================
+
+	/**
+	 * GET /api/admin/export/appointments?format=NDJSON|CSV Streams every
+	 * appointment; rows are written as they are read, so the response is never
+	 * materialized in memory.
+	 */
+	@GetMapping("/export/appointments")
+	public ResponseEntity<StreamingResponseBody> exportAppointments(
+			@RequestParam(defaultValue = "NDJSON") ExportFormat format, @AuthenticationPrincipal User adminUser) {
+		logger.info("Admin [{}] exporting appointments as {}", adminUser.getUserId(), format);
+		return streamingResponse("appointments", format, out -> {
+			long rows = exportService.exportAppointments(format, out);
+			logger.info("Exported {} appointments as {}", rows, format);
+		});
+	}
+
+	/**
+	 * GET /api/admin/export/bills?format=NDJSON|CSV Streams every bill.
+	 */
+	@GetMapping("/export/bills")
+	public ResponseEntity<StreamingResponseBody> exportBills(
+			@RequestParam(defaultValue = "NDJSON") ExportFormat format, @AuthenticationPrincipal User adminUser) {
+		logger.info("Admin [{}] exporting bills as {}", adminUser.getUserId(), format);
+		return streamingResponse("bills", format, out -> {
+			long rows = exportService.exportBills(format, out);
+			logger.info("Exported {} bills as {}", rows, format);
+		});
+	}
+
+	// ===================== IX. REMINDERS =====================
+
+	/**
+	 * POST /api/admin/reminders/run?date={date} Sends the reminders for the date
+	 * (tomorrow when omitted) now instead of waiting for the nightly run; already
+	 * sent reminders are skipped. Service throws ConflictException (409) if a run
+	 * is in progress.
+	 */
+	@PostMapping("/reminders/run")
+	public ResponseEntity<ReminderRunDTO> runReminders(@RequestParam(required = false) LocalDate date,
+			@AuthenticationPrincipal User adminUser) {
+		LocalDate target = date != null ? date : LocalDate.now().plusDays(1);
+		logger.info("Admin [{}] triggering reminders for {}", adminUser.getUserId(), target);
+		return ResponseEntity.ok(reminderService.sendReminders(target));
+	}
+
+	/**
+	 * GET /api/admin/reminders/last-run Metrics of the latest reminder run on this
+	 * node (204 if none has run yet).
+	 */
+	@GetMapping("/reminders/last-run")
+	public ResponseEntity<ReminderRunDTO> getLastReminderRun() {
+		return reminderService.getLastRun().map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.noContent().build());
+	}
+
+	// ===================== X. LEAVE & HOLIDAYS =====================
+
+	/**
+	 * POST /api/admin/schedule-exceptions Blocks a doctor's time (leave,
+	 * conference) or, without a doctorId, the whole hospital (public holiday).
+	 * Service throws ResourceNotFoundException (404) or IllegalArgumentException
+	 * (400) on failure.
+	 */
+	@PostMapping("/schedule-exceptions")
+	public ResponseEntity<ScheduleExceptionResponseDTO> createScheduleException(
+			@Valid @RequestBody ScheduleExceptionRequestDTO requestDTO, @AuthenticationPrincipal User adminUser) {
+		logger.info("Admin [{}] blocking schedule of doctor {} from {}: {}", adminUser.getUserId(),
+				requestDTO.getDoctorId() == null ? "ALL" : requestDTO.getDoctorId(), requestDTO.getStartDate(),
+				requestDTO.getReason());
+		return new ResponseEntity<>(scheduleExceptionService.createException(requestDTO), HttpStatus.CREATED);
+	}
+
+	/**
+	 * GET /api/admin/schedule-exceptions?doctorId=&from=&to= Blocks overlapping the
+	 * date range that apply to the doctor, hospital-wide ones included (all blocks
+	 * without a doctorId).
+	 */
+	@GetMapping("/schedule-exceptions")
+	public ResponseEntity<List<ScheduleExceptionResponseDTO>> getScheduleExceptions(
+			@RequestParam(required = false) Long doctorId, @RequestParam LocalDate from, @RequestParam LocalDate to) {
+		return ResponseEntity.ok(scheduleExceptionService.findExceptions(doctorId, from, to));
+	}
+
+	/**
+	 * DELETE /api/admin/schedule-exceptions/{id} Service throws
+	 * ResourceNotFoundException (404) if the block does not exist.
+	 */
+	@DeleteMapping("/schedule-exceptions/{id}")
+	public ResponseEntity<Void> deleteScheduleException(@PathVariable Long id,
+			@AuthenticationPrincipal User adminUser) {
+		logger.info("Admin [{}] removing schedule exception {}", adminUser.getUserId(), id);
+		scheduleExceptionService.deleteException(id);
+		return ResponseEntity.noContent().build();
+	}
+
+	// ===================== XI. CACHES =====================
+
+	/**
+	 * GET /api/admin/caches/slots Hit, miss and eviction counts of this node's
+	 * slot-list cache, for sizing hms.slot-cache.max-entries.
+	 */
+	@GetMapping("/caches/slots")
+	public ResponseEntity<SlotCacheStatsDTO> getSlotCacheStats() {
+		return ResponseEntity.ok(slotListCache.stats());
+	}
+
+	private ResponseEntity<StreamingResponseBody> streamingResponse(String name, ExportFormat format,
+			StreamingResponseBody body) {
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(format.getContentType()))
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						"attachment; filename=\"" + name + "." + format.getFileExtension() + "\"")
+				.body(body);
+	}
 }
\ No newline at end of file
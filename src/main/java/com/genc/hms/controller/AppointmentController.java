@@ -1,18 +1,41 @@
 package com.genc.hms.controller;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.genc.hms.dto.AppointmentBulkStatusRequestDTO;
+import com.genc.hms.dto.AppointmentBulkStatusResponseDTO;
 import com.genc.hms.dto.AppointmentRequestDTO;
 import com.genc.hms.dto.AppointmentResponseDTO;
+import com.genc.hms.dto.AppointmentSeriesRequestDTO;
+import com.genc.hms.dto.AppointmentSeriesResponseDTO;
+import com.genc.hms.dto.AvailableSlotDTO;
+import com.genc.hms.dto.ChangeFeedDTO;
+import com.genc.hms.dto.CursorPageDTO;
+import com.genc.hms.dto.SlotHoldRequestDTO;
+import com.genc.hms.dto.SlotHoldResponseDTO;
+import com.genc.hms.entity.User;
 import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.Role;
 import com.genc.hms.service.AppointmentService;
+import com.genc.hms.service.SlotEventHub;
+import com.genc.hms.service.SlotSearchService;
+import com.genc.hms.service.UserService;
+import com.genc.hms.util.ETags;
 
 import jakarta.validation.Valid;
 
@@ -25,16 +48,24 @@ public class AppointmentController {
 
 	// 🚨 Use constructor injection
 	private final AppointmentService appointmentService;
+	private final SlotSearchService slotSearchService;
+	private final SlotEventHub slotEventHub;
+	private final UserService userService; // To retrieve the doctor ID from the user entity
 
-	public AppointmentController(AppointmentService appointmentService) {
+	public AppointmentController(AppointmentService appointmentService, SlotSearchService slotSearchService,
+			SlotEventHub slotEventHub, UserService userService) {
 		this.appointmentService = appointmentService;
+		this.slotSearchService = slotSearchService;
+		this.slotEventHub = slotEventHub;
+		this.userService = userService;
 	}
 
 	// ----------------- Creation & Slots -----------------
 
 	/**
 	 * POST /api/appointments Service throws ResourceNotFoundException (404),
-	 * IllegalArgumentException/IllegalStateException (400) on failure.
+	 * IllegalArgumentException/IllegalStateException (400) on failure, and
+	 * ConflictException (409) if the slot is already booked.
 	 */
 	@PostMapping
 	public ResponseEntity<AppointmentResponseDTO> bookAppointment(
@@ -48,6 +79,52 @@ public class AppointmentController {
 		return new ResponseEntity<>(dto, HttpStatus.CREATED);
 	}
 
+	/**
+	 * POST /api/appointments/series Books a weekly recurring series. Returns 201
+	 * with the booked appointments and the rejected occurrences, or 409 if no
+	 * occurrence could be booked. Service throws ResourceNotFoundException (404)
+	 * or IllegalArgumentException if the request is invalid.
+	 */
+	@PostMapping("/series")
+	public ResponseEntity<AppointmentSeriesResponseDTO> bookAppointmentSeries(
+			@Valid @RequestBody AppointmentSeriesRequestDTO requestDTO) {
+		logger.info("Booking appointment series for patient {} with doctor {} on {}s at {}", requestDTO.getPatientId(),
+				requestDTO.getDoctorId(), requestDTO.getDayOfWeek(), requestDTO.getTimeSlot());
+
+		AppointmentSeriesResponseDTO dto = appointmentService.bookAppointmentSeries(requestDTO);
+
+		HttpStatus status = dto.getBooked().isEmpty() ? HttpStatus.CONFLICT : HttpStatus.CREATED;
+		return new ResponseEntity<>(dto, status);
+	}
+
+	/**
+	 * POST /api/appointments/holds Holds a free slot for the patient for a short
+	 * TTL. Service throws ResourceNotFoundException (404), IllegalArgumentException
+	 * if the slot is invalid, and ConflictException (409) if it is booked or held.
+	 */
+	@PostMapping("/holds")
+	public ResponseEntity<SlotHoldResponseDTO> holdSlot(@Valid @RequestBody SlotHoldRequestDTO requestDTO) {
+		logger.info("Holding slot {} on {} with doctor {} for patient {}", requestDTO.getTimeSlot(),
+				requestDTO.getAppointmentDate(), requestDTO.getDoctorId(), requestDTO.getPatientId());
+
+		SlotHoldResponseDTO dto = appointmentService.holdSlot(requestDTO);
+
+		return new ResponseEntity<>(dto, HttpStatus.CREATED);
+	}
+
+	/**
+	 * DELETE /api/appointments/holds/{holdId} Service throws
+	 * ResourceNotFoundException (404) if the hold is unknown or expired.
+	 */
+	@DeleteMapping("/holds/{holdId}")
+	public ResponseEntity<Void> releaseSlotHold(@PathVariable String holdId) {
+		logger.info("Releasing slot hold {}", holdId);
+
+		appointmentService.releaseSlotHold(holdId);
+
+		return ResponseEntity.noContent().build();
+	}
+
 	/**
 	 * GET /api/appointments/slots/{doctorId}?date={date} Service throws
 	 * ResourceNotFoundException (404) if doctorId is invalid.
@@ -62,22 +139,106 @@ public class AppointmentController {
 		return ResponseEntity.ok(slots);
 	}
 
+	/**
+	 * GET /api/appointments/slots/{doctorId}?from={date}&to={date} Returns the
+	 * available slots per date for the whole range (capped at 31 days). Service
+	 * throws ResourceNotFoundException (404) if doctorId is invalid and
+	 * IllegalArgumentException if the range is invalid or too long.
+	 */
+	@GetMapping(value = "/slots/{doctorId}", params = { "from", "to" })
+	public ResponseEntity<Map<LocalDate, List<String>>> getAvailableSlotsInRange(@PathVariable Long doctorId,
+			@RequestParam LocalDate from, @RequestParam LocalDate to) {
+		logger.info("Fetching available slots for doctor {} from {} to {}", doctorId, from, to);
+
+		return ResponseEntity.ok(appointmentService.getAvailableSlots(doctorId, from, to));
+	}
+
+	/**
+	 * GET /api/appointments/slots/{doctorId}/events?from={date}&to={date} Opens a
+	 * Server-Sent Events stream of "slot-taken" and "slot-freed" events for the
+	 * doctor's slots in the range (capped at 31 days), so calendars update without
+	 * polling. Hub throws ResourceNotFoundException (404) if doctorId is invalid,
+	 * IllegalArgumentException if the range is invalid and ConflictException (409)
+	 * if the node has no room for another subscriber.
+	 */
+	@GetMapping(value = "/slots/{doctorId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter subscribeToSlotChanges(@PathVariable Long doctorId, @RequestParam LocalDate from,
+			@RequestParam LocalDate to) {
+		logger.info("Subscribing to slot changes for doctor {} from {} to {}", doctorId, from, to);
+
+		return slotEventHub.subscribe(doctorId, from, to);
+	}
+
+	/**
+	 * GET
+	 * /api/appointments/first-available?specialization=&from=&to=&maxFee=&limit=
+	 * Returns the earliest free slots across all doctors of a specialization,
+	 * optionally capped by consultation fee. Service throws
+	 * IllegalArgumentException if the range (max 31 days) or limit (max 50) is
+	 * invalid.
+	 */
+	@GetMapping("/first-available")
+	public ResponseEntity<List<AvailableSlotDTO>> findFirstAvailableSlots(@RequestParam String specialization,
+			@RequestParam LocalDate from, @RequestParam LocalDate to,
+			@RequestParam(required = false) BigDecimal maxFee, @RequestParam(defaultValue = "10") int limit) {
+		logger.info("Searching first available {} slots from {} to {} (max fee {}, limit {})", specialization, from,
+				to, maxFee, limit);
+
+		return ResponseEntity.ok(slotSearchService.findFirstAvailable(specialization, from, to, maxFee, limit));
+	}
+
 	// ----------------- Retrieval -----------------
 
 	/**
-	 * GET /api/appointments/all NOTE: This endpoint should be secured for
-	 * ADMIN/DOCTOR access in SecurityConfig.
+	 * GET /api/appointments/all?status=&doctorId=&patientId=&from=&to=&cursor=&size=
+	 * Returns one keyset page of appointments ordered by date; pass nextCursor
+	 * back as cursor for the next page. Service throws IllegalArgumentException
+	 * if the size, range or cursor is invalid. NOTE: This endpoint should be
+	 * secured for ADMIN/DOCTOR access in SecurityConfig.
 	 */
 	@GetMapping("/all")
-	public ResponseEntity<List<AppointmentResponseDTO>> findAllAppointments() {
-		logger.info("Retrieving all appointments (Admin view)");
-		return ResponseEntity.ok(appointmentService.findAllAppointments());
+	public ResponseEntity<CursorPageDTO<AppointmentResponseDTO>> findAllAppointments(
+			@RequestParam(required = false) AppointmentStatus status, @RequestParam(required = false) Long doctorId,
+			@RequestParam(required = false) Long patientId, @RequestParam(required = false) LocalDate from,
+			@RequestParam(required = false) LocalDate to, @RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "" + AppointmentService.DEFAULT_PAGE_SIZE) int size) {
+		logger.info("Retrieving appointments page (Admin view)");
+		return ResponseEntity
+				.ok(appointmentService.findAppointmentsPage(status, doctorId, patientId, from, to, cursor, size));
+	}
+
+	/**
+	 * GET /api/appointments/changes?since=&doctorId=&size= Returns only the
+	 * appointments written since the token (everything when omitted); pass
+	 * nextSince back as since on the next poll. Service throws
+	 * IllegalArgumentException if the size or token is invalid. Security: ADMIN
+	 * may follow every doctor; a DOCTOR follows their own appointments (doctorId
+	 * defaults to theirs, 403 for another); anyone else gets 403.
+	 */
+	@GetMapping("/changes")
+	public ResponseEntity<ChangeFeedDTO<AppointmentResponseDTO>> getAppointmentChanges(
+			@RequestParam(required = false) String since, @RequestParam(required = false) Long doctorId,
+			@RequestParam(defaultValue = "" + AppointmentService.MAX_PAGE_SIZE) int size,
+			@AuthenticationPrincipal User currentUser) {
+		if (currentUser.getRole() == Role.DOCTOR) {
+			Long ownDoctorId = userService.getRoleIdFromUser(currentUser);
+			if (doctorId != null && !doctorId.equals(ownDoctorId)) {
+				throw new AccessDeniedException("Doctors can only follow their own appointments.");
+			}
+			doctorId = ownDoctorId;
+		} else if (currentUser.getRole() != Role.ADMIN) {
+			throw new AccessDeniedException("Only admins and doctors can follow appointment changes.");
+		}
+
+		logger.info("Polling appointment changes (doctor: {})", doctorId);
+		return ResponseEntity.ok(appointmentService.getChangesSince(since, doctorId, size));
 	}
 
 	/**
 	 * GET /api/appointments/{appointmentId} Service throws
 	 * ResourceNotFoundException (404) if ID is invalid. NOTE: Service layer must
-	 * handle authorization (e.g., patient must match appointment patientId).
+	 * handle authorization (e.g., patient must match appointment patientId). The
+	 * version is returned as the ETag.
 	 */
 	@GetMapping("/{appointmentId}")
 	public ResponseEntity<AppointmentResponseDTO> findAppointmentById(@PathVariable Long appointmentId) {
@@ -86,7 +247,7 @@ public class AppointmentController {
 		// Service throws ResourceNotFoundException (404)
 		AppointmentResponseDTO dto = appointmentService.getAppointmentResponseById(appointmentId);
 
-		return ResponseEntity.ok(dto);
+		return ResponseEntity.ok().eTag(ETags.of(dto.getVersion())).body(dto);
 	}
 
 	/**
@@ -120,47 +281,88 @@ public class AppointmentController {
 	/**
 	 * PUT /api/appointments/{appointmentId}/reschedule Service throws
 	 * ResourceNotFoundException (404),
-	 * IllegalArgumentException/IllegalStateException (400) on failure.
+	 * IllegalArgumentException/IllegalStateException (400) on failure, and
+	 * ConflictException (409) if the new slot is already booked or the appointment
+	 * changed concurrently. A stale If-Match version is rejected with 412.
 	 */
 	@PutMapping("/{appointmentId}/reschedule")
 	public ResponseEntity<AppointmentResponseDTO> rescheduleAppointment(@PathVariable Long appointmentId,
-			@Valid @RequestBody AppointmentRequestDTO requestDTO) {
+			@Valid @RequestBody AppointmentRequestDTO requestDTO,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
 		logger.info("Rescheduling appointment {} to {} for doctor {}", appointmentId, requestDTO.getAppointmentDate(),
 				requestDTO.getDoctorId());
 
 		// Service returns DTO or throws exception
-		AppointmentResponseDTO dto = appointmentService.rescheduleAppointment(appointmentId, requestDTO);
+		AppointmentResponseDTO dto = appointmentService.rescheduleAppointment(appointmentId, requestDTO,
+				ETags.parseIfMatch(ifMatch));
 
-		return ResponseEntity.ok(dto);
+		return ResponseEntity.ok().eTag(ETags.of(dto.getVersion())).body(dto);
 	}
 
 	/**
 	 * PUT /api/appointments/{appointmentId}/status Service throws
-	 * ResourceNotFoundException (404) if ID is invalid.
+	 * ResourceNotFoundException (404) if ID is invalid, 412 if If-Match is stale
+	 * and 409 if a concurrent update wins.
 	 */
 	@PutMapping("/{appointmentId}/status")
 	public ResponseEntity<AppointmentResponseDTO> updateAppointmentStatus(@PathVariable Long appointmentId,
-			@RequestParam AppointmentStatus status, @RequestParam(required = false) String remarks) {
+			@RequestParam AppointmentStatus status, @RequestParam(required = false) String remarks,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
 		logger.info("Updating appointment {} status to {}. Remarks: {}", appointmentId, status, remarks);
 
 		// Service returns DTO or throws exception
-		AppointmentResponseDTO dto = appointmentService.updateAppointmentStatus(appointmentId, status, remarks);
+		AppointmentResponseDTO dto = appointmentService.updateAppointmentStatus(appointmentId, status, remarks,
+				ETags.parseIfMatch(ifMatch));
+
+		return ResponseEntity.ok().eTag(ETags.of(dto.getVersion())).body(dto);
+	}
+
+	/**
+	 * PUT /api/appointments/status Changes many statuses at once, by item list or
+	 * by (doctorId, date, status) selector. Rejected items are reported in the
+	 * body; service throws ResourceNotFoundException (404) for an unknown doctor.
+	 * Security: ADMIN, or a DOCTOR for their own appointments only (403 for a
+	 * selector naming another doctor).
+	 */
+	@PutMapping("/status")
+	@PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+	public ResponseEntity<AppointmentBulkStatusResponseDTO> updateAppointmentStatuses(
+			@Valid @RequestBody AppointmentBulkStatusRequestDTO requestDTO, @AuthenticationPrincipal User currentUser) {
+
+		Long doctorScope = null;
+		if (currentUser.getRole() == Role.DOCTOR) {
+			doctorScope = userService.getRoleIdFromUser(currentUser);
+			if (requestDTO.isSelector() && !doctorScope.equals(requestDTO.getDoctorId())) {
+				throw new AccessDeniedException("Doctors can only update their own appointments.");
+			}
+		}
+
+		if (requestDTO.isSelector()) {
+			logger.info("Bulk status update to {} for doctor {} on {}", requestDTO.getStatus(),
+					requestDTO.getDoctorId(), requestDTO.getDate());
+		} else {
+			logger.info("Bulk status update of {} appointments", requestDTO.getItems().size());
+		}
+
+		AppointmentBulkStatusResponseDTO dto = appointmentService.updateAppointmentStatuses(requestDTO, doctorScope);
 
 		return ResponseEntity.ok(dto);
 	}
 
 	/**
 	 * PUT /api/appointments/{appointmentId}/cancel Service throws
-	 * ResourceNotFoundException (404) or IllegalStateException (400) on failure.
+	 * ResourceNotFoundException (404) or IllegalStateException (400) on failure,
+	 * and 412 if If-Match is stale.
 	 */
 	@PutMapping("/{appointmentId}/cancel")
-	public ResponseEntity<Void> cancelAppointment(@PathVariable Long appointmentId) {
+	public ResponseEntity<Void> cancelAppointment(@PathVariable Long appointmentId,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 		logger.info("Cancelling appointment {}", appointmentId);
 
 		// Service throws exception on failure, otherwise returns void (success)
-		appointmentService.cancelAppointment(appointmentId);
+		appointmentService.cancelAppointment(appointmentId, ETags.parseIfMatch(ifMatch));
 
 		return ResponseEntity.noContent().build();
 	}
@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException; // For explicit role/ID checks
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -11,17 +12,24 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.genc.hms.dto.BillResponseDTO;
+import com.genc.hms.dto.ChangeFeedDTO;
+import com.genc.hms.dto.CursorPageDTO;
+import com.genc.hms.dto.PatientBalanceDTO;
+import com.genc.hms.dto.StatementLineDTO;
 import com.genc.hms.entity.User;
 import com.genc.hms.enums.PaymentStatus;
 import com.genc.hms.enums.Role;
 import com.genc.hms.exception.GlobalExceptionHandler.ResourceNotFoundException;
+import com.genc.hms.service.AppointmentService;
 import com.genc.hms.service.BillingService;
 import com.genc.hms.service.UserService; // Needed to get the role ID
+import com.genc.hms.util.ETags;
 
 @RestController
 @CrossOrigin
@@ -74,7 +82,7 @@ public class BillingController {
 		});
 
 		logger.info("Bill {} found", billId);
-		return ResponseEntity.ok(dto);
+		return ResponseEntity.ok().eTag(ETags.of(dto.version())).body(dto);
 	}
 
 	/**
@@ -95,7 +103,7 @@ public class BillingController {
 				});
 
 		logger.info("Bill for appointment {} found", appointmentId);
-		return ResponseEntity.ok(dto);
+		return ResponseEntity.ok().eTag(ETags.of(dto.version())).body(dto);
 	}
 
 	/**
@@ -117,6 +125,62 @@ public class BillingController {
 		return ResponseEntity.ok(bills);
 	}
 
+	/**
+	 * GET /api/bills/patient/{patientId}/balance What the patient owes across
+	 * their PENDING bills. Security: PATIENT must match their own ID. Service
+	 * throws ResourceNotFoundException (404) for an unknown patient.
+	 */
+	@GetMapping("/patient/{patientId}/balance")
+	public ResponseEntity<PatientBalanceDTO> getPatientBalance(@PathVariable Long patientId,
+			@AuthenticationPrincipal User currentUser) {
+
+		logger.info("User {} fetching balance for patient {}", currentUser.getUserId(), patientId);
+		enforcePatientAccess(currentUser, patientId);
+		return ResponseEntity.ok(billingService.getPatientBalance(patientId));
+	}
+
+	/**
+	 * GET /api/bills/patient/{patientId}/statement?cursor=&size= The patient's
+	 * bills oldest first with a running balance, one keyset page at a time.
+	 * Security: PATIENT must match their own ID.
+	 */
+	@GetMapping("/patient/{patientId}/statement")
+	public ResponseEntity<CursorPageDTO<StatementLineDTO>> getPatientStatement(@PathVariable Long patientId,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "" + AppointmentService.DEFAULT_PAGE_SIZE) int size,
+			@AuthenticationPrincipal User currentUser) {
+
+		logger.info("User {} fetching statement for patient {}", currentUser.getUserId(), patientId);
+		enforcePatientAccess(currentUser, patientId);
+		return ResponseEntity.ok(billingService.getPatientStatement(patientId, cursor, size));
+	}
+
+	/**
+	 * GET /api/bills/changes?since=&patientId=&size= Returns only the bills
+	 * written since the token (everything when omitted); pass nextSince back as
+	 * since on the next poll. Security: ADMIN may follow every bill; a PATIENT
+	 * must pass their own patientId; anyone else gets 403.
+	 */
+	@GetMapping("/changes")
+	public ResponseEntity<ChangeFeedDTO<BillResponseDTO>> getBillChanges(@RequestParam(required = false) String since,
+			@RequestParam(required = false) Long patientId,
+			@RequestParam(defaultValue = "" + AppointmentService.MAX_PAGE_SIZE) int size,
+			@AuthenticationPrincipal User currentUser) {
+
+		logger.info("User {} polling bill changes (patient: {})", currentUser.getUserId(), patientId);
+
+		if (currentUser.getRole() == Role.PATIENT) {
+			if (patientId == null) {
+				throw new AccessDeniedException("Patients can only follow their own bills.");
+			}
+			enforcePatientAccess(currentUser, patientId);
+		} else if (currentUser.getRole() != Role.ADMIN) {
+			throw new AccessDeniedException("Only admins and the billed patient can follow bill changes.");
+		}
+
+		return ResponseEntity.ok(billingService.getChangesSince(since, patientId, size));
+	}
+
 	/**
 	 * GET /api/bills?status={status} Retrieves bills filtered by payment status.
 	 * Security: Should be restricted to ADMIN/DOCTOR via SecurityConfig.
@@ -139,11 +203,14 @@ public class BillingController {
 
 	/**
 	 * PUT /api/bills/{billId}/pay Records payment for a bill. Security: Should be
-	 * restricted to ADMIN/DOCTOR via SecurityConfig.
+	 * restricted to ADMIN/DOCTOR via SecurityConfig. An optional If-Match header
+	 * pins the bill version (412 when stale); without it the payment is retried
+	 * on concurrent updates.
 	 */
 	@PutMapping("/{billId}/pay")
 	public ResponseEntity<BillResponseDTO> recordPayment(@PathVariable Long billId,
-			@AuthenticationPrincipal User currentUser) {
+			@AuthenticationPrincipal User currentUser,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
 		logger.info("User {} recording payment for bill {}", currentUser.getUserId(), billId);
 
@@ -151,9 +218,9 @@ public class BillingController {
 		// If a Patient could pay, the service would need an authorization check here
 		// too.
 
-		BillResponseDTO dto = billingService.recordPayment(billId);
+		BillResponseDTO dto = billingService.recordPayment(billId, ETags.parseIfMatch(ifMatch));
 
 		logger.info("Payment recorded for bill {}", billId);
-		return ResponseEntity.ok(dto);
+		return ResponseEntity.ok().eTag(ETags.of(dto.version())).body(dto);
 	}
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ import com.genc.hms.enums.Role;
 import com.genc.hms.enums.WeekDay;
 import com.genc.hms.exception.GlobalExceptionHandler.ResourceNotFoundException;
 import com.genc.hms.service.DoctorService;
+import com.genc.hms.util.ETags;
 
 @RestController
 @CrossOrigin
@@ -93,7 +94,7 @@ public class DoctorController {
 		});
 
 		logger.info("User {} retrieved doctor profile for ID {}", currentUser.getUserId(), id);
-		return ResponseEntity.ok(doctor);
+		return ResponseEntity.ok().eTag(ETags.of(doctor.getVersion())).body(doctor);
 	}
 
 	// ----------------- General Retrieval & Search -----------------
@@ -5,6 +5,7 @@ import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -27,6 +29,7 @@ import com.genc.hms.enums.Role;
 import com.genc.hms.exception.GlobalExceptionHandler.ResourceNotFoundException;
 import com.genc.hms.service.DoctorService;
 import com.genc.hms.service.PatientService;
+import com.genc.hms.util.ETags;
 
 import jakarta.validation.Valid;
 
@@ -78,24 +81,24 @@ public class PatientController {
 	}
 
 	/**
-	 * PUT /api/patients/me - Updates the profile of the authenticated PATIENT.
+	 * PUT /api/patients/me - Updates the profile of the authenticated PATIENT. An
+	 * optional If-Match header must carry the current ETag (412 when stale).
 	 */
 	@PutMapping("/me")
 	public ResponseEntity<PatientResponseDTO> updatePatientProfile(
-			@Valid @RequestBody PatientUpdateRequestDTO updateDTO, @AuthenticationPrincipal User currentUser) { // Inject
-																												// User
-																												// instead
-																												// of
-																												// Session
+			@Valid @RequestBody PatientUpdateRequestDTO updateDTO,
+			@AuthenticationPrincipal User currentUser, // Inject User instead of Session
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
 		// 1. Authorization check: Ensures the user is a PATIENT and retrieves their ID
 		Long patientId = getAuthenticatedPatientId(currentUser);
 
 		// 2. Perform the update using the authenticated ID
-		PatientResponseDTO patient = patientService.updatePatientProfile(patientId, updateDTO);
+		PatientResponseDTO patient = patientService.updatePatientProfile(patientId, updateDTO,
+				ETags.parseIfMatch(ifMatch));
 
 		logger.info("Patient {} updated their profile", patientId);
-		return ResponseEntity.ok(patient);
+		return ResponseEntity.ok().eTag(ETags.of(patient.getVersion())).body(patient);
 	}
 
 	// ----------------- General Retrieval (Staff/Admin) -----------------
@@ -130,10 +133,10 @@ public class PatientController {
 		Patient patient = patientOptional.get();
 		PatientResponseDTO dto = new PatientResponseDTO(patient.getPatientId(), patient.getUser().getUserId(),
 				patient.getUser().getEmail(), patient.getName(), patient.getDob(), patient.getContactNumber(),
-				patient.getAddress(), patient.getGender(), patient.getMedicalHistory());
+				patient.getAddress(), patient.getGender(), patient.getMedicalHistory(), patient.getVersion());
 
 		logger.info("Retrieved details of patient {}", id);
-		return new ResponseEntity<>(dto, HttpStatus.OK);
+		return ResponseEntity.status(HttpStatus.OK).eTag(ETags.of(dto.getVersion())).body(dto);
 	}
 
 	@GetMapping("/find-doctor")
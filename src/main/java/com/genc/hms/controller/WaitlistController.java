@@ -0,0 +1,67 @@
+package com.genc.hms.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.genc.hms.dto.WaitlistEntryResponseDTO;
+import com.genc.hms.dto.WaitlistRequestDTO;
+import com.genc.hms.service.WaitlistService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/waitlist")
+public class WaitlistController {
+
+	private static final Logger logger = LoggerFactory.getLogger(WaitlistController.class);
+
+	private final WaitlistService waitlistService;
+
+	public WaitlistController(WaitlistService waitlistService) {
+		this.waitlistService = waitlistService;
+	}
+
+	/**
+	 * POST /api/waitlist Joins a doctor's waitlist for a day. A freed slot on that
+	 * day is booked automatically for the oldest waiting patient. Service throws
+	 * ResourceNotFoundException (404), IllegalArgumentException if the doctor does
+	 * not work that day, and ConflictException (409) if already waiting.
+	 */
+	@PostMapping
+	public ResponseEntity<WaitlistEntryResponseDTO> joinWaitlist(@Valid @RequestBody WaitlistRequestDTO requestDTO) {
+		logger.info("Patient {} joining waitlist of doctor {} for {}", requestDTO.getPatientId(),
+				requestDTO.getDoctorId(), requestDTO.getRequestedDate());
+
+		WaitlistEntryResponseDTO dto = waitlistService.joinWaitlist(requestDTO);
+
+		return new ResponseEntity<>(dto, HttpStatus.CREATED);
+	}
+
+	/**
+	 * GET /api/waitlist/patient/{patientId}
+	 */
+	@GetMapping("/patient/{patientId}")
+	public ResponseEntity<List<WaitlistEntryResponseDTO>> getEntriesForPatient(@PathVariable Long patientId) {
+		return ResponseEntity.ok(waitlistService.getEntriesForPatient(patientId));
+	}
+
+	/**
+	 * DELETE /api/waitlist/{waitlistEntryId} Service throws
+	 * ResourceNotFoundException (404) or IllegalStateException if a slot was
+	 * already booked from the entry.
+	 */
+	@DeleteMapping("/{waitlistEntryId}")
+	public ResponseEntity<Void> leaveWaitlist(@PathVariable Long waitlistEntryId) {
+		logger.info("Leaving waitlist entry {}", waitlistEntryId);
+
+		waitlistService.leaveWaitlist(waitlistEntryId);
+
+		return ResponseEntity.noContent().build();
+	}
+}
@@ -0,0 +1,149 @@
+package com.genc.hms.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.genc.hms.enums.AppointmentStatus;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO used to change the status of many appointments at once. Either
+ * {@code items} lists each appointment with its new status and remarks, or the
+ * selector (doctorId, date, status, remarks) applies one status to every
+ * CONFIRMED appointment of that doctor on that date, e.g. at the end of a
+ * clinic day.
+ */
+public class AppointmentBulkStatusRequestDTO {
+
+	public static final int MAX_ITEMS = 500;
+
+	@Valid
+	@Size(min = 1, max = MAX_ITEMS, message = "Between 1 and " + MAX_ITEMS + " items can be updated at once.")
+	private List<Item> items;
+
+	@Min(value = 1, message = "Doctor ID must be positive.")
+	private Long doctorId;
+
+	private LocalDate date;
+
+	private AppointmentStatus status;
+
+	@Size(max = 1000, message = "Remarks cannot exceed 1000 characters.")
+	private String remarks;
+
+	/** One appointment and the status it should move to. */
+	public static class Item {
+		@NotNull(message = "Appointment ID is required.")
+		private Long appointmentId;
+
+		@NotNull(message = "Status is required.")
+		private AppointmentStatus status;
+
+		@Size(max = 1000, message = "Remarks cannot exceed 1000 characters.")
+		private String remarks;
+
+		public Item() {
+		}
+
+		public Item(Long appointmentId, AppointmentStatus status, String remarks) {
+			this.appointmentId = appointmentId;
+			this.status = status;
+			this.remarks = remarks;
+		}
+
+		public Long getAppointmentId() {
+			return appointmentId;
+		}
+
+		public void setAppointmentId(Long appointmentId) {
+			this.appointmentId = appointmentId;
+		}
+
+		public AppointmentStatus getStatus() {
+			return status;
+		}
+
+		public void setStatus(AppointmentStatus status) {
+			this.status = status;
+		}
+
+		public String getRemarks() {
+			return remarks;
+		}
+
+		public void setRemarks(String remarks) {
+			this.remarks = remarks;
+		}
+	}
+
+	// Constructors
+	public AppointmentBulkStatusRequestDTO() {
+	}
+
+	public AppointmentBulkStatusRequestDTO(List<Item> items) {
+		this.items = items;
+	}
+
+	public AppointmentBulkStatusRequestDTO(Long doctorId, LocalDate date, AppointmentStatus status, String remarks) {
+		this.doctorId = doctorId;
+		this.date = date;
+		this.status = status;
+		this.remarks = remarks;
+	}
+
+	@AssertTrue(message = "Provide either items or a doctorId, date and status selector.")
+	public boolean isSelectionValid() {
+		boolean selector = doctorId != null || date != null || status != null;
+		return items != null ? !selector : doctorId != null && date != null && status != null;
+	}
+
+	public boolean isSelector() {
+		return items == null;
+	}
+
+	// Getters and Setters
+	public List<Item> getItems() {
+		return items;
+	}
+
+	public void setItems(List<Item> items) {
+		this.items = items;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public void setDate(LocalDate date) {
+		this.date = date;
+	}
+
+	public AppointmentStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(AppointmentStatus status) {
+		this.status = status;
+	}
+
+	public String getRemarks() {
+		return remarks;
+	}
+
+	public void setRemarks(String remarks) {
+		this.remarks = remarks;
+	}
+}
@@ -0,0 +1,69 @@
+package com.genc.hms.dto;
+
+import java.util.List;
+
+/**
+ * DTO returned after a bulk status change: the IDs of the appointments that
+ * were updated and the ones that were rejected, each with the reason.
+ */
+public class AppointmentBulkStatusResponseDTO {
+
+	private List<Long> updated;
+	private List<RejectedItem> rejected;
+
+	/** One appointment whose status could not be changed. */
+	public static class RejectedItem {
+		private Long appointmentId;
+		private String reason;
+
+		public RejectedItem() {
+		}
+
+		public RejectedItem(Long appointmentId, String reason) {
+			this.appointmentId = appointmentId;
+			this.reason = reason;
+		}
+
+		public Long getAppointmentId() {
+			return appointmentId;
+		}
+
+		public void setAppointmentId(Long appointmentId) {
+			this.appointmentId = appointmentId;
+		}
+
+		public String getReason() {
+			return reason;
+		}
+
+		public void setReason(String reason) {
+			this.reason = reason;
+		}
+	}
+
+	// Constructors
+	public AppointmentBulkStatusResponseDTO() {
+	}
+
+	public AppointmentBulkStatusResponseDTO(List<Long> updated, List<RejectedItem> rejected) {
+		this.updated = updated;
+		this.rejected = rejected;
+	}
+
+	// Getters and Setters
+	public List<Long> getUpdated() {
+		return updated;
+	}
+
+	public void setUpdated(List<Long> updated) {
+		this.updated = updated;
+	}
+
+	public List<RejectedItem> getRejected() {
+		return rejected;
+	}
+
+	public void setRejected(List<RejectedItem> rejected) {
+		this.rejected = rejected;
+	}
+}
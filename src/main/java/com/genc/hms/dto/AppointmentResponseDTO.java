@@ -3,6 +3,7 @@ package com.genc.hms.dto;
 import java.time.LocalDate;
 
 import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.util.SlotRange;
 
 /**
  * DTO used to represent appointment details when returning data to the user or
@@ -27,13 +28,16 @@ public class AppointmentResponseDTO {
 	private AppointmentStatus status;
 	private String remarks;
 
+	// Entity version, also sent as the ETag; pass it back in If-Match to update
+	private Long version;
+
 	// Constructors
 	public AppointmentResponseDTO() {
 	}
 
 	public AppointmentResponseDTO(Long appointmentId, Long patientId, String patientName, Long doctorId,
 			String doctorName, String specialization, LocalDate appointmentDate, String timeSlot, String reason,
-			AppointmentStatus status, String remarks) {
+			AppointmentStatus status, String remarks, Long version) {
 		this.appointmentId = appointmentId;
 		this.patientId = patientId;
 		this.patientName = patientName;
@@ -45,6 +49,18 @@ public class AppointmentResponseDTO {
 		this.reason = reason;
 		this.status = status;
 		this.remarks = remarks;
+		this.version = version;
+	}
+
+	/**
+	 * Used by the JPQL constructor expressions in AppointmentRepository, which
+	 * select the raw slot columns instead of the "HH:mm-HH:mm" label.
+	 */
+	public AppointmentResponseDTO(Long appointmentId, Long patientId, String patientName, Long doctorId,
+			String doctorName, String specialization, LocalDate appointmentDate, Integer slotStartMinute,
+			Integer slotDurationMinutes, String reason, AppointmentStatus status, String remarks, Long version) {
+		this(appointmentId, patientId, patientName, doctorId, doctorName, specialization, appointmentDate,
+				SlotRange.ofDuration(slotStartMinute, slotDurationMinutes).label(), reason, status, remarks, version);
 	}
 
 	// Getters and Setters
@@ -135,4 +151,12 @@ public class AppointmentResponseDTO {
 	public void setRemarks(String remarks) {
 		this.remarks = remarks;
 	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
 }
@@ -0,0 +1,138 @@
+package com.genc.hms.dto;
+
+import java.time.LocalDate;
+
+import com.genc.hms.enums.WeekDay;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO used to book a weekly recurring series of appointments (e.g.,
+ * physiotherapy every Tuesday 10:00-10:30). The series ends after
+ * {@code occurrences} bookings or on {@code untilDate}, whichever is given.
+ */
+public class AppointmentSeriesRequestDTO {
+
+	@NotNull(message = "Patient ID is required for booking.")
+	@Min(value = 1, message = "Patient ID must be positive.")
+	private Long patientId;
+
+	@NotNull(message = "Doctor ID is required for booking.")
+	@Min(value = 1, message = "Doctor ID must be positive.")
+	private Long doctorId;
+
+	@NotNull(message = "Day of week is required.")
+	private WeekDay dayOfWeek;
+
+	@NotBlank(message = "Time slot is required.")
+	@Size(max = 20, message = "Time slot string exceeds 20 characters.")
+	private String timeSlot;
+
+	// First date the series may start on (the first occurrence is the next
+	// matching weekday on or after it)
+	@NotNull(message = "Start date is required.")
+	@FutureOrPresent(message = "Start date must be today or a future date.")
+	private LocalDate startDate;
+
+	@Min(value = 1, message = "A series needs at least one occurrence.")
+	@Max(value = 52, message = "A series cannot exceed 52 occurrences.")
+	private Integer occurrences;
+
+	private LocalDate untilDate;
+
+	@NotBlank(message = "Reason for visit is required.")
+	@Size(max = 500, message = "Reason cannot exceed 500 characters.")
+	private String reason;
+
+	// Constructors
+	public AppointmentSeriesRequestDTO() {
+	}
+
+	public AppointmentSeriesRequestDTO(Long patientId, Long doctorId, WeekDay dayOfWeek, String timeSlot,
+			LocalDate startDate, Integer occurrences, LocalDate untilDate, String reason) {
+		this.patientId = patientId;
+		this.doctorId = doctorId;
+		this.dayOfWeek = dayOfWeek;
+		this.timeSlot = timeSlot;
+		this.startDate = startDate;
+		this.occurrences = occurrences;
+		this.untilDate = untilDate;
+		this.reason = reason;
+	}
+
+	@AssertTrue(message = "Exactly one of occurrences or untilDate is required.")
+	public boolean isEndRuleValid() {
+		return (occurrences == null) != (untilDate == null);
+	}
+
+	// Getters and Setters
+	public Long getPatientId() {
+		return patientId;
+	}
+
+	public void setPatientId(Long patientId) {
+		this.patientId = patientId;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public WeekDay getDayOfWeek() {
+		return dayOfWeek;
+	}
+
+	public void setDayOfWeek(WeekDay dayOfWeek) {
+		this.dayOfWeek = dayOfWeek;
+	}
+
+	public String getTimeSlot() {
+		return timeSlot;
+	}
+
+	public void setTimeSlot(String timeSlot) {
+		this.timeSlot = timeSlot;
+	}
+
+	public LocalDate getStartDate() {
+		return startDate;
+	}
+
+	public void setStartDate(LocalDate startDate) {
+		this.startDate = startDate;
+	}
+
+	public Integer getOccurrences() {
+		return occurrences;
+	}
+
+	public void setOccurrences(Integer occurrences) {
+		this.occurrences = occurrences;
+	}
+
+	public LocalDate getUntilDate() {
+		return untilDate;
+	}
+
+	public void setUntilDate(LocalDate untilDate) {
+		this.untilDate = untilDate;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	public void setReason(String reason) {
+		this.reason = reason;
+	}
+}
@@ -0,0 +1,70 @@
+package com.genc.hms.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO returned after booking a recurring series: the appointments that were
+ * booked and the occurrences that were rejected, each with the reason.
+ */
+public class AppointmentSeriesResponseDTO {
+
+	private List<AppointmentResponseDTO> booked;
+	private List<RejectedOccurrence> rejected;
+
+	/** One occurrence of the series that could not be booked. */
+	public static class RejectedOccurrence {
+		private LocalDate appointmentDate;
+		private String reason;
+
+		public RejectedOccurrence() {
+		}
+
+		public RejectedOccurrence(LocalDate appointmentDate, String reason) {
+			this.appointmentDate = appointmentDate;
+			this.reason = reason;
+		}
+
+		public LocalDate getAppointmentDate() {
+			return appointmentDate;
+		}
+
+		public void setAppointmentDate(LocalDate appointmentDate) {
+			this.appointmentDate = appointmentDate;
+		}
+
+		public String getReason() {
+			return reason;
+		}
+
+		public void setReason(String reason) {
+			this.reason = reason;
+		}
+	}
+
+	// Constructors
+	public AppointmentSeriesResponseDTO() {
+	}
+
+	public AppointmentSeriesResponseDTO(List<AppointmentResponseDTO> booked, List<RejectedOccurrence> rejected) {
+		this.booked = booked;
+		this.rejected = rejected;
+	}
+
+	// Getters and Setters
+	public List<AppointmentResponseDTO> getBooked() {
+		return booked;
+	}
+
+	public void setBooked(List<AppointmentResponseDTO> booked) {
+		this.booked = booked;
+	}
+
+	public List<RejectedOccurrence> getRejected() {
+		return rejected;
+	}
+
+	public void setRejected(List<RejectedOccurrence> rejected) {
+		this.rejected = rejected;
+	}
+}
@@ -0,0 +1,82 @@
+package com.genc.hms.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO describing one bookable slot returned by the first-available search.
+ */
+public class AvailableSlotDTO {
+
+	// Doctor Details
+	private Long doctorId;
+	private String doctorName;
+	private String specialization;
+	private BigDecimal consultationFee;
+
+	private LocalDate appointmentDate;
+	private String timeSlot;
+
+	// Constructors
+	public AvailableSlotDTO() {
+	}
+
+	public AvailableSlotDTO(Long doctorId, String doctorName, String specialization, BigDecimal consultationFee,
+			LocalDate appointmentDate, String timeSlot) {
+		this.doctorId = doctorId;
+		this.doctorName = doctorName;
+		this.specialization = specialization;
+		this.consultationFee = consultationFee;
+		this.appointmentDate = appointmentDate;
+		this.timeSlot = timeSlot;
+	}
+
+	// Getters and Setters
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public String getDoctorName() {
+		return doctorName;
+	}
+
+	public void setDoctorName(String doctorName) {
+		this.doctorName = doctorName;
+	}
+
+	public String getSpecialization() {
+		return specialization;
+	}
+
+	public void setSpecialization(String specialization) {
+		this.specialization = specialization;
+	}
+
+	public BigDecimal getConsultationFee() {
+		return consultationFee;
+	}
+
+	public void setConsultationFee(BigDecimal consultationFee) {
+		this.consultationFee = consultationFee;
+	}
+
+	public LocalDate getAppointmentDate() {
+		return appointmentDate;
+	}
+
+	public void setAppointmentDate(LocalDate appointmentDate) {
+		this.appointmentDate = appointmentDate;
+	}
+
+	public String getTimeSlot() {
+		return timeSlot;
+	}
+
+	public void setTimeSlot(String timeSlot) {
+		this.timeSlot = timeSlot;
+	}
+}
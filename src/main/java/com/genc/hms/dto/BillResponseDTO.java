@@ -6,8 +6,9 @@ import java.time.LocalDate;
 import com.genc.hms.enums.PaymentStatus;
 
 /**
- * Data Transfer Object for responding with Bill details.
+ * Data Transfer Object for responding with Bill details. The version is also
+ * sent as the ETag.
  */
 public record BillResponseDTO(Long billId, Long patientId, String patientName, Long appointmentId,
-		BigDecimal billAmount, PaymentStatus paymentStatus, LocalDate billDate) {
+		BigDecimal billAmount, PaymentStatus paymentStatus, LocalDate billDate, Long version) {
 }
@@ -0,0 +1,49 @@
+package com.genc.hms.dto;
+
+import java.util.List;
+
+/**
+ * Rows written since a change token, oldest change first. nextSince is passed
+ * back as the "since" request parameter on the next poll. When hasMore is true
+ * the feed was cut at the page size and the client can poll again right away.
+ */
+public class ChangeFeedDTO<T> {
+
+	private List<T> items;
+	private String nextSince;
+	private boolean hasMore;
+
+	// Constructors
+	public ChangeFeedDTO() {
+	}
+
+	public ChangeFeedDTO(List<T> items, String nextSince, boolean hasMore) {
+		this.items = items;
+		this.nextSince = nextSince;
+		this.hasMore = hasMore;
+	}
+
+	public List<T> getItems() {
+		return items;
+	}
+
+	public void setItems(List<T> items) {
+		this.items = items;
+	}
+
+	public String getNextSince() {
+		return nextSince;
+	}
+
+	public void setNextSince(String nextSince) {
+		this.nextSince = nextSince;
+	}
+
+	public boolean isHasMore() {
+		return hasMore;
+	}
+
+	public void setHasMore(boolean hasMore) {
+		this.hasMore = hasMore;
+	}
+}
@@ -0,0 +1,39 @@
+package com.genc.hms.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. nextCursor is passed back as the
+ * "cursor" request parameter to fetch the following page; it is null on the
+ * last page.
+ */
+public class CursorPageDTO<T> {
+
+	private List<T> items;
+	private String nextCursor;
+
+	// Constructors
+	public CursorPageDTO() {
+	}
+
+	public CursorPageDTO(List<T> items, String nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<T> getItems() {
+		return items;
+	}
+
+	public void setItems(List<T> items) {
+		this.items = items;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+}
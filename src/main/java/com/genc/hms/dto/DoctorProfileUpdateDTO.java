@@ -5,6 +5,8 @@ import java.util.List;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -32,6 +34,11 @@ public class DoctorProfileUpdateDTO {
 	@DecimalMin(value = "0.00", inclusive = true, message = "Consultation fee cannot be negative.")
 	private BigDecimal consultationFee;
 
+	// Optional; the doctor's current slot duration is kept when omitted
+	@Min(value = 5, message = "Slot duration must be at least 5 minutes.")
+	@Max(value = 240, message = "Slot duration cannot exceed 240 minutes.")
+	private Integer slotDurationMinutes;
+
 	@Valid
 	@NotNull(message = "Doctor availability schedule is required.")
 	private List<DoctorAvailabilityDTO> doctorAvailabilities;
@@ -81,4 +88,12 @@ public class DoctorProfileUpdateDTO {
 	public void setDoctorAvailabilities(List<DoctorAvailabilityDTO> doctorAvailabilities) {
 		this.doctorAvailabilities = doctorAvailabilities;
 	}
+
+	public Integer getSlotDurationMinutes() {
+		return slotDurationMinutes;
+	}
+
+	public void setSlotDurationMinutes(Integer slotDurationMinutes) {
+		this.slotDurationMinutes = slotDurationMinutes;
+	}
 }
@@ -6,6 +6,8 @@ import java.util.List;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -40,6 +42,11 @@ public class DoctorRegisterRequestDTO {
 	@DecimalMin(value = "0.00", inclusive = true, message = "Consultation fee cannot be negative.")
 	private BigDecimal consultationFee;
 
+	// Optional; defaults to Doctor.DEFAULT_SLOT_DURATION_MINUTES (30)
+	@Min(value = 5, message = "Slot duration must be at least 5 minutes.")
+	@Max(value = 240, message = "Slot duration cannot exceed 240 minutes.")
+	private Integer slotDurationMinutes;
+
 	@Valid
 	@NotNull(message = "Doctor availability schedule is required.")
 	private List<DoctorAvailabilityDTO> doctorAvailabilities;
@@ -120,4 +127,12 @@ public class DoctorRegisterRequestDTO {
 	public void setDoctorAvailabilities(List<DoctorAvailabilityDTO> doctorAvailabilities) {
 		this.doctorAvailabilities = doctorAvailabilities;
 	}
-}
\ No newline at end of file
+
+	public Integer getSlotDurationMinutes() {
+		return slotDurationMinutes;
+	}
+
+	public void setSlotDurationMinutes(Integer slotDurationMinutes) {
+		this.slotDurationMinutes = slotDurationMinutes;
+	}
+}
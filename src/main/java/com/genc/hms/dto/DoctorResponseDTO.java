@@ -9,20 +9,25 @@ public class DoctorResponseDTO {
 	private String specialization;
 	private String contactNumber;
 	private BigDecimal consultationFee;
+	private Integer slotDurationMinutes;
 	private List<DoctorAvailabilityDTO> availabilities;
+	private Long version; // Also sent as the ETag
 
 	// Constructors
 	public DoctorResponseDTO() {
 	}
 
 	public DoctorResponseDTO(Long doctorId, String name, String specialization, String contactNumber,
-			BigDecimal consultationFee, List<DoctorAvailabilityDTO> availabilities) {
+			BigDecimal consultationFee, Integer slotDurationMinutes, List<DoctorAvailabilityDTO> availabilities,
+			Long version) {
 		this.doctorId = doctorId;
 		this.name = name;
 		this.specialization = specialization;
 		this.contactNumber = contactNumber;
 		this.consultationFee = consultationFee;
+		this.slotDurationMinutes = slotDurationMinutes;
 		this.availabilities = availabilities;
+		this.version = version;
 	}
 
 	// Getters and Setters
@@ -66,6 +71,14 @@ public class DoctorResponseDTO {
 		this.consultationFee = consultationFee;
 	}
 
+	public Integer getSlotDurationMinutes() {
+		return slotDurationMinutes;
+	}
+
+	public void setSlotDurationMinutes(Integer slotDurationMinutes) {
+		this.slotDurationMinutes = slotDurationMinutes;
+	}
+
 	public List<DoctorAvailabilityDTO> getAvailabilities() {
 		return availabilities;
 	}
@@ -73,4 +86,12 @@ public class DoctorResponseDTO {
 	public void setAvailabilities(List<DoctorAvailabilityDTO> availabilities) {
 		this.availabilities = availabilities;
 	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
 }
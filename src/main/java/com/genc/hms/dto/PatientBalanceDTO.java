@@ -0,0 +1,11 @@
+package com.genc.hms.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * What a patient owes: the number and total of their PENDING bills.
+ * outstandingMinor is the exact total in cents; outstanding is the same value
+ * for display.
+ */
+public record PatientBalanceDTO(Long patientId, long pendingBills, long outstandingMinor, BigDecimal outstanding) {
+}
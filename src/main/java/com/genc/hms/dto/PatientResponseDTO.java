@@ -14,13 +14,14 @@ public class PatientResponseDTO {
 	private String address;
 	private Gender gender;
 	private String medicalHistory;
+	private Long version; // Also sent as the ETag
 
 	// Constructors
 	public PatientResponseDTO() {
 	}
 
 	public PatientResponseDTO(Long patientId, Long userId, String email, String name, LocalDate dob,
-			String contactNumber, String address, Gender gender, String medicalHistory) {
+			String contactNumber, String address, Gender gender, String medicalHistory, Long version) {
 		this.patientId = patientId;
 		this.userId = userId;
 		this.email = email;
@@ -30,6 +31,7 @@ public class PatientResponseDTO {
 		this.address = address;
 		this.gender = gender;
 		this.medicalHistory = medicalHistory;
+		this.version = version;
 	}
 
 	// Getters and Setters
@@ -104,4 +106,12 @@ public class PatientResponseDTO {
 	public void setMedicalHistory(String medicalHistory) {
 		this.medicalHistory = medicalHistory;
 	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
 }
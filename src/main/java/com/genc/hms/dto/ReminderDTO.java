@@ -0,0 +1,19 @@
+package com.genc.hms.dto;
+
+import java.time.LocalDate;
+
+import com.genc.hms.util.TimeSlots;
+
+/**
+ * Everything a Notifier needs to remind a patient of an appointment, loaded in
+ * chunks by a single constructor-expression query.
+ */
+public record ReminderDTO(Long appointmentId, Long patientId, String patientName, String patientEmail,
+		String contactNumber, String doctorName, String specialization, LocalDate appointmentDate,
+		Integer slotStartMinute, Integer slotDurationMinutes) {
+
+	/** Slot as "HH:mm-HH:mm". */
+	public String timeSlot() {
+		return TimeSlots.label(slotStartMinute, slotStartMinute + slotDurationMinutes);
+	}
+}
@@ -0,0 +1,100 @@
+package com.genc.hms.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome and throughput of one reminder run. skipped counts appointments whose
+ * reminder was already claimed by a concurrent run.
+ */
+public class ReminderRunDTO {
+
+	private LocalDate appointmentDate;
+	private int scanned;
+	private int sent;
+	private int failed;
+	private int skipped;
+	private int chunks;
+	private long elapsedMillis;
+	private double remindersPerSecond;
+
+	// Constructors
+	public ReminderRunDTO() {
+	}
+
+	public ReminderRunDTO(LocalDate appointmentDate, int scanned, int sent, int failed, int skipped, int chunks,
+			long elapsedMillis) {
+		this.appointmentDate = appointmentDate;
+		this.scanned = scanned;
+		this.sent = sent;
+		this.failed = failed;
+		this.skipped = skipped;
+		this.chunks = chunks;
+		this.elapsedMillis = elapsedMillis;
+		this.remindersPerSecond = elapsedMillis == 0 ? sent : sent * 1000.0 / elapsedMillis;
+	}
+
+	// Getters and Setters
+	public LocalDate getAppointmentDate() {
+		return appointmentDate;
+	}
+
+	public void setAppointmentDate(LocalDate appointmentDate) {
+		this.appointmentDate = appointmentDate;
+	}
+
+	public int getScanned() {
+		return scanned;
+	}
+
+	public void setScanned(int scanned) {
+		this.scanned = scanned;
+	}
+
+	public int getSent() {
+		return sent;
+	}
+
+	public void setSent(int sent) {
+		this.sent = sent;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	public void setFailed(int failed) {
+		this.failed = failed;
+	}
+
+	public int getSkipped() {
+		return skipped;
+	}
+
+	public void setSkipped(int skipped) {
+		this.skipped = skipped;
+	}
+
+	public int getChunks() {
+		return chunks;
+	}
+
+	public void setChunks(int chunks) {
+		this.chunks = chunks;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	public void setElapsedMillis(long elapsedMillis) {
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	public double getRemindersPerSecond() {
+		return remindersPerSecond;
+	}
+
+	public void setRemindersPerSecond(double remindersPerSecond) {
+		this.remindersPerSecond = remindersPerSecond;
+	}
+}
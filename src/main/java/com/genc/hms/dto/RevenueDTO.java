@@ -0,0 +1,15 @@
+package com.genc.hms.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.genc.hms.enums.PaymentStatus;
+
+/**
+ * Bills issued in one period, for one doctor or specialization (both null when
+ * grouped by TOTAL), in one payment status. amountMinor is the exact total in
+ * cents; amount is the same value for display.
+ */
+public record RevenueDTO(LocalDate periodStart, Long doctorId, String doctorName, String specialization,
+		PaymentStatus paymentStatus, long billCount, long amountMinor, BigDecimal amount) {
+}
@@ -0,0 +1,103 @@
+package com.genc.hms.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO used to block time in the schedule. Without a doctorId the block is a
+ * hospital-wide closure. Without times it covers whole days from startDate to
+ * endDate (inclusive; defaults to startDate). With times it runs from startTime
+ * on startDate to endTime on endDate, e.g. an afternoon off.
+ */
+public class ScheduleExceptionRequestDTO {
+
+	@Min(value = 1, message = "Doctor ID must be positive.")
+	private Long doctorId;
+
+	@NotNull(message = "Start date is required.")
+	private LocalDate startDate;
+
+	private LocalDate endDate;
+
+	private LocalTime startTime;
+
+	private LocalTime endTime;
+
+	@NotBlank(message = "Reason is required.")
+	@Size(max = 200, message = "Reason cannot exceed 200 characters.")
+	private String reason;
+
+	// Constructors
+	public ScheduleExceptionRequestDTO() {
+	}
+
+	public ScheduleExceptionRequestDTO(Long doctorId, LocalDate startDate, LocalDate endDate, LocalTime startTime,
+			LocalTime endTime, String reason) {
+		this.doctorId = doctorId;
+		this.startDate = startDate;
+		this.endDate = endDate;
+		this.startTime = startTime;
+		this.endTime = endTime;
+		this.reason = reason;
+	}
+
+	@AssertTrue(message = "Start and end time must be given together.")
+	public boolean isTimeRangeValid() {
+		return (startTime == null) == (endTime == null);
+	}
+
+	// Getters and Setters
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public LocalDate getStartDate() {
+		return startDate;
+	}
+
+	public void setStartDate(LocalDate startDate) {
+		this.startDate = startDate;
+	}
+
+	public LocalDate getEndDate() {
+		return endDate;
+	}
+
+	public void setEndDate(LocalDate endDate) {
+		this.endDate = endDate;
+	}
+
+	public LocalTime getStartTime() {
+		return startTime;
+	}
+
+	public void setStartTime(LocalTime startTime) {
+		this.startTime = startTime;
+	}
+
+	public LocalTime getEndTime() {
+		return endTime;
+	}
+
+	public void setEndTime(LocalTime endTime) {
+		this.endTime = endTime;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	public void setReason(String reason) {
+		this.reason = reason;
+	}
+}
@@ -0,0 +1,11 @@
+package com.genc.hms.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A leave or holiday block as returned by the API. doctorId is null for
+ * hospital-wide blocks; endAt is exclusive.
+ */
+public record ScheduleExceptionResponseDTO(Long scheduleExceptionId, Long doctorId, LocalDateTime startAt,
+		LocalDateTime endAt, String reason) {
+}
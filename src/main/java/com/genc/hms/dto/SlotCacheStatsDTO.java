@@ -0,0 +1,9 @@
+package com.genc.hms.dto;
+
+/**
+ * Slot-list cache counters since startup on this node, used to size the cache
+ * (hms.slot-cache.max-entries). evictionCount counts entries dropped by the
+ * size bound or TTL, not invalidations by booking changes.
+ */
+public record SlotCacheStatsDTO(long size, long hitCount, long missCount, double hitRate, long evictionCount) {
+}
@@ -0,0 +1,61 @@
+package com.genc.hms.dto;
+
+import java.time.LocalDate;
+
+import com.genc.hms.event.SlotChangedEvent;
+
+/**
+ * Payload of a "slot-taken" / "slot-freed" server-sent event pushed to clients
+ * watching a doctor's calendar.
+ */
+public class SlotChangeDTO {
+
+	private Long doctorId;
+	private LocalDate appointmentDate;
+	private String timeSlot;
+	private SlotChangedEvent.Change change;
+
+	// Constructors
+	public SlotChangeDTO() {
+	}
+
+	public SlotChangeDTO(Long doctorId, LocalDate appointmentDate, String timeSlot, SlotChangedEvent.Change change) {
+		this.doctorId = doctorId;
+		this.appointmentDate = appointmentDate;
+		this.timeSlot = timeSlot;
+		this.change = change;
+	}
+
+	// Getters and Setters
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public LocalDate getAppointmentDate() {
+		return appointmentDate;
+	}
+
+	public void setAppointmentDate(LocalDate appointmentDate) {
+		this.appointmentDate = appointmentDate;
+	}
+
+	public String getTimeSlot() {
+		return timeSlot;
+	}
+
+	public void setTimeSlot(String timeSlot) {
+		this.timeSlot = timeSlot;
+	}
+
+	public SlotChangedEvent.Change getChange() {
+		return change;
+	}
+
+	public void setChange(SlotChangedEvent.Change change) {
+		this.change = change;
+	}
+}
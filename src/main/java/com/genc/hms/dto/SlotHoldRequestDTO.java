@@ -0,0 +1,74 @@
+package com.genc.hms.dto;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO used by a patient to hold a slot while filling in the booking form.
+ */
+public class SlotHoldRequestDTO {
+
+	@NotNull(message = "Patient ID is required.")
+	@Min(value = 1, message = "Patient ID must be positive.")
+	private Long patientId;
+
+	@NotNull(message = "Doctor ID is required.")
+	@Min(value = 1, message = "Doctor ID must be positive.")
+	private Long doctorId;
+
+	@NotNull(message = "Appointment date is required.")
+	@FutureOrPresent(message = "Appointment date must be today or a future date.")
+	private LocalDate appointmentDate;
+
+	@NotBlank(message = "Time slot is required.")
+	@Size(max = 20, message = "Time slot string exceeds 20 characters.")
+	private String timeSlot;
+
+	// Constructors
+	public SlotHoldRequestDTO() {
+	}
+
+	public SlotHoldRequestDTO(Long patientId, Long doctorId, LocalDate appointmentDate, String timeSlot) {
+		this.patientId = patientId;
+		this.doctorId = doctorId;
+		this.appointmentDate = appointmentDate;
+		this.timeSlot = timeSlot;
+	}
+
+	public Long getPatientId() {
+		return patientId;
+	}
+
+	public void setPatientId(Long patientId) {
+		this.patientId = patientId;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public LocalDate getAppointmentDate() {
+		return appointmentDate;
+	}
+
+	public void setAppointmentDate(LocalDate appointmentDate) {
+		this.appointmentDate = appointmentDate;
+	}
+
+	public String getTimeSlot() {
+		return timeSlot;
+	}
+
+	public void setTimeSlot(String timeSlot) {
+		this.timeSlot = timeSlot;
+	}
+}
@@ -0,0 +1,80 @@
+package com.genc.hms.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO returned when a slot is held. The hold is released by booking the slot,
+ * by deleting it with holdId, or automatically at expiresAt.
+ */
+public class SlotHoldResponseDTO {
+
+	private String holdId;
+	private Long patientId;
+	private Long doctorId;
+	private LocalDate appointmentDate;
+	private String timeSlot;
+	private LocalDateTime expiresAt;
+
+	// Constructors
+	public SlotHoldResponseDTO() {
+	}
+
+	public SlotHoldResponseDTO(String holdId, Long patientId, Long doctorId, LocalDate appointmentDate,
+			String timeSlot, LocalDateTime expiresAt) {
+		this.holdId = holdId;
+		this.patientId = patientId;
+		this.doctorId = doctorId;
+		this.appointmentDate = appointmentDate;
+		this.timeSlot = timeSlot;
+		this.expiresAt = expiresAt;
+	}
+
+	public String getHoldId() {
+		return holdId;
+	}
+
+	public void setHoldId(String holdId) {
+		this.holdId = holdId;
+	}
+
+	public Long getPatientId() {
+		return patientId;
+	}
+
+	public void setPatientId(Long patientId) {
+		this.patientId = patientId;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public LocalDate getAppointmentDate() {
+		return appointmentDate;
+	}
+
+	public void setAppointmentDate(LocalDate appointmentDate) {
+		this.appointmentDate = appointmentDate;
+	}
+
+	public String getTimeSlot() {
+		return timeSlot;
+	}
+
+	public void setTimeSlot(String timeSlot) {
+		this.timeSlot = timeSlot;
+	}
+
+	public LocalDateTime getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(LocalDateTime expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+}
@@ -0,0 +1,15 @@
+package com.genc.hms.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.genc.hms.enums.PaymentStatus;
+
+/**
+ * One bill on a patient statement. amountDue is the bill amount while it is
+ * PENDING and zero otherwise; runningBalance adds up amountDue over this line
+ * and every earlier one, so the last line shows the current balance.
+ */
+public record StatementLineDTO(Long billId, LocalDate billDate, Long appointmentId, BigDecimal billAmount,
+		PaymentStatus paymentStatus, BigDecimal amountDue, BigDecimal runningBalance) {
+}
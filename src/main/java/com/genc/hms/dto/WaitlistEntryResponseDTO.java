@@ -0,0 +1,113 @@
+package com.genc.hms.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.genc.hms.enums.WaitlistStatus;
+
+/**
+ * DTO representing a waitlist entry. appointmentId is set once a freed slot
+ * has been booked for the patient.
+ */
+public class WaitlistEntryResponseDTO {
+
+	private Long waitlistEntryId;
+	private Long patientId;
+	private Long doctorId;
+	private String doctorName;
+	private LocalDate requestedDate;
+	private String reason;
+	private WaitlistStatus status;
+	private LocalDateTime createdAt;
+	private Long appointmentId;
+
+	// Constructors
+	public WaitlistEntryResponseDTO() {
+	}
+
+	public WaitlistEntryResponseDTO(Long waitlistEntryId, Long patientId, Long doctorId, String doctorName,
+			LocalDate requestedDate, String reason, WaitlistStatus status, LocalDateTime createdAt,
+			Long appointmentId) {
+		this.waitlistEntryId = waitlistEntryId;
+		this.patientId = patientId;
+		this.doctorId = doctorId;
+		this.doctorName = doctorName;
+		this.requestedDate = requestedDate;
+		this.reason = reason;
+		this.status = status;
+		this.createdAt = createdAt;
+		this.appointmentId = appointmentId;
+	}
+
+	public Long getWaitlistEntryId() {
+		return waitlistEntryId;
+	}
+
+	public void setWaitlistEntryId(Long waitlistEntryId) {
+		this.waitlistEntryId = waitlistEntryId;
+	}
+
+	public Long getPatientId() {
+		return patientId;
+	}
+
+	public void setPatientId(Long patientId) {
+		this.patientId = patientId;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public String getDoctorName() {
+		return doctorName;
+	}
+
+	public void setDoctorName(String doctorName) {
+		this.doctorName = doctorName;
+	}
+
+	public LocalDate getRequestedDate() {
+		return requestedDate;
+	}
+
+	public void setRequestedDate(LocalDate requestedDate) {
+		this.requestedDate = requestedDate;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	public void setReason(String reason) {
+		this.reason = reason;
+	}
+
+	public WaitlistStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(WaitlistStatus status) {
+		this.status = status;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public Long getAppointmentId() {
+		return appointmentId;
+	}
+
+	public void setAppointmentId(Long appointmentId) {
+		this.appointmentId = appointmentId;
+	}
+}
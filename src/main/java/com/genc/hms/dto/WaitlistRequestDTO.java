@@ -0,0 +1,74 @@
+package com.genc.hms.dto;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO used by a patient to join the waitlist of a doctor for a given day.
+ */
+public class WaitlistRequestDTO {
+
+	@NotNull(message = "Patient ID is required.")
+	@Min(value = 1, message = "Patient ID must be positive.")
+	private Long patientId;
+
+	@NotNull(message = "Doctor ID is required.")
+	@Min(value = 1, message = "Doctor ID must be positive.")
+	private Long doctorId;
+
+	@NotNull(message = "Requested date is required.")
+	@FutureOrPresent(message = "Requested date must be today or a future date.")
+	private LocalDate requestedDate;
+
+	@NotBlank(message = "Reason for visit is required.")
+	@Size(max = 500, message = "Reason cannot exceed 500 characters.")
+	private String reason;
+
+	// Constructors
+	public WaitlistRequestDTO() {
+	}
+
+	public WaitlistRequestDTO(Long patientId, Long doctorId, LocalDate requestedDate, String reason) {
+		this.patientId = patientId;
+		this.doctorId = doctorId;
+		this.requestedDate = requestedDate;
+		this.reason = reason;
+	}
+
+	public Long getPatientId() {
+		return patientId;
+	}
+
+	public void setPatientId(Long patientId) {
+		this.patientId = patientId;
+	}
+
+	public Long getDoctorId() {
+		return doctorId;
+	}
+
+	public void setDoctorId(Long doctorId) {
+		this.doctorId = doctorId;
+	}
+
+	public LocalDate getRequestedDate() {
+		return requestedDate;
+	}
+
+	public void setRequestedDate(LocalDate requestedDate) {
+		this.requestedDate = requestedDate;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	public void setReason(String reason) {
+		this.reason = reason;
+	}
+}
@@ -1,16 +1,32 @@
 package com.genc.hms.entity;
 
 import java.time.LocalDate;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.util.SlotRange;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+		// Conflict checks and "sort by time" become integer range scans on this index
+		@Index(name = "idx_appointments_doctor_date_slot", columnList = "doctorId, appointmentDate, slotStartMinute"),
+		// Keyset pagination on (appointmentDate, appointmentId), unfiltered and per filter
+		@Index(name = "idx_appointments_date_id", columnList = "appointmentDate, appointmentId"),
+		@Index(name = "idx_appointments_status_date_id", columnList = "status, appointmentDate, appointmentId"),
+		@Index(name = "idx_appointments_doctor_date_id", columnList = "doctorId, appointmentDate, appointmentId"),
+		@Index(name = "idx_appointments_patient_date_id", columnList = "patientId, appointmentDate, appointmentId"),
+		// Change feed ("/changes?since=") scans, unfiltered and per doctor
+		@Index(name = "idx_appointments_change_id", columnList = "changeVersion, appointmentId"),
+		@Index(name = "idx_appointments_doctor_change_id", columnList = "doctorId, changeVersion, appointmentId") })
 public class Appointment {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+	@SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
 	private Long appointmentId;
 
 	// Each appointment is linked to one patient
@@ -27,16 +43,22 @@ public class Appointment {
 	@Column(nullable = false)
 	private LocalDate appointmentDate;
 
-	// Specific time slot for the appointment (e.g., "10:00 AM - 10:30 AM")
-	@Column(length = 20, nullable = false)
-	private String timeSlot;
+	// Slot start as minutes since midnight (e.g., 600 for 10:00). Exposed as the
+	// "HH:mm-HH:mm" string on the REST DTOs via getTimeSlot()
+	@JdbcTypeCode(SqlTypes.SMALLINT)
+	private Integer slotStartMinute;
+
+	// Slot length in minutes (e.g., 30)
+	@JdbcTypeCode(SqlTypes.SMALLINT)
+	private Integer slotDurationMinutes;
 
 	// Short reason or purpose of visit (stored up to 500 characters)
 	@Size(max = 500, message = "Reason cannot exceed 500 characters.")
 	@Column(length = 500, nullable = false)
 	private String reason;
 
-	// Current status of the appointment (e.g., BOOKED, COMPLETED, CANCELLED)
+	// Current status of the appointment (e.g., CONFIRMED, COMPLETED, CANCELLED,
+	// NO_SHOW)
 	@Enumerated(EnumType.STRING)
 	@Column(nullable = false)
 	private AppointmentStatus status;
@@ -45,15 +67,25 @@ public class Appointment {
 	@Size(max = 1000, message = "Remarks cannot exceed 1000 characters.")
 	private String remarks;
 
+	// Transaction ID of the last insert or update, stamped by a database trigger
+	// (see schema-postgresql.sql) so bulk updates are covered too. Read-only here
+	@Column(insertable = false, updatable = false)
+	private Long changeVersion;
+
+	// Optimistic lock version; the ETag checked by /api/appointments/{id}/reschedule, /status and /cancel
+	// and by the /api/admin status and cancel endpoints
+	@Version
+	private Long version;
+
 	public Appointment() {
 	}
 
-	public Appointment(Patient patient, Doctor doctor, LocalDate appointmentDate, String timeSlot, String reason,
+	public Appointment(Patient patient, Doctor doctor, LocalDate appointmentDate, SlotRange slot, String reason,
 			AppointmentStatus status, String remarks) {
 		this.patient = patient;
 		this.doctor = doctor;
 		this.appointmentDate = appointmentDate;
-		this.timeSlot = timeSlot;
+		setSlot(slot);
 		this.reason = reason;
 		this.status = status;
 		this.remarks = remarks;
@@ -87,12 +119,26 @@ public class Appointment {
 		this.appointmentDate = appointmentDate;
 	}
 
-	public String getTimeSlot() {
-		return timeSlot;
+	public Integer getSlotStartMinute() {
+		return slotStartMinute;
+	}
+
+	public Integer getSlotDurationMinutes() {
+		return slotDurationMinutes;
 	}
 
-	public void setTimeSlot(String timeSlot) {
-		this.timeSlot = timeSlot;
+	public SlotRange getSlot() {
+		return SlotRange.ofDuration(slotStartMinute, slotDurationMinutes);
+	}
+
+	public void setSlot(SlotRange slot) {
+		this.slotStartMinute = slot.startMinute();
+		this.slotDurationMinutes = slot.durationMinutes();
+	}
+
+	/** Returns the slot in its "HH:mm-HH:mm" API form. */
+	public String getTimeSlot() {
+		return getSlot().label();
 	}
 
 	public String getReason() {
@@ -119,9 +165,18 @@ public class Appointment {
 		this.remarks = remarks;
 	}
 
+	public Long getChangeVersion() {
+		return changeVersion;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
 	@Override
 	public String toString() {
-		return "Appointment [appointmentId=" + appointmentId + ", appointmentDate=" + appointmentDate + ", timeSlot="
-				+ timeSlot + ", reason=" + reason + ", status=" + status + ", remarks=" + remarks + "]";
+		return "Appointment [appointmentId=" + appointmentId + ", appointmentDate=" + appointmentDate
+				+ ", slotStartMinute=" + slotStartMinute + ", slotDurationMinutes=" + slotDurationMinutes + ", reason="
+				+ reason + ", status=" + status + ", remarks=" + remarks + "]";
 	}
 }
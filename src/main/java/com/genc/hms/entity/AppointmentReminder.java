@@ -0,0 +1,74 @@
+package com.genc.hms.entity;
+
+import java.time.LocalDateTime;
+
+import com.genc.hms.enums.ReminderStatus;
+import jakarta.persistence.*;
+
+/**
+ * Send record of the reminder for one appointment. The appointment ID is the
+ * primary key, so a reminder can only be claimed once; see
+ * AppointmentReminderRepository.claim.
+ */
+@Entity
+@Table(name = "appointment_reminders")
+public class AppointmentReminder {
+
+	@Id
+	private Long appointmentId;
+
+	// Appointment the reminder is about (shares its primary key)
+	@MapsId
+	@OneToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "appointmentId")
+	private Appointment appointment;
+
+	// PENDING while a sender holds the claim, then SENT or FAILED
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private ReminderStatus status;
+
+	// Number of claims so far (first send plus retries)
+	@Column(nullable = false)
+	private int attempts;
+
+	// When the current claim was taken; stale PENDING claims can be taken over
+	@Column(nullable = false)
+	private LocalDateTime claimedAt;
+
+	// When the notifier accepted the reminder (null until SENT)
+	private LocalDateTime sentAt;
+
+	public AppointmentReminder() {
+	}
+
+	public Long getAppointmentId() {
+		return appointmentId;
+	}
+
+	public Appointment getAppointment() {
+		return appointment;
+	}
+
+	public ReminderStatus getStatus() {
+		return status;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public LocalDateTime getClaimedAt() {
+		return claimedAt;
+	}
+
+	public LocalDateTime getSentAt() {
+		return sentAt;
+	}
+
+	@Override
+	public String toString() {
+		return "AppointmentReminder [appointmentId=" + appointmentId + ", status=" + status + ", attempts=" + attempts
+				+ ", claimedAt=" + claimedAt + ", sentAt=" + sentAt + "]";
+	}
+}
@@ -10,11 +10,19 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 
 @Entity
-@Table(name = "bills")
+@Table(name = "bills", indexes = {
+		// Change feed ("/changes?since=") scans, unfiltered and per patient
+		@Index(name = "idx_bills_change_id", columnList = "changeVersion, billId"),
+		@Index(name = "idx_bills_patient_change_id", columnList = "patientId, changeVersion, billId"),
+		// Revenue analytics aggregate the days after the summary watermark from here
+		@Index(name = "idx_bills_bill_date", columnList = "billDate"),
+		// Patient statements in (billDate, billId) order
+		@Index(name = "idx_bills_patient_date_id", columnList = "patientId, billDate, billId") })
 public class Bill {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bills_seq")
+	@SequenceGenerator(name = "bills_seq", sequenceName = "bills_seq", allocationSize = 50)
 	private Long billId;
 
 	// Each bill is uniquely linked to a single appointment
@@ -50,6 +58,15 @@ public class Bill {
 	@Column(nullable = false)
 	private LocalDate billDate;
 
+	// Transaction ID of the last insert or update, stamped by a database trigger
+	// (see schema-postgresql.sql). Read-only here
+	@Column(insertable = false, updatable = false)
+	private Long changeVersion;
+
+	// Optimistic lock version; the ETag checked by PUT /api/bills/{id}/pay and POST /api/admin/billing/{id}/pay
+	@Version
+	private Long version;
+
 	public Bill() {
 	}
 
@@ -106,6 +123,14 @@ public class Bill {
 		this.billDate = billDate;
 	}
 
+	public Long getChangeVersion() {
+		return changeVersion;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
 	@Override
 	public String toString() {
 		return "Bill [billId=" + billId + ", appointment=" + appointment + ", billAmount=" + billAmount
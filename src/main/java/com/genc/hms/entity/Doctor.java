@@ -10,8 +10,13 @@ import jakarta.validation.constraints.*;
 @Entity
 public class Doctor {
 
+	public static final int DEFAULT_SLOT_DURATION_MINUTES = 30;
+	public static final int MIN_SLOT_DURATION_MINUTES = 5;
+	public static final int MAX_SLOT_DURATION_MINUTES = 240;
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctor_seq")
+	@SequenceGenerator(name = "doctor_seq", sequenceName = "doctor_seq", allocationSize = 50)
 	private Long doctorId;
 
 	// Each doctor is linked to a user account (for authentication and role-based
@@ -40,12 +45,22 @@ public class Doctor {
 	@Column(precision = 10, scale = 2)
 	private BigDecimal consultationFee;
 
+	// Length of one appointment with this doctor (e.g., 15 for GPs, 60 for
+	// surgeons); slots are laid out back to back from the start of each window
+	@Min(value = MIN_SLOT_DURATION_MINUTES, message = "Slot duration must be at least 5 minutes.")
+	@Max(value = MAX_SLOT_DURATION_MINUTES, message = "Slot duration cannot exceed 240 minutes.")
+	private Integer slotDurationMinutes = DEFAULT_SLOT_DURATION_MINUTES;
+
 	// One doctor can have multiple availability slots (linked via
 	// DoctorAvailability)
 	@Valid
 	@OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL, orphanRemoval = true)
 	private List<DoctorAvailability> doctorAvailabilities;
 
+	// Optimistic lock version; the ETag checked by PUT /api/admin/doctors/{id}
+	@Version
+	private Long version;
+
 	public Doctor() {
 	}
 
@@ -103,6 +118,14 @@ public class Doctor {
 		this.consultationFee = consultationFee;
 	}
 
+	public Integer getSlotDurationMinutes() {
+		return slotDurationMinutes;
+	}
+
+	public void setSlotDurationMinutes(Integer slotDurationMinutes) {
+		this.slotDurationMinutes = slotDurationMinutes;
+	}
+
 	public List<DoctorAvailability> getDoctorAvailabilities() {
 		return doctorAvailabilities;
 	}
@@ -111,10 +134,15 @@ public class Doctor {
 		this.doctorAvailabilities = doctorAvailabilities;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
 	@Override
 	public String toString() {
 		return "Doctor [doctorId=" + doctorId + ", name=" + name + ", specialization=" + specialization
 				+ ", contactNumber=" + contactNumber + ", consultationFee=" + consultationFee
-				+ ", doctorAvailabilities=" + doctorAvailabilities + "]";
+				+ ", slotDurationMinutes=" + slotDurationMinutes + ", doctorAvailabilities=" + doctorAvailabilities
+				+ "]";
 	}
 }
@@ -11,7 +11,8 @@ import jakarta.validation.constraints.NotNull;
 public class DoctorAvailability {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctor_availability_seq")
+	@SequenceGenerator(name = "doctor_availability_seq", sequenceName = "doctor_availability_seq", allocationSize = 50)
 	private Long availabilityId;
 
 	// Links this availability slot to a specific doctor
@@ -11,7 +11,8 @@ import jakarta.validation.constraints.*;
 public class Patient {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_seq")
+	@SequenceGenerator(name = "patient_seq", sequenceName = "patient_seq", allocationSize = 50)
 	private Long patientId;
 
 	// Links each patient to a user account (login credentials, role, etc.)
@@ -46,6 +47,10 @@ public class Patient {
 	@Column(columnDefinition = "TEXT")
 	private String medicalHistory;
 
+	// Optimistic lock version; the ETag checked by PUT /api/patients/me and /api/admin/patients/{id}
+	@Version
+	private Long version;
+
 	public Patient() {
 	}
 
@@ -120,6 +125,10 @@ public class Patient {
 		this.medicalHistory = medicalHistory;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
 	@Override
 	public String toString() {
 		return "Patient [patientId=" + patientId + ", name=" + name + ", dob=" + dob + ", gender=" + gender
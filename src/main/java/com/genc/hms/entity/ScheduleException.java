@@ -0,0 +1,72 @@
+package com.genc.hms.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+
+/**
+ * A block of time in which a doctor (or, without a doctor, the whole hospital)
+ * takes no appointments: leave, a conference, a public holiday. Full-day blocks
+ * run from midnight to midnight; partial-day blocks carry their clock times.
+ */
+@Entity
+@Table(name = "schedule_exceptions", indexes = {
+		// The exception index loads everything that has not ended yet
+		@Index(name = "idx_schedule_exceptions_end", columnList = "endAt"),
+		@Index(name = "idx_schedule_exceptions_doctor_end", columnList = "doctorId, endAt") })
+public class ScheduleException {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_exceptions_seq")
+	@SequenceGenerator(name = "schedule_exceptions_seq", sequenceName = "schedule_exceptions_seq", allocationSize = 50)
+	private Long scheduleExceptionId;
+
+	// Doctor on leave; null for a hospital-wide closure that applies to everyone
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "doctorId")
+	private Doctor doctor;
+
+	// Start of the block (inclusive)
+	@Column(nullable = false)
+	private LocalDateTime startAt;
+
+	// End of the block (exclusive)
+	@Column(nullable = false)
+	private LocalDateTime endAt;
+
+	// Shown to staff, e.g. "Annual leave" or "Diwali"
+	@Size(max = 200, message = "Reason cannot exceed 200 characters.")
+	@Column(length = 200, nullable = false)
+	private String reason;
+
+	public ScheduleException() {
+	}
+
+	public ScheduleException(Doctor doctor, LocalDateTime startAt, LocalDateTime endAt, String reason) {
+		this.doctor = doctor;
+		this.startAt = startAt;
+		this.endAt = endAt;
+		this.reason = reason;
+	}
+
+	public Long getScheduleExceptionId() {
+		return scheduleExceptionId;
+	}
+
+	public Doctor getDoctor() {
+		return doctor;
+	}
+
+	public LocalDateTime getStartAt() {
+		return startAt;
+	}
+
+	public LocalDateTime getEndAt() {
+		return endAt;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+}
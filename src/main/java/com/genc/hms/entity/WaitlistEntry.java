@@ -0,0 +1,112 @@
+package com.genc.hms.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.genc.hms.enums.WaitlistStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+		// The backfill worker reads the oldest waiting entries of one doctor-day
+		@Index(name = "idx_waitlist_doctor_date_status", columnList = "doctorId, requestedDate, status, createdAt"),
+		@Index(name = "idx_waitlist_patient", columnList = "patientId") })
+public class WaitlistEntry {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlist_entries_seq")
+	@SequenceGenerator(name = "waitlist_entries_seq", sequenceName = "waitlist_entries_seq", allocationSize = 50)
+	private Long waitlistEntryId;
+
+	// Patient waiting for a slot
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "patientId", nullable = false)
+	private Patient patient;
+
+	// Doctor whose schedule the patient is waiting on
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "doctorId", nullable = false)
+	private Doctor doctor;
+
+	// Day the patient wants to be seen; any freed slot on this day qualifies
+	@Column(nullable = false)
+	private LocalDate requestedDate;
+
+	// Reason copied onto the appointment once a slot is booked
+	@Size(max = 500, message = "Reason cannot exceed 500 characters.")
+	@Column(length = 500, nullable = false)
+	private String reason;
+
+	// WAITING until a slot is booked for the patient or they leave the waitlist
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private WaitlistStatus status;
+
+	// Joining time; entries are served first come, first served
+	@Column(nullable = false)
+	private LocalDateTime createdAt;
+
+	// Appointment booked from this entry (null while waiting)
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "appointmentId")
+	private Appointment appointment;
+
+	public WaitlistEntry() {
+	}
+
+	public WaitlistEntry(Patient patient, Doctor doctor, LocalDate requestedDate, String reason) {
+		this.patient = patient;
+		this.doctor = doctor;
+		this.requestedDate = requestedDate;
+		this.reason = reason;
+		this.status = WaitlistStatus.WAITING;
+		this.createdAt = LocalDateTime.now();
+	}
+
+	public Long getWaitlistEntryId() {
+		return waitlistEntryId;
+	}
+
+	public Patient getPatient() {
+		return patient;
+	}
+
+	public Doctor getDoctor() {
+		return doctor;
+	}
+
+	public LocalDate getRequestedDate() {
+		return requestedDate;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	public WaitlistStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(WaitlistStatus status) {
+		this.status = status;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public Appointment getAppointment() {
+		return appointment;
+	}
+
+	public void setAppointment(Appointment appointment) {
+		this.appointment = appointment;
+	}
+
+	@Override
+	public String toString() {
+		return "WaitlistEntry [waitlistEntryId=" + waitlistEntryId + ", requestedDate=" + requestedDate + ", reason="
+				+ reason + ", status=" + status + ", createdAt=" + createdAt + "]";
+	}
+}
@@ -1,5 +1,5 @@
 package com.genc.hms.enums;
 
 public enum AppointmentStatus {
-	CONFIRMED, CANCELLED, COMPLETED
+	CONFIRMED, CANCELLED, COMPLETED, NO_SHOW
 }
@@ -0,0 +1,5 @@
+package com.genc.hms.enums;
+
+public enum ReminderStatus {
+	PENDING, SENT, FAILED
+}
@@ -0,0 +1,18 @@
+package com.genc.hms.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum RevenuePeriod {
+	DAY, WEEK, MONTH;
+
+	/** First day of the period containing the date; weeks start on Monday. */
+	public LocalDate start(LocalDate date) {
+		return switch (this) {
+		case DAY -> date;
+		case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+		case MONTH -> date.withDayOfMonth(1);
+		};
+	}
+}
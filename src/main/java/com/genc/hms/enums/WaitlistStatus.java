@@ -0,0 +1,5 @@
+package com.genc.hms.enums;
+
+public enum WaitlistStatus {
+	WAITING, BOOKED, CANCELLED
+}
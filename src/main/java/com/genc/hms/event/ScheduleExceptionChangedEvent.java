@@ -0,0 +1,9 @@
+package com.genc.hms.event;
+
+/**
+ * Published by ScheduleExceptionService when a leave or holiday block is
+ * added or removed. doctorId is null for hospital-wide blocks, which affect
+ * every doctor.
+ */
+public record ScheduleExceptionChangedEvent(Long doctorId) {
+}
@@ -0,0 +1,23 @@
+package com.genc.hms.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published by AppointmentService whenever a doctor's time slot is taken or
+ * freed. Listeners use @TransactionalEventListener so they only observe
+ * changes that actually committed.
+ */
+public record SlotChangedEvent(Long doctorId, LocalDate date, int startMinute, int endMinute, Change change) {
+
+	public enum Change {
+		TAKEN, FREED
+	}
+
+	public static SlotChangedEvent taken(Long doctorId, LocalDate date, int startMinute, int endMinute) {
+		return new SlotChangedEvent(doctorId, date, startMinute, endMinute, Change.TAKEN);
+	}
+
+	public static SlotChangedEvent freed(Long doctorId, LocalDate date, int startMinute, int endMinute) {
+		return new SlotChangedEvent(doctorId, date, startMinute, endMinute, Change.FREED);
+	}
+}
@@ -3,6 +3,8 @@ package com.genc.hms.exception;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException; // 🚨 New Import
@@ -14,6 +16,8 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.genc.hms.util.Constraints;
+
 /**
  * Handles all exceptions globally across the project, providing consistent JSON
  * error responses.
@@ -61,7 +65,69 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error); // 403 Forbidden
 	}
 
-	// --- 3. Catch-All Generic Runtime Errors ---
+	// --- 3. Conflicts (double bookings, stale versions, constraint violations) ---
+
+	// Thrown by services when a request collides with existing state (e.g., the
+	// slot was just booked by someone else)
+	@ResponseStatus(HttpStatus.CONFLICT)
+	public static class ConflictException extends IllegalStateException {
+		public ConflictException(String message) {
+			super(message);
+		}
+	}
+
+	@ExceptionHandler(ConflictException.class)
+	public ResponseEntity<Map<String, String>> handleConflictException(ConflictException ex) {
+		Map<String, String> error = new HashMap<>();
+		error.put("message", ex.getMessage());
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(error); // 409 Conflict
+	}
+
+	// Thrown when an If-Match header names a version that is no longer current;
+	// the client must reload the resource before retrying
+	@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+	public static class PreconditionFailedException extends RuntimeException {
+		public PreconditionFailedException(String message) {
+			super(message);
+		}
+	}
+
+	@ExceptionHandler(PreconditionFailedException.class)
+	public ResponseEntity<Map<String, String>> handlePreconditionFailedException(PreconditionFailedException ex) {
+		Map<String, String> error = new HashMap<>();
+		error.put("message", ex.getMessage());
+		return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error); // 412 Precondition Failed
+	}
+
+	// Two writers loaded the same version and the other one committed first (the
+	// @Version check in the UPDATE matched no row)
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	public ResponseEntity<Map<String, String>> handleOptimisticLockingFailureException(
+			OptimisticLockingFailureException ex) {
+		Map<String, String> error = new HashMap<>();
+		error.put("message", "The resource was changed by another request. Please reload and try again.");
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(error); // 409 Conflict
+	}
+
+	// Last line of defence: the active-slot constraint rejected a booking, or the
+	// waitlist constraint a second join for the same day. Any other violation is
+	// a bug and is reported like other runtime errors.
+	@ExceptionHandler(DataIntegrityViolationException.class)
+	public ResponseEntity<Map<String, String>> handleDataIntegrityViolationException(
+			DataIntegrityViolationException ex) {
+		Map<String, String> error = new HashMap<>();
+		if (Constraints.isSlotConflict(ex)) {
+			error.put("message",
+					"The requested time slot was booked by another request. Please refresh and try again.");
+		} else if (Constraints.isWaitlistConflict(ex)) {
+			error.put("message", "The patient is already on this doctor's waitlist for that date.");
+		} else {
+			return handleRuntimeException(ex);
+		}
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(error); // 409 Conflict
+	}
+
+	// --- 4. Catch-All Generic Runtime Errors ---
 
 	@ResponseStatus(HttpStatus.NOT_FOUND)
 	public static class ResourceNotFoundException extends RuntimeException {
@@ -0,0 +1,44 @@
+package com.genc.hms.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.genc.hms.entity.AppointmentReminder;
+import com.genc.hms.enums.ReminderStatus;
+
+@Repository
+public interface AppointmentReminderRepository extends JpaRepository<AppointmentReminder, Long> {
+
+	// Claims the reminders of the given appointments in one statement and returns
+	// the IDs this caller now owns. A new row is claimed outright; an existing one
+	// only if its last send FAILED or its PENDING claim is older than staleBefore
+	// (the sender died). Concurrent runs, on this node or another, never both own
+	// the same appointment, so a reminder is sent at most once per claim
+	@Transactional
+	@Query(value = "INSERT INTO appointment_reminders (appointment_id, status, attempts, claimed_at) "
+			+ "SELECT a.appointment_id, 'PENDING', 1, :now FROM appointments a WHERE a.appointment_id IN (:ids) "
+			+ "ON CONFLICT (appointment_id) DO UPDATE SET status = 'PENDING', "
+			+ "attempts = appointment_reminders.attempts + 1, claimed_at = EXCLUDED.claimed_at "
+			+ "WHERE appointment_reminders.status = 'FAILED' OR (appointment_reminders.status = 'PENDING' "
+			+ "AND appointment_reminders.claimed_at < :staleBefore) RETURNING appointment_id", nativeQuery = true)
+	List<Long> claim(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now,
+			@Param("staleBefore") LocalDateTime staleBefore);
+
+	// Records the outcome of a chunk of claimed reminders in one statement
+	@Transactional
+	@Modifying
+	@Query("UPDATE AppointmentReminder r SET r.status = :status, r.sentAt = :sentAt WHERE r.appointmentId IN :ids")
+	int markAll(@Param("ids") Collection<Long> ids, @Param("status") ReminderStatus status,
+			@Param("sentAt") LocalDateTime sentAt);
+
+	// Counts reminders by outcome (e.g., SENT)
+	long countByStatus(ReminderStatus status);
+}
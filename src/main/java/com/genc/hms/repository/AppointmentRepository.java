@@ -1,24 +1,65 @@
 package com.genc.hms.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.genc.hms.dto.AppointmentResponseDTO;
+import com.genc.hms.dto.ReminderDTO;
 import com.genc.hms.entity.Appointment;
 import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.ReminderStatus;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentRepositoryCustom {
+
+	// Rows fetched per round trip by the streaming export queries
+	String EXPORT_FETCH_SIZE = "500";
+
+	// Constructor expression shared by the response queries below. Patient and
+	// doctor columns come from joins, so a list is always a single statement
+	String RESPONSE_SELECT = "SELECT new com.genc.hms.dto.AppointmentResponseDTO(a.appointmentId, p.patientId, "
+			+ "p.name, d.doctorId, d.name, d.specialization, a.appointmentDate, a.slotStartMinute, "
+			+ "a.slotDurationMinutes, a.reason, a.status, a.remarks, a.version) FROM Appointment a JOIN a.patient p "
+			+ "JOIN a.doctor d ";
+
+	// Retrieves all appointments as response DTOs (admin view)
+	@Query(RESPONSE_SELECT + "ORDER BY a.appointmentId")
+	List<AppointmentResponseDTO> findAllResponses();
+
+	// Streams every appointment as response DTOs for exports. The driver fetches
+	// EXPORT_FETCH_SIZE rows per round trip, so memory stays flat; the caller
+	// must close the stream inside a read-only transaction
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+	@Query(RESPONSE_SELECT + "ORDER BY a.appointmentDate, a.appointmentId")
+	Stream<AppointmentResponseDTO> streamAllResponses();
+
+	// Retrieves one appointment as a response DTO
+	@Query(RESPONSE_SELECT + "WHERE a.appointmentId = :appointmentId")
+	Optional<AppointmentResponseDTO> findResponseById(@Param("appointmentId") Long appointmentId);
 
-	// Retrieves all appointments for a specific doctor, sorted by date (useful for
-	// doctor's schedule view)
-	List<Appointment> findByDoctor_DoctorIdOrderByAppointmentDateAsc(Long doctorId);
+	// Retrieves all appointments for a specific doctor, sorted by date and time of
+	// day (useful for doctor's schedule view)
+	@Query(RESPONSE_SELECT + "WHERE d.doctorId = :doctorId ORDER BY a.appointmentDate, a.slotStartMinute")
+	List<AppointmentResponseDTO> findResponsesByDoctorId(@Param("doctorId") Long doctorId);
 
-	// Retrieves all appointments for a specific patient, sorted by date (useful for
-	// patient history or dashboard)
-	List<Appointment> findByPatient_PatientIdOrderByAppointmentDateAsc(Long patientId);
+	// Retrieves all appointments for a specific patient, sorted by date and time of
+	// day (useful for patient history or dashboard)
+	@Query(RESPONSE_SELECT + "WHERE p.patientId = :patientId ORDER BY a.appointmentDate, a.slotStartMinute")
+	List<AppointmentResponseDTO> findResponsesByPatientId(@Param("patientId") Long patientId);
 
 	// Finds appointments for a doctor on a specific date excluding a particular
 	// status (e.g., CANCELLED)
@@ -26,9 +67,129 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 	List<Appointment> findByDoctorDoctorIdAndAppointmentDateAndStatusNot(Long doctorId, LocalDate appointmentDate,
 			AppointmentStatus status);
 
-	// Counts how many active appointments exist for a doctor in a given time slot
-	// (excluding cancelled ones)
-	// Useful for preventing double-booking of a time slot
-	long countByDoctorDoctorIdAndAppointmentDateAndTimeSlotAndStatusNot(Long doctorId, LocalDate date, String timeSlot,
-			AppointmentStatus status);
+	// Finds a doctor's appointments on a date in one status (e.g. the CONFIRMED
+	// ones still open at the end of a clinic day), in slot order
+	List<Appointment> findByDoctorDoctorIdAndAppointmentDateAndStatusOrderBySlotStartMinute(Long doctorId,
+			LocalDate appointmentDate, AppointmentStatus status);
+
+	// Counts active appointments whose slot overlaps [startMinute, endMinute) for
+	// a doctor on a given date (excluding the given status, e.g. CANCELLED)
+	// Useful for preventing double-booking; served by the doctor/date/slot index
+	@Query("SELECT COUNT(a) FROM Appointment a WHERE a.doctor.doctorId = :doctorId AND a.appointmentDate = :date "
+			+ "AND a.status <> :status AND a.slotStartMinute < :endMinute "
+			+ "AND a.slotStartMinute + a.slotDurationMinutes > :startMinute")
+	long countOverlappingSlots(@Param("doctorId") Long doctorId, @Param("date") LocalDate date,
+			@Param("startMinute") int startMinute, @Param("endMinute") int endMinute,
+			@Param("status") AppointmentStatus status);
+
+	// Same as countOverlappingSlots but ignores one appointment (used when
+	// rescheduling so an appointment never conflicts with itself)
+	@Query("SELECT COUNT(a) FROM Appointment a WHERE a.doctor.doctorId = :doctorId AND a.appointmentDate = :date "
+			+ "AND a.status <> :status AND a.slotStartMinute < :endMinute "
+			+ "AND a.slotStartMinute + a.slotDurationMinutes > :startMinute AND a.appointmentId <> :excludedId")
+	long countOverlappingSlotsExcluding(@Param("doctorId") Long doctorId, @Param("date") LocalDate date,
+			@Param("startMinute") int startMinute, @Param("endMinute") int endMinute,
+			@Param("status") AppointmentStatus status, @Param("excludedId") Long excludedId);
+
+	// Returns the dates (among the given ones) on which an active appointment of
+	// the doctor overlaps [startMinute, endMinute). One query checks a whole
+	// recurring series for conflicts
+	@Query("SELECT DISTINCT a.appointmentDate FROM Appointment a WHERE a.doctor.doctorId = :doctorId "
+			+ "AND a.appointmentDate IN :dates AND a.status <> :status AND a.slotStartMinute < :endMinute "
+			+ "AND a.slotStartMinute + a.slotDurationMinutes > :startMinute")
+	List<LocalDate> findConflictingDates(@Param("doctorId") Long doctorId, @Param("dates") Collection<LocalDate> dates,
+			@Param("startMinute") int startMinute, @Param("endMinute") int endMinute,
+			@Param("status") AppointmentStatus status);
+
+	// Change version below which no running transaction can still write (the
+	// xmin of the current snapshot). Change feeds never return rows at or above
+	// it, so a transaction that commits late is picked up by the next poll
+	@Query(value = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint", nativeQuery = true)
+	long findChangeHorizon();
+
+	// Appointments written after (version, afterId) and below the horizon, in
+	// change order, with patient and doctor fetched in the same statement
+	@Query("SELECT a FROM Appointment a JOIN FETCH a.patient JOIN FETCH a.doctor WHERE a.changeVersion < :horizon "
+			+ "AND (a.changeVersion > :version OR (a.changeVersion = :version AND a.appointmentId > :afterId)) "
+			+ "ORDER BY a.changeVersion, a.appointmentId")
+	List<Appointment> findChangedBefore(@Param("version") long version, @Param("afterId") long afterId,
+			@Param("horizon") long horizon, Pageable pageable);
+
+	// Same as findChangedBefore for a single doctor
+	@Query("SELECT a FROM Appointment a JOIN FETCH a.patient JOIN FETCH a.doctor d WHERE d.doctorId = :doctorId "
+			+ "AND a.changeVersion < :horizon "
+			+ "AND (a.changeVersion > :version OR (a.changeVersion = :version AND a.appointmentId > :afterId)) "
+			+ "ORDER BY a.changeVersion, a.appointmentId")
+	List<Appointment> findChangedBeforeForDoctor(@Param("doctorId") Long doctorId, @Param("version") long version,
+			@Param("afterId") long afterId, @Param("horizon") long horizon, Pageable pageable);
+
+	// One keyset chunk of the appointments on a date with the given status whose
+	// reminder has not been sent yet, ordered by ID. Served by the
+	// (status, appointmentDate, appointmentId) index
+	@Query("SELECT new com.genc.hms.dto.ReminderDTO(a.appointmentId, p.patientId, p.name, u.email, "
+			+ "p.contactNumber, d.name, d.specialization, a.appointmentDate, a.slotStartMinute, "
+			+ "a.slotDurationMinutes) FROM Appointment a JOIN a.patient p JOIN p.user u JOIN a.doctor d "
+			+ "WHERE a.status = :status AND a.appointmentDate = :date AND a.appointmentId > :afterId "
+			+ "AND NOT EXISTS (SELECT 1 FROM AppointmentReminder r WHERE r.appointmentId = a.appointmentId "
+			+ "AND r.status = :sent) ORDER BY a.appointmentId")
+	List<ReminderDTO> findReminderTargets(@Param("date") LocalDate date, @Param("status") AppointmentStatus status,
+			@Param("sent") ReminderStatus sent, @Param("afterId") long afterId, Pageable pageable);
+
+	// IDs of appointments in the given status whose slot ended at or before the
+	// cutoff (date, minute of day), oldest first. Pages through the
+	// (status, appointmentDate, appointmentId) index for the stale-appointment sweeper
+	@Query("SELECT a.appointmentId FROM Appointment a WHERE a.status = :status AND (a.appointmentDate < :cutoffDate "
+			+ "OR (a.appointmentDate = :cutoffDate AND a.slotStartMinute + a.slotDurationMinutes <= :cutoffMinute)) "
+			+ "ORDER BY a.appointmentDate, a.appointmentId")
+	List<Long> findIdsEndedBefore(@Param("status") AppointmentStatus status, @Param("cutoffDate") LocalDate cutoffDate,
+			@Param("cutoffMinute") int cutoffMinute, Pageable pageable);
+
+	// Moves the given appointments from one status to another in one statement,
+	// skipping any that are no longer in the expected status (changed
+	// concurrently). Bypasses the persistence context, so the version is bumped
+	// here to invalidate ETags clients hold; returns the rows changed
+	@Modifying
+	@Query("UPDATE Appointment a SET a.status = :to, a.version = a.version + 1 WHERE a.appointmentId IN :ids "
+			+ "AND a.status = :from")
+	int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") AppointmentStatus from,
+			@Param("to") AppointmentStatus to);
+
+	// Lightweight view of a booked slot (no entity hydration)
+	interface BookedSlot {
+		Long getDoctorId();
+
+		LocalDate getAppointmentDate();
+
+		Integer getSlotStartMinute();
+
+		Integer getSlotDurationMinutes();
+	}
+
+	// Returns all active bookings from a given date onwards as projections
+	// Used to warm the in-memory slot occupancy index at startup
+	@Query("SELECT a.doctor.doctorId AS doctorId, a.appointmentDate AS appointmentDate, "
+			+ "a.slotStartMinute AS slotStartMinute, a.slotDurationMinutes AS slotDurationMinutes "
+			+ "FROM Appointment a WHERE a.appointmentDate >= :fromDate AND a.status <> :status")
+	List<BookedSlot> findBookedSlotsFrom(@Param("fromDate") LocalDate fromDate,
+			@Param("status") AppointmentStatus status);
+
+	// Returns a doctor's active bookings between two dates (inclusive) as
+	// projections. Used to compute a multi-day slot matrix in a single query
+	@Query("SELECT a.doctor.doctorId AS doctorId, a.appointmentDate AS appointmentDate, "
+			+ "a.slotStartMinute AS slotStartMinute, a.slotDurationMinutes AS slotDurationMinutes "
+			+ "FROM Appointment a WHERE a.doctor.doctorId = :doctorId "
+			+ "AND a.appointmentDate BETWEEN :fromDate AND :toDate AND a.status <> :status")
+	List<BookedSlot> findBookedSlotsForDoctorBetween(@Param("doctorId") Long doctorId,
+			@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+			@Param("status") AppointmentStatus status);
+
+	// Same as findBookedSlotsForDoctorBetween for a batch of doctors at once
+	// Used by the first-available search across a specialization
+	@Query("SELECT a.doctor.doctorId AS doctorId, a.appointmentDate AS appointmentDate, "
+			+ "a.slotStartMinute AS slotStartMinute, a.slotDurationMinutes AS slotDurationMinutes "
+			+ "FROM Appointment a WHERE a.doctor.doctorId IN :doctorIds "
+			+ "AND a.appointmentDate BETWEEN :fromDate AND :toDate AND a.status <> :status")
+	List<BookedSlot> findBookedSlotsForDoctorsBetween(@Param("doctorIds") Collection<Long> doctorIds,
+			@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+			@Param("status") AppointmentStatus status);
 }
@@ -0,0 +1,24 @@
+package com.genc.hms.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.genc.hms.dto.AppointmentResponseDTO;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.util.KeysetCursor;
+
+/**
+ * Queries on Appointment that are built at runtime (implemented in
+ * AppointmentRepositoryImpl).
+ */
+public interface AppointmentRepositoryCustom {
+
+	/**
+	 * Returns up to {@code limit} appointments ordered by (appointmentDate,
+	 * appointmentId) that come strictly after the cursor (from the start when
+	 * null). Null filters are left out of the query entirely so each combination
+	 * gets a plan that can use its matching composite index.
+	 */
+	List<AppointmentResponseDTO> findResponsesAfter(AppointmentStatus status, Long doctorId, Long patientId,
+			LocalDate fromDate, LocalDate toDate, KeysetCursor after, int limit);
+}
@@ -0,0 +1,66 @@
+package com.genc.hms.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.genc.hms.dto.AppointmentResponseDTO;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.util.KeysetCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+public class AppointmentRepositoryImpl implements AppointmentRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<AppointmentResponseDTO> findResponsesAfter(AppointmentStatus status, Long doctorId, Long patientId,
+			LocalDate fromDate, LocalDate toDate, KeysetCursor after, int limit) {
+		List<String> predicates = new ArrayList<>();
+		Map<String, Object> parameters = new LinkedHashMap<>();
+		if (status != null) {
+			predicates.add("a.status = :status");
+			parameters.put("status", status);
+		}
+		if (doctorId != null) {
+			predicates.add("d.doctorId = :doctorId");
+			parameters.put("doctorId", doctorId);
+		}
+		if (patientId != null) {
+			predicates.add("p.patientId = :patientId");
+			parameters.put("patientId", patientId);
+		}
+		if (fromDate != null) {
+			predicates.add("a.appointmentDate >= :fromDate");
+			parameters.put("fromDate", fromDate);
+		}
+		if (toDate != null) {
+			predicates.add("a.appointmentDate <= :toDate");
+			parameters.put("toDate", toDate);
+		}
+		if (after != null) {
+			// Row-value comparison (date, id) > (:afterDate, :afterId), spelled out for JPQL
+			predicates.add("(a.appointmentDate > :afterDate "
+					+ "OR (a.appointmentDate = :afterDate AND a.appointmentId > :afterId))");
+			parameters.put("afterDate", after.date());
+			parameters.put("afterId", after.id());
+		}
+
+		StringBuilder jpql = new StringBuilder(AppointmentRepository.RESPONSE_SELECT);
+		if (!predicates.isEmpty()) {
+			jpql.append("WHERE ").append(String.join(" AND ", predicates)).append(' ');
+		}
+		jpql.append("ORDER BY a.appointmentDate, a.appointmentId");
+
+		TypedQuery<AppointmentResponseDTO> query = entityManager.createQuery(jpql.toString(),
+				AppointmentResponseDTO.class);
+		parameters.forEach(query::setParameter);
+		return query.setMaxResults(limit).getResultList();
+	}
+}
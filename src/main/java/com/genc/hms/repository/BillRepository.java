@@ -1,15 +1,29 @@
 package com.genc.hms.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.genc.hms.dto.BillResponseDTO;
 import com.genc.hms.entity.Appointment;
 import com.genc.hms.entity.Bill;
+import com.genc.hms.enums.AppointmentStatus;
 import com.genc.hms.enums.PaymentStatus;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface BillRepository extends JpaRepository<Bill, Long> {
 
@@ -25,4 +39,143 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
 
 	// Alternative way to retrieve a bill by appointment ID
 	Optional<Bill> findByAppointment_AppointmentId(Long id);
+
+	// Moves the bills of the given appointments from one payment status to
+	// another in one statement, but only for appointments currently in
+	// appointmentStatus (so a concurrent status change is respected). Bypasses
+	// the persistence context, so the version is bumped here; returns the rows
+	// changed
+	@Modifying
+	@Query("UPDATE Bill b SET b.paymentStatus = :to, b.version = b.version + 1 WHERE b.paymentStatus = :from "
+			+ "AND b.appointment.appointmentId IN (SELECT a.appointmentId FROM Appointment a "
+			+ "WHERE a.appointmentId IN :appointmentIds AND a.status = :appointmentStatus)")
+	int updatePaymentStatusForAppointments(@Param("appointmentIds") Collection<Long> appointmentIds,
+			@Param("appointmentStatus") AppointmentStatus appointmentStatus, @Param("from") PaymentStatus from,
+			@Param("to") PaymentStatus to);
+
+	// Applies cancelBillForAppointment's rule to many appointments in one
+	// statement: PAID bills are refunded and PENDING bills cancelled, others are
+	// left alone. Bypasses the persistence context, so the version is bumped
+	// here; returns the rows changed
+	@Modifying
+	@Query("UPDATE Bill b SET b.paymentStatus = CASE WHEN b.paymentStatus = :paid THEN :refunded ELSE :cancelled END, "
+			+ "b.version = b.version + 1 WHERE b.appointment.appointmentId IN :appointmentIds "
+			+ "AND b.paymentStatus IN (:paid, :pending)")
+	int cancelForAppointments(@Param("appointmentIds") Collection<Long> appointmentIds,
+			@Param("paid") PaymentStatus paid, @Param("pending") PaymentStatus pending,
+			@Param("refunded") PaymentStatus refunded, @Param("cancelled") PaymentStatus cancelled);
+
+	// Streams every bill as response DTOs for exports (see
+	// AppointmentRepository.streamAllResponses)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = AppointmentRepository.EXPORT_FETCH_SIZE))
+	@Query("SELECT new com.genc.hms.dto.BillResponseDTO(b.billId, p.patientId, p.name, b.appointment.appointmentId, "
+			+ "b.billAmount, b.paymentStatus, b.billDate, b.version) FROM Bill b JOIN b.patient p ORDER BY b.billId")
+	Stream<BillResponseDTO> streamAllResponses();
+
+	// Change version below which no running transaction can still write (see
+	// AppointmentRepository.findChangeHorizon)
+	@Query(value = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint", nativeQuery = true)
+	long findChangeHorizon();
+
+	// Bills written after (version, afterId) and below the horizon, in change
+	// order, with the patient fetched in the same statement
+	@Query("SELECT b FROM Bill b JOIN FETCH b.patient WHERE b.changeVersion < :horizon "
+			+ "AND (b.changeVersion > :version OR (b.changeVersion = :version AND b.billId > :afterId)) "
+			+ "ORDER BY b.changeVersion, b.billId")
+	List<Bill> findChangedBefore(@Param("version") long version, @Param("afterId") long afterId,
+			@Param("horizon") long horizon, Pageable pageable);
+
+	// Same as findChangedBefore for a single patient
+	@Query("SELECT b FROM Bill b JOIN FETCH b.patient p WHERE p.patientId = :patientId "
+			+ "AND b.changeVersion < :horizon "
+			+ "AND (b.changeVersion > :version OR (b.changeVersion = :version AND b.billId > :afterId)) "
+			+ "ORDER BY b.changeVersion, b.billId")
+	List<Bill> findChangedBeforeForPatient(@Param("patientId") Long patientId, @Param("version") long version,
+			@Param("afterId") long afterId, @Param("horizon") long horizon, Pageable pageable);
+
+	// Bill count and total in minor units (cents) for one (bill date, doctor,
+	// payment status)
+	interface RevenueRow {
+		LocalDate getBillDate();
+
+		Long getDoctorId();
+
+		PaymentStatus getPaymentStatus();
+
+		long getBillCount();
+
+		long getAmountMinor();
+	}
+
+	// Last bill date rolled up into bill_revenue_daily, or null before the
+	// first roll-up (see schema-postgresql.sql)
+	@Query(value = "SELECT closed_through FROM bill_revenue_rollup WHERE id = 1", nativeQuery = true)
+	LocalDate findRevenueClosedThrough();
+
+	// Summary rows for closed days in [from, to]; rows that netted out to no
+	// bills are skipped
+	@Query(value = "SELECT bill_date AS billDate, doctor_id AS doctorId, payment_status AS paymentStatus, "
+			+ "bill_count AS billCount, amount_minor AS amountMinor FROM bill_revenue_daily "
+			+ "WHERE bill_date BETWEEN :from AND :to AND bill_count <> 0", nativeQuery = true)
+	List<RevenueRow> findSummarizedRevenue(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	// The same rows aggregated from the bills themselves, for days not rolled
+	// up yet
+	@Query(value = "SELECT b.bill_date AS billDate, a.doctor_id AS doctorId, b.payment_status AS paymentStatus, "
+			+ "COUNT(*) AS billCount, SUM(ROUND(b.bill_amount * 100))::bigint AS amountMinor "
+			+ "FROM bills b JOIN appointments a ON a.appointment_id = b.appointment_id "
+			+ "WHERE b.bill_date BETWEEN :from AND :to "
+			+ "GROUP BY b.bill_date, a.doctor_id, b.payment_status", nativeQuery = true)
+	List<RevenueRow> aggregateRevenue(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	// Rolls the day after the watermark into bill_revenue_daily unless the
+	// watermark has reached `through`; returns the summary rows written, or -1
+	// if there was no day to close. Needs a read-write transaction per call
+	@Query(value = "SELECT roll_up_bill_revenue_day(:through)", nativeQuery = true)
+	int rollUpRevenueDay(@Param("through") LocalDate through);
+
+	// Count and total in minor units (cents) of a patient's PENDING bills
+	interface PatientBalanceRow {
+		long getPendingCount();
+
+		long getOutstandingMinor();
+	}
+
+	// A patient's running-total row, kept by a trigger on bills (see
+	// schema-postgresql.sql); empty until the patient's first bill
+	@Query(value = "SELECT pending_count AS pendingCount, outstanding_minor AS outstandingMinor "
+			+ "FROM patient_balances WHERE patient_id = :patientId", nativeQuery = true)
+	Optional<PatientBalanceRow> findPatientBalance(@Param("patientId") Long patientId);
+
+	// One line of a patient statement; runningBalance is the amount due on
+	// this bill and every earlier one
+	interface StatementRow {
+		Long getBillId();
+
+		LocalDate getBillDate();
+
+		Long getAppointmentId();
+
+		BigDecimal getBillAmount();
+
+		PaymentStatus getPaymentStatus();
+
+		BigDecimal getAmountDue();
+
+		BigDecimal getRunningBalance();
+	}
+
+	// Statement lines after (afterDate, afterId) in (billDate, billId) order,
+	// null for the first page. The window runs over all of the patient's bills
+	// before the cursor filter, so every page carries the balance from the start
+	@Query(value = "SELECT * FROM (SELECT b.bill_id AS billId, b.bill_date AS billDate, "
+			+ "b.appointment_id AS appointmentId, b.bill_amount AS billAmount, b.payment_status AS paymentStatus, "
+			+ "CASE WHEN b.payment_status = 'PENDING' THEN b.bill_amount ELSE 0 END AS amountDue, "
+			+ "SUM(CASE WHEN b.payment_status = 'PENDING' THEN b.bill_amount ELSE 0 END) "
+			+ "OVER (ORDER BY b.bill_date, b.bill_id ROWS UNBOUNDED PRECEDING) AS runningBalance "
+			+ "FROM bills b WHERE b.patient_id = :patientId) s "
+			+ "WHERE CAST(:afterDate AS date) IS NULL OR (s.billDate, s.billId) > (CAST(:afterDate AS date), :afterId) "
+			+ "ORDER BY s.billDate, s.billId LIMIT :limit", nativeQuery = true)
+	List<StatementRow> findStatementAfter(@Param("patientId") Long patientId, @Param("afterDate") LocalDate afterDate,
+			@Param("afterId") Long afterId, @Param("limit") int limit);
 }
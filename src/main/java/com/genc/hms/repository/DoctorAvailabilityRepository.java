@@ -1,11 +1,48 @@
 package com.genc.hms.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.genc.hms.entity.DoctorAvailability;
+import com.genc.hms.enums.WeekDay;
 
 @Repository
 public interface DoctorAvailabilityRepository extends JpaRepository<DoctorAvailability, Long> {
 
+	// Flat view of one weekly availability row together with its doctor
+	interface ScheduleRow {
+		Long getDoctorId();
+
+		String getDoctorName();
+
+		String getSpecialization();
+
+		BigDecimal getConsultationFee();
+
+		Integer getSlotDurationMinutes();
+
+		WeekDay getDayOfWeek();
+
+		LocalTime getStartTime();
+
+		LocalTime getEndTime();
+	}
+
+	// Returns the weekly schedule of every doctor in a specialization (exact,
+	// case-insensitive) whose fee does not exceed maxFee (ignored when null)
+	// One query replaces loading each doctor and its availabilities separately
+	@Query("SELECT d.doctorId AS doctorId, d.name AS doctorName, d.specialization AS specialization, "
+			+ "d.consultationFee AS consultationFee, d.slotDurationMinutes AS slotDurationMinutes, "
+			+ "a.dayOfWeek AS dayOfWeek, a.startTime AS startTime, a.endTime AS endTime "
+			+ "FROM DoctorAvailability a JOIN a.doctor d "
+			+ "WHERE LOWER(d.specialization) = LOWER(:specialization) "
+			+ "AND (:maxFee IS NULL OR d.consultationFee <= :maxFee) ORDER BY d.doctorId")
+	List<ScheduleRow> findSchedulesBySpecialization(@Param("specialization") String specialization,
+			@Param("maxFee") BigDecimal maxFee);
 }
@@ -0,0 +1,33 @@
+package com.genc.hms.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.genc.hms.entity.ScheduleException;
+
+@Repository
+public interface ScheduleExceptionRepository extends JpaRepository<ScheduleException, Long> {
+
+	// Every block (doctor and hospital-wide) that has not ended by the given
+	// time; this is what the in-memory exception index is compiled from
+	@Query("SELECT e FROM ScheduleException e WHERE e.endAt > :after")
+	List<ScheduleException> findEndingAfter(@Param("after") LocalDateTime after);
+
+	// One doctor's own blocks that have not ended by the given time
+	@Query("SELECT e FROM ScheduleException e WHERE e.doctor.doctorId = :doctorId AND e.endAt > :after")
+	List<ScheduleException> findForDoctorEndingAfter(@Param("doctorId") Long doctorId,
+			@Param("after") LocalDateTime after);
+
+	// Blocks overlapping [from, to) that apply to the doctor (own and
+	// hospital-wide), or all blocks when doctorId is null, in start order
+	@Query("SELECT e FROM ScheduleException e LEFT JOIN e.doctor d WHERE e.startAt < :to AND e.endAt > :from "
+			+ "AND (:doctorId IS NULL OR d IS NULL OR d.doctorId = :doctorId) "
+			+ "ORDER BY e.startAt, e.scheduleExceptionId")
+	List<ScheduleException> findOverlapping(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from,
+			@Param("to") LocalDateTime to);
+}
@@ -0,0 +1,35 @@
+package com.genc.hms.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.genc.hms.entity.WaitlistEntry;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.WaitlistStatus;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+	// Retrieves a patient's waitlist entries, most recent first
+	List<WaitlistEntry> findByPatient_PatientIdOrderByCreatedAtDesc(Long patientId);
+
+	// True if the patient is already waiting on this doctor-day
+	boolean existsByPatient_PatientIdAndDoctor_DoctorIdAndRequestedDateAndStatus(Long patientId, Long doctorId,
+			LocalDate requestedDate, WaitlistStatus status);
+
+	// Oldest waiting entries of a doctor-day whose patient has no active appointment
+	// with that doctor on that day yet (eligible for a freed slot)
+	@Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.patient WHERE w.doctor.doctorId = :doctorId "
+			+ "AND w.requestedDate = :date AND w.status = :waiting AND NOT EXISTS (SELECT 1 FROM Appointment a "
+			+ "WHERE a.patient = w.patient AND a.doctor = w.doctor AND a.appointmentDate = w.requestedDate "
+			+ "AND a.status <> :cancelled) ORDER BY w.createdAt, w.waitlistEntryId")
+	List<WaitlistEntry> findEligible(@Param("doctorId") Long doctorId, @Param("date") LocalDate date,
+			@Param("waiting") WaitlistStatus waiting, @Param("cancelled") AppointmentStatus cancelled,
+			Pageable pageable);
+}
@@ -1,5 +1,6 @@
 package com.genc.hms.service;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.genc.hms.dto.AppointmentResponseDTO;
 import com.genc.hms.dto.BillResponseDTO;
+import com.genc.hms.dto.CursorPageDTO;
 import com.genc.hms.dto.DoctorProfileUpdateDTO;
 import com.genc.hms.dto.DoctorRegisterRequestDTO;
 import com.genc.hms.dto.DoctorResponseDTO;
@@ -16,6 +18,7 @@ import com.genc.hms.dto.PatientResponseDTO;
 import com.genc.hms.dto.UserResponseDTO;
 import com.genc.hms.dto.UserUpdateRoleAndEmailDTO;
 import com.genc.hms.entity.User;
+import com.genc.hms.enums.AppointmentStatus;
 import com.genc.hms.exception.GlobalExceptionHandler.ResourceNotFoundException;
 import com.genc.hms.repository.UserRepository;
 import com.genc.hms.util.CustomPasswordEncoder;
@@ -162,25 +165,27 @@ public class AdminService {
 	/**
 	 * Updates a doctor's profile (non-identity fields, e.g., contact,
 	 * specialization). Delegates to the DoctorService method, which should throw
-	 * ResourceNotFoundException.
+	 * ResourceNotFoundException, or PreconditionFailedException when
+	 * expectedVersion is stale.
 	 */
 	@Transactional
-	public DoctorResponseDTO updateDoctorProfile(Long doctorId, DoctorProfileUpdateDTO updateDTO) { // 🚨 Direct DTO
-																									// return
+	public DoctorResponseDTO updateDoctorProfile(Long doctorId, DoctorProfileUpdateDTO updateDTO,
+			Long expectedVersion) { // 🚨 Direct DTO return
 		// Assuming doctorService.updateDoctorProfile now returns DTO or throws
 		// Exception
-		return doctorService.updateDoctorProfile(doctorId, updateDTO)
+		return doctorService.updateDoctorProfile(doctorId, updateDTO, expectedVersion)
 				.orElseThrow(() -> new ResourceNotFoundException("No Doctor Present with Id : " + doctorId));
 	}
 
 	// --- Appointment Management ---
 
 	/**
-	 * Retrieves all appointments.
+	 * Retrieves one keyset page of appointments matching the optional filters.
 	 */
 	@Transactional(readOnly = true)
-	public List<AppointmentResponseDTO> getAllAppointments() {
-		return appointmentService.findAllAppointments();
+	public CursorPageDTO<AppointmentResponseDTO> getAppointmentsPage(AppointmentStatus status, Long doctorId,
+			Long patientId, LocalDate from, LocalDate to, String cursor, int size) {
+		return appointmentService.findAppointmentsPage(status, doctorId, patientId, from, to, cursor, size);
 	}
 
 	// --- Billing Management ---
@@ -1,36 +1,70 @@
 package com.genc.hms.service;
 
+import java.time.DayOfWeek;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.IntPredicate;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.genc.hms.dto.AppointmentBulkStatusRequestDTO;
+import com.genc.hms.dto.AppointmentBulkStatusResponseDTO;
+import com.genc.hms.dto.AppointmentBulkStatusResponseDTO.RejectedItem;
 import com.genc.hms.dto.AppointmentRequestDTO;
 import com.genc.hms.dto.AppointmentResponseDTO;
+import com.genc.hms.dto.AppointmentSeriesRequestDTO;
+import com.genc.hms.dto.AppointmentSeriesResponseDTO;
+import com.genc.hms.dto.AppointmentSeriesResponseDTO.RejectedOccurrence;
+import com.genc.hms.dto.ChangeFeedDTO;
+import com.genc.hms.dto.CursorPageDTO;
+import com.genc.hms.dto.SlotHoldRequestDTO;
+import com.genc.hms.dto.SlotHoldResponseDTO;
 import com.genc.hms.entity.Appointment;
 import com.genc.hms.entity.Doctor;
-import com.genc.hms.entity.DoctorAvailability;
 import com.genc.hms.entity.Patient;
 import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.event.SlotChangedEvent;
+import com.genc.hms.exception.GlobalExceptionHandler.ConflictException;
 import com.genc.hms.exception.GlobalExceptionHandler.ResourceNotFoundException;
 import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.repository.AppointmentRepository.BookedSlot;
+import com.genc.hms.service.SlotTemplateCache.DayTemplate;
+import com.genc.hms.service.SlotTemplateCache.DoctorTemplates;
+import com.genc.hms.util.ChangeToken;
+import com.genc.hms.util.Constraints;
+import com.genc.hms.util.KeysetCursor;
+import com.genc.hms.util.ETags;
+import com.genc.hms.util.SlotRange;
+import com.genc.hms.util.TimeSlots;
 
 @Service
 public class AppointmentService {
 
 	// --- Constants ---
-	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
-	private static final int SLOT_DURATION_MINUTES = 30; // Standard appointment duration
+	static final int MAX_SLOT_RANGE_DAYS = 31; // Longest date range served by slot queries
+	private static final int MAX_SERIES_OCCURRENCES = 52; // One year of weekly appointments
+	public static final int DEFAULT_PAGE_SIZE = 20;
+	public static final int MAX_PAGE_SIZE = 100;
 
 	// --- Dependencies ---
 	@Autowired
@@ -45,83 +79,129 @@ public class AppointmentService {
 	@Autowired
 	private BillingService billingService;
 
+	@Autowired
+	private SlotOccupancyIndex slotOccupancyIndex;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private DoctorDayLocks doctorDayLocks;
+
+	@Autowired
+	private SlotHoldRegistry slotHolds;
+
+	@Autowired
+	private ScheduleExceptionIndex scheduleExceptions;
+
+	@Autowired
+	private SlotTemplateCache slotTemplates;
+
+	@Autowired
+	private SlotListCache slotListCache;
+
+	@Autowired
+	private OptimisticRetry optimisticRetry;
+
 	// =================================================================================
 	// I. PRIVATE UTILITY & VALIDATION METHODS (MODIFIED to throw clear exceptions)
 	// =================================================================================
 
 	/**
-	 * Converts a time slot string ("HH:mm-HH:mm") into LocalTime start/end objects.
+	 * Converts a time slot string ("HH:mm-HH:mm") into a minute-of-day range. Each
+	 * request is parsed exactly once; everything downstream works on integers.
 	 */
-	private LocalTime[] parseTimeSlot(String timeSlot) {
-		String[] parts = timeSlot.split("-");
-		if (parts.length != 2)
-			throw new IllegalArgumentException("Invalid time slot format: " + timeSlot);
-		try {
-			return new LocalTime[] { LocalTime.parse(parts[0], TIME_FORMATTER),
-					LocalTime.parse(parts[1], TIME_FORMATTER) };
-		} catch (Exception e) {
-			throw new IllegalArgumentException("Invalid time format in slot: " + timeSlot);
-		}
+	private SlotRange parseTimeSlot(String timeSlot) {
+		return TimeSlots.parse(timeSlot);
 	}
 
 	/**
-	 * Validates a requested appointment slot against a doctor's general schedule
-	 * and standard duration. Throws IllegalArgumentException on failure.
+	 * Validates a requested appointment slot against a doctor's general schedule,
+	 * slot duration and leave/holiday blocks. Throws IllegalArgumentException
+	 * on failure.
 	 */
-	private void validateTimeSlot(Doctor doctor, LocalDate date, String timeSlot) {
-		LocalTime[] times = parseTimeSlot(timeSlot);
-		LocalTime startTime = times[0];
-		LocalTime endTime = times[1];
+	private void validateTimeSlot(Doctor doctor, LocalDate date, SlotRange slot) {
+		validateWeeklySchedule(doctor, date, slot);
+		if (scheduleExceptions.isBlocked(doctor.getDoctorId(), date, slot.startMinute(), slot.endMinute())) {
+			throw new IllegalArgumentException(unavailableMessage(doctor.getDoctorId(), date, slot));
+		}
+	}
 
-		long duration = ChronoUnit.MINUTES.between(startTime, endTime);
-		if (duration != SLOT_DURATION_MINUTES) {
+	/**
+	 * Validates a slot against the weekly schedule and the doctor's slot duration
+	 * only, using the cached slot template. Throws IllegalArgumentException on
+	 * failure.
+	 */
+	private void validateWeeklySchedule(Doctor doctor, LocalDate date, SlotRange slot) {
+		DoctorTemplates templates = slotTemplates.get(doctor);
+		if (slot.durationMinutes() != templates.durationMinutes()) {
 			throw new IllegalArgumentException(
-					"Requested slot duration must be " + SLOT_DURATION_MINUTES + " minutes.");
+					"Requested slot duration must be " + templates.durationMinutes() + " minutes.");
 		}
 
 		// Check general availability
-		DoctorAvailability availability = checkDoctorGeneralAvailability(doctor, date).orElseThrow(
-				() -> new IllegalArgumentException("Doctor is not available on " + date.getDayOfWeek() + "."));
+		DayTemplate template = templates.forDay(date.getDayOfWeek());
+		if (template == null) {
+			throw new IllegalArgumentException("Doctor is not available on " + date.getDayOfWeek() + ".");
+		}
 
-		// Check if slot falls within working hours
-		if (startTime.isBefore(availability.getStartTime()) || endTime.isAfter(availability.getEndTime())) {
+		// Check if slot falls within one of the day's working windows
+		if (!template.withinHours(slot.startMinute(), slot.endMinute())) {
 			throw new IllegalArgumentException("Requested slot is outside the doctor's scheduled working hours ("
-					+ availability.getStartTime().format(TIME_FORMATTER) + " - "
-					+ availability.getEndTime().format(TIME_FORMATTER) + ").");
+					+ template.hoursLabel() + ").");
+		}
+	}
+
+	private static String unavailableMessage(Long doctorId, LocalDate date, SlotRange slot) {
+		return "Doctor " + doctorId + " is not available at " + slot.label() + " on " + date
+				+ " (leave or hospital holiday).";
+	}
+
+	/**
+	 * Checks if the requested slot overlaps an existing booking for a doctor
+	 * (ignoring cancelled appointments). Throws ConflictException on conflict.
+	 * Callers hold the doctor-day lock so the check cannot race another booking.
+	 */
+	private void checkSlotConflict(Long doctorId, LocalDate date, SlotRange slot) {
+		if (appointmentRepository.countOverlappingSlots(doctorId, date, slot.startMinute(), slot.endMinute(),
+				AppointmentStatus.CANCELLED) > 0) {
+			throw slotConflict(doctorId, date, slot);
 		}
 	}
 
 	/**
-	 * Returns the DoctorAvailability for the given date's weekday.
+	 * Same as checkSlotConflict but ignores the appointment being rescheduled.
 	 */
-	private Optional<DoctorAvailability> checkDoctorGeneralAvailability(Doctor doctor, LocalDate date) {
-		return doctor.getDoctorAvailabilities().stream()
-				.filter(a -> a.getDayOfWeek().name().equals(date.getDayOfWeek().name())).findFirst();
+	private void checkSlotConflict(Long doctorId, LocalDate date, SlotRange slot, Long appointmentId) {
+		if (appointmentRepository.countOverlappingSlotsExcluding(doctorId, date, slot.startMinute(), slot.endMinute(),
+				AppointmentStatus.CANCELLED, appointmentId) > 0) {
+			throw slotConflict(doctorId, date, slot);
+		}
 	}
 
 	/**
-	 * Checks if the requested slot is already booked for a doctor (ignoring
-	 * cancelled appointments). Throws IllegalStateException on conflict.
+	 * Rejects a booking of a slot that another patient currently holds. Throws
+	 * ConflictException; the holder itself may book the slot.
 	 */
-	private void checkSlotConflict(Long doctorId, LocalDate date, String timeSlot) {
-		if (appointmentRepository.countByDoctorDoctorIdAndAppointmentDateAndTimeSlotAndStatusNot(doctorId, date,
-				timeSlot, AppointmentStatus.CANCELLED) > 0) {
-			throw new IllegalStateException("The requested time slot " + timeSlot + " is already booked for doctor "
-					+ doctorId + " on " + date + ".");
+	private void checkSlotHold(Long doctorId, LocalDate date, SlotRange slot, Long patientId) {
+		if (slotHolds.isHeldByOther(doctorId, date, slot.startMinute(), slot.endMinute(), patientId)) {
+			throw new ConflictException("The requested time slot " + slot.label() + " is currently held by another "
+					+ "patient. Please choose a different slot.");
 		}
 	}
 
+	private ConflictException slotConflict(Long doctorId, LocalDate date, SlotRange slot) {
+		return new ConflictException("The requested time slot " + slot.label() + " is already booked for doctor "
+				+ doctorId + " on " + date + ".");
+	}
+
 	/**
 	 * Validates that the requested appointment date and time is in the future.
 	 * Throws IllegalArgumentException if the time is in the past.
 	 */
-	private void validateAppointmentTimeInFuture(LocalDate date, String timeSlot) {
-		// Assuming timeSlot is "HH:mm-HH:mm"
-		LocalTime[] times = parseTimeSlot(timeSlot);
-		LocalTime startTime = times[0];
-
+	private void validateAppointmentTimeInFuture(LocalDate date, SlotRange slot) {
 		// Combine date and start time to get the exact appointment moment
-		LocalDateTime appointmentDateTime = LocalDateTime.of(date, startTime);
+		LocalDateTime appointmentDateTime = date.atStartOfDay().plusMinutes(slot.startMinute());
 		LocalDateTime currentDateTime = LocalDateTime.now();
 
 		if (appointmentDateTime.isBefore(currentDateTime)) {
@@ -130,6 +210,35 @@ public class AppointmentService {
 		}
 	}
 
+	/**
+	 * Publishes a taken/freed event for the appointment's current slot. Listeners
+	 * (e.g., the occupancy index) only see it once the transaction commits.
+	 */
+	private void publishSlotChange(Appointment appointment, boolean taken) {
+		SlotRange slot = appointment.getSlot();
+		Long doctorId = appointment.getDoctor().getDoctorId();
+		LocalDate date = appointment.getAppointmentDate();
+		eventPublisher.publishEvent(taken ? SlotChangedEvent.taken(doctorId, date, slot.startMinute(), slot.endMinute())
+				: SlotChangedEvent.freed(doctorId, date, slot.startMinute(), slot.endMinute()));
+	}
+
+	/**
+	 * Saves and flushes an appointment that occupies its slot. If the active-slot
+	 * exclusion constraint rejects it (another node booked an overlapping slot
+	 * first), the violation is reported as the usual slot ConflictException.
+	 */
+	private Appointment saveActiveAppointment(Appointment appointment) {
+		try {
+			return appointmentRepository.saveAndFlush(appointment);
+		} catch (DataIntegrityViolationException e) {
+			if (!Constraints.isSlotConflict(e)) {
+				throw e;
+			}
+			throw slotConflict(appointment.getDoctor().getDoctorId(), appointment.getAppointmentDate(),
+					appointment.getSlot());
+		}
+	}
+
 	/**
 	 * Maps an Appointment entity to a response DTO.
 	 */
@@ -138,7 +247,8 @@ public class AppointmentService {
 		Patient patient = appointment.getPatient();
 		return new AppointmentResponseDTO(appointment.getAppointmentId(), patient.getPatientId(), patient.getName(),
 				doctor.getDoctorId(), doctor.getName(), doctor.getSpecialization(), appointment.getAppointmentDate(),
-				appointment.getTimeSlot(), appointment.getReason(), appointment.getStatus(), appointment.getRemarks());
+				appointment.getTimeSlot(), appointment.getReason(), appointment.getStatus(), appointment.getRemarks(),
+				appointment.getVersion());
 	}
 
 	/**
@@ -147,7 +257,7 @@ public class AppointmentService {
 	 */
 	@Transactional(readOnly = true)
 	public AppointmentResponseDTO getAppointmentResponseById(Long appointmentId) {
-		return appointmentRepository.findById(appointmentId).map(this::mapAppointmentToResponseDTO)
+		return appointmentRepository.findResponseById(appointmentId)
 				.orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + appointmentId));
 	}
 
@@ -159,27 +269,88 @@ public class AppointmentService {
 	/** Returns all appointments (admin view). */
 	@Transactional(readOnly = true)
 	public List<AppointmentResponseDTO> findAllAppointments() {
-		return appointmentRepository.findAll().stream().map(this::mapAppointmentToResponseDTO).toList();
+		return appointmentRepository.findAllResponses();
+	}
+
+	/**
+	 * Returns one keyset page of appointments ordered by (appointmentDate,
+	 * appointmentId), optionally filtered by status, doctor, patient and date
+	 * range (null means no filter). Pass the previous page's nextCursor to
+	 * continue; every page costs one index seek. Throws IllegalArgumentException
+	 * if the size, range or cursor is invalid.
+	 */
+	@Transactional(readOnly = true)
+	public CursorPageDTO<AppointmentResponseDTO> findAppointmentsPage(AppointmentStatus status, Long doctorId,
+			Long patientId, LocalDate from, LocalDate to, String cursor, int size) {
+		if (size < 1 || size > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+		}
+		if (from != null && to != null && to.isBefore(from)) {
+			throw new IllegalArgumentException("Range end " + to + " is before range start " + from + ".");
+		}
+
+		// One extra row tells whether another page follows
+		List<AppointmentResponseDTO> rows = appointmentRepository.findResponsesAfter(status, doctorId, patientId,
+				from, to, KeysetCursor.decode(cursor), size + 1);
+		if (rows.size() <= size) {
+			return new CursorPageDTO<>(rows, null);
+		}
+		List<AppointmentResponseDTO> page = rows.subList(0, size);
+		AppointmentResponseDTO last = page.get(size - 1);
+		return new CursorPageDTO<>(new ArrayList<>(page),
+				new KeysetCursor(last.getAppointmentDate(), last.getAppointmentId()).encode());
+	}
+
+	/**
+	 * Returns the appointments inserted or updated since the given change token
+	 * (all of them when it is null), oldest change first, optionally for one
+	 * doctor. Status changes, reschedules and cancellations all show up. Pass
+	 * nextSince back on the next poll; each poll is one index range scan sized by
+	 * the churn since the last one. Throws IllegalArgumentException if the size or
+	 * token is invalid.
+	 */
+	@Transactional(readOnly = true)
+	public ChangeFeedDTO<AppointmentResponseDTO> getChangesSince(String since, Long doctorId, int size) {
+		if (size < 1 || size > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+		}
+		ChangeToken after = ChangeToken.decode(since);
+		long horizon = appointmentRepository.findChangeHorizon();
+
+		// One extra row tells whether the feed was cut at the page size
+		PageRequest page = PageRequest.of(0, size + 1);
+		List<Appointment> rows = doctorId == null
+				? appointmentRepository.findChangedBefore(after.version(), after.id(), horizon, page)
+				: appointmentRepository.findChangedBeforeForDoctor(doctorId, after.version(), after.id(), horizon,
+						page);
+		if (rows.size() <= size) {
+			// Caught up: everything below the horizon has been delivered
+			ChangeToken next = horizon > after.version() ? new ChangeToken(horizon, 0) : after;
+			return new ChangeFeedDTO<>(rows.stream().map(this::mapAppointmentToResponseDTO).toList(), next.encode(),
+					false);
+		}
+		List<Appointment> changed = rows.subList(0, size);
+		Appointment last = changed.get(size - 1);
+		return new ChangeFeedDTO<>(changed.stream().map(this::mapAppointmentToResponseDTO).toList(),
+				new ChangeToken(last.getChangeVersion(), last.getAppointmentId()).encode(), true);
 	}
 
 	/** Returns all appointments for a specific patient. */
 	@Transactional(readOnly = true)
 	public List<AppointmentResponseDTO> getAppointmentsForPatient(Long patientId) {
-		return appointmentRepository.findByPatient_PatientIdOrderByAppointmentDateAsc(patientId).stream()
-				.map(this::mapAppointmentToResponseDTO).toList();
+		return appointmentRepository.findResponsesByPatientId(patientId);
 	}
 
 	/** Returns all appointments for a specific doctor. */
 	@Transactional(readOnly = true)
 	public List<AppointmentResponseDTO> getAppointmentsForDoctor(Long doctorId) {
-		return appointmentRepository.findByDoctor_DoctorIdOrderByAppointmentDateAsc(doctorId).stream()
-				.map(this::mapAppointmentToResponseDTO).toList();
+		return appointmentRepository.findResponsesByDoctorId(doctorId);
 	}
 
 	/** Finds an appointment by ID and returns the DTO. */
 	@Transactional(readOnly = true)
 	public Optional<AppointmentResponseDTO> findAppointmentById(Long appointmentId) {
-		return appointmentRepository.findById(appointmentId).map(this::mapAppointmentToResponseDTO);
+		return appointmentRepository.findResponseById(appointmentId);
 	}
 
 	/** Returns the raw Appointment entity (internal use). */
@@ -189,36 +360,134 @@ public class AppointmentService {
 	}
 
 	/**
-	 * Returns all available 30-minute slots for a doctor on a given date. Throws
-	 * ResourceNotFoundException if doctorId is invalid.
+	 * Returns all available slots for a doctor on a given date, in the doctor's
+	 * slot duration. Throws ResourceNotFoundException if doctorId is invalid.
+	 * The slot grid comes from the template cache and the slots free of bookings
+	 * from the slot-list cache, or on a miss from the in-memory occupancy index;
+	 * the database is only queried for dates the index does not cover (past
+	 * dates, or before warm-up has finished).
 	 */
 	@Transactional(readOnly = true)
 	public List<String> getAvailableSlots(Long doctorId, LocalDate date) {
-		// Use orElseThrow pattern
-		Doctor doctor = doctorService.findById(doctorId)
-				.orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + doctorId));
+		DayTemplate template = slotTemplates.get(doctorId).forDay(date.getDayOfWeek());
+		if (template == null || scheduleExceptions.isBlockedAllDay(doctorId, date))
+			return List.of(); // Returns empty if no general availability or on leave
+
+		int[] unbooked = slotListCache.get(doctorId, date, template);
+		if (unbooked == null) {
+			long generation = slotListCache.generation(doctorId);
+			int duration = template.durationMinutes();
+			if (slotOccupancyIndex.covers(date)) {
+				// Fast path: answer entirely from the occupancy index
+				unbooked = unbookedSlots(template,
+						start -> slotOccupancyIndex.isFree(doctorId, date, start, start + duration));
+			} else {
+				List<SlotRange> booked = appointmentRepository
+						.findByDoctorDoctorIdAndAppointmentDateAndStatusNot(doctorId, date, AppointmentStatus.CANCELLED)
+						.stream().map(Appointment::getSlot).toList();
+				unbooked = unbookedSlots(template, start -> noneOverlap(booked, start, duration));
+			}
+			slotListCache.put(doctorId, date, template, unbooked, generation);
+		}
+		return freeSlots(doctorId, date, template, unbooked);
+	}
 
-		Optional<DoctorAvailability> availabilityOpt = checkDoctorGeneralAvailability(doctor, date);
-		if (availabilityOpt.isEmpty())
-			return List.of(); // Returns empty if no general availability
+	/**
+	 * Returns the available slots for a doctor on every date in [from, to], keyed
+	 * by date in ascending order (dates without availability map to an empty
+	 * list). The slot grid comes from the template cache and days missing from the
+	 * slot-list cache are filled from the occupancy index or, for dates it does
+	 * not cover, a single range query. The range is capped at
+	 * MAX_SLOT_RANGE_DAYS; throws IllegalArgumentException otherwise.
+	 */
+	@Transactional(readOnly = true)
+	public Map<LocalDate, List<String>> getAvailableSlots(Long doctorId, LocalDate from, LocalDate to) {
+		if (to.isBefore(from)) {
+			throw new IllegalArgumentException("Range end " + to + " is before range start " + from + ".");
+		}
+		if (ChronoUnit.DAYS.between(from, to) >= MAX_SLOT_RANGE_DAYS) {
+			throw new IllegalArgumentException("Slot range cannot exceed " + MAX_SLOT_RANGE_DAYS + " days.");
+		}
 
-		DoctorAvailability availability = availabilityOpt.get();
-		List<String> allSlots = new ArrayList<>();
-		LocalTime current = availability.getStartTime();
+		DoctorTemplates templates = slotTemplates.get(doctorId);
+		int duration = templates.durationMinutes();
+		long generation = slotListCache.generation(doctorId);
 
-		while (current.plusMinutes(SLOT_DURATION_MINUTES).isBefore(availability.getEndTime().plusSeconds(1))) {
-			String slot = current.format(TIME_FORMATTER) + "-"
-					+ current.plusMinutes(SLOT_DURATION_MINUTES).format(TIME_FORMATTER);
-			allSlots.add(slot);
-			current = current.plusMinutes(SLOT_DURATION_MINUTES);
+		// The index covers every date from its start onwards, so one check decides
+		boolean indexed = slotOccupancyIndex.covers(from);
+		Map<LocalDate, List<SlotRange>> bookedByDate = null; // Loaded on the first cache miss
+
+		Map<LocalDate, List<String>> slotsByDate = new LinkedHashMap<>();
+		for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+			DayTemplate template = templates.forDay(date.getDayOfWeek());
+			if (template == null || scheduleExceptions.isBlockedAllDay(doctorId, date)) {
+				slotsByDate.put(date, List.of());
+				continue;
+			}
+			int[] unbooked = slotListCache.get(doctorId, date, template);
+			if (unbooked == null) {
+				LocalDate day = date;
+				if (indexed) {
+					unbooked = unbookedSlots(template,
+							start -> slotOccupancyIndex.isFree(doctorId, day, start, start + duration));
+				} else {
+					if (bookedByDate == null) {
+						bookedByDate = findBookedSlotsByDate(doctorId, from, to);
+					}
+					List<SlotRange> booked = bookedByDate.getOrDefault(date, List.of());
+					unbooked = unbookedSlots(template, start -> noneOverlap(booked, start, duration));
+				}
+				slotListCache.put(doctorId, date, template, unbooked, generation);
+			}
+			slotsByDate.put(date, freeSlots(doctorId, date, template, unbooked));
 		}
+		return slotsByDate;
+	}
 
-		// Remove already booked slots
-		Set<String> booked = appointmentRepository
-				.findByDoctorDoctorIdAndAppointmentDateAndStatusNot(doctorId, date, AppointmentStatus.CANCELLED)
-				.stream().map(Appointment::getTimeSlot).collect(Collectors.toSet());
+	private Map<LocalDate, List<SlotRange>> findBookedSlotsByDate(Long doctorId, LocalDate from, LocalDate to) {
+		Map<LocalDate, List<SlotRange>> bookedByDate = new HashMap<>();
+		for (BookedSlot slot : appointmentRepository.findBookedSlotsForDoctorBetween(doctorId, from, to,
+				AppointmentStatus.CANCELLED)) {
+			bookedByDate.computeIfAbsent(slot.getAppointmentDate(), d -> new ArrayList<>())
+					.add(SlotRange.ofDuration(slot.getSlotStartMinute(), slot.getSlotDurationMinutes()));
+		}
+		return bookedByDate;
+	}
+
+	/** Returns the template indexes of the slots whose start minute passes the free check. */
+	private static int[] unbookedSlots(DayTemplate template, IntPredicate isFree) {
+		int[] starts = template.starts();
+		int[] unbooked = new int[starts.length];
+		int count = 0;
+		for (int i = 0; i < starts.length; i++) {
+			if (isFree.test(starts[i]))
+				unbooked[count++] = i;
+		}
+		return Arrays.copyOf(unbooked, count);
+	}
+
+	/**
+	 * Returns the precomputed label of every unbooked template slot that is
+	 * neither held nor inside a leave/holiday block. Holds and blocks change
+	 * without a booking, so they are checked on every call rather than cached.
+	 */
+	private List<String> freeSlots(Long doctorId, LocalDate date, DayTemplate template, int[] unbooked) {
+		int[] starts = template.starts();
+		int duration = template.durationMinutes();
+		List<String> freeSlots = new ArrayList<>(unbooked.length);
+		for (int i : unbooked) {
+			int start = starts[i];
+			if (!slotHolds.isHeld(doctorId, date, start, start + duration)
+					&& !scheduleExceptions.isBlocked(doctorId, date, start, start + duration)) {
+				freeSlots.add(template.labels()[i]);
+			}
+		}
+		return freeSlots;
+	}
 
-		return allSlots.stream().filter(s -> !booked.contains(s)).toList();
+	private boolean noneOverlap(List<SlotRange> booked, int start, int duration) {
+		SlotRange candidate = SlotRange.ofDuration(start, duration);
+		return booked.stream().noneMatch(candidate::overlaps);
 	}
 
 	// =================================================================================
@@ -228,13 +497,14 @@ public class AppointmentService {
 	/**
 	 * * Books a new appointment with validation against availability and conflicts.
 	 * Throws ResourceNotFoundException, IllegalArgumentException, or
-	 * IllegalStateException on failure.
+	 * IllegalStateException on failure (ConflictException if the slot is taken).
 	 */
 	@Transactional
 	public AppointmentResponseDTO bookAppointment(AppointmentRequestDTO requestDTO) {
 
 		// 1. New Check: Validate if the appointment time is in the past
-		validateAppointmentTimeInFuture(requestDTO.getAppointmentDate(), requestDTO.getTimeSlot());
+		SlotRange slot = parseTimeSlot(requestDTO.getTimeSlot());
+		validateAppointmentTimeInFuture(requestDTO.getAppointmentDate(), slot);
 
 		// Retrieve entities or throw 404
 		Patient patient = patientService.findById(requestDTO.getPatientId()).orElseThrow(
@@ -243,26 +513,187 @@ public class AppointmentService {
 				() -> new ResourceNotFoundException("Doctor not found with ID: " + requestDTO.getDoctorId()));
 
 		// Validate slot against doctor's schedule (throws IllegalArgumentException)
-		validateTimeSlot(doctor, requestDTO.getAppointmentDate(), requestDTO.getTimeSlot());
+		validateTimeSlot(doctor, requestDTO.getAppointmentDate(), slot);
 
-		// Validate slot against existing bookings (throws IllegalStateException)
-		checkSlotConflict(requestDTO.getDoctorId(), requestDTO.getAppointmentDate(), requestDTO.getTimeSlot());
+		// Serialize bookings for this doctor-day, then validate against existing
+		// bookings (throws ConflictException)
+		doctorDayLocks.lockUntilCompletion(requestDTO.getDoctorId(), requestDTO.getAppointmentDate());
+		checkSlotHold(requestDTO.getDoctorId(), requestDTO.getAppointmentDate(), slot, patient.getPatientId());
+		checkSlotConflict(requestDTO.getDoctorId(), requestDTO.getAppointmentDate(), slot);
 
 		Appointment appointment = new Appointment();
 		appointment.setPatient(patient);
 		appointment.setDoctor(doctor);
 		appointment.setAppointmentDate(requestDTO.getAppointmentDate());
-		appointment.setTimeSlot(requestDTO.getTimeSlot());
+		appointment.setSlot(slot);
 		appointment.setReason(requestDTO.getReason());
 		appointment.setStatus(AppointmentStatus.CONFIRMED);
 
-		Appointment saved = appointmentRepository.save(appointment);
+		// Appointment and bill are inserted in one flush (the bill cascades to it)
+		try {
+			billingService.createWithInitialBill(appointment, doctor);
+		} catch (DataIntegrityViolationException e) {
+			if (!Constraints.isSlotConflict(e)) {
+				throw e;
+			}
+			throw slotConflict(doctor.getDoctorId(), appointment.getAppointmentDate(), slot);
+		}
+		publishSlotChange(appointment, true);
 
-		// Billing service should now return DTO or throw exception (we don't need the
-		// result here)
-		billingService.createInitialBill(saved, doctor);
+		return mapAppointmentToResponseDTO(appointment);
+	}
 
-		return mapAppointmentToResponseDTO(saved);
+	/**
+	 * Books a weekly recurring series. The slot and the doctor's schedule are
+	 * validated once, every occurrence is checked for conflicts with a single
+	 * query, and the free occurrences are inserted (appointments and bills) in one
+	 * batched transaction. Occurrences that are in the past or already taken are
+	 * reported as rejected instead of failing the whole series. Throws
+	 * ResourceNotFoundException or IllegalArgumentException if the request itself
+	 * is invalid.
+	 */
+	@Transactional
+	public AppointmentSeriesResponseDTO bookAppointmentSeries(AppointmentSeriesRequestDTO requestDTO) {
+		SlotRange slot = parseTimeSlot(requestDTO.getTimeSlot());
+		List<LocalDate> dates = expandSeries(requestDTO);
+
+		Patient patient = patientService.findById(requestDTO.getPatientId()).orElseThrow(
+				() -> new ResourceNotFoundException("Patient not found with ID: " + requestDTO.getPatientId()));
+		Doctor doctor = doctorService.findById(requestDTO.getDoctorId()).orElseThrow(
+				() -> new ResourceNotFoundException("Doctor not found with ID: " + requestDTO.getDoctorId()));
+
+		// Every occurrence falls on the same weekday and slot, so one check covers all
+		validateWeeklySchedule(doctor, dates.get(0), slot);
+
+		List<RejectedOccurrence> rejected = new ArrayList<>();
+		List<LocalDate> candidates = new ArrayList<>();
+		LocalDateTime now = LocalDateTime.now();
+		for (LocalDate date : dates) {
+			if (date.atStartOfDay().plusMinutes(slot.startMinute()).isBefore(now)) {
+				rejected.add(new RejectedOccurrence(date, "Occurrence is in the past."));
+			} else if (scheduleExceptions.isBlocked(doctor.getDoctorId(), date, slot.startMinute(),
+					slot.endMinute())) {
+				rejected.add(new RejectedOccurrence(date, "Doctor is on leave or the hospital is closed."));
+			} else {
+				candidates.add(date);
+			}
+		}
+
+		List<Appointment> appointments = new ArrayList<>();
+		if (!candidates.isEmpty()) {
+			doctorDayLocks.lockUntilCompletion(doctor.getDoctorId(), candidates);
+			Set<LocalDate> conflicts = new HashSet<>(appointmentRepository.findConflictingDates(doctor.getDoctorId(),
+					candidates, slot.startMinute(), slot.endMinute(), AppointmentStatus.CANCELLED));
+			for (LocalDate date : candidates) {
+				if (conflicts.contains(date)) {
+					rejected.add(new RejectedOccurrence(date, "Time slot " + slot.label() + " is already booked."));
+				} else if (slotHolds.isHeldByOther(doctor.getDoctorId(), date, slot.startMinute(), slot.endMinute(),
+						patient.getPatientId())) {
+					rejected.add(new RejectedOccurrence(date, "Time slot " + slot.label() + " is currently held."));
+				} else {
+					appointments.add(new Appointment(patient, doctor, date, slot, requestDTO.getReason(),
+							AppointmentStatus.CONFIRMED, null));
+				}
+			}
+		}
+
+		if (!appointments.isEmpty()) {
+			try {
+				appointmentRepository.saveAllAndFlush(appointments);
+			} catch (DataIntegrityViolationException e) {
+				if (!Constraints.isSlotConflict(e)) {
+					throw e;
+				}
+				throw new ConflictException("An occurrence of the series was booked concurrently. Please try again.");
+			}
+			billingService.createInitialBills(appointments, doctor);
+			appointments.forEach(appointment -> publishSlotChange(appointment, true));
+		}
+
+		rejected.sort(Comparator.comparing(RejectedOccurrence::getAppointmentDate));
+		return new AppointmentSeriesResponseDTO(appointments.stream().map(this::mapAppointmentToResponseDTO).toList(),
+				rejected);
+	}
+
+	/**
+	 * Expands a series rule into its weekly dates. Throws IllegalArgumentException
+	 * if the series is empty or longer than MAX_SERIES_OCCURRENCES.
+	 */
+	private List<LocalDate> expandSeries(AppointmentSeriesRequestDTO requestDTO) {
+		Integer occurrences = requestDTO.getOccurrences();
+		LocalDate untilDate = requestDTO.getUntilDate();
+		if ((occurrences == null) == (untilDate == null)) {
+			throw new IllegalArgumentException("Exactly one of occurrences or untilDate is required.");
+		}
+
+		List<LocalDate> dates = new ArrayList<>();
+		LocalDate date = requestDTO.getStartDate()
+				.with(TemporalAdjusters.nextOrSame(DayOfWeek.valueOf(requestDTO.getDayOfWeek().name())));
+		while (occurrences != null ? dates.size() < occurrences : !date.isAfter(untilDate)) {
+			if (dates.size() == MAX_SERIES_OCCURRENCES) {
+				throw new IllegalArgumentException(
+						"A series cannot exceed " + MAX_SERIES_OCCURRENCES + " occurrences.");
+			}
+			dates.add(date);
+			date = date.plusWeeks(1);
+		}
+		if (dates.isEmpty()) {
+			throw new IllegalArgumentException("The series has no occurrence on or before " + untilDate + ".");
+		}
+		return dates;
+	}
+
+	/**
+	 * Holds a free slot for the patient for the configured TTL, so the booking form
+	 * can be filled in without losing the slot. The slot disappears from slot
+	 * listings and other patients cannot book it until the hold is booked,
+	 * released or expires. Throws ResourceNotFoundException,
+	 * IllegalArgumentException, or ConflictException if the slot is booked or held.
+	 */
+	@Transactional(readOnly = true)
+	public SlotHoldResponseDTO holdSlot(SlotHoldRequestDTO requestDTO) {
+		SlotRange slot = parseTimeSlot(requestDTO.getTimeSlot());
+		LocalDate date = requestDTO.getAppointmentDate();
+		validateAppointmentTimeInFuture(date, slot);
+
+		Patient patient = patientService.findById(requestDTO.getPatientId()).orElseThrow(
+				() -> new ResourceNotFoundException("Patient not found with ID: " + requestDTO.getPatientId()));
+		Doctor doctor = doctorService.findById(requestDTO.getDoctorId()).orElseThrow(
+				() -> new ResourceNotFoundException("Doctor not found with ID: " + requestDTO.getDoctorId()));
+		validateTimeSlot(doctor, date, slot);
+
+		boolean booked = slotOccupancyIndex.covers(date)
+				? !slotOccupancyIndex.isFree(doctor.getDoctorId(), date, slot.startMinute(), slot.endMinute())
+				: appointmentRepository.countOverlappingSlots(doctor.getDoctorId(), date, slot.startMinute(),
+						slot.endMinute(), AppointmentStatus.CANCELLED) > 0;
+		if (booked) {
+			throw slotConflict(doctor.getDoctorId(), date, slot);
+		}
+
+		SlotHoldRegistry.Hold hold = slotHolds.hold(patient.getPatientId(), doctor.getDoctorId(), date,
+				slot.startMinute(), slot.endMinute());
+		if (hold == null) {
+			throw new ConflictException("The requested time slot " + slot.label() + " is currently held by another "
+					+ "patient. Please choose a different slot.");
+		}
+		return mapHoldToResponseDTO(hold);
+	}
+
+	/**
+	 * Releases a slot hold before it expires. Throws ResourceNotFoundException if
+	 * the hold does not exist or has already expired.
+	 */
+	public void releaseSlotHold(String holdId) {
+		if (slotHolds.release(holdId) == null) {
+			throw new ResourceNotFoundException("Slot hold not found or already expired: " + holdId);
+		}
+	}
+
+	private SlotHoldResponseDTO mapHoldToResponseDTO(SlotHoldRegistry.Hold hold) {
+		LocalDateTime expiresAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(hold.expiresAtMillis()),
+				ZoneId.systemDefault());
+		return new SlotHoldResponseDTO(hold.holdId(), hold.patientId(), hold.doctorId(), hold.date(),
+				TimeSlots.label(hold.startMinute(), hold.endMinute()), expiresAt);
 	}
 
 	// =================================================================================
@@ -271,16 +702,30 @@ public class AppointmentService {
 
 	/**
 	 * * Reschedules an appointment to a new date/time/doctor with validations.
-	 * Throws ResourceNotFoundException or IllegalStateException on failure.
+	 * Throws ResourceNotFoundException or IllegalStateException on failure, and
+	 * PreconditionFailedException if expectedVersion (If-Match) is given and no
+	 * longer current. Without it, a reschedule that races another write to the
+	 * appointment or its bill (e.g. a payment while the fee is moved to the new
+	 * doctor) is redone on the fresh rows, up to OptimisticRetry.MAX_ATTEMPTS
+	 * times, and then fails with OptimisticLockingFailureException (409) rather
+	 * than overwriting that write. Runs in its own transaction.
 	 */
-	@Transactional
-	public AppointmentResponseDTO rescheduleAppointment(Long appointmentId, AppointmentRequestDTO requestDTO) {
+	public AppointmentResponseDTO rescheduleAppointment(Long appointmentId, AppointmentRequestDTO requestDTO,
+			Long expectedVersion) {
+		int attempts = expectedVersion == null ? OptimisticRetry.MAX_ATTEMPTS : 1;
+		return optimisticRetry.execute(attempts, () -> reschedule(appointmentId, requestDTO, expectedVersion));
+	}
+
+	private AppointmentResponseDTO reschedule(Long appointmentId, AppointmentRequestDTO requestDTO,
+			Long expectedVersion) {
 
 		Appointment appointment = appointmentRepository.findById(appointmentId)
 				.orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + appointmentId));
+		ETags.checkVersion("Appointment " + appointmentId, expectedVersion, appointment.getVersion());
 
 		if (appointment.getStatus() == AppointmentStatus.CANCELLED
-				|| appointment.getStatus() == AppointmentStatus.COMPLETED) {
+				|| appointment.getStatus() == AppointmentStatus.COMPLETED
+				|| appointment.getStatus() == AppointmentStatus.NO_SHOW) {
 			throw new IllegalStateException(
 					"Appointment cannot be rescheduled in " + appointment.getStatus().name() + " status.");
 		}
@@ -289,21 +734,24 @@ public class AppointmentService {
 				() -> new ResourceNotFoundException("New doctor not found with ID: " + requestDTO.getDoctorId()));
 
 		LocalDate newDate = requestDTO.getAppointmentDate();
-		String newTime = requestDTO.getTimeSlot();
+		SlotRange newSlot = parseTimeSlot(requestDTO.getTimeSlot());
 
 		// 🚨 NEW CHECK: Validate if the new appointment time is in the past
-		validateAppointmentTimeInFuture(newDate, newTime);
+		validateAppointmentTimeInFuture(newDate, newSlot);
 
 		// Validate against availability (throws IllegalArgumentException)
-		validateTimeSlot(newDoctor, newDate, newTime);
+		validateTimeSlot(newDoctor, newDate, newSlot);
 
 		boolean unchanged = appointment.getAppointmentDate().equals(newDate)
-				&& appointment.getTimeSlot().equals(newTime)
+				&& appointment.getSlot().equals(newSlot)
 				&& appointment.getDoctor().getDoctorId().equals(newDoctor.getDoctorId());
 
 		// Check conflict only if there's a change that could cause one
 		if (!unchanged) {
-			checkSlotConflict(newDoctor.getDoctorId(), newDate, newTime);
+			doctorDayLocks.lockUntilCompletion(newDoctor.getDoctorId(), newDate);
+			checkSlotHold(newDoctor.getDoctorId(), newDate, newSlot, appointment.getPatient().getPatientId());
+			checkSlotConflict(newDoctor.getDoctorId(), newDate, newSlot, appointmentId);
+			publishSlotChange(appointment, false); // Old slot is released
 		}
 
 		// Update doctor and trigger billing if doctor changed
@@ -315,28 +763,45 @@ public class AppointmentService {
 
 		// Update details
 		appointment.setAppointmentDate(newDate);
-		appointment.setTimeSlot(newTime);
+		appointment.setSlot(newSlot);
 		appointment.setReason(requestDTO.getReason());
 		appointment.setStatus(AppointmentStatus.CONFIRMED); // Reset status on successful reschedule
 
-		return mapAppointmentToResponseDTO(appointmentRepository.save(appointment));
+		Appointment saved = saveActiveAppointment(appointment);
+		if (!unchanged) {
+			publishSlotChange(saved, true);
+		}
+		return mapAppointmentToResponseDTO(saved);
 	}
 
 	/**
 	 * * Updates appointment status (e.g., COMPLETED, CANCELLED). Throws
-	 * ResourceNotFoundException if appointment is missing.
+	 * ResourceNotFoundException if appointment is missing, and
+	 * PreconditionFailedException if expectedVersion (If-Match) is stale.
 	 */
 	@Transactional
 	public AppointmentResponseDTO updateAppointmentStatus(Long appointmentId, AppointmentStatus newStatus,
-			String remarks) { // 🚨 Direct DTO return
+			String remarks, Long expectedVersion) { // 🚨 Direct DTO return
 
 		Appointment appointment = appointmentRepository.findById(appointmentId)
 				.orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + appointmentId));
+		ETags.checkVersion("Appointment " + appointmentId, expectedVersion, appointment.getVersion());
 
 		// You might add checks here, e.g., if (newStatus == AppointmentStatus.CANCELLED
 		// && appointment.getStatus() == AppointmentStatus.COMPLETED) throw new
 		// IllegalStateException(...)
 
+		AppointmentStatus oldStatus = appointment.getStatus();
+		boolean wasActive = oldStatus != AppointmentStatus.CANCELLED;
+		boolean isActive = newStatus != AppointmentStatus.CANCELLED;
+
+		// Re-activating a cancelled appointment takes its slot again
+		if (!wasActive && isActive) {
+			Long doctorId = appointment.getDoctor().getDoctorId();
+			doctorDayLocks.lockUntilCompletion(doctorId, appointment.getAppointmentDate());
+			checkSlotConflict(doctorId, appointment.getAppointmentDate(), appointment.getSlot(), appointmentId);
+		}
+
 		appointment.setStatus(newStatus);
 		appointment.setRemarks(remarks);
 
@@ -353,26 +818,158 @@ public class AppointmentService {
 			}
 		}
 
-		return mapAppointmentToResponseDTO(appointmentRepository.save(appointment));
+		Appointment saved = isActive ? saveActiveAppointment(appointment)
+				: appointmentRepository.saveAndFlush(appointment); // Flushed so the DTO carries the new version
+
+		// A no-show voids the unpaid bill, as the stale-appointment sweeper does; correcting a no-show (e.g. to
+		// COMPLETED after the sweeper) makes that bill due again
+		if (newStatus == AppointmentStatus.NO_SHOW && oldStatus != AppointmentStatus.NO_SHOW) {
+			billingService.voidUnpaidBillsForNoShows(List.of(appointmentId));
+		} else if (oldStatus == AppointmentStatus.NO_SHOW && isActive && newStatus != AppointmentStatus.NO_SHOW) {
+			billingService.restoreVoidedBills(List.of(appointmentId), newStatus);
+		}
+
+		// Keep slot occupancy in sync when moving into or out of CANCELLED
+		if (wasActive != isActive) {
+			publishSlotChange(saved, isActive);
+		}
+
+		return mapAppointmentToResponseDTO(saved);
+	}
+
+	/**
+	 * Changes the status of many appointments in one transaction, either the
+	 * listed ones or every CONFIRMED appointment of a doctor on a date. Targets
+	 * are read with one query and checked in memory: only CONFIRMED appointments
+	 * can move, and only to COMPLETED, CANCELLED or NO_SHOW. Everything else is
+	 * reported as rejected rather than failing the whole request. The accepted
+	 * changes are flushed as one JDBC batch, and bills follow with one bulk
+	 * UPDATE per kind (refund/cancel for cancellations, void for no-shows).
+	 * Throws ResourceNotFoundException if the selector's doctor does not exist.
+	 */
+	@Transactional
+	public AppointmentBulkStatusResponseDTO updateAppointmentStatuses(AppointmentBulkStatusRequestDTO requestDTO) {
+		return updateAppointmentStatuses(requestDTO, null);
+	}
+
+	/**
+	 * As {@link #updateAppointmentStatuses(AppointmentBulkStatusRequestDTO)},
+	 * on behalf of one doctor: listed appointments of other doctors are reported
+	 * as rejected. A null doctorScope allows every doctor (admins). The caller
+	 * checks that a selector names the scoped doctor.
+	 */
+	@Transactional
+	public AppointmentBulkStatusResponseDTO updateAppointmentStatuses(AppointmentBulkStatusRequestDTO requestDTO,
+			Long doctorScope) {
+
+		// 1. Resolve the targets and their new status/remarks with one read
+		List<Appointment> targets;
+		Map<Long, AppointmentBulkStatusRequestDTO.Item> changes = new LinkedHashMap<>();
+		List<RejectedItem> rejected = new ArrayList<>();
+		if (requestDTO.isSelector()) {
+			Long doctorId = requestDTO.getDoctorId();
+			doctorService.findById(doctorId)
+					.orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + doctorId));
+			targets = appointmentRepository.findByDoctorDoctorIdAndAppointmentDateAndStatusOrderBySlotStartMinute(
+					doctorId, requestDTO.getDate(), AppointmentStatus.CONFIRMED);
+			for (Appointment appointment : targets) {
+				changes.put(appointment.getAppointmentId(), new AppointmentBulkStatusRequestDTO.Item(
+						appointment.getAppointmentId(), requestDTO.getStatus(), requestDTO.getRemarks()));
+			}
+		} else {
+			for (AppointmentBulkStatusRequestDTO.Item item : requestDTO.getItems()) {
+				if (changes.putIfAbsent(item.getAppointmentId(), item) != null) {
+					rejected.add(new RejectedItem(item.getAppointmentId(), "Appointment is listed more than once."));
+				}
+			}
+			targets = appointmentRepository.findAllById(changes.keySet());
+		}
+
+		// 2. Validate every transition in memory
+		Map<Long, Appointment> found = new HashMap<>();
+		for (Appointment appointment : targets) {
+			found.put(appointment.getAppointmentId(), appointment);
+		}
+		List<Appointment> accepted = new ArrayList<>(changes.size());
+		for (AppointmentBulkStatusRequestDTO.Item change : changes.values()) {
+			Appointment appointment = found.get(change.getAppointmentId());
+			String reason = appointment == null ? "Appointment not found."
+					: doctorScope != null && !doctorScope.equals(appointment.getDoctor().getDoctorId())
+							? "Appointment belongs to another doctor."
+							: bulkTransitionError(appointment.getStatus(), change.getStatus());
+			if (reason != null) {
+				rejected.add(new RejectedItem(change.getAppointmentId(), reason));
+				continue;
+			}
+			appointment.setStatus(change.getStatus());
+			appointment.setRemarks(change.getRemarks());
+			accepted.add(appointment);
+		}
+
+		// 3. One batched flush for the appointments, then set-based bill updates
+		List<Long> updated = new ArrayList<>(accepted.size());
+		List<Long> cancelled = new ArrayList<>();
+		List<Long> noShows = new ArrayList<>();
+		if (!accepted.isEmpty()) {
+			appointmentRepository.saveAllAndFlush(accepted);
+			for (Appointment appointment : accepted) {
+				updated.add(appointment.getAppointmentId());
+				if (appointment.getStatus() == AppointmentStatus.CANCELLED) {
+					cancelled.add(appointment.getAppointmentId());
+					publishSlotChange(appointment, false);
+				} else if (appointment.getStatus() == AppointmentStatus.NO_SHOW) {
+					noShows.add(appointment.getAppointmentId());
+				}
+			}
+		}
+		if (!cancelled.isEmpty()) {
+			billingService.cancelBillsForAppointments(cancelled);
+		}
+		if (!noShows.isEmpty()) {
+			billingService.voidUnpaidBillsForNoShows(noShows);
+		}
+		return new AppointmentBulkStatusResponseDTO(updated, rejected);
+	}
+
+	/**
+	 * Why a bulk status change is not allowed, or null if it is. Re-activating
+	 * a cancelled appointment needs a slot check and stays a single update.
+	 */
+	private static String bulkTransitionError(AppointmentStatus from, AppointmentStatus to) {
+		if (to == AppointmentStatus.CONFIRMED) {
+			return "Appointments cannot be confirmed in bulk.";
+		}
+		if (from == to) {
+			return "Appointment is already " + from.name() + ".";
+		}
+		if (from != AppointmentStatus.CONFIRMED) {
+			return "Appointments in " + from.name() + " status cannot be changed in bulk.";
+		}
+		return null;
 	}
 
 	/**
 	 * * Cancels an appointment and triggers corresponding billing cancellation.
-	 * Throws ResourceNotFoundException or IllegalStateException on failure.
+	 * Throws ResourceNotFoundException or IllegalStateException on failure, and
+	 * PreconditionFailedException if expectedVersion (If-Match) is stale.
 	 */
 	@Transactional
-	public void cancelAppointment(Long appointmentId) { // 🚨 Void return
+	public void cancelAppointment(Long appointmentId, Long expectedVersion) { // 🚨 Void return
 
 		Appointment appointment = appointmentRepository.findById(appointmentId)
 				.orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + appointmentId));
+		ETags.checkVersion("Appointment " + appointmentId, expectedVersion, appointment.getVersion());
 
-		if (appointment.getStatus() == AppointmentStatus.COMPLETED) {
-			throw new IllegalStateException("Completed appointments cannot be cancelled.");
+		if (appointment.getStatus() == AppointmentStatus.COMPLETED
+				|| appointment.getStatus() == AppointmentStatus.NO_SHOW) {
+			throw new IllegalStateException(
+					"Appointments in " + appointment.getStatus().name() + " status cannot be cancelled.");
 		}
 
 		if (appointment.getStatus() != AppointmentStatus.CANCELLED) {
 			appointment.setStatus(AppointmentStatus.CANCELLED);
 			appointmentRepository.save(appointment);
+			publishSlotChange(appointment, false);
 
 			// Trigger billing service
 			try {
@@ -0,0 +1,102 @@
+package com.genc.hms.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.util.TimeSlots;
+
+/**
+ * Closes CONFIRMED appointments whose slot ended more than a grace period ago,
+ * so they stop counting as active. Works set-based: each batch is one ID query
+ * on the status/date index plus one bulk UPDATE for the appointments and one
+ * for their bills, in its own short transaction; no entities are loaded.
+ * Stale appointments become COMPLETED (bills stay due) or, when
+ * hms.sweeper.stale-status=NO_SHOW, NO_SHOW (unpaid bills are voided until a
+ * doctor corrects the status).
+ */
+@Service
+public class AppointmentSweeper {
+
+	private static final Logger logger = LoggerFactory.getLogger(AppointmentSweeper.class);
+
+	private static final int MAX_BATCHES_PER_RUN = 1000; // The rest waits for the next run
+
+	// --- Dependencies ---
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private BillingService billingService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	// --- Configuration ---
+	@Value("${hms.sweeper.batch-size:500}")
+	private int batchSize;
+
+	// How long after its end a CONFIRMED appointment is still left to the doctor
+	@Value("${hms.sweeper.grace-minutes:60}")
+	private long graceMinutes;
+
+	@Value("${hms.sweeper.stale-status:COMPLETED}")
+	private AppointmentStatus staleStatus;
+
+	/** Periodic sweep (hms.sweeper.cron). */
+	@Scheduled(cron = "${hms.sweeper.cron:0 */15 * * * *}")
+	public void sweepStaleAppointments() {
+		sweep(LocalDateTime.now());
+	}
+
+	/**
+	 * Moves every CONFIRMED appointment that ended at least the grace period
+	 * before {@code now} to the stale status, in batches. Returns the number of
+	 * appointments changed. Throws IllegalStateException if the configured stale
+	 * status is neither NO_SHOW nor COMPLETED.
+	 */
+	public int sweep(LocalDateTime now) {
+		if (staleStatus != AppointmentStatus.NO_SHOW && staleStatus != AppointmentStatus.COMPLETED) {
+			throw new IllegalStateException("hms.sweeper.stale-status must be NO_SHOW or COMPLETED.");
+		}
+		LocalDateTime cutoff = now.minusMinutes(graceMinutes);
+		int cutoffMinute = TimeSlots.toMinuteOfDay(cutoff.toLocalTime());
+
+		int swept = 0;
+		int batches = 0;
+		List<Long> ids;
+		do {
+			// Swept rows leave the CONFIRMED set, so every batch reads the first page again
+			ids = appointmentRepository.findIdsEndedBefore(AppointmentStatus.CONFIRMED, cutoff.toLocalDate(),
+					cutoffMinute, PageRequest.of(0, batchSize));
+			if (ids.isEmpty()) {
+				break;
+			}
+			List<Long> batch = ids;
+			swept += transactionTemplate.execute(tx -> {
+				int changed = appointmentRepository.updateStatus(batch, AppointmentStatus.CONFIRMED, staleStatus);
+				if (staleStatus == AppointmentStatus.NO_SHOW) {
+					billingService.voidUnpaidBillsForNoShows(batch);
+				}
+				return changed;
+			});
+			batches++;
+		} while (ids.size() == batchSize && batches < MAX_BATCHES_PER_RUN);
+
+		if (swept > 0) {
+			logger.info("Marked {} appointments that ended before {} as {} in {} batches", swept, cutoff,
+					staleStatus, batches);
+		}
+		return swept;
+	}
+}
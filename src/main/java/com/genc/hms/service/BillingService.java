@@ -2,22 +2,35 @@ package com.genc.hms.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.genc.hms.dto.BillResponseDTO;
+import com.genc.hms.dto.ChangeFeedDTO;
+import com.genc.hms.dto.CursorPageDTO;
+import com.genc.hms.dto.PatientBalanceDTO;
+import com.genc.hms.dto.StatementLineDTO;
 import com.genc.hms.entity.Appointment;
 import com.genc.hms.entity.Bill;
 import com.genc.hms.entity.Doctor;
 import com.genc.hms.entity.User; // 🚨 For authorization methods
+import com.genc.hms.enums.AppointmentStatus;
 import com.genc.hms.enums.PaymentStatus;
 import com.genc.hms.enums.Role;
 import com.genc.hms.exception.GlobalExceptionHandler.ResourceNotFoundException;
 import com.genc.hms.repository.BillRepository;
+import com.genc.hms.repository.BillRepository.StatementRow;
+import com.genc.hms.repository.PatientRepository;
+import com.genc.hms.util.ChangeToken;
+import com.genc.hms.util.ETags;
+import com.genc.hms.util.KeysetCursor;
 
 @Service
 public class BillingService {
@@ -26,12 +39,18 @@ public class BillingService {
 	@Autowired
 	private BillRepository billRepository;
 
+	@Autowired
+	private PatientRepository patientRepository;
+
 	@Autowired
 	private DoctorService doctorService;
 
 	@Autowired
 	private UserService userService; // 🚨 Required for fetching the authenticated patient ID
 
+	@Autowired
+	private OptimisticRetry optimisticRetry;
+
 	// =================================================================================
 	// I. PRIVATE UTILITY METHODS
 	// =================================================================================
@@ -41,7 +60,7 @@ public class BillingService {
 	private BillResponseDTO mapBillToResponseDTO(Bill bill) {
 		return new BillResponseDTO(bill.getBillId(), bill.getPatient().getPatientId(), bill.getPatient().getName(),
 				bill.getAppointment().getAppointmentId(), bill.getBillAmount(), bill.getPaymentStatus(),
-				bill.getBillDate());
+				bill.getBillDate(), bill.getVersion());
 	}
 
 	private BigDecimal getConsultationFee(Doctor doctor) {
@@ -53,50 +72,68 @@ public class BillingService {
 	// =================================================================================
 
 	/**
-	 * Creates the initial bill for a newly booked appointment. Throws
-	 * IllegalStateException if bill already exists (a business constraint).
+	 * Creates a newly booked appointment together with its initial PENDING bill.
+	 * The bill cascades to the appointment, so both rows are inserted in one
+	 * flush and no SELECT checks for an existing bill: a new appointment cannot
+	 * have one, and the unique appointmentId column rejects a duplicate anyway.
+	 * Throws DataIntegrityViolationException if either insert violates a
+	 * constraint (e.g. the active-slot exclusion constraint).
 	 */
 	@Transactional
-	public BillResponseDTO createInitialBill(Appointment appointment, Doctor doctor) { // 🚨 Direct DTO return
-		if (billRepository.findByAppointment(appointment).isPresent()) {
-			// Throw an exception for duplicate bill creation attempt
-			throw new IllegalStateException(
-					"Bill already exists for appointment ID: " + appointment.getAppointmentId());
-		}
+	public Bill createWithInitialBill(Appointment appointment, Doctor doctor) {
+		return billRepository.saveAndFlush(newInitialBill(appointment, getConsultationFee(doctor), LocalDate.now()));
+	}
 
-		Bill bill = new Bill();
-		bill.setAppointment(appointment);
-		bill.setPatient(appointment.getPatient());
-		bill.setBillAmount(getConsultationFee(doctor));
-		bill.setBillDate(LocalDate.now());
-		bill.setPaymentStatus(PaymentStatus.PENDING);
+	/**
+	 * Creates the initial PENDING bills for a batch of newly booked appointments
+	 * (e.g., a recurring series) with one batched insert. The appointments must be
+	 * new, so no duplicate check is made.
+	 */
+	@Transactional
+	public List<Bill> createInitialBills(List<Appointment> appointments, Doctor doctor) {
+		BigDecimal fee = getConsultationFee(doctor);
+		LocalDate today = LocalDate.now();
+		List<Bill> bills = appointments.stream().map(appointment -> newInitialBill(appointment, fee, today)).toList();
+		return billRepository.saveAll(bills);
+	}
 
-		Bill savedBill = billRepository.save(bill);
-		return mapBillToResponseDTO(savedBill); // 🚨 Direct DTO return
+	private static Bill newInitialBill(Appointment appointment, BigDecimal fee, LocalDate billDate) {
+		return new Bill(appointment, appointment.getPatient(), fee, PaymentStatus.PENDING, billDate);
 	}
 
 	/**
 	 * Records payment for a bill and marks it as PAID. Throws
-	 * ResourceNotFoundException if bill ID is invalid.
+	 * ResourceNotFoundException if bill ID is invalid. With expectedVersion
+	 * (If-Match) the bill must still be at that version, otherwise
+	 * PreconditionFailedException. Without it, a payment that races another write
+	 * to the bill is retried on the fresh row (marking paid is idempotent), up to
+	 * OptimisticRetry.MAX_ATTEMPTS times. Runs in its own transaction.
 	 */
-	@Transactional
-	public BillResponseDTO recordPayment(Long billId) { // 🚨 Direct DTO return
+	public BillResponseDTO recordPayment(Long billId, Long expectedVersion) { // 🚨 Direct DTO return
+		int attempts = expectedVersion == null ? OptimisticRetry.MAX_ATTEMPTS : 1;
+		return optimisticRetry.execute(attempts, () -> markPaid(billId, expectedVersion));
+	}
 
+	private BillResponseDTO markPaid(Long billId, Long expectedVersion) {
 		Bill bill = billRepository.findById(billId)
 				.orElseThrow(() -> new ResourceNotFoundException("Bill not found with ID: " + billId));
+		ETags.checkVersion("Bill " + billId, expectedVersion, bill.getVersion());
 
 		if (bill.getPaymentStatus() == PaymentStatus.PAID) {
 			return mapBillToResponseDTO(bill); // Already paid
 		}
 
 		bill.setPaymentStatus(PaymentStatus.PAID);
-		Bill updatedBill = billRepository.save(bill);
+		Bill updatedBill = billRepository.saveAndFlush(bill); // Flushed so the DTO carries the new version
 		return mapBillToResponseDTO(updatedBill);
 	}
 
 	/**
 	 * Updates the bill when the doctor associated with an appointment changes.
 	 * Throws ResourceNotFoundException if bill is missing for the appointment.
+	 * Runs inside the caller's reschedule transaction; if a payment changes the
+	 * bill concurrently, the bill's version check fails that transaction and
+	 * AppointmentService.rescheduleAppointment retries the whole reschedule.
 	 */
 	@Transactional
 	public BillResponseDTO updateBillForDoctorChange(Appointment appointment, Doctor newDoctor) { // 🚨 Direct DTO
@@ -131,6 +168,40 @@ public class BillingService {
 		return mapBillToResponseDTO(updatedBill);
 	}
 
+	/**
+	 * Voids the unpaid (PENDING) bills of appointments that ended as NO_SHOW with
+	 * a single UPDATE; paid bills are kept. Appointments that are not NO_SHOW (any
+	 * more) are left alone. Returns the number of bills voided.
+	 */
+	@Transactional
+	public int voidUnpaidBillsForNoShows(Collection<Long> appointmentIds) {
+		return billRepository.updatePaymentStatusForAppointments(appointmentIds, AppointmentStatus.NO_SHOW,
+				PaymentStatus.PENDING, PaymentStatus.CANCELLED);
+	}
+
+	/**
+	 * Undoes voidUnpaidBillsForNoShows for appointments that were marked NO_SHOW
+	 * by mistake and are now in {@code appointmentStatus}: their CANCELLED bills
+	 * are PENDING again. Returns the number of bills restored.
+	 */
+	@Transactional
+	public int restoreVoidedBills(Collection<Long> appointmentIds, AppointmentStatus appointmentStatus) {
+		return billRepository.updatePaymentStatusForAppointments(appointmentIds, appointmentStatus,
+				PaymentStatus.CANCELLED, PaymentStatus.PENDING);
+	}
+
+	/**
+	 * Bulk version of cancelBillForAppointment for appointments cancelled
+	 * together: one UPDATE refunds paid bills and cancels pending ones.
+	 * Appointments without a bill are skipped. Returns the number of bills
+	 * changed.
+	 */
+	@Transactional
+	public int cancelBillsForAppointments(Collection<Long> appointmentIds) {
+		return billRepository.cancelForAppointments(appointmentIds, PaymentStatus.PAID, PaymentStatus.PENDING,
+				PaymentStatus.REFUNDED, PaymentStatus.CANCELLED);
+	}
+
 	// =================================================================================
 	// IV. AUTHORIZATION & READ OPERATIONS (MODIFIED for security)
 	// =================================================================================
@@ -207,6 +278,85 @@ public class BillingService {
 		return billRepository.findByPaymentStatus(status).stream().map(this::mapBillToResponseDTO).toList();
 	}
 
+	/**
+	 * Returns the bills inserted or updated since the given change token (all of
+	 * them when it is null), oldest change first, optionally for one patient.
+	 * Payments, cancellations and refunds all show up. Works like
+	 * AppointmentService.getChangesSince. Throws IllegalArgumentException if the
+	 * size or token is invalid.
+	 */
+	@Transactional(readOnly = true)
+	public ChangeFeedDTO<BillResponseDTO> getChangesSince(String since, Long patientId, int size) {
+		if (size < 1 || size > AppointmentService.MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException(
+					"Page size must be between 1 and " + AppointmentService.MAX_PAGE_SIZE + ".");
+		}
+		ChangeToken after = ChangeToken.decode(since);
+		long horizon = billRepository.findChangeHorizon();
+
+		// One extra row tells whether the feed was cut at the page size
+		PageRequest page = PageRequest.of(0, size + 1);
+		List<Bill> rows = patientId == null
+				? billRepository.findChangedBefore(after.version(), after.id(), horizon, page)
+				: billRepository.findChangedBeforeForPatient(patientId, after.version(), after.id(), horizon, page);
+		if (rows.size() <= size) {
+			// Caught up: everything below the horizon has been delivered
+			ChangeToken next = horizon > after.version() ? new ChangeToken(horizon, 0) : after;
+			return new ChangeFeedDTO<>(rows.stream().map(this::mapBillToResponseDTO).toList(), next.encode(), false);
+		}
+		List<Bill> changed = rows.subList(0, size);
+		Bill last = changed.get(size - 1);
+		return new ChangeFeedDTO<>(changed.stream().map(this::mapBillToResponseDTO).toList(),
+				new ChangeToken(last.getChangeVersion(), last.getBillId()).encode(), true);
+	}
+
+	/**
+	 * Returns what the patient owes, read from their running-total row rather
+	 * than summed over their bills. Throws ResourceNotFoundException if the
+	 * patient does not exist.
+	 */
+	@Transactional(readOnly = true)
+	public PatientBalanceDTO getPatientBalance(Long patientId) {
+		return billRepository.findPatientBalance(patientId)
+				.map(row -> new PatientBalanceDTO(patientId, row.getPendingCount(), row.getOutstandingMinor(),
+						BigDecimal.valueOf(row.getOutstandingMinor(), 2)))
+				.orElseGet(() -> {
+					if (!patientRepository.existsById(patientId)) {
+						throw new ResourceNotFoundException("Patient not found with ID: " + patientId);
+					}
+					return new PatientBalanceDTO(patientId, 0, 0, BigDecimal.ZERO.setScale(2));
+				});
+	}
+
+	/**
+	 * Returns one keyset page of the patient's statement, oldest bill first,
+	 * with the running balance computed by the database in the same query. Pass
+	 * the previous page's nextCursor to continue. Throws IllegalArgumentException
+	 * if the size or cursor is invalid.
+	 */
+	@Transactional(readOnly = true)
+	public CursorPageDTO<StatementLineDTO> getPatientStatement(Long patientId, String cursor, int size) {
+		if (size < 1 || size > AppointmentService.MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException(
+					"Page size must be between 1 and " + AppointmentService.MAX_PAGE_SIZE + ".");
+		}
+		KeysetCursor after = KeysetCursor.decode(cursor);
+
+		// One extra row tells whether another page follows
+		List<StatementRow> rows = billRepository.findStatementAfter(patientId, after != null ? after.date() : null,
+				after != null ? after.id() : 0L, size + 1);
+		List<StatementLineDTO> lines = new ArrayList<>(Math.min(rows.size(), size));
+		for (StatementRow row : rows.subList(0, Math.min(rows.size(), size))) {
+			lines.add(new StatementLineDTO(row.getBillId(), row.getBillDate(), row.getAppointmentId(),
+					row.getBillAmount(), row.getPaymentStatus(), row.getAmountDue(), row.getRunningBalance()));
+		}
+		if (rows.size() <= size) {
+			return new CursorPageDTO<>(lines, null);
+		}
+		StatementLineDTO last = lines.get(size - 1);
+		return new CursorPageDTO<>(lines, new KeysetCursor(last.billDate(), last.billId()).encode());
+	}
+
 	/** Returns the total count of bills in the system. */
 	public Long getCount() {
 		return billRepository.count();
@@ -0,0 +1,100 @@
+package com.genc.hms.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.genc.hms.exception.GlobalExceptionHandler.ConflictException;
+
+/**
+ * Striped in-JVM locks keyed by (doctor, date). Bookings that touch the same
+ * doctor-day are serialized while unrelated bookings run in parallel. Locks are
+ * held until the surrounding transaction completes, so the next booking's
+ * conflict check always sees the previous one's committed row. The exclusion
+ * constraint on active slots remains the guarantee across JVMs.
+ */
+@Component
+public class DoctorDayLocks {
+
+	private static final int STRIPES = 1024; // Power of two
+	private static final long LOCK_TIMEOUT_SECONDS = 10;
+
+	private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+	public DoctorDayLocks() {
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Locks the (doctor, date) stripe until the current transaction commits or
+	 * rolls back. Must be called inside a transaction.
+	 */
+	public void lockUntilCompletion(Long doctorId, LocalDate date) {
+		lockUntilCompletion(doctorId, List.of(date));
+	}
+
+	/**
+	 * Locks the stripes of several dates for one doctor. Stripes are taken in
+	 * index order so two callers can never deadlock on each other. Throws
+	 * ConflictException if a stripe cannot be acquired within the timeout.
+	 */
+	public void lockUntilCompletion(Long doctorId, Collection<LocalDate> dates) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("Doctor-day locks must be taken inside a transaction.");
+		}
+
+		TreeSet<Integer> indexes = new TreeSet<>();
+		for (LocalDate date : dates) {
+			indexes.add(stripeIndex(doctorId, date));
+		}
+
+		List<ReentrantLock> acquired = new ArrayList<>(indexes.size());
+		try {
+			for (int index : indexes) {
+				ReentrantLock lock = stripes[index];
+				if (!lock.tryLock(LOCK_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+					throw new ConflictException("Doctor " + doctorId + " is handling too many bookings right now. "
+							+ "Please try again.");
+				}
+				acquired.add(lock);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			releaseAll(acquired);
+			throw new IllegalStateException("Interrupted while waiting for booking lock.", e);
+		} catch (RuntimeException e) {
+			releaseAll(acquired);
+			throw e;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				releaseAll(acquired);
+			}
+		});
+	}
+
+	private static void releaseAll(List<ReentrantLock> acquired) {
+		for (int i = acquired.size() - 1; i >= 0; i--) {
+			acquired.get(i).unlock();
+		}
+	}
+
+	private static int stripeIndex(Long doctorId, LocalDate date) {
+		int h = Objects.hash(doctorId, date);
+		h ^= (h >>> 16); // Spread high bits into the mask
+		return h & (STRIPES - 1);
+	}
+}
@@ -1,6 +1,7 @@
 package com.genc.hms.service;
 
 import java.math.BigDecimal;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +18,9 @@ import com.genc.hms.entity.Doctor;
 import com.genc.hms.entity.DoctorAvailability;
 import com.genc.hms.enums.WeekDay;
 import com.genc.hms.repository.DoctorRepository;
+import com.genc.hms.util.ETags;
+import com.genc.hms.util.IntervalSet;
+import com.genc.hms.util.TimeSlots;
 
 @Service
 public class DoctorService {
@@ -24,6 +28,12 @@ public class DoctorService {
 	@Autowired
 	private DoctorRepository doctorRepository;
 
+	@Autowired
+	private SlotTemplateCache slotTemplates;
+
+	@Autowired
+	private SlotListCache slotListCache;
+
 	// =================================================================================
 	// I. PRIVATE UTILITY (Mappers)
 	// =================================================================================
@@ -44,7 +54,40 @@ public class DoctorService {
 				.map(this::mapAvailabilityToDTO).toList();
 
 		return new DoctorResponseDTO(doctor.getDoctorId(), doctor.getName(), doctor.getSpecialization(),
-				doctor.getContactNumber(), doctor.getConsultationFee(), availabilities);
+				doctor.getContactNumber(), doctor.getConsultationFee(), doctor.getSlotDurationMinutes(),
+				availabilities, doctor.getVersion());
+	}
+
+	/**
+	 * Merges a submitted weekly schedule into sorted, non-overlapping windows per
+	 * weekday. A split shift (e.g. 09:00-12:00 and 14:00-18:00) stays as two
+	 * windows while overlapping or touching entries collapse into one. Throws
+	 * IllegalArgumentException if a window does not end after it starts.
+	 */
+	static List<DoctorAvailability> normalizeAvailabilities(Doctor doctor, List<DoctorAvailabilityDTO> schedule) {
+		IntervalSet.Builder[] windows = new IntervalSet.Builder[WeekDay.values().length];
+		for (DoctorAvailabilityDTO dto : schedule) {
+			if (!dto.getEndTime().isAfter(dto.getStartTime())) {
+				throw new IllegalArgumentException("Availability on " + dto.getDayOfWeek() + " must end after it "
+						+ "starts (" + dto.getStartTime() + " - " + dto.getEndTime() + ").");
+			}
+			int day = dto.getDayOfWeek().ordinal();
+			if (windows[day] == null)
+				windows[day] = new IntervalSet.Builder();
+			windows[day].add(TimeSlots.toMinuteOfDay(dto.getStartTime()), TimeSlots.toMinuteOfDay(dto.getEndTime()));
+		}
+
+		List<DoctorAvailability> availabilities = new ArrayList<>();
+		for (WeekDay day : WeekDay.values()) {
+			if (windows[day.ordinal()] == null)
+				continue;
+			IntervalSet merged = windows[day.ordinal()].build();
+			for (int i = 0; i < merged.size(); i++) {
+				availabilities.add(new DoctorAvailability(doctor, day, LocalTime.ofSecondOfDay(merged.start(i) * 60),
+						LocalTime.ofSecondOfDay(merged.end(i) * 60)));
+			}
+		}
+		return availabilities;
 	}
 
 	// =================================================================================
@@ -60,37 +103,40 @@ public class DoctorService {
 	}
 
 	/**
-	 * Updates a doctor's profile and replaces the availability schedule. Clears the
-	 * managed collection to ensure JPA orphan removal works correctly.
+	 * Updates a doctor's profile and replaces the availability schedule, merged
+	 * per weekday. Clears the managed collection to ensure JPA orphan removal
+	 * works correctly. The slot duration is kept when not given. The doctor's
+	 * cached slot templates are evicted once the change commits. Throws
+	 * PreconditionFailedException if expectedVersion (If-Match) is given and no
+	 * longer current.
 	 */
 	@Transactional
-	public Optional<DoctorResponseDTO> updateDoctorProfile(Long doctorId, DoctorProfileUpdateDTO updateDTO) {
+	public Optional<DoctorResponseDTO> updateDoctorProfile(Long doctorId, DoctorProfileUpdateDTO updateDTO,
+			Long expectedVersion) {
 		Optional<Doctor> doctorOptional = doctorRepository.findById(doctorId);
 		if (doctorOptional.isEmpty())
 			return Optional.empty();
 
 		Doctor doctor = doctorOptional.get();
+		ETags.checkVersion("Doctor " + doctorId, expectedVersion, doctor.getVersion());
 		doctor.setName(updateDTO.getName());
 		doctor.setSpecialization(updateDTO.getSpecialization());
 		doctor.setContactNumber(updateDTO.getContactNumber());
 		doctor.setConsultationFee(updateDTO.getConsultationFee());
+		if (updateDTO.getSlotDurationMinutes() != null) {
+			doctor.setSlotDurationMinutes(updateDTO.getSlotDurationMinutes());
+		}
 
 		// Clear existing availabilities to delete old entries
 		doctor.getDoctorAvailabilities().clear();
 
-		// Add new availabilities, ensuring entities are linked to the doctor
-		List<DoctorAvailability> newAvailabilities = updateDTO.getDoctorAvailabilities().stream().map(dto -> {
-			DoctorAvailability availability = new DoctorAvailability();
-			availability.setDoctor(doctor);
-			availability.setDayOfWeek(dto.getDayOfWeek());
-			availability.setStartTime(dto.getStartTime());
-			availability.setEndTime(dto.getEndTime());
-			return availability;
-		}).toList();
-
-		doctor.getDoctorAvailabilities().addAll(newAvailabilities);
+		// Add the merged availabilities, linked to the doctor
+		doctor.getDoctorAvailabilities().addAll(normalizeAvailabilities(doctor, updateDTO.getDoctorAvailabilities()));
+		slotTemplates.evictAfterCommit(doctorId);
+		slotListCache.evictDoctorAfterCommit(doctorId);
 
-		return Optional.of(mapDoctorToDTO(doctorRepository.save(doctor)));
+		// Flushed so the DTO carries the new version
+		return Optional.of(mapDoctorToDTO(doctorRepository.saveAndFlush(doctor)));
 	}
 
 	// =================================================================================
@@ -174,6 +220,8 @@ public class DoctorService {
 			return false;
 
 		doctorRepository.delete(doctorOpt.get());
+		slotTemplates.evictAfterCommit(id);
+		slotListCache.evictDoctorAfterCommit(id);
 		return true;
 	}
 }
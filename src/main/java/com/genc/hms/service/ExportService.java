@@ -0,0 +1,160 @@
+package com.genc.hms.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.genc.hms.dto.AppointmentResponseDTO;
+import com.genc.hms.dto.BillResponseDTO;
+import com.genc.hms.enums.ExportFormat;
+import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.repository.BillRepository;
+
+/**
+ * Writes appointments and bills to an output stream as NDJSON or CSV. Rows are
+ * streamed from the database (JDBC fetch size, DTO projections, nothing kept in
+ * the persistence context) and written one at a time, so memory use does not
+ * grow with the number of rows.
+ */
+@Service
+public class ExportService {
+
+	private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+	private record Column<T>(String header, Function<T, Object> value) {
+	}
+
+	private static final List<Column<AppointmentResponseDTO>> APPOINTMENT_COLUMNS = List.of(
+			new Column<>("appointmentId", AppointmentResponseDTO::getAppointmentId),
+			new Column<>("patientId", AppointmentResponseDTO::getPatientId),
+			new Column<>("patientName", AppointmentResponseDTO::getPatientName),
+			new Column<>("doctorId", AppointmentResponseDTO::getDoctorId),
+			new Column<>("doctorName", AppointmentResponseDTO::getDoctorName),
+			new Column<>("specialization", AppointmentResponseDTO::getSpecialization),
+			new Column<>("appointmentDate", AppointmentResponseDTO::getAppointmentDate),
+			new Column<>("timeSlot", AppointmentResponseDTO::getTimeSlot),
+			new Column<>("reason", AppointmentResponseDTO::getReason),
+			new Column<>("status", AppointmentResponseDTO::getStatus),
+			new Column<>("remarks", AppointmentResponseDTO::getRemarks));
+
+	private static final List<Column<BillResponseDTO>> BILL_COLUMNS = List.of(
+			new Column<>("billId", BillResponseDTO::billId), new Column<>("patientId", BillResponseDTO::patientId),
+			new Column<>("patientName", BillResponseDTO::patientName),
+			new Column<>("appointmentId", BillResponseDTO::appointmentId),
+			new Column<>("billAmount", BillResponseDTO::billAmount),
+			new Column<>("paymentStatus", BillResponseDTO::paymentStatus),
+			new Column<>("billDate", BillResponseDTO::billDate));
+
+	// --- Dependencies ---
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private BillRepository billRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	// =================================================================================
+	// I. EXPORTS
+	// =================================================================================
+
+	/** Writes every appointment, ordered by date, and returns the row count. */
+	@Transactional(readOnly = true)
+	public long exportAppointments(ExportFormat format, OutputStream out) throws IOException {
+		try (Stream<AppointmentResponseDTO> rows = appointmentRepository.streamAllResponses()) {
+			return write(format, rows, APPOINTMENT_COLUMNS, out);
+		}
+	}
+
+	/** Writes every bill, ordered by ID, and returns the row count. */
+	@Transactional(readOnly = true)
+	public long exportBills(ExportFormat format, OutputStream out) throws IOException {
+		try (Stream<BillResponseDTO> rows = billRepository.streamAllResponses()) {
+			return write(format, rows, BILL_COLUMNS, out);
+		}
+	}
+
+	// =================================================================================
+	// II. WRITERS
+	// =================================================================================
+
+	private <T> long write(ExportFormat format, Stream<T> rows, List<Column<T>> columns, OutputStream out)
+			throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+		long count = format == ExportFormat.CSV ? writeCsv(rows.iterator(), columns, writer)
+				: writeNdjson(rows.iterator(), writer);
+		writer.flush(); // The caller owns (and closes) the underlying stream
+		return count;
+	}
+
+	private <T> long writeNdjson(Iterator<T> rows, Writer writer) throws IOException {
+		long count = 0;
+		try (SequenceWriter json = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+				.withRootValueSeparator("\n").writeValues(writer)) {
+			while (rows.hasNext()) {
+				json.write(rows.next());
+				count++;
+			}
+		}
+		if (count > 0) {
+			writer.write('\n');
+		}
+		return count;
+	}
+
+	private <T> long writeCsv(Iterator<T> rows, List<Column<T>> columns, Writer writer) throws IOException {
+		for (int i = 0; i < columns.size(); i++) {
+			writer.write(i == 0 ? "" : ",");
+			writer.write(columns.get(i).header());
+		}
+		writer.write("\r\n");
+
+		long count = 0;
+		while (rows.hasNext()) {
+			T row = rows.next();
+			for (int i = 0; i < columns.size(); i++) {
+				if (i > 0) {
+					writer.write(',');
+				}
+				writeCsvField(writer, columns.get(i).value().apply(row));
+			}
+			writer.write("\r\n");
+			count++;
+		}
+		return count;
+	}
+
+	/** Writes a field as per RFC 4180: quoted only when it needs to be. */
+	private static void writeCsvField(Writer writer, Object value) throws IOException {
+		if (value == null)
+			return;
+		String text = value.toString();
+		boolean quote = false;
+		for (int i = 0; i < text.length() && !quote; i++) {
+			char c = text.charAt(i);
+			quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!quote) {
+			writer.write(text);
+			return;
+		}
+		writer.write('"');
+		writer.write(text.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
@@ -0,0 +1,51 @@
+package com.genc.hms.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.genc.hms.dto.ReminderDTO;
+
+/**
+ * Local stand-in for a real SMS/e-mail gateway. Logs every reminder and, when
+ * hms.reminders.outbox-file is set, appends it as one line to that file so the
+ * front desk can see what would have been sent.
+ */
+@Component
+public class LoggingNotifier implements Notifier {
+
+	private static final Logger logger = LoggerFactory.getLogger(LoggingNotifier.class);
+
+	// A lock rather than synchronized: writers are virtual threads, which would
+	// pin their carrier thread while blocked in a synchronized block
+	private final ReentrantLock outboxLock = new ReentrantLock();
+
+	@Value("${hms.reminders.outbox-file:}")
+	private String outboxFile;
+
+	@Override
+	public void sendReminder(ReminderDTO reminder) throws IOException {
+		String line = String.format("Reminder for %s <%s, %s>: %s (%s) on %s at %s [appointment %d]",
+				reminder.patientName(), reminder.patientEmail(), reminder.contactNumber(), reminder.doctorName(),
+				reminder.specialization(), reminder.appointmentDate(), reminder.timeSlot(), reminder.appointmentId());
+		logger.info(line);
+
+		if (outboxFile != null && !outboxFile.isBlank()) {
+			outboxLock.lock();
+			try {
+				Files.writeString(Path.of(outboxFile), line + System.lineSeparator(), StandardCharsets.UTF_8,
+						StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+			} finally {
+				outboxLock.unlock();
+			}
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package com.genc.hms.service;
+
+import com.genc.hms.dto.ReminderDTO;
+
+/**
+ * Delivers appointment reminders to patients (SMS, e-mail, ...). Calls come
+ * from many virtual threads at once, so implementations must be thread-safe and
+ * may block on I/O. Throwing marks the reminder FAILED so a later run retries
+ * it. The default is LoggingNotifier; declare a @Primary Notifier bean to
+ * replace it.
+ */
+public interface Notifier {
+
+	void sendReminder(ReminderDTO reminder) throws Exception;
+}
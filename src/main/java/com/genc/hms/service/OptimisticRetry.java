@@ -0,0 +1,68 @@
+package com.genc.hms.service;
+
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bounded retry for internal writers that lose an optimistic-lock race, i.e.
+ * another transaction committed a new version of the same row first. Each
+ * attempt runs in its own transaction and reloads its entities, so the work
+ * must be safe to repeat on fresh state (e.g. an idempotent status change).
+ * Attempts are spaced by a short, growing pause. Must be called outside a
+ * transaction: after a failed flush the surrounding persistence context is
+ * unusable, so only the outermost boundary can retry.
+ */
+@Component
+public class OptimisticRetry {
+
+	private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+
+	public static final int MAX_ATTEMPTS = 3;
+	private static final long BACKOFF_MILLIS = 20;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	/** Runs the work with up to MAX_ATTEMPTS attempts. */
+	public <T> T execute(Supplier<T> work) {
+		return execute(MAX_ATTEMPTS, work);
+	}
+
+	/**
+	 * Runs the work in a new transaction, retrying up to maxAttempts in total on
+	 * OptimisticLockingFailureException, which is rethrown once attempts run out.
+	 * Any other exception fails immediately.
+	 */
+	public <T> T execute(int maxAttempts, Supplier<T> work) {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			throw new IllegalStateException("Optimistic retries must start outside a transaction.");
+		}
+		for (int attempt = 1;; attempt++) {
+			try {
+				return transactionTemplate.execute(status -> work.get());
+			} catch (OptimisticLockingFailureException e) {
+				if (attempt >= maxAttempts)
+					throw e;
+				logger.debug("Optimistic lock conflict on attempt {} of {}, retrying: {}", attempt, maxAttempts,
+						e.getMessage());
+				pause(attempt);
+			}
+		}
+	}
+
+	private static void pause(int attempt) {
+		try {
+			Thread.sleep(BACKOFF_MILLIS * attempt);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting to retry.", e);
+		}
+	}
+}
@@ -14,6 +14,7 @@ import com.genc.hms.entity.Patient;
 import com.genc.hms.entity.User;
 import com.genc.hms.exception.GlobalExceptionHandler.ResourceNotFoundException;
 import com.genc.hms.repository.PatientRepository;
+import com.genc.hms.util.ETags;
 
 @Service
 public class PatientService {
@@ -34,7 +35,7 @@ public class PatientService {
 		}
 		return new PatientResponseDTO(patient.getPatientId(), user.getUserId(), user.getEmail(), patient.getName(),
 				patient.getDob(), patient.getContactNumber(), patient.getAddress(), patient.getGender(),
-				patient.getMedicalHistory());
+				patient.getMedicalHistory(), patient.getVersion());
 	}
 
 	// =================================================================================
@@ -53,14 +54,18 @@ public class PatientService {
 
 	/**
 	 * * Updates profile fields of an existing patient. Throws
-	 * ResourceNotFoundException if patientId does not exist.
+	 * ResourceNotFoundException if patientId does not exist, and
+	 * PreconditionFailedException if expectedVersion (If-Match) is given and no
+	 * longer current.
 	 */
 	@Transactional
-	public PatientResponseDTO updatePatientProfile(Long patientId, PatientUpdateRequestDTO updateDTO) {
+	public PatientResponseDTO updatePatientProfile(Long patientId, PatientUpdateRequestDTO updateDTO,
+			Long expectedVersion) {
 
 		// Use orElseThrow to handle the not-found case
 		Patient patient = patientRepository.findById(patientId)
 				.orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + patientId));
+		ETags.checkVersion("Patient " + patientId, expectedVersion, patient.getVersion());
 
 		patient.setName(updateDTO.getName());
 		patient.setDob(updateDTO.getDob());
@@ -69,7 +74,7 @@ public class PatientService {
 		patient.setGender(updateDTO.getGender());
 		patient.setMedicalHistory(updateDTO.getMedicalHistory());
 
-		Patient updatedPatient = patientRepository.save(patient);
+		Patient updatedPatient = patientRepository.saveAndFlush(patient); // Flushed so the DTO carries the new version
 
 		// Return the DTO directly after saving
 		return mapToResponseDTO(updatedPatient);
@@ -0,0 +1,191 @@
+package com.genc.hms.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.genc.hms.dto.ReminderDTO;
+import com.genc.hms.dto.ReminderRunDTO;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.ReminderStatus;
+import com.genc.hms.exception.GlobalExceptionHandler.ConflictException;
+import com.genc.hms.repository.AppointmentReminderRepository;
+import com.genc.hms.repository.AppointmentRepository;
+
+/**
+ * Reminds patients of their appointments the day before. Appointments are read
+ * in fixed-size keyset chunks, each chunk's reminders are claimed in one
+ * statement (so overlapping runs never send twice) and sent through the
+ * Notifier on virtual threads, at most hms.reminders.max-concurrency at a time.
+ */
+@Service
+public class ReminderService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReminderService.class);
+
+	// --- Dependencies ---
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private AppointmentReminderRepository reminderRepository;
+
+	@Autowired
+	private Notifier notifier;
+
+	// --- Configuration ---
+	@Value("${hms.reminders.chunk-size:200}")
+	private int chunkSize;
+
+	@Value("${hms.reminders.max-concurrency:32}")
+	private int maxConcurrency;
+
+	// A PENDING claim older than this is assumed to belong to a dead sender
+	@Value("${hms.reminders.claim-timeout-minutes:30}")
+	private long claimTimeoutMinutes;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+	private volatile ReminderRunDTO lastRun;
+
+	// =================================================================================
+	// I. RUNS
+	// =================================================================================
+
+	/** Sends tomorrow's reminders (daily, at the time set by hms.reminders.cron). */
+	@Scheduled(cron = "${hms.reminders.cron:0 0 18 * * *}")
+	public void sendTomorrowsReminders() {
+		try {
+			sendReminders(LocalDate.now().plusDays(1));
+		} catch (ConflictException e) {
+			logger.warn("Skipping scheduled reminder run: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Sends a reminder for every CONFIRMED appointment on the given date that has
+	 * not had one yet, retrying earlier failures. Safe to re-run: reminders
+	 * already sent are skipped. Throws ConflictException if a run is already in
+	 * progress on this node.
+	 */
+	public ReminderRunDTO sendReminders(LocalDate date) {
+		if (!running.compareAndSet(false, true)) {
+			throw new ConflictException("A reminder run is already in progress.");
+		}
+		try {
+			ReminderRunDTO run = run(date);
+			lastRun = run;
+			logger.info("Reminders for {}: {} sent, {} failed, {} claimed elsewhere, {} scanned in {} chunks, "
+					+ "{} ms ({} reminders/s)", date, run.getSent(), run.getFailed(), run.getSkipped(),
+					run.getScanned(), run.getChunks(), run.getElapsedMillis(),
+					String.format("%.1f", run.getRemindersPerSecond()));
+			return run;
+		} finally {
+			running.set(false);
+		}
+	}
+
+	/** Metrics of the most recent completed run on this node, if any. */
+	public Optional<ReminderRunDTO> getLastRun() {
+		return Optional.ofNullable(lastRun);
+	}
+
+	// =================================================================================
+	// II. CHUNK PROCESSING
+	// =================================================================================
+
+	private ReminderRunDTO run(LocalDate date) {
+		long begin = System.nanoTime();
+		int scanned = 0, sent = 0, failed = 0, skipped = 0, chunks = 0;
+		Semaphore permits = new Semaphore(maxConcurrency);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			long afterId = 0;
+			List<ReminderDTO> chunk;
+			do {
+				chunk = appointmentRepository.findReminderTargets(date, AppointmentStatus.CONFIRMED,
+						ReminderStatus.SENT, afterId, PageRequest.of(0, chunkSize));
+				if (chunk.isEmpty()) {
+					break;
+				}
+				chunks++;
+				scanned += chunk.size();
+				afterId = chunk.get(chunk.size() - 1).appointmentId();
+
+				// 1. Claim the whole chunk in one statement
+				LocalDateTime now = LocalDateTime.now();
+				Set<Long> claimed = new HashSet<>(reminderRepository.claim(
+						chunk.stream().map(ReminderDTO::appointmentId).toList(), now,
+						now.minusMinutes(claimTimeoutMinutes)));
+				skipped += chunk.size() - claimed.size();
+
+				// 2. One virtual thread per reminder; the semaphore bounds the sends in flight
+				List<ReminderDTO> owned = chunk.stream().filter(r -> claimed.contains(r.appointmentId())).toList();
+				List<Future<Boolean>> results = new ArrayList<>(owned.size());
+				for (ReminderDTO reminder : owned) {
+					results.add(executor.submit(() -> send(reminder, permits)));
+				}
+
+				// 3. Record the outcomes of the chunk in (at most) two statements
+				List<Long> sentIds = new ArrayList<>();
+				List<Long> failedIds = new ArrayList<>();
+				for (int i = 0; i < owned.size(); i++) {
+					(succeeded(results.get(i)) ? sentIds : failedIds).add(owned.get(i).appointmentId());
+				}
+				if (!sentIds.isEmpty()) {
+					reminderRepository.markAll(sentIds, ReminderStatus.SENT, LocalDateTime.now());
+				}
+				if (!failedIds.isEmpty()) {
+					reminderRepository.markAll(failedIds, ReminderStatus.FAILED, null);
+				}
+				sent += sentIds.size();
+				failed += failedIds.size();
+			} while (chunk.size() == chunkSize);
+		}
+
+		return new ReminderRunDTO(date, scanned, sent, failed, skipped, chunks,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+	}
+
+	private boolean send(ReminderDTO reminder, Semaphore permits) throws InterruptedException {
+		permits.acquire();
+		try {
+			notifier.sendReminder(reminder);
+			return true;
+		} catch (Exception e) {
+			logger.warn("Reminder for appointment {} failed: {}", reminder.appointmentId(), e.getMessage());
+			return false;
+		} finally {
+			permits.release();
+		}
+	}
+
+	private static boolean succeeded(Future<Boolean> result) {
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while sending reminders.", e);
+		} catch (ExecutionException e) {
+			return false;
+		}
+	}
+}
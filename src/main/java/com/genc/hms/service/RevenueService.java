@@ -0,0 +1,167 @@
+package com.genc.hms.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genc.hms.dto.RevenueDTO;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.enums.PaymentStatus;
+import com.genc.hms.enums.RevenueGrouping;
+import com.genc.hms.enums.RevenuePeriod;
+import com.genc.hms.repository.BillRepository;
+import com.genc.hms.repository.BillRepository.RevenueRow;
+import com.genc.hms.repository.DoctorRepository;
+
+/**
+ * Revenue by period, doctor or specialization and payment status. Days up to
+ * the roll-up watermark are read from the bill_revenue_daily summary, which
+ * database triggers keep in step with every bill write (see
+ * schema-postgresql.sql); the days after it, normally just today, are
+ * aggregated from the bills. Both are read in one snapshot and folded into
+ * buckets as long cents.
+ */
+@Service
+public class RevenueService {
+
+	private static final Logger logger = LoggerFactory.getLogger(RevenueService.class);
+
+	// --- Constants ---
+	public static final int MAX_RANGE_DAYS = 3660; // About ten years of daily rows
+
+	// --- Dependencies ---
+	@Autowired
+	private BillRepository billRepository;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	/** One output bucket; doctorId and specialization are null when not grouped by them. */
+	private record Bucket(LocalDate periodStart, Long doctorId, String specialization, PaymentStatus paymentStatus) {
+	}
+
+	private static final Comparator<Bucket> BUCKET_ORDER = Comparator.comparing(Bucket::periodStart)
+			.thenComparing(Bucket::specialization, Comparator.nullsFirst(Comparator.naturalOrder()))
+			.thenComparing(Bucket::doctorId, Comparator.nullsFirst(Comparator.naturalOrder()))
+			.thenComparing(Bucket::paymentStatus);
+
+	// =================================================================================
+	// I. REPORTS
+	// =================================================================================
+
+	/**
+	 * Returns bill counts and totals for bills dated in [from, to], one row per
+	 * (period, group, payment status) that has bills, in period order. Throws
+	 * IllegalArgumentException if the range is invalid.
+	 */
+	@Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+	public List<RevenueDTO> getRevenue(LocalDate from, LocalDate to, RevenuePeriod period, RevenueGrouping grouping) {
+		if (to.isBefore(from)) {
+			throw new IllegalArgumentException("Range end " + to + " is before range start " + from + ".");
+		}
+		if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+			throw new IllegalArgumentException("Revenue range cannot exceed " + MAX_RANGE_DAYS + " days.");
+		}
+
+		// 1. Closed days from the summary, open days from the bills, in the same snapshot
+		List<RevenueRow> rows = new ArrayList<>();
+		LocalDate closedThrough = billRepository.findRevenueClosedThrough();
+		LocalDate openFrom = from;
+		if (closedThrough != null && !closedThrough.isBefore(from)) {
+			rows.addAll(billRepository.findSummarizedRevenue(from, closedThrough.isBefore(to) ? closedThrough : to));
+			openFrom = closedThrough.plusDays(1);
+		}
+		if (!openFrom.isAfter(to)) {
+			rows.addAll(billRepository.aggregateRevenue(openFrom, to));
+		}
+
+		// 2. Doctor details for the rows that need them
+		Map<Long, Doctor> doctors = new HashMap<>();
+		if (grouping != RevenueGrouping.TOTAL) {
+			Set<Long> doctorIds = new HashSet<>();
+			rows.forEach(row -> doctorIds.add(row.getDoctorId()));
+			doctorRepository.findAllById(doctorIds).forEach(doctor -> doctors.put(doctor.getDoctorId(), doctor));
+		}
+
+		// 3. Fold into buckets; each holds {bill count, amount in cents}
+		Map<Bucket, long[]> totals = new HashMap<>();
+		for (RevenueRow row : rows) {
+			Doctor doctor = doctors.get(row.getDoctorId());
+			String specialization = doctor != null ? doctor.getSpecialization() : null;
+			Bucket bucket = switch (grouping) {
+			case TOTAL -> new Bucket(period.start(row.getBillDate()), null, null, row.getPaymentStatus());
+			case DOCTOR -> new Bucket(period.start(row.getBillDate()), row.getDoctorId(), specialization,
+					row.getPaymentStatus());
+			case SPECIALIZATION -> new Bucket(period.start(row.getBillDate()), null, specialization,
+					row.getPaymentStatus());
+			};
+			long[] total = totals.computeIfAbsent(bucket, b -> new long[2]);
+			total[0] += row.getBillCount();
+			total[1] += row.getAmountMinor();
+		}
+
+		return totals.entrySet().stream().filter(entry -> entry.getValue()[0] != 0)
+				.sorted(Map.Entry.comparingByKey(BUCKET_ORDER)).map(entry -> {
+					Bucket bucket = entry.getKey();
+					long[] total = entry.getValue();
+					Doctor doctor = bucket.doctorId() != null ? doctors.get(bucket.doctorId()) : null;
+					return new RevenueDTO(bucket.periodStart(), bucket.doctorId(),
+							doctor != null ? doctor.getName() : null, bucket.specialization(), bucket.paymentStatus(),
+							total[0], total[1], BigDecimal.valueOf(total[1], 2));
+				}).toList();
+	}
+
+	// =================================================================================
+	// II. ROLL-UP
+	// =================================================================================
+
+	/** Closes every day before today into the summary, at startup and nightly (hms.revenue.rollup-cron). */
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(cron = "${hms.revenue.rollup-cron:0 5 0 * * *}")
+	public void rollUpClosedDays() {
+		rollUpThrough(LocalDate.now().minusDays(1));
+	}
+
+	/**
+	 * Rolls every bill dated up to and including {@code through} into the
+	 * summary and moves the watermark there, one day per transaction. Closing a
+	 * day waits for in-flight writes of that day's bills, and new ones wait for
+	 * it; no other write is blocked. Returns the summary rows written; 0 if those
+	 * days were already closed.
+	 */
+	public int rollUpThrough(LocalDate through) {
+		int written = 0;
+		int days = 0;
+		int rows;
+		while ((rows = transactionTemplate.execute(tx -> billRepository.rollUpRevenueDay(through))) >= 0) {
+			written += rows;
+			days++;
+		}
+		if (days > 0) {
+			logger.info("Revenue summary rolled up through {}: {} days closed, {} rows written", through, days,
+					written);
+		}
+		return written;
+	}
+}
@@ -0,0 +1,120 @@
+package com.genc.hms.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.genc.hms.entity.ScheduleException;
+import com.genc.hms.event.ScheduleExceptionChangedEvent;
+import com.genc.hms.repository.ScheduleExceptionRepository;
+import com.genc.hms.util.IntervalSet;
+import com.genc.hms.util.TimeSlots;
+
+/**
+ * In-memory view of leave and holiday blocks. Each doctor's own blocks and the
+ * hospital-wide ones are compiled into one merged IntervalSet on an epoch-minute
+ * axis, so asking whether a slot is blocked is a single binary search and never
+ * a query. Compiled at startup and recompiled for the affected doctor (or for
+ * everyone, for hospital-wide blocks) after each committed change.
+ */
+@Component
+public class ScheduleExceptionIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ScheduleExceptionIndex.class);
+
+	// Hospital-wide blocks, and per doctor those blocks merged with the doctor's own
+	private record Snapshot(IntervalSet hospital, Map<Long, IntervalSet> doctors) {
+	}
+
+	// Replaced as a whole so readers never see a half-compiled index
+	private volatile Snapshot snapshot = new Snapshot(IntervalSet.EMPTY, Map.of());
+
+	@Autowired
+	private ScheduleExceptionRepository scheduleExceptionRepository;
+
+	// =================================================================================
+	// I. QUERIES
+	// =================================================================================
+
+	/** True if a leave or holiday block overlaps [startMinute, endMinute) on the date. */
+	public boolean isBlocked(Long doctorId, LocalDate date, int startMinute, int endMinute) {
+		Snapshot current = snapshot;
+		IntervalSet blocks = current.doctors().getOrDefault(doctorId, current.hospital());
+		if (blocks.isEmpty())
+			return false;
+		long day = date.toEpochDay() * TimeSlots.MINUTES_PER_DAY;
+		return blocks.overlaps(day + startMinute, day + endMinute);
+	}
+
+	/** True if the doctor cannot be booked at any time of the date. */
+	public boolean isBlockedAllDay(Long doctorId, LocalDate date) {
+		Snapshot current = snapshot;
+		IntervalSet blocks = current.doctors().getOrDefault(doctorId, current.hospital());
+		long day = date.toEpochDay() * TimeSlots.MINUTES_PER_DAY;
+		return blocks.covers(day, day + TimeSlots.MINUTES_PER_DAY);
+	}
+
+	// =================================================================================
+	// II. COMPILATION
+	// =================================================================================
+
+	/** Compiles every block that has not ended yet; also run nightly to drop past ones. */
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(cron = "0 10 0 * * *")
+	public synchronized void rebuild() {
+		List<ScheduleException> exceptions = scheduleExceptionRepository.findEndingAfter(horizon());
+		IntervalSet.Builder hospital = new IntervalSet.Builder();
+		Map<Long, IntervalSet.Builder> own = new HashMap<>();
+		for (ScheduleException exception : exceptions) {
+			IntervalSet.Builder target = exception.getDoctor() == null ? hospital
+					: own.computeIfAbsent(exception.getDoctor().getDoctorId(), id -> new IntervalSet.Builder());
+			target.add(toEpochMinute(exception.getStartAt()), toEpochMinute(exception.getEndAt()));
+		}
+
+		IntervalSet hospitalBlocks = hospital.build();
+		Map<Long, IntervalSet> doctors = new HashMap<>();
+		own.forEach((doctorId, blocks) -> doctors.put(doctorId, blocks.addAll(hospitalBlocks).build()));
+		snapshot = new Snapshot(hospitalBlocks, Map.copyOf(doctors));
+		logger.info("Schedule exception index compiled with {} blocks for {} doctors", exceptions.size(),
+				doctors.size());
+	}
+
+	/** Recompiles what a committed change affects: one doctor, or everyone for hospital-wide blocks. */
+	@TransactionalEventListener
+	public synchronized void onExceptionChanged(ScheduleExceptionChangedEvent event) {
+		if (event.doctorId() == null) {
+			rebuild();
+			return;
+		}
+		Snapshot current = snapshot;
+		IntervalSet.Builder blocks = new IntervalSet.Builder().addAll(current.hospital());
+		for (ScheduleException exception : scheduleExceptionRepository.findForDoctorEndingAfter(event.doctorId(),
+				horizon())) {
+			blocks.add(toEpochMinute(exception.getStartAt()), toEpochMinute(exception.getEndAt()));
+		}
+		Map<Long, IntervalSet> doctors = new HashMap<>(current.doctors());
+		doctors.put(event.doctorId(), blocks.build());
+		snapshot = new Snapshot(current.hospital(), Map.copyOf(doctors));
+	}
+
+	// Blocks that ended before today can no longer affect a booking
+	private static LocalDateTime horizon() {
+		return LocalDate.now().atStartOfDay();
+	}
+
+	private static long toEpochMinute(LocalDateTime time) {
+		return time.toLocalDate().toEpochDay() * TimeSlots.MINUTES_PER_DAY
+				+ TimeSlots.toMinuteOfDay(time.toLocalTime());
+	}
+}
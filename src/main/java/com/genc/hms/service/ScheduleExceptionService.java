@@ -0,0 +1,121 @@
+package com.genc.hms.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.genc.hms.dto.ScheduleExceptionRequestDTO;
+import com.genc.hms.dto.ScheduleExceptionResponseDTO;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.entity.ScheduleException;
+import com.genc.hms.event.ScheduleExceptionChangedEvent;
+import com.genc.hms.exception.GlobalExceptionHandler.ResourceNotFoundException;
+import com.genc.hms.repository.ScheduleExceptionRepository;
+
+/**
+ * Manages leave and holiday blocks. Every committed change is published so the
+ * ScheduleExceptionIndex recompiles; bookings only ever consult the index.
+ * Existing appointments inside a new block are left for staff to move.
+ */
+@Service
+public class ScheduleExceptionService {
+
+	// --- Constants ---
+	public static final int MAX_BLOCK_DAYS = 366; // Longest single block
+	public static final int MAX_LIST_RANGE_DAYS = 366;
+
+	// --- Dependencies ---
+	@Autowired
+	private ScheduleExceptionRepository scheduleExceptionRepository;
+
+	@Autowired
+	private DoctorService doctorService;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	// =================================================================================
+	// I. WRITE OPERATIONS
+	// =================================================================================
+
+	/**
+	 * Creates a block for a doctor, or hospital-wide when no doctor is given.
+	 * Throws ResourceNotFoundException for an unknown doctor and
+	 * IllegalArgumentException if the block is empty, inverted or too long.
+	 */
+	@Transactional
+	public ScheduleExceptionResponseDTO createException(ScheduleExceptionRequestDTO requestDTO) {
+		Doctor doctor = null;
+		if (requestDTO.getDoctorId() != null) {
+			doctor = doctorService.findById(requestDTO.getDoctorId()).orElseThrow(
+					() -> new ResourceNotFoundException("Doctor not found with ID: " + requestDTO.getDoctorId()));
+		}
+
+		LocalDate endDate = requestDTO.getEndDate() != null ? requestDTO.getEndDate() : requestDTO.getStartDate();
+		LocalDateTime startAt;
+		LocalDateTime endAt;
+		if (requestDTO.getStartTime() == null) {
+			startAt = requestDTO.getStartDate().atStartOfDay();
+			endAt = endDate.plusDays(1).atStartOfDay();
+		} else {
+			startAt = requestDTO.getStartDate().atTime(requestDTO.getStartTime());
+			endAt = endDate.atTime(requestDTO.getEndTime());
+		}
+		if (!endAt.isAfter(startAt)) {
+			throw new IllegalArgumentException("Block end " + endAt + " must be after its start " + startAt + ".");
+		}
+		if (ChronoUnit.DAYS.between(startAt, endAt) > MAX_BLOCK_DAYS) {
+			throw new IllegalArgumentException("A single block cannot exceed " + MAX_BLOCK_DAYS + " days.");
+		}
+
+		ScheduleException saved = scheduleExceptionRepository
+				.save(new ScheduleException(doctor, startAt, endAt, requestDTO.getReason()));
+		eventPublisher.publishEvent(new ScheduleExceptionChangedEvent(requestDTO.getDoctorId()));
+		return mapToResponseDTO(saved);
+	}
+
+	/** Deletes a block. Throws ResourceNotFoundException if it does not exist. */
+	@Transactional
+	public void deleteException(Long scheduleExceptionId) {
+		ScheduleException exception = scheduleExceptionRepository.findById(scheduleExceptionId)
+				.orElseThrow(() -> new ResourceNotFoundException(
+						"Schedule exception not found with ID: " + scheduleExceptionId));
+		Long doctorId = exception.getDoctor() == null ? null : exception.getDoctor().getDoctorId();
+		scheduleExceptionRepository.delete(exception);
+		eventPublisher.publishEvent(new ScheduleExceptionChangedEvent(doctorId));
+	}
+
+	// =================================================================================
+	// II. READ OPERATIONS
+	// =================================================================================
+
+	/**
+	 * Lists the blocks overlapping [from, to] (whole days) that apply to the
+	 * doctor, including hospital-wide ones; all blocks when doctorId is null.
+	 * Throws IllegalArgumentException if the range is inverted or too long.
+	 */
+	@Transactional(readOnly = true)
+	public List<ScheduleExceptionResponseDTO> findExceptions(Long doctorId, LocalDate from, LocalDate to) {
+		if (to.isBefore(from)) {
+			throw new IllegalArgumentException("Range end " + to + " is before range start " + from + ".");
+		}
+		if (ChronoUnit.DAYS.between(from, to) >= MAX_LIST_RANGE_DAYS) {
+			throw new IllegalArgumentException("Range cannot exceed " + MAX_LIST_RANGE_DAYS + " days.");
+		}
+		return scheduleExceptionRepository
+				.findOverlapping(doctorId, from.atStartOfDay(), to.plusDays(1).atStartOfDay()).stream()
+				.map(this::mapToResponseDTO).toList();
+	}
+
+	private ScheduleExceptionResponseDTO mapToResponseDTO(ScheduleException exception) {
+		Long doctorId = exception.getDoctor() == null ? null : exception.getDoctor().getDoctorId();
+		return new ScheduleExceptionResponseDTO(exception.getScheduleExceptionId(), doctorId, exception.getStartAt(),
+				exception.getEndAt(), exception.getReason());
+	}
+}
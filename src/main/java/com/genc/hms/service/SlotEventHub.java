@@ -0,0 +1,177 @@
+package com.genc.hms.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.genc.hms.config.AsyncConfig;
+import com.genc.hms.dto.SlotChangeDTO;
+import com.genc.hms.event.SlotChangedEvent;
+import com.genc.hms.exception.GlobalExceptionHandler.ConflictException;
+import com.genc.hms.exception.GlobalExceptionHandler.ResourceNotFoundException;
+import com.genc.hms.util.TimeSlots;
+
+/**
+ * Pushes committed slot changes to clients watching a doctor's calendar over
+ * Server-Sent Events. Subscriptions are async requests: an idle subscriber is
+ * only an open socket and an entry in this hub, never a thread, so one node can
+ * keep thousands of them. Each change is fanned out on a single background
+ * thread to the subscribers of that doctor whose date range covers it.
+ */
+@Component
+public class SlotEventHub {
+
+	private static final Logger logger = LoggerFactory.getLogger(SlotEventHub.class);
+
+	public static final String TAKEN_EVENT = "slot-taken";
+	public static final String FREED_EVENT = "slot-freed";
+	private static final long HEARTBEAT_MILLIS = 25_000; // Below common proxy idle timeouts
+
+	/** One open subscription to a doctor's slot changes in [from, to]. */
+	record Subscriber(SseEmitter emitter, LocalDate from, LocalDate to) {
+
+		boolean covers(LocalDate date) {
+			return !date.isBefore(from) && !date.isAfter(to);
+		}
+	}
+
+	private final ConcurrentHashMap<Long, Set<Subscriber>> subscribersByDoctor = new ConcurrentHashMap<>();
+	private final AtomicInteger subscriberCount = new AtomicInteger();
+
+	@Value("${hms.slot-events.max-subscribers:5000}")
+	private int maxSubscribers;
+
+	@Value("${hms.slot-events.timeout-minutes:30}")
+	private long timeoutMinutes;
+
+	@Autowired
+	private DoctorService doctorService;
+
+	// =================================================================================
+	// I. SUBSCRIPTIONS
+	// =================================================================================
+
+	/**
+	 * Opens a subscription to the doctor's slot changes between two dates
+	 * (inclusive). The stream ends after the configured timeout and clients are
+	 * expected to reconnect. Throws ResourceNotFoundException if the doctor does
+	 * not exist, IllegalArgumentException if the range is invalid or too long and
+	 * ConflictException if this node already serves the maximum number of
+	 * subscribers.
+	 */
+	public SseEmitter subscribe(Long doctorId, LocalDate from, LocalDate to) {
+		if (to.isBefore(from)) {
+			throw new IllegalArgumentException("Range end " + to + " is before range start " + from + ".");
+		}
+		if (ChronoUnit.DAYS.between(from, to) >= AppointmentService.MAX_SLOT_RANGE_DAYS) {
+			throw new IllegalArgumentException(
+					"Subscription range cannot exceed " + AppointmentService.MAX_SLOT_RANGE_DAYS + " days.");
+		}
+		if (doctorService.findById(doctorId).isEmpty()) {
+			throw new ResourceNotFoundException("Doctor not found with ID: " + doctorId);
+		}
+
+		Subscriber subscriber = new Subscriber(new SseEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes)), from, to);
+		register(doctorId, subscriber);
+		// Flushes the response headers so the client sees the stream open right away
+		send(doctorId, subscriber, SseEmitter.event().comment("subscribed"));
+		return subscriber.emitter();
+	}
+
+	/** Number of open subscriptions on this node. */
+	public int getSubscriberCount() {
+		return subscriberCount.get();
+	}
+
+	void setMaxSubscribers(int maxSubscribers) {
+		this.maxSubscribers = maxSubscribers;
+	}
+
+	void register(Long doctorId, Subscriber subscriber) {
+		if (subscriberCount.incrementAndGet() > maxSubscribers) {
+			subscriberCount.decrementAndGet();
+			throw new ConflictException("Too many live slot subscriptions right now. Please poll the slots instead.");
+		}
+		subscribersByDoctor.compute(doctorId, (id, subscribers) -> {
+			Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+			set.add(subscriber);
+			return set;
+		});
+
+		SseEmitter emitter = subscriber.emitter();
+		emitter.onCompletion(() -> unregister(doctorId, subscriber));
+		emitter.onTimeout(() -> unregister(doctorId, subscriber));
+		emitter.onError(e -> unregister(doctorId, subscriber));
+	}
+
+	// Idempotent: completion also fires after a timeout or an error
+	private void unregister(Long doctorId, Subscriber subscriber) {
+		subscribersByDoctor.computeIfPresent(doctorId, (id, subscribers) -> {
+			if (subscribers.remove(subscriber)) {
+				subscriberCount.decrementAndGet();
+			}
+			return subscribers.isEmpty() ? null : subscribers;
+		});
+	}
+
+	// =================================================================================
+	// II. FAN-OUT
+	// =================================================================================
+
+	/** Pushes a committed slot change to the doctor's matching subscribers. */
+	@Async(AsyncConfig.SLOT_EVENTS_EXECUTOR)
+	@TransactionalEventListener
+	public void onSlotChanged(SlotChangedEvent event) {
+		Set<Subscriber> subscribers = subscribersByDoctor.get(event.doctorId());
+		if (subscribers == null) {
+			return;
+		}
+		SlotChangeDTO change = new SlotChangeDTO(event.doctorId(), event.date(),
+				TimeSlots.label(event.startMinute(), event.endMinute()), event.change());
+		String name = event.change() == SlotChangedEvent.Change.TAKEN ? TAKEN_EVENT : FREED_EVENT;
+		for (Subscriber subscriber : subscribers) {
+			if (subscriber.covers(event.date())) {
+				send(event.doctorId(), subscriber, SseEmitter.event().name(name).data(change));
+			}
+		}
+	}
+
+	/**
+	 * Sends a comment line to every subscriber so intermediaries keep idle
+	 * streams open and connections dropped by clients are noticed and released.
+	 */
+	@Scheduled(fixedDelay = HEARTBEAT_MILLIS, initialDelay = HEARTBEAT_MILLIS)
+	public void heartbeat() {
+		subscribersByDoctor.forEach((doctorId, subscribers) -> {
+			for (Subscriber subscriber : subscribers) {
+				send(doctorId, subscriber, SseEmitter.event().comment("keep-alive"));
+			}
+		});
+	}
+
+	private void send(Long doctorId, Subscriber subscriber, SseEventBuilder event) {
+		try {
+			subscriber.emitter().send(event);
+		} catch (IOException | IllegalStateException e) {
+			// Client went away (or the stream already completed): drop it
+			logger.debug("Dropping slot subscriber of doctor {}: {}", doctorId, e.getMessage());
+			unregister(doctorId, subscriber);
+			subscriber.emitter().completeWithError(e);
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package com.genc.hms.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.genc.hms.event.SlotChangedEvent;
+
+/**
+ * Short-lived in-memory reservations of a (doctor, date, slot) for one patient,
+ * so the slot can be booked without racing other patients for it. A patient
+ * holds at most one slot at a time. Holds expire after a configurable TTL and
+ * are swept by a hashed timer wheel (one bucket per one-second tick) instead of
+ * a scheduled task per hold; lookups also ignore holds past their expiry, so
+ * the sweep only reclaims memory. Holds live in this JVM only.
+ */
+@Component
+public class SlotHoldRegistry {
+
+	static final long TICK_MILLIS = 1000;
+	private static final int WHEEL_SIZE = 512; // Power of two; holds longer than the wheel go round again
+
+	/** An active hold. Identity matters: a refreshed hold is a new instance. */
+	public record Hold(String holdId, Long patientId, Long doctorId, LocalDate date, int startMinute, int endMinute,
+			long expiresAtMillis) {
+
+		boolean overlaps(int start, int end) {
+			return startMinute < end && start < endMinute;
+		}
+	}
+
+	private record DoctorDay(Long doctorId, LocalDate date) {
+	}
+
+	private record WheelEntry(Hold hold, long deadlineTick) {
+	}
+
+	// Holds per doctor-day are copy-on-write lists (a handful of holds per day)
+	private final ConcurrentHashMap<DoctorDay, List<Hold>> holdsByDay = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, Hold> holdsById = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Long, Hold> holdsByPatient = new ConcurrentHashMap<>();
+
+	private final List<ConcurrentLinkedQueue<WheelEntry>> wheel = new ArrayList<>(WHEEL_SIZE);
+	private final LongSupplier clock;
+	private final long startMillis;
+	private long currentTick; // Only advanced by the sweeping thread
+
+	@Value("${hms.slot-hold.ttl-seconds:120}")
+	private long ttlSeconds;
+
+	@Autowired
+	public SlotHoldRegistry() {
+		this(System::currentTimeMillis);
+	}
+
+	SlotHoldRegistry(LongSupplier clock) {
+		this.clock = clock;
+		this.startMillis = clock.getAsLong();
+		for (int i = 0; i < WHEEL_SIZE; i++) {
+			wheel.add(new ConcurrentLinkedQueue<>());
+		}
+	}
+
+	// =================================================================================
+	// I. HOLDS
+	// =================================================================================
+
+	/**
+	 * Holds [startMinute, endMinute) for the patient, releasing any other slot the
+	 * patient held. Returns null if an overlapping slot is held by another
+	 * patient. Holding the same slot again extends the hold.
+	 */
+	public Hold hold(Long patientId, Long doctorId, LocalDate date, int startMinute, int endMinute) {
+		long now = clock.getAsLong();
+		Hold hold = new Hold(UUID.randomUUID().toString(), patientId, doctorId, date, startMinute, endMinute,
+				now + ttlSeconds * 1000);
+		boolean[] granted = new boolean[1];
+		holdsByDay.compute(new DoctorDay(doctorId, date), (key, current) -> {
+			List<Hold> next = new ArrayList<>();
+			if (current != null) {
+				for (Hold other : current) {
+					if (other.expiresAtMillis() <= now || other.patientId().equals(patientId))
+						continue; // Dropped: expired, or replaced by this hold
+					if (other.overlaps(startMinute, endMinute))
+						return current; // Held by someone else; leave the day untouched
+					next.add(other);
+				}
+			}
+			next.add(hold);
+			granted[0] = true;
+			return next;
+		});
+		if (!granted[0])
+			return null;
+
+		Hold previous = holdsByPatient.put(patientId, hold);
+		if (previous != null) {
+			holdsById.remove(previous.holdId());
+			if (!previous.date().equals(date) || !previous.doctorId().equals(doctorId)) {
+				removeFromDay(previous);
+			}
+		}
+		holdsById.put(hold.holdId(), hold);
+		schedule(hold, now);
+		return hold;
+	}
+
+	/** Releases a hold early. Returns the released hold, or null if unknown. */
+	public Hold release(String holdId) {
+		Hold hold = holdsById.get(holdId);
+		if (hold != null) {
+			expire(hold);
+		}
+		return hold;
+	}
+
+	/** True if an unexpired hold of another patient overlaps the slot. */
+	public boolean isHeldByOther(Long doctorId, LocalDate date, int startMinute, int endMinute, Long patientId) {
+		List<Hold> holds = holdsByDay.get(new DoctorDay(doctorId, date));
+		if (holds == null)
+			return false;
+		long now = clock.getAsLong();
+		for (Hold hold : holds) {
+			if (hold.expiresAtMillis() > now && !hold.patientId().equals(patientId)
+					&& hold.overlaps(startMinute, endMinute))
+				return true;
+		}
+		return false;
+	}
+
+	/** True if any unexpired hold overlaps the slot (used for slot listings). */
+	public boolean isHeld(Long doctorId, LocalDate date, int startMinute, int endMinute) {
+		return isHeldByOther(doctorId, date, startMinute, endMinute, null);
+	}
+
+	/** Number of live holds (expired holds count until swept). */
+	public int size() {
+		return holdsById.size();
+	}
+
+	/** A booked slot no longer needs its hold. */
+	@TransactionalEventListener
+	public void onSlotChanged(SlotChangedEvent event) {
+		if (event.change() != SlotChangedEvent.Change.TAKEN)
+			return;
+		List<Hold> holds = holdsByDay.get(new DoctorDay(event.doctorId(), event.date()));
+		if (holds == null)
+			return;
+		for (Hold hold : holds) {
+			if (hold.overlaps(event.startMinute(), event.endMinute())) {
+				expire(hold);
+			}
+		}
+	}
+
+	// =================================================================================
+	// II. TIMER WHEEL
+	// =================================================================================
+
+	private void schedule(Hold hold, long now) {
+		long deadlineTick = Math.max(tickAt(hold.expiresAtMillis() + TICK_MILLIS - 1), tickAt(now) + 1);
+		wheel.get((int) (deadlineTick & (WHEEL_SIZE - 1))).add(new WheelEntry(hold, deadlineTick));
+	}
+
+	/**
+	 * Advances the wheel up to the current time, expiring the holds in every
+	 * bucket passed. Entries due in a later round are put back.
+	 */
+	@Scheduled(fixedRate = TICK_MILLIS)
+	public synchronized void advance() {
+		long targetTick = tickAt(clock.getAsLong());
+		// Never walk the wheel more than once per call, however long we were paused
+		currentTick = Math.max(currentTick, targetTick - WHEEL_SIZE);
+		while (currentTick <= targetTick) {
+			ConcurrentLinkedQueue<WheelEntry> bucket = wheel.get((int) (currentTick & (WHEEL_SIZE - 1)));
+			List<WheelEntry> later = new ArrayList<>();
+			for (WheelEntry entry; (entry = bucket.poll()) != null;) {
+				if (entry.deadlineTick() <= targetTick) {
+					expire(entry.hold());
+				} else {
+					later.add(entry);
+				}
+			}
+			bucket.addAll(later);
+			currentTick++;
+		}
+	}
+
+	private long tickAt(long millis) {
+		return (millis - startMillis) / TICK_MILLIS;
+	}
+
+	private void expire(Hold hold) {
+		if (holdsById.remove(hold.holdId(), hold)) {
+			holdsByPatient.remove(hold.patientId(), hold);
+		}
+		removeFromDay(hold);
+	}
+
+	private void removeFromDay(Hold hold) {
+		holdsByDay.computeIfPresent(new DoctorDay(hold.doctorId(), hold.date()), (key, current) -> {
+			List<Hold> next = new ArrayList<>(current);
+			next.remove(hold);
+			return next.isEmpty() ? null : next;
+		});
+	}
+
+	void setTtlSeconds(long ttlSeconds) {
+		this.ttlSeconds = ttlSeconds;
+	}
+}
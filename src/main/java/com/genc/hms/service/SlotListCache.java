@@ -0,0 +1,131 @@
+package com.genc.hms.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.genc.hms.dto.SlotCacheStatsDTO;
+import com.genc.hms.event.SlotChangedEvent;
+import com.genc.hms.service.SlotTemplateCache.DayTemplate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Bounded cache of which template slots are free of bookings per (doctor,
+ * date), so repeated slot listings for popular doctors skip the booking lookup.
+ * Entries are dropped by every committed SlotChangedEvent for their day
+ * (booking, reschedule of both the old and new slot, cancel, status change),
+ * by doctor profile updates, and by SlotOccupancyIndex resyncs that find a day
+ * changed by another node. The size bound limits memory; the write TTL only
+ * matters for past days, which are read from the database rather than the
+ * index. Holds and leave blocks change without a booking, so callers apply
+ * them on top of the cached result.
+ */
+@Component
+public class SlotListCache {
+
+	private record DoctorDay(Long doctorId, LocalDate date) {
+	}
+
+	/** Free slots as indexes into the template they were laid out on. */
+	private record FreeSlots(DayTemplate template, int[] indexes) {
+	}
+
+	private final Cache<DoctorDay, FreeSlots> cache;
+
+	// Per doctor, bumped on every invalidation of the doctor; a result computed from data read before the bump
+	// is not cached. One counter per doctor, so a booking never blocks caching for other doctors
+	private final ConcurrentMap<Long, AtomicLong> invalidations = new ConcurrentHashMap<>();
+
+	public SlotListCache(@Value("${hms.slot-cache.max-entries:20000}") long maxEntries,
+			@Value("${hms.slot-cache.ttl-minutes:10}") long ttlMinutes) {
+		this.cache = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+				.recordStats().build();
+	}
+
+	// =================================================================================
+	// I. LOOKUPS
+	// =================================================================================
+
+	/**
+	 * Returns the template indexes of the slots free of bookings, or null on a
+	 * miss. An entry laid out on another template (the schedule changed) counts
+	 * as a miss.
+	 */
+	public int[] get(Long doctorId, LocalDate date, DayTemplate template) {
+		FreeSlots cached = cache.getIfPresent(new DoctorDay(doctorId, date));
+		return cached != null && cached.template() == template ? cached.indexes() : null;
+	}
+
+	/** Read before computing a result for the doctor, then passed to {@link #put}. */
+	public long generation(Long doctorId) {
+		return invalidations(doctorId).get();
+	}
+
+	/** Caches a computed result unless the doctor was invalidated since generation was read. */
+	public void put(Long doctorId, LocalDate date, DayTemplate template, int[] indexes, long generation) {
+		if (invalidations(doctorId).get() != generation)
+			return; // Bookings changed while this was computed; serve it once, keep the cache clean
+		cache.put(new DoctorDay(doctorId, date), new FreeSlots(template, indexes));
+	}
+
+	/** Hit, miss and eviction counts since startup, for sizing. */
+	public SlotCacheStatsDTO stats() {
+		CacheStats stats = cache.stats();
+		return new SlotCacheStatsDTO(cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(),
+				stats.evictionCount());
+	}
+
+	// =================================================================================
+	// II. INVALIDATION
+	// =================================================================================
+
+	/**
+	 * Drops the day of a committed slot change. Runs after SlotOccupancyIndex has
+	 * applied the change, so a recomputed entry never sees the old occupancy.
+	 */
+	@TransactionalEventListener
+	public void onSlotChanged(SlotChangedEvent event) {
+		invalidate(event.doctorId(), event.date());
+	}
+
+	/** Drops one doctor-day, e.g. one that SlotOccupancyIndex found changed by another node. */
+	public void invalidate(Long doctorId, LocalDate date) {
+		invalidations(doctorId).incrementAndGet();
+		cache.invalidate(new DoctorDay(doctorId, date));
+	}
+
+	/**
+	 * Drops every day of the doctor now and again once the current transaction
+	 * commits, as SlotTemplateCache does for the schedule itself.
+	 */
+	public void evictDoctorAfterCommit(Long doctorId) {
+		evictDoctor(doctorId);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evictDoctor(doctorId);
+				}
+			});
+		}
+	}
+
+	private void evictDoctor(Long doctorId) {
+		invalidations(doctorId).incrementAndGet();
+		cache.asMap().keySet().removeIf(key -> key.doctorId().equals(doctorId));
+	}
+
+	private AtomicLong invalidations(Long doctorId) {
+		return invalidations.computeIfAbsent(doctorId, id -> new AtomicLong());
+	}
+}
@@ -0,0 +1,231 @@
+package com.genc.hms.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.event.SlotChangedEvent;
+import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.repository.AppointmentRepository.BookedSlot;
+import com.genc.hms.util.TimeSlots;
+
+/**
+ * In-memory occupancy bitmap per (doctor, date). Each day is a 1440-bit set
+ * (one bit per minute), so checking whether a slot is free is a couple of word
+ * masks instead of a database query. The index is warmed at startup with all
+ * active bookings from today onwards and kept current through SlotChangedEvent
+ * after each committed booking change on this node. Bookings written by other
+ * nodes sharing the database are picked up by a periodic resync, so the index
+ * lags them by at most hms.slot-index.resync-minutes; the exclusion constraint
+ * still rejects a booking of a slot that only looked free here.
+ */
+@Component
+public class SlotOccupancyIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(SlotOccupancyIndex.class);
+
+	private static final int WORDS_PER_DAY = (TimeSlots.MINUTES_PER_DAY + 63) / 64;
+
+	private record DoctorDay(Long doctorId, LocalDate date) {
+	}
+
+	// Bitmaps are copy-on-write so readers never see a half-applied update
+	private final ConcurrentHashMap<DoctorDay, long[]> occupancy = new ConcurrentHashMap<>();
+
+	// Writers (events) share the lock, warm-up and resync take it exclusively
+	private final ReentrantReadWriteLock warmLock = new ReentrantReadWriteLock();
+
+	// First date the index is authoritative for; null until warmed
+	private volatile LocalDate coveredFrom;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private SlotListCache slotListCache;
+
+	// =================================================================================
+	// I. LIFECYCLE
+	// =================================================================================
+
+	/**
+	 * Loads every active booking from today onwards. Slot events arriving while
+	 * this runs wait on the lock and are applied on top of the snapshot.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void warm() {
+		int changed = reload().size();
+		logger.info("Slot occupancy index warmed across {} doctor-days", changed);
+	}
+
+	/**
+	 * Reloads the index from the database, so bookings and cancellations
+	 * committed by other nodes show up here. Only the doctor-days whose
+	 * occupancy changed are dropped from the slot-list cache.
+	 */
+	@Scheduled(fixedDelayString = "${hms.slot-index.resync-minutes:2}",
+			initialDelayString = "${hms.slot-index.resync-minutes:2}", timeUnit = TimeUnit.MINUTES)
+	public void resync() {
+		List<DoctorDay> changed = reload();
+		for (DoctorDay key : changed) {
+			slotListCache.invalidate(key.doctorId(), key.date());
+		}
+		if (!changed.isEmpty()) {
+			logger.info("Slot occupancy index resynced: {} doctor-days changed outside this node", changed.size());
+		}
+	}
+
+	/** Replaces the index with a fresh snapshot and returns the doctor-days that differ. */
+	private List<DoctorDay> reload() {
+		LocalDate today = LocalDate.now();
+		warmLock.writeLock().lock();
+		try {
+			List<BookedSlot> booked = appointmentRepository.findBookedSlotsFrom(today, AppointmentStatus.CANCELLED);
+			Map<DoctorDay, long[]> fresh = new HashMap<>();
+			for (BookedSlot slot : booked) {
+				int start = slot.getSlotStartMinute();
+				long[] words = fresh.computeIfAbsent(new DoctorDay(slot.getDoctorId(), slot.getAppointmentDate()),
+						key -> new long[WORDS_PER_DAY]);
+				set(words, start, start + slot.getSlotDurationMinutes(), true);
+			}
+
+			List<DoctorDay> changed = new ArrayList<>();
+			for (Map.Entry<DoctorDay, long[]> entry : occupancy.entrySet()) {
+				if (!Arrays.equals(entry.getValue(), fresh.get(entry.getKey()))) {
+					changed.add(entry.getKey());
+				}
+			}
+			for (DoctorDay key : fresh.keySet()) {
+				if (!occupancy.containsKey(key)) {
+					changed.add(key);
+				}
+			}
+
+			occupancy.keySet().retainAll(fresh.keySet());
+			occupancy.putAll(fresh);
+			coveredFrom = today;
+			return changed;
+		} finally {
+			warmLock.writeLock().unlock();
+		}
+	}
+
+	/** Drops days that are now in the past and advances the covered window. */
+	@Scheduled(cron = "0 5 0 * * *")
+	public void evictPastDays() {
+		LocalDate today = LocalDate.now();
+		occupancy.keySet().removeIf(key -> key.date().isBefore(today));
+		if (coveredFrom != null && coveredFrom.isBefore(today)) {
+			coveredFrom = today;
+		}
+	}
+
+	// =================================================================================
+	// II. QUERIES
+	// =================================================================================
+
+	/** True if the index is authoritative for the given date. */
+	public boolean covers(LocalDate date) {
+		LocalDate from = coveredFrom;
+		return from != null && !date.isBefore(from);
+	}
+
+	/** True if no booking overlaps [startMinute, endMinute) for the doctor/date. */
+	public boolean isFree(Long doctorId, LocalDate date, int startMinute, int endMinute) {
+		long[] words = occupancy.get(new DoctorDay(doctorId, date));
+		return words == null || !anySet(words, startMinute, endMinute);
+	}
+
+	// =================================================================================
+	// III. UPDATES
+	// =================================================================================
+
+	/**
+	 * Applies a committed slot change published by AppointmentService. Ordered
+	 * first so listeners that read the index (SlotListCache) see the change.
+	 */
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@TransactionalEventListener
+	public void onSlotChanged(SlotChangedEvent event) {
+		if (event.startMinute() < 0 || event.endMinute() > TimeSlots.MINUTES_PER_DAY
+				|| event.startMinute() >= event.endMinute()) {
+			return;
+		}
+		warmLock.readLock().lock();
+		try {
+			if (coveredFrom != null && event.date().isBefore(coveredFrom)) {
+				return; // Not tracked; lookups for this date fall back to the database
+			}
+			mark(new DoctorDay(event.doctorId(), event.date()), event.startMinute(), event.endMinute(),
+					event.change() == SlotChangedEvent.Change.TAKEN);
+		} finally {
+			warmLock.readLock().unlock();
+		}
+	}
+
+	private void mark(DoctorDay key, int startMinute, int endMinute, boolean taken) {
+		occupancy.compute(key, (k, current) -> {
+			long[] next = current == null ? new long[WORDS_PER_DAY] : current.clone();
+			set(next, startMinute, endMinute, taken);
+			return isEmpty(next) ? null : next; // Remove days with no bookings
+		});
+	}
+
+	// =================================================================================
+	// IV. BIT HELPERS
+	// =================================================================================
+
+	private static boolean anySet(long[] words, int from, int to) {
+		if (from >= to)
+			return false;
+		int first = from >>> 6;
+		int last = (to - 1) >>> 6;
+		long firstMask = -1L << from;
+		long lastMask = -1L >>> -to;
+		if (first == last)
+			return (words[first] & firstMask & lastMask) != 0;
+		if ((words[first] & firstMask) != 0)
+			return true;
+		for (int i = first + 1; i < last; i++) {
+			if (words[i] != 0)
+				return true;
+		}
+		return (words[last] & lastMask) != 0;
+	}
+
+	private static void set(long[] words, int startMinute, int endMinute, boolean taken) {
+		for (int minute = startMinute; minute < endMinute; minute++) {
+			if (taken) {
+				words[minute >>> 6] |= 1L << minute;
+			} else {
+				words[minute >>> 6] &= ~(1L << minute);
+			}
+		}
+	}
+
+	private static boolean isEmpty(long[] words) {
+		for (long word : words) {
+			if (word != 0)
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,266 @@
+package com.genc.hms.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.genc.hms.dto.AvailableSlotDTO;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.repository.AppointmentRepository.BookedSlot;
+import com.genc.hms.repository.DoctorAvailabilityRepository;
+import com.genc.hms.repository.DoctorAvailabilityRepository.ScheduleRow;
+import com.genc.hms.util.IntervalSet;
+import com.genc.hms.util.SlotRange;
+import com.genc.hms.util.TimeSlots;
+
+/**
+ * Finds the earliest free slots across all doctors of a specialization. Each
+ * doctor contributes a lazily generated, time-ordered stream of free slots and
+ * the streams are k-way merged through a priority queue, so only the days that
+ * can still contribute to the top N are ever scanned.
+ */
+@Service
+public class SlotSearchService {
+
+	// --- Constants ---
+	public static final int MAX_RESULTS = 50; // Upper bound on the number of slots returned
+
+	// --- Dependencies ---
+	@Autowired
+	private DoctorAvailabilityRepository doctorAvailabilityRepository;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private SlotOccupancyIndex slotOccupancyIndex;
+
+	@Autowired
+	private SlotHoldRegistry slotHolds;
+
+	@Autowired
+	private ScheduleExceptionIndex scheduleExceptions;
+
+	// =================================================================================
+	// I. SEARCH
+	// =================================================================================
+
+	/**
+	 * Returns up to {@code limit} free slots in [from, to], earliest first, across
+	 * every doctor of the given specialization whose fee is at most maxFee (no
+	 * ceiling when null). Slots that have already started today are skipped. Ties
+	 * on time are broken by doctor ID. Throws IllegalArgumentException if the range
+	 * or limit is invalid.
+	 */
+	@Transactional(readOnly = true)
+	public List<AvailableSlotDTO> findFirstAvailable(String specialization, LocalDate from, LocalDate to,
+			BigDecimal maxFee, int limit) {
+		if (to.isBefore(from)) {
+			throw new IllegalArgumentException("Range end " + to + " is before range start " + from + ".");
+		}
+		if (ChronoUnit.DAYS.between(from, to) >= AppointmentService.MAX_SLOT_RANGE_DAYS) {
+			throw new IllegalArgumentException(
+					"Search range cannot exceed " + AppointmentService.MAX_SLOT_RANGE_DAYS + " days.");
+		}
+		if (limit < 1 || limit > MAX_RESULTS) {
+			throw new IllegalArgumentException("Limit must be between 1 and " + MAX_RESULTS + ".");
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		LocalDate firstDate = from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+		if (firstDate.isAfter(to))
+			return List.of();
+
+		// 1. One read for every matching doctor's weekly schedule
+		Map<Long, DoctorSchedule> schedules = new LinkedHashMap<>();
+		for (ScheduleRow row : doctorAvailabilityRepository.findSchedulesBySpecialization(specialization, maxFee)) {
+			schedules.computeIfAbsent(row.getDoctorId(), id -> new DoctorSchedule(row)).add(row);
+		}
+		if (schedules.isEmpty())
+			return List.of();
+
+		// 2. Bookings come from the occupancy index, or one batched range query
+		FreeCheck freeCheck;
+		if (slotOccupancyIndex.covers(firstDate)) {
+			freeCheck = slotOccupancyIndex::isFree;
+		} else {
+			Map<Long, Map<LocalDate, List<SlotRange>>> booked = new HashMap<>();
+			for (BookedSlot slot : appointmentRepository.findBookedSlotsForDoctorsBetween(schedules.keySet(),
+					firstDate, to, AppointmentStatus.CANCELLED)) {
+				booked.computeIfAbsent(slot.getDoctorId(), id -> new HashMap<>())
+						.computeIfAbsent(slot.getAppointmentDate(), d -> new ArrayList<>())
+						.add(SlotRange.ofDuration(slot.getSlotStartMinute(), slot.getSlotDurationMinutes()));
+			}
+			freeCheck = (doctorId, date, start, end) -> {
+				SlotRange candidate = new SlotRange(start, end);
+				return booked.getOrDefault(doctorId, Map.of()).getOrDefault(date, List.of()).stream()
+						.noneMatch(candidate::overlaps);
+			};
+		}
+
+		// Held slots are as good as taken for search results, and blocked ones never open
+		FreeCheck bookable = freeCheck;
+		FreeCheck notHeld = (doctorId, date, start, end) -> bookable.isFree(doctorId, date, start, end)
+				&& !slotHolds.isHeld(doctorId, date, start, end)
+				&& !scheduleExceptions.isBlocked(doctorId, date, start, end);
+
+		// 3. K-way merge of the per-doctor slot streams
+		int nowMinute = TimeSlots.toMinuteOfDay(now.toLocalTime());
+		PriorityQueue<DoctorCursor> queue = new PriorityQueue<>(schedules.size(), DoctorCursor.ORDER);
+		for (DoctorSchedule schedule : schedules.values()) {
+			schedule.layOutSlots();
+			DoctorCursor cursor = new DoctorCursor(schedule, to, now.toLocalDate(), nowMinute, notHeld);
+			if (cursor.seek(firstDate, 0))
+				queue.add(cursor);
+		}
+
+		List<AvailableSlotDTO> results = new ArrayList<>(limit);
+		while (results.size() < limit && !queue.isEmpty()) {
+			DoctorCursor cursor = queue.poll();
+			boolean more;
+			if (cursor.exact) {
+				results.add(cursor.toDTO());
+				more = cursor.seek(cursor.date, cursor.minute + cursor.schedule.duration);
+			} else {
+				more = cursor.resolveDay();
+			}
+			if (more)
+				queue.add(cursor);
+		}
+		return results;
+	}
+
+	// =================================================================================
+	// II. MERGE HELPERS
+	// =================================================================================
+
+	@FunctionalInterface
+	private interface FreeCheck {
+		boolean isFree(Long doctorId, LocalDate date, int startMinute, int endMinute);
+	}
+
+	/**
+	 * A doctor's details, slot duration and slot start minutes per weekday
+	 * (empty when off), laid out over the day's merged working windows.
+	 */
+	private static final class DoctorSchedule {
+		private static final int[] NO_SLOTS = new int[0];
+
+		private final ScheduleRow doctor;
+		private final int duration;
+		private final IntervalSet.Builder[] windows = new IntervalSet.Builder[7];
+		private final int[][] starts = new int[7][];
+
+		DoctorSchedule(ScheduleRow doctor) {
+			this.doctor = doctor;
+			this.duration = doctor.getSlotDurationMinutes() != null ? doctor.getSlotDurationMinutes()
+					: Doctor.DEFAULT_SLOT_DURATION_MINUTES;
+		}
+
+		void add(ScheduleRow row) {
+			int day = row.getDayOfWeek().ordinal();
+			if (windows[day] == null)
+				windows[day] = new IntervalSet.Builder();
+			windows[day].add(TimeSlots.toMinuteOfDay(row.getStartTime()), TimeSlots.toMinuteOfDay(row.getEndTime()));
+		}
+
+		/** Builds every weekday's slot grid as SlotTemplateCache does; call once all rows are added. */
+		void layOutSlots() {
+			for (int day = 0; day < 7; day++) {
+				starts[day] = windows[day] == null ? NO_SLOTS
+						: SlotTemplateCache.slotStarts(windows[day].build(), duration);
+			}
+		}
+	}
+
+	/**
+	 * Walks one doctor's free slots in time order. While not exact, (date, minute)
+	 * is only a lower bound for the next free slot and the day is scanned when the
+	 * cursor reaches the head of the queue, so doctors that can no longer make the
+	 * top N are never scanned. The position only changes outside the queue.
+	 */
+	private static final class DoctorCursor {
+		static final Comparator<DoctorCursor> ORDER = Comparator.comparing((DoctorCursor c) -> c.date)
+				.thenComparingInt(c -> c.minute).thenComparingLong(c -> c.schedule.doctor.getDoctorId());
+
+		private final DoctorSchedule schedule;
+		private final LocalDate to;
+		private final LocalDate today;
+		private final int nowMinute;
+		private final FreeCheck freeCheck;
+
+		private LocalDate date;
+		private int index; // Position in the day's slot starts
+		private int minute;
+		private boolean exact; // True once (date, minute) is a verified free slot
+
+		DoctorCursor(DoctorSchedule schedule, LocalDate to, LocalDate today, int nowMinute, FreeCheck freeCheck) {
+			this.schedule = schedule;
+			this.to = to;
+			this.today = today;
+			this.nowMinute = nowMinute;
+			this.freeCheck = freeCheck;
+		}
+
+		/**
+		 * Positions the cursor at the first possible slot starting at or after the
+		 * given minute on the given date or on a later working day. Returns false
+		 * when the range is exhausted.
+		 */
+		boolean seek(LocalDate fromDate, int fromMinute) {
+			exact = false;
+			for (LocalDate d = fromDate; !d.isAfter(to); d = d.plusDays(1), fromMinute = 0) {
+				int[] starts = schedule.starts[d.getDayOfWeek().ordinal()];
+				int earliest = Math.max(fromMinute, d.equals(today) ? nowMinute : 0);
+				// Starts are ascending, so the first one not before earliest is a binary search away
+				int i = Arrays.binarySearch(starts, earliest);
+				if (i < 0)
+					i = -i - 1;
+				if (i < starts.length) {
+					date = d;
+					index = i;
+					minute = starts[i];
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/** Scans the current day for a free slot, or moves on to the next day. */
+		boolean resolveDay() {
+			Long doctorId = schedule.doctor.getDoctorId();
+			int[] starts = schedule.starts[date.getDayOfWeek().ordinal()];
+			int duration = schedule.duration;
+			for (int i = index; i < starts.length; i++) {
+				if (freeCheck.isFree(doctorId, date, starts[i], starts[i] + duration)) {
+					index = i;
+					minute = starts[i];
+					exact = true;
+					return true;
+				}
+			}
+			return seek(date.plusDays(1), 0);
+		}
+
+		AvailableSlotDTO toDTO() {
+			ScheduleRow doctor = schedule.doctor;
+			return new AvailableSlotDTO(doctor.getDoctorId(), doctor.getDoctorName(), doctor.getSpecialization(),
+					doctor.getConsultationFee(), date, TimeSlots.label(minute, minute + schedule.duration));
+		}
+	}
+}
@@ -0,0 +1,176 @@
+package com.genc.hms.service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.entity.DoctorAvailability;
+import com.genc.hms.exception.GlobalExceptionHandler.ResourceNotFoundException;
+import com.genc.hms.repository.DoctorRepository;
+import com.genc.hms.util.IntervalSet;
+import com.genc.hms.util.TimeSlots;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Precomputed slot grids per (doctor, weekday): the start minute and the
+ * "HH:mm-HH:mm" label of every slot in the doctor's working windows, laid out
+ * in the doctor's slot duration. A day may have several windows (split
+ * shifts); each starts its own grid. Slot listings and booking validation read the
+ * grid instead of re-walking and re-formatting the schedule on every call.
+ * DoctorService evicts a doctor once a schedule change commits. That eviction
+ * is local to this node, so entries also expire after a write TTL, which
+ * bounds how long another node's schedule change goes unseen here.
+ */
+@Component
+public class SlotTemplateCache {
+
+	/**
+	 * One weekday's merged working windows (minutes of day) and the slots laid
+	 * out in them, in ascending order.
+	 */
+	public record DayTemplate(IntervalSet windows, int durationMinutes, int[] starts, String[] labels) {
+
+		/** True if [startMinute, endMinute) lies inside one working window. */
+		public boolean withinHours(int startMinute, int endMinute) {
+			return windows.covers(startMinute, endMinute);
+		}
+
+		/** The working windows as "09:00 - 12:00, 14:00 - 18:00". */
+		public String hoursLabel() {
+			StringJoiner joiner = new StringJoiner(", ");
+			for (int i = 0; i < windows.size(); i++) {
+				joiner.add(TimeSlots.clockLabel((int) windows.start(i)) + " - "
+						+ TimeSlots.clockLabel((int) windows.end(i)));
+			}
+			return joiner.toString();
+		}
+	}
+
+	/** A doctor's templates indexed by DayOfWeek ordinal; null entries are days off. */
+	public record DoctorTemplates(Long doctorId, int durationMinutes, DayTemplate[] days) {
+
+		public DayTemplate forDay(DayOfWeek dayOfWeek) {
+			return days[dayOfWeek.ordinal()];
+		}
+	}
+
+	private final Cache<Long, DoctorTemplates> templates;
+
+	// Bumped on every eviction; a template built from data read before the bump is not cached
+	private final AtomicLong evictions = new AtomicLong();
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	public SlotTemplateCache(@Value("${hms.slot-templates.ttl-minutes:5}") long ttlMinutes) {
+		this.templates = Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(ttlMinutes)).build();
+	}
+
+	/**
+	 * Returns the doctor's templates, loading the doctor and schedule on a miss.
+	 * Must be called inside a transaction on a miss (the schedule is lazy).
+	 * Throws ResourceNotFoundException if the doctor does not exist.
+	 */
+	public DoctorTemplates get(Long doctorId) {
+		DoctorTemplates cached = templates.getIfPresent(doctorId);
+		if (cached != null)
+			return cached;
+		long generation = evictions.get();
+		Doctor doctor = doctorRepository.findById(doctorId)
+				.orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + doctorId));
+		return cache(build(doctor), generation);
+	}
+
+	/** Returns the templates for an already loaded doctor, building them on a miss. */
+	public DoctorTemplates get(Doctor doctor) {
+		DoctorTemplates cached = templates.getIfPresent(doctor.getDoctorId());
+		if (cached != null)
+			return cached;
+		return cache(build(doctor), evictions.get());
+	}
+
+	/**
+	 * Drops the doctor's templates now and again once the current transaction
+	 * commits, so no reader can re-cache the old schedule in between.
+	 */
+	public void evictAfterCommit(Long doctorId) {
+		evict(doctorId);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evict(doctorId);
+				}
+			});
+		}
+	}
+
+	private void evict(Long doctorId) {
+		evictions.incrementAndGet();
+		templates.invalidate(doctorId);
+	}
+
+	private DoctorTemplates cache(DoctorTemplates built, long generation) {
+		if (evictions.get() != generation)
+			return built; // The schedule changed while this was built; serve it once, keep the cache clean
+		DoctorTemplates raced = templates.asMap().putIfAbsent(built.doctorId(), built);
+		return raced != null ? raced : built;
+	}
+
+	static DoctorTemplates build(Doctor doctor) {
+		int duration = doctor.getSlotDurationMinutes() != null ? doctor.getSlotDurationMinutes()
+				: Doctor.DEFAULT_SLOT_DURATION_MINUTES;
+		IntervalSet.Builder[] windows = new IntervalSet.Builder[7];
+		for (DoctorAvailability availability : doctor.getDoctorAvailabilities()) {
+			int day = availability.getDayOfWeek().ordinal();
+			if (windows[day] == null)
+				windows[day] = new IntervalSet.Builder();
+			windows[day].add(TimeSlots.toMinuteOfDay(availability.getStartTime()),
+					TimeSlots.toMinuteOfDay(availability.getEndTime()));
+		}
+
+		DayTemplate[] days = new DayTemplate[7];
+		for (int day = 0; day < 7; day++) {
+			if (windows[day] != null)
+				days[day] = buildDay(windows[day].build(), duration);
+		}
+		return new DoctorTemplates(doctor.getDoctorId(), duration, days);
+	}
+
+	/**
+	 * Start minutes of every whole slot in the given windows, ascending. Each
+	 * window's grid starts at the window start; a trailing partial slot is dropped.
+	 */
+	static int[] slotStarts(IntervalSet windows, int duration) {
+		int count = 0;
+		for (int i = 0; i < windows.size(); i++) {
+			count += (int) (windows.end(i) - windows.start(i)) / duration;
+		}
+		int[] starts = new int[count];
+		int n = 0;
+		for (int i = 0; i < windows.size(); i++) {
+			for (long start = windows.start(i); start + duration <= windows.end(i); start += duration) {
+				starts[n++] = (int) start;
+			}
+		}
+		return starts;
+	}
+
+	private static DayTemplate buildDay(IntervalSet windows, int duration) {
+		int[] starts = slotStarts(windows, duration);
+		String[] labels = new String[starts.length];
+		for (int i = 0; i < starts.length; i++) {
+			labels[i] = TimeSlots.label(starts[i], starts[i] + duration);
+		}
+		return new DayTemplate(windows, duration, starts, labels);
+	}
+}
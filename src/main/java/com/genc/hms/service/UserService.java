@@ -87,8 +87,9 @@ public class UserService {
 	}
 
 	/**
-	 * Registers a new Doctor with profile and availability slots. Links User ->
-	 * Doctor -> DoctorAvailability entities for persistence.
+	 * Registers a new Doctor with profile and availability slots (merged per
+	 * weekday). Links User -> Doctor -> DoctorAvailability entities for
+	 * persistence.
 	 */
 	@Transactional
 	public UserResponseDTO registerDoctor(@Valid @RequestBody DoctorRegisterRequestDTO request) {
@@ -102,17 +103,12 @@ public class UserService {
 		doctor.setSpecialization(request.getSpecialization());
 		doctor.setContactNumber(request.getContactNumber());
 		doctor.setConsultationFee(request.getConsultationFee());
+		if (request.getSlotDurationMinutes() != null) {
+			doctor.setSlotDurationMinutes(request.getSlotDurationMinutes());
+		}
 
-		List<DoctorAvailability> availabilities = request.getDoctorAvailabilities().stream().map(availDto -> {
-			DoctorAvailability availability = new DoctorAvailability();
-			availability.setDoctor(doctor);
-			availability.setDayOfWeek(availDto.getDayOfWeek());
-			availability.setStartTime(availDto.getStartTime());
-			availability.setEndTime(availDto.getEndTime());
-			return availability;
-		}).toList();
-
-		doctor.setDoctorAvailabilities(availabilities);
+		doctor.setDoctorAvailabilities(
+				DoctorService.normalizeAvailabilities(doctor, request.getDoctorAvailabilities()));
 		doctor.setUser(user);
 		user.setDoctorProfile(doctor);
 
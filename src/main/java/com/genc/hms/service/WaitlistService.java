@@ -0,0 +1,245 @@
+package com.genc.hms.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genc.hms.config.AsyncConfig;
+import com.genc.hms.dto.AppointmentRequestDTO;
+import com.genc.hms.dto.AppointmentResponseDTO;
+import com.genc.hms.dto.WaitlistEntryResponseDTO;
+import com.genc.hms.dto.WaitlistRequestDTO;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.entity.Patient;
+import com.genc.hms.entity.WaitlistEntry;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.WaitlistStatus;
+import com.genc.hms.event.SlotChangedEvent;
+import com.genc.hms.exception.GlobalExceptionHandler.ConflictException;
+import com.genc.hms.exception.GlobalExceptionHandler.ResourceNotFoundException;
+import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.repository.WaitlistRepository;
+import com.genc.hms.service.SlotTemplateCache.DayTemplate;
+import com.genc.hms.util.TimeSlots;
+
+/**
+ * Per-(doctor, date) waitlist. When a slot is freed (cancellation, reschedule,
+ * status change), the oldest eligible waiting patient is booked into it by a
+ * worker on the waitlist executor, after the freeing transaction has
+ * committed. A patient whose booking is rejected is passed over for the next
+ * one in line. The request that freed the slot never waits for this.
+ */
+@Service
+public class WaitlistService {
+
+	private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+
+	// Waiting patients tried per freed slot before it is left for regular bookings
+	private static final int MAX_BACKFILL_ATTEMPTS = 5;
+
+	// --- Dependencies ---
+	@Autowired
+	private WaitlistRepository waitlistRepository;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private PatientService patientService;
+
+	@Autowired
+	private DoctorService doctorService;
+
+	@Autowired
+	private DoctorDayLocks doctorDayLocks;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private SlotTemplateCache slotTemplates;
+
+	@Autowired
+	private ScheduleExceptionIndex scheduleExceptions;
+
+	// =================================================================================
+	// I. WAITLIST MANAGEMENT
+	// =================================================================================
+
+	/**
+	 * Adds the patient to the doctor's waitlist for the requested date. Throws
+	 * ResourceNotFoundException if the patient or doctor does not exist,
+	 * IllegalArgumentException if the doctor does not work that day or every slot
+	 * of it is inside a leave/holiday block, and ConflictException if the patient
+	 * is already waiting on that day.
+	 */
+	@Transactional
+	public WaitlistEntryResponseDTO joinWaitlist(WaitlistRequestDTO requestDTO) {
+		Patient patient = patientService.findById(requestDTO.getPatientId()).orElseThrow(
+				() -> new ResourceNotFoundException("Patient not found with ID: " + requestDTO.getPatientId()));
+		Doctor doctor = doctorService.findById(requestDTO.getDoctorId()).orElseThrow(
+				() -> new ResourceNotFoundException("Doctor not found with ID: " + requestDTO.getDoctorId()));
+
+		LocalDate date = requestDTO.getRequestedDate();
+		DayTemplate template = slotTemplates.get(doctor).forDay(date.getDayOfWeek());
+		if (template == null) {
+			throw new IllegalArgumentException("Doctor is not available on " + date.getDayOfWeek() + ".");
+		}
+		if (!hasUnblockedSlot(doctor.getDoctorId(), date, template)) {
+			throw new IllegalArgumentException("Doctor is on leave or the hospital is closed on " + date + ".");
+		}
+		if (waitlistRepository.existsByPatient_PatientIdAndDoctor_DoctorIdAndRequestedDateAndStatus(
+				patient.getPatientId(), doctor.getDoctorId(), date, WaitlistStatus.WAITING)) {
+			throw new ConflictException("Patient " + patient.getPatientId() + " is already on the waitlist of doctor "
+					+ doctor.getDoctorId() + " for " + date + ".");
+		}
+
+		// A concurrent join for the same day passes the check above too; the
+		// partial unique index rejects the loser here, reported as a 409
+		WaitlistEntry entry = waitlistRepository
+				.saveAndFlush(new WaitlistEntry(patient, doctor, date, requestDTO.getReason()));
+		return mapToResponseDTO(entry);
+	}
+
+	/** Returns a patient's waitlist entries, most recent first. */
+	@Transactional(readOnly = true)
+	public List<WaitlistEntryResponseDTO> getEntriesForPatient(Long patientId) {
+		return waitlistRepository.findByPatient_PatientIdOrderByCreatedAtDesc(patientId).stream()
+				.map(this::mapToResponseDTO).toList();
+	}
+
+	/**
+	 * Removes a waiting entry from the waitlist (idempotent). Throws
+	 * ResourceNotFoundException if the entry does not exist, and
+	 * IllegalStateException if a slot was already booked from it.
+	 */
+	@Transactional
+	public void leaveWaitlist(Long waitlistEntryId) {
+		WaitlistEntry entry = waitlistRepository.findById(waitlistEntryId).orElseThrow(
+				() -> new ResourceNotFoundException("Waitlist entry not found with ID: " + waitlistEntryId));
+		if (entry.getStatus() == WaitlistStatus.BOOKED) {
+			throw new IllegalStateException("An appointment was already booked from this waitlist entry. "
+					+ "Cancel the appointment instead.");
+		}
+		entry.setStatus(WaitlistStatus.CANCELLED);
+	}
+
+	/** True if some slot of the day's template lies outside every leave/holiday block. */
+	private boolean hasUnblockedSlot(Long doctorId, LocalDate date, DayTemplate template) {
+		int duration = template.durationMinutes();
+		for (int start : template.starts()) {
+			if (!scheduleExceptions.isBlocked(doctorId, date, start, start + duration)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// =================================================================================
+	// II. BACKFILL
+	// =================================================================================
+
+	/**
+	 * Offers a committed freed slot to the waitlist. Runs on the waitlist executor
+	 * so the cancelling request returns without waiting. A slot that is already in
+	 * the past is left alone. Each attempt books one waiting patient in its own
+	 * transaction; if the booking is rejected (validation, or another patient's
+	 * hold) the next eligible patient is tried, up to MAX_BACKFILL_ATTEMPTS. Stops
+	 * as soon as the slot turns out to be taken.
+	 */
+	@Async(AsyncConfig.WAITLIST_EXECUTOR)
+	@TransactionalEventListener
+	public void onSlotChanged(SlotChangedEvent event) {
+		if (event.change() != SlotChangedEvent.Change.FREED
+				|| event.endMinute() <= event.startMinute()
+				|| event.date().atStartOfDay().plusMinutes(event.startMinute()).isBefore(LocalDateTime.now())) {
+			return;
+		}
+		String timeSlot = TimeSlots.label(event.startMinute(), event.endMinute());
+		Set<Long> passedOver = new HashSet<>();
+		for (int attempt = 0; attempt < MAX_BACKFILL_ATTEMPTS; attempt++) {
+			try {
+				transactionTemplate.executeWithoutResult(status -> backfill(event, passedOver));
+				return;
+			} catch (ConflictException e) {
+				if (isTaken(event)) {
+					logger.debug("Freed slot {} of doctor {} on {} was taken before it could be backfilled", timeSlot,
+							event.doctorId(), event.date());
+					return;
+				}
+				logger.debug("Passing over waitlist entry for slot {} of doctor {} on {}: {}", timeSlot,
+						event.doctorId(), event.date(), e.getMessage());
+			} catch (IllegalArgumentException | ResourceNotFoundException e) {
+				logger.debug("Passing over waitlist entry for slot {} of doctor {} on {}: {}", timeSlot,
+						event.doctorId(), event.date(), e.getMessage());
+			} catch (RuntimeException e) {
+				logger.warn("Waitlist backfill failed for doctor {} on {}: {}", event.doctorId(), event.date(),
+						e.getMessage());
+				return;
+			}
+		}
+		logger.info("Freed slot {} of doctor {} on {} left open after {} waitlisted patients could not be booked",
+				timeSlot, event.doctorId(), event.date(), MAX_BACKFILL_ATTEMPTS);
+	}
+
+	/**
+	 * Books the freed slot for the oldest eligible waiting patient, i.e. one who
+	 * has no active appointment with the doctor on that day yet, skipping entries
+	 * already passed over. The entry is added to passedOver before booking, so a
+	 * rejected booking moves the next attempt on. The doctor-day lock is held from
+	 * the eligibility read until commit.
+	 */
+	private void backfill(SlotChangedEvent event, Set<Long> passedOver) {
+		doctorDayLocks.lockUntilCompletion(event.doctorId(), event.date());
+
+		List<WaitlistEntry> eligible = waitlistRepository.findEligible(event.doctorId(), event.date(),
+				WaitlistStatus.WAITING, AppointmentStatus.CANCELLED, PageRequest.of(0, passedOver.size() + 1));
+		WaitlistEntry entry = eligible.stream().filter(e -> !passedOver.contains(e.getWaitlistEntryId())).findFirst()
+				.orElse(null);
+		if (entry == null)
+			return;
+
+		passedOver.add(entry.getWaitlistEntryId());
+		String timeSlot = TimeSlots.label(event.startMinute(), event.endMinute());
+		AppointmentResponseDTO booked = appointmentService.bookAppointment(new AppointmentRequestDTO(
+				entry.getPatient().getPatientId(), event.doctorId(), event.date(), timeSlot, entry.getReason()));
+
+		entry.setStatus(WaitlistStatus.BOOKED);
+		entry.setAppointment(appointmentRepository.getReferenceById(booked.getAppointmentId()));
+		logger.info("Booked freed slot {} of doctor {} on {} for waitlisted patient {} (appointment {})", timeSlot,
+				event.doctorId(), event.date(), booked.getPatientId(), booked.getAppointmentId());
+	}
+
+	/** True if an active appointment now occupies (part of) the freed slot. */
+	private boolean isTaken(SlotChangedEvent event) {
+		return appointmentRepository.countOverlappingSlots(event.doctorId(), event.date(), event.startMinute(),
+				event.endMinute(), AppointmentStatus.CANCELLED) > 0;
+	}
+
+	// =================================================================================
+	// III. MAPPING
+	// =================================================================================
+
+	private WaitlistEntryResponseDTO mapToResponseDTO(WaitlistEntry entry) {
+		Doctor doctor = entry.getDoctor();
+		Long appointmentId = entry.getAppointment() == null ? null : entry.getAppointment().getAppointmentId();
+		return new WaitlistEntryResponseDTO(entry.getWaitlistEntryId(), entry.getPatient().getPatientId(),
+				doctor.getDoctorId(), doctor.getName(), entry.getRequestedDate(), entry.getReason(), entry.getStatus(),
+				entry.getCreatedAt(), appointmentId);
+	}
+}
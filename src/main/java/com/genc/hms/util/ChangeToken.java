@@ -0,0 +1,39 @@
+package com.genc.hms.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a change feed ordered by (changeVersion, id). Clients receive it
+ * as an opaque URL-safe "since" token and send it back to get only the rows
+ * written after it, so a poll costs as much as the churn since the last one.
+ */
+public record ChangeToken(long version, long id) {
+
+	/** Position before every row, used when the client sends no token. */
+	public static final ChangeToken START = new ChangeToken(0, 0);
+
+	/** Encodes the token as an opaque URL-safe string. */
+	public String encode() {
+		String raw = version + "|" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a token produced by {@link #encode()}. Returns {@link #START} for a
+	 * null or blank token. Throws IllegalArgumentException if the token is
+	 * malformed.
+	 */
+	public static ChangeToken decode(String token) {
+		if (token == null || token.isBlank())
+			return START;
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = raw.indexOf('|');
+			return new ChangeToken(Long.parseLong(raw.substring(0, separator)),
+					Long.parseLong(raw.substring(separator + 1)));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Invalid change token: " + token);
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.genc.hms.util;
+
+import java.sql.SQLException;
+
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Names of the database constraints the application reports as conflicts, and
+ * a helper to find which constraint rejected a write. Any other violation is
+ * a bug and is left to surface as a server error.
+ */
+public final class Constraints {
+
+	/** No two active appointments of a doctor overlap in time (schema-postgresql.sql). */
+	public static final String ACTIVE_APPOINTMENT_SLOT = "ex_appointments_active_slot";
+
+	/** A patient waits at most once per doctor and date (schema-postgresql.sql). */
+	public static final String WAITING_WAITLIST_ENTRY = "uq_waitlist_entries_waiting";
+
+	private Constraints() {
+	}
+
+	/** True if the violation came from the active appointment slot constraint. */
+	public static boolean isSlotConflict(DataIntegrityViolationException e) {
+		return ACTIVE_APPOINTMENT_SLOT.equals(violatedConstraint(e));
+	}
+
+	/** True if the violation came from the one-waiting-entry-per-day constraint. */
+	public static boolean isWaitlistConflict(DataIntegrityViolationException e) {
+		return WAITING_WAITLIST_ENTRY.equals(violatedConstraint(e));
+	}
+
+	/**
+	 * Returns the name PostgreSQL reported for the violated constraint, or null
+	 * if the exception does not carry one. Follows causes and the chained
+	 * exceptions of a failed JDBC batch.
+	 */
+	public static String violatedConstraint(Throwable e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof SQLException sql) {
+				for (SQLException next = sql; next != null; next = next.getNextException()) {
+					ServerErrorMessage message = next instanceof PSQLException psql ? psql.getServerErrorMessage()
+							: null;
+					if (message != null && message.getConstraint() != null) {
+						return message.getConstraint();
+					}
+				}
+			}
+		}
+		return null;
+	}
+}
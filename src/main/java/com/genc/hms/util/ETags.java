@@ -0,0 +1,51 @@
+package com.genc.hms.util;
+
+import com.genc.hms.exception.GlobalExceptionHandler.PreconditionFailedException;
+
+/**
+ * Converts entity versions to and from HTTP entity tags. A version is sent as
+ * the strong ETag "&lt;version&gt;" and clients pass it back in If-Match, so an
+ * update only applies if nobody else changed the resource since they read it.
+ */
+public final class ETags {
+
+	private ETags() {
+	}
+
+	/** Returns the strong ETag for a version, quotes included (e.g. "3"). */
+	public static String of(Long version) {
+		return "\"" + version + "\"";
+	}
+
+	/**
+	 * Returns the version named by an If-Match header, or null when the header is
+	 * absent, blank or "*" (update unconditionally). A weak or malformed tag can
+	 * never match a version, so it throws PreconditionFailedException (412).
+	 */
+	public static Long parseIfMatch(String ifMatch) {
+		if (ifMatch == null || ifMatch.isBlank())
+			return null;
+		String tag = ifMatch.strip();
+		if (tag.equals("*"))
+			return null;
+		if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+			try {
+				return Long.parseLong(tag.substring(1, tag.length() - 1));
+			} catch (NumberFormatException e) {
+				// Fall through: not one of our tags
+			}
+		}
+		throw new PreconditionFailedException("If-Match " + ifMatch + " does not name a version of this resource.");
+	}
+
+	/**
+	 * Throws PreconditionFailedException (412) unless expectedVersion is null or
+	 * equal to the entity's current version.
+	 */
+	public static void checkVersion(String resource, Long expectedVersion, Long currentVersion) {
+		if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+			throw new PreconditionFailedException(resource + " has changed (version " + currentVersion
+					+ ", If-Match " + expectedVersion + "). Reload it and try again.");
+		}
+	}
+}
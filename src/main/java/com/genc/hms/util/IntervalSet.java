@@ -0,0 +1,116 @@
+package com.genc.hms.util;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of half-open intervals [start, end) on a long axis (e.g.
+ * epoch minutes), stored as sorted, merged, non-overlapping start/end arrays.
+ * Because the intervals are disjoint both arrays are ascending, so an overlap
+ * query is a single binary search.
+ */
+public final class IntervalSet {
+
+	public static final IntervalSet EMPTY = new IntervalSet(new long[0], new long[0]);
+
+	private final long[] starts;
+	private final long[] ends;
+
+	private IntervalSet(long[] starts, long[] ends) {
+		this.starts = starts;
+		this.ends = ends;
+	}
+
+	/** True if any interval in the set shares at least one unit with [start, end). */
+	public boolean overlaps(long start, long end) {
+		if (start >= end)
+			return false;
+		// Last interval starting before the query ends; it has the largest end of
+		// all candidates, so it alone decides
+		int i = lastStartBefore(end);
+		return i >= 0 && ends[i] > start;
+	}
+
+	/** True if [start, end) lies entirely inside one interval of the set. */
+	public boolean covers(long start, long end) {
+		int i = lastStartBefore(start + 1);
+		return i >= 0 && ends[i] >= end;
+	}
+
+	public boolean isEmpty() {
+		return starts.length == 0;
+	}
+
+	/** Number of disjoint intervals after merging. */
+	public int size() {
+		return starts.length;
+	}
+
+	/** Start of the index-th interval, in ascending order. */
+	public long start(int index) {
+		return starts[index];
+	}
+
+	/** Exclusive end of the index-th interval. */
+	public long end(int index) {
+		return ends[index];
+	}
+
+	private int lastStartBefore(long value) {
+		int i = Arrays.binarySearch(starts, value);
+		// Exact hit: the interval starting at value does not start before it
+		return (i >= 0 ? i : -i - 1) - 1;
+	}
+
+	/** Collects intervals in any order and merges them on build(). */
+	public static final class Builder {
+		private long[] starts = new long[8];
+		private long[] ends = new long[8];
+		private int size;
+
+		/** Adds [start, end); empty or inverted intervals are ignored. */
+		public Builder add(long start, long end) {
+			if (start >= end)
+				return this;
+			if (size == starts.length) {
+				starts = Arrays.copyOf(starts, size * 2);
+				ends = Arrays.copyOf(ends, size * 2);
+			}
+			starts[size] = start;
+			ends[size] = end;
+			size++;
+			return this;
+		}
+
+		public Builder addAll(IntervalSet other) {
+			for (int i = 0; i < other.starts.length; i++) {
+				add(other.starts[i], other.ends[i]);
+			}
+			return this;
+		}
+
+		/** Sorts by start and merges overlapping or touching intervals. */
+		public IntervalSet build() {
+			if (size == 0)
+				return EMPTY;
+			Integer[] order = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+
+			long[] mergedStarts = new long[size];
+			long[] mergedEnds = new long[size];
+			int count = 0;
+			for (int index : order) {
+				if (count > 0 && starts[index] <= mergedEnds[count - 1]) {
+					mergedEnds[count - 1] = Math.max(mergedEnds[count - 1], ends[index]);
+				} else {
+					mergedStarts[count] = starts[index];
+					mergedEnds[count] = ends[index];
+					count++;
+				}
+			}
+			return new IntervalSet(Arrays.copyOf(mergedStarts, count), Arrays.copyOf(mergedEnds, count));
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.genc.hms.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page, ordered by (date, id). Clients
+ * receive it as an opaque URL-safe token and send it back to get the rows that
+ * follow, so every page is an index seek no matter how deep it is.
+ */
+public record KeysetCursor(LocalDate date, long id) {
+
+	/** Encodes the cursor as an opaque URL-safe token. */
+	public String encode() {
+		String raw = date + "|" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodes a token produced by {@link #encode()}. Returns null for a null or
+	 * blank token (first page). Throws IllegalArgumentException if the token is
+	 * malformed.
+	 */
+	public static KeysetCursor decode(String token) {
+		if (token == null || token.isBlank())
+			return null;
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = raw.indexOf('|');
+			return new KeysetCursor(LocalDate.parse(raw.substring(0, separator)),
+					Long.parseLong(raw.substring(separator + 1)));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid page cursor: " + token);
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package com.genc.hms.util;
+
+/**
+ * A time-of-day interval [startMinute, endMinute) expressed in minutes since
+ * midnight. This is the in-memory counterpart of the appointments table's
+ * slot_start_minute/slot_duration_minutes columns.
+ */
+public record SlotRange(int startMinute, int endMinute) {
+
+	public static SlotRange ofDuration(int startMinute, int durationMinutes) {
+		return new SlotRange(startMinute, startMinute + durationMinutes);
+	}
+
+	public int durationMinutes() {
+		return endMinute - startMinute;
+	}
+
+	/** True if the two half-open intervals share at least one minute. */
+	public boolean overlaps(SlotRange other) {
+		return startMinute < other.endMinute && other.startMinute < endMinute;
+	}
+
+	/** Formats the range as the "HH:mm-HH:mm" string used by the REST API. */
+	public String label() {
+		return TimeSlots.label(startMinute, endMinute);
+	}
+}
@@ -0,0 +1,68 @@
+package com.genc.hms.util;
+
+import java.time.LocalTime;
+
+/**
+ * Static helpers for converting appointment time slots between their
+ * "HH:mm-HH:mm" string form and minute-of-day integers. Clock labels are
+ * precomputed once so building slot strings does not go through
+ * DateTimeFormatter on every request.
+ */
+public final class TimeSlots {
+
+	public static final int MINUTES_PER_DAY = 24 * 60;
+
+	// "00:00" .. "23:59", indexed by minute of day
+	private static final String[] CLOCK_LABELS = new String[MINUTES_PER_DAY];
+
+	static {
+		for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+			CLOCK_LABELS[minute] = String.format("%02d:%02d", minute / 60, minute % 60);
+		}
+	}
+
+	private TimeSlots() {
+	}
+
+	/** Returns the minute of day (0-1439) for the given time, ignoring seconds. */
+	public static int toMinuteOfDay(LocalTime time) {
+		return time.getHour() * 60 + time.getMinute();
+	}
+
+	/** Returns the "HH:mm" label for a minute of day. */
+	public static String clockLabel(int minuteOfDay) {
+		return CLOCK_LABELS[Math.floorMod(minuteOfDay, MINUTES_PER_DAY)];
+	}
+
+	/** Builds the "HH:mm-HH:mm" slot string for a start/end minute pair. */
+	public static String label(int startMinute, int endMinute) {
+		return clockLabel(startMinute) + "-" + clockLabel(endMinute);
+	}
+
+	/**
+	 * Parses a "HH:mm-HH:mm" slot into a SlotRange. Throws
+	 * IllegalArgumentException on malformed input.
+	 */
+	public static SlotRange parse(String timeSlot) {
+		String[] parts = timeSlot.split("-");
+		if (parts.length != 2)
+			throw new IllegalArgumentException("Invalid time slot format: " + timeSlot);
+		return new SlotRange(parseClock(parts[0].trim(), timeSlot), parseClock(parts[1].trim(), timeSlot));
+	}
+
+	private static int parseClock(String clock, String timeSlot) {
+		if (clock.length() != 5 || clock.charAt(2) != ':')
+			throw new IllegalArgumentException("Invalid time format in slot: " + timeSlot);
+		int hour = digits(clock.charAt(0), clock.charAt(1), timeSlot);
+		int minute = digits(clock.charAt(3), clock.charAt(4), timeSlot);
+		if (hour > 23 || minute > 59)
+			throw new IllegalArgumentException("Invalid time format in slot: " + timeSlot);
+		return hour * 60 + minute;
+	}
+
+	private static int digits(char tens, char units, String timeSlot) {
+		if (!Character.isDigit(tens) || !Character.isDigit(units))
+			throw new IllegalArgumentException("Invalid time format in slot: " + timeSlot);
+		return (tens - '0') * 10 + (units - '0');
+	}
+}
@@ -0,0 +1,316 @@
+-- =================================================================================
+-- Schema migrations that Hibernate's ddl-auto=update cannot express.
+-- Runs after Hibernate has updated the schema (spring.jpa.defer-datasource-initialization)
+-- on every startup, so every statement here MUST be idempotent.
+-- =================================================================================
+
+-- appointments.time_slot ("HH:mm-HH:mm" VARCHAR) -> slot_start_minute + slot_duration_minutes (SMALLINT)
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS slot_start_minute SMALLINT;
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS slot_duration_minutes SMALLINT;
+
+DO $$
+BEGIN
+	IF EXISTS (SELECT 1 FROM information_schema.columns
+			WHERE table_schema = current_schema() AND table_name = 'appointments' AND column_name = 'time_slot') THEN
+		UPDATE appointments
+		SET slot_start_minute = (EXTRACT(EPOCH FROM split_part(time_slot, '-', 1)::time) / 60)::smallint,
+			slot_duration_minutes = (EXTRACT(EPOCH FROM split_part(time_slot, '-', 2)::time
+					- split_part(time_slot, '-', 1)::time) / 60)::smallint
+		WHERE slot_start_minute IS NULL;
+		ALTER TABLE appointments DROP COLUMN time_slot;
+	END IF;
+END $$;
+
+ALTER TABLE appointments ALTER COLUMN slot_start_minute SET NOT NULL;
+ALTER TABLE appointments ALTER COLUMN slot_duration_minutes SET NOT NULL;
+
+-- No two active bookings of a doctor overlap in time on a date, whatever their start minutes and durations
+-- (half-open ranges, so back-to-back slots are fine). Cancelled rows are exempt so a freed slot can be booked
+-- again. Backs the in-JVM doctor-day locks when several application nodes share the database. btree_gist
+-- provides the gist equality operators for doctor_id and appointment_date. Replaces the unique index on the
+-- slot start, which let slots of different lengths overlap.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+DROP INDEX IF EXISTS uq_appointments_active_slot;
+
+DO $$
+BEGIN
+	IF NOT EXISTS (SELECT 1 FROM pg_constraint
+			WHERE conrelid = 'appointments'::regclass AND conname = 'ex_appointments_active_slot') THEN
+		ALTER TABLE appointments ADD CONSTRAINT ex_appointments_active_slot EXCLUDE USING gist (
+			doctor_id WITH =,
+			appointment_date WITH =,
+			int4range(slot_start_minute, slot_start_minute + slot_duration_minutes) WITH &&
+		) WHERE (status <> 'CANCELLED');
+	END IF;
+END $$;
+
+-- IDENTITY ids -> pooled sequences (allocationSize 50). Hibernate creates the <table>_seq sequences; here the
+-- identity defaults are dropped and each sequence is moved past the highest existing id. The pooled optimizer
+-- hands out (value - 49 .. value), so any value >= MAX(id) is safe; sequences already ahead are left alone.
+DO $$
+DECLARE
+	t RECORD;
+	max_id BIGINT;
+BEGIN
+	FOR t IN SELECT * FROM (VALUES ('users', 'user_id'), ('patient', 'patient_id'), ('doctor', 'doctor_id'),
+			('doctor_availability', 'availability_id'), ('appointments', 'appointment_id'),
+			('bills', 'bill_id')) AS v(table_name, id_column)
+	LOOP
+		EXECUTE format('ALTER TABLE %I ALTER COLUMN %I DROP IDENTITY IF EXISTS', t.table_name, t.id_column);
+		EXECUTE format('SELECT MAX(%I) FROM %I', t.id_column, t.table_name) INTO max_id;
+		IF max_id IS NOT NULL AND max_id >= (SELECT COALESCE(last_value, 0) FROM pg_sequences
+				WHERE schemaname = current_schema() AND sequencename = t.table_name || '_seq') THEN
+			PERFORM setval(t.table_name || '_seq', max_id);
+		END IF;
+	END LOOP;
+END $$;
+
+-- A patient waits at most once per (doctor, date); finished entries are kept for history.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_waitlist_entries_waiting
+	ON waitlist_entries (patient_id, doctor_id, requested_date) WHERE status = 'WAITING';
+
+-- Change versions for the "/changes?since=" feeds. Every insert or update stamps the row with the writing
+-- transaction's 64-bit ID, including bulk JPQL updates that bypass the entities. Transaction IDs are assigned
+-- in start order rather than commit order, so readers only trust versions below the xmin of their snapshot
+-- (no transaction older than that can still commit), which means a slow transaction is never skipped.
+CREATE OR REPLACE FUNCTION stamp_change_version() RETURNS trigger AS $$
+BEGIN
+	NEW.change_version := pg_current_xact_id()::text::bigint;
+	RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_appointments_change_version ON appointments;
+CREATE TRIGGER trg_appointments_change_version BEFORE INSERT OR UPDATE ON appointments
+	FOR EACH ROW EXECUTE FUNCTION stamp_change_version();
+
+DROP TRIGGER IF EXISTS trg_bills_change_version ON bills;
+CREATE TRIGGER trg_bills_change_version BEFORE INSERT OR UPDATE ON bills
+	FOR EACH ROW EXECUTE FUNCTION stamp_change_version();
+
+-- Rows written before the column existed are stamped once, when the column is still nullable; later startups
+-- skip the scan and the table lock.
+DO $$
+BEGIN
+	IF NOT (SELECT attnotnull FROM pg_attribute WHERE attrelid = 'appointments'::regclass
+			AND attname = 'change_version') THEN
+		UPDATE appointments SET change_version = pg_current_xact_id()::text::bigint WHERE change_version IS NULL;
+		ALTER TABLE appointments ALTER COLUMN change_version SET NOT NULL;
+	END IF;
+	IF NOT (SELECT attnotnull FROM pg_attribute WHERE attrelid = 'bills'::regclass AND attname = 'change_version') THEN
+		UPDATE bills SET change_version = pg_current_xact_id()::text::bigint WHERE change_version IS NULL;
+		ALTER TABLE bills ALTER COLUMN change_version SET NOT NULL;
+	END IF;
+END $$;
+
+-- NO_SHOW joins the appointment statuses. Hibernate only writes the enum check constraint when it creates the
+-- table, so an older constraint is replaced here (once; re-validating it on every startup would scan the table).
+DO $$
+BEGIN
+	IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'appointments'::regclass
+			AND conname = 'appointments_status_check' AND pg_get_constraintdef(oid) LIKE '%NO_SHOW%') THEN
+		ALTER TABLE appointments DROP CONSTRAINT IF EXISTS appointments_status_check;
+		ALTER TABLE appointments ADD CONSTRAINT appointments_status_check
+			CHECK (status IN ('CONFIRMED', 'CANCELLED', 'COMPLETED', 'NO_SHOW'));
+	END IF;
+END $$;
+
+-- Slot duration is per doctor. Rows written before the column existed keep the old fixed 30-minute grid; filled
+-- once, like change_version above.
+DO $$
+BEGIN
+	IF NOT (SELECT attnotnull FROM pg_attribute WHERE attrelid = 'doctor'::regclass
+			AND attname = 'slot_duration_minutes') THEN
+		UPDATE doctor SET slot_duration_minutes = 30 WHERE slot_duration_minutes IS NULL;
+		ALTER TABLE doctor ALTER COLUMN slot_duration_minutes SET NOT NULL;
+	END IF;
+END $$;
+
+-- Optimistic lock versions. Rows written before the column existed start at version 0; rows inserted by plain SQL
+-- get 0 as well, so bulk updates can always bump the version.
+UPDATE appointments SET version = 0 WHERE version IS NULL;
+UPDATE bills SET version = 0 WHERE version IS NULL;
+UPDATE doctor SET version = 0 WHERE version IS NULL;
+UPDATE patient SET version = 0 WHERE version IS NULL;
+ALTER TABLE appointments ALTER COLUMN version SET DEFAULT 0, ALTER COLUMN version SET NOT NULL;
+ALTER TABLE bills ALTER COLUMN version SET DEFAULT 0, ALTER COLUMN version SET NOT NULL;
+ALTER TABLE doctor ALTER COLUMN version SET DEFAULT 0, ALTER COLUMN version SET NOT NULL;
+ALTER TABLE patient ALTER COLUMN version SET DEFAULT 0, ALTER COLUMN version SET NOT NULL;
+
+-- Revenue analytics. bill_revenue_daily holds bill count and amount in minor units per (bill date, doctor,
+-- payment status) for every day up to the watermark in bill_revenue_rollup; later days are aggregated from bills
+-- on read. roll_up_bill_revenue_day moves the watermark (nightly), and the triggers below keep closed days in step
+-- with every later write, including bulk JPQL updates and reschedules to another doctor. Writes to open days
+-- (today's bookings) never touch the summary rows, so they do not become a hot spot.
+CREATE TABLE IF NOT EXISTS bill_revenue_daily (
+	bill_date DATE NOT NULL,
+	doctor_id BIGINT NOT NULL,
+	payment_status VARCHAR(20) NOT NULL,
+	bill_count BIGINT NOT NULL,
+	amount_minor BIGINT NOT NULL,
+	PRIMARY KEY (bill_date, doctor_id, payment_status)
+);
+
+CREATE TABLE IF NOT EXISTS bill_revenue_rollup (
+	id SMALLINT PRIMARY KEY CHECK (id = 1),
+	closed_through DATE
+);
+INSERT INTO bill_revenue_rollup (id, closed_through) VALUES (1, NULL) ON CONFLICT (id) DO NOTHING;
+
+CREATE OR REPLACE FUNCTION add_bill_revenue(p_date DATE, p_doctor_id BIGINT, p_status VARCHAR, p_count BIGINT,
+		p_amount NUMERIC) RETURNS void AS $$
+BEGIN
+	INSERT INTO bill_revenue_daily AS r (bill_date, doctor_id, payment_status, bill_count, amount_minor)
+	VALUES (p_date, p_doctor_id, p_status, p_count, p_count * ROUND(p_amount * 100)::bigint)
+	ON CONFLICT (bill_date, doctor_id, payment_status) DO UPDATE
+	SET bill_count = r.bill_count + EXCLUDED.bill_count, amount_minor = r.amount_minor + EXCLUDED.amount_minor;
+END $$ LANGUAGE plpgsql;
+
+-- True if p_date is a closed day, whose bill writes must be applied to the summary. A write to an open day holds
+-- that day's advisory lock in share mode until it commits, and the watermark is read again once the lock is
+-- granted: roll_up_bill_revenue_day takes the lock exclusively, so it either aggregates the write after it commits
+-- or closes the day first, and then the write sees the day as closed. Relies on READ COMMITTED, where every
+-- statement here reads a fresh snapshot.
+CREATE OR REPLACE FUNCTION is_closed_revenue_day(p_date DATE) RETURNS boolean AS $$
+DECLARE
+	closed DATE := (SELECT closed_through FROM bill_revenue_rollup WHERE id = 1);
+BEGIN
+	IF p_date <= closed THEN
+		RETURN true;
+	END IF;
+	PERFORM pg_advisory_xact_lock_shared('bill_revenue_daily'::regclass::integer, p_date - DATE '2000-01-01');
+	RETURN p_date <= (SELECT closed_through FROM bill_revenue_rollup WHERE id = 1);
+END $$ LANGUAGE plpgsql;
+
+-- Moves a closed-day bill's contribution from its old (date, status, amount) to its new one
+CREATE OR REPLACE FUNCTION track_bill_revenue() RETURNS trigger AS $$
+DECLARE
+	old_doctor BIGINT;
+	new_doctor BIGINT;
+BEGIN
+	IF TG_OP IN ('UPDATE', 'DELETE') AND is_closed_revenue_day(OLD.bill_date) THEN
+		SELECT doctor_id INTO old_doctor FROM appointments WHERE appointment_id = OLD.appointment_id;
+		PERFORM add_bill_revenue(OLD.bill_date, old_doctor, OLD.payment_status, -1, OLD.bill_amount);
+	END IF;
+	IF TG_OP IN ('INSERT', 'UPDATE') AND is_closed_revenue_day(NEW.bill_date) THEN
+		SELECT doctor_id INTO new_doctor FROM appointments WHERE appointment_id = NEW.appointment_id;
+		PERFORM add_bill_revenue(NEW.bill_date, new_doctor, NEW.payment_status, 1, NEW.bill_amount);
+	END IF;
+	RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_bills_revenue ON bills;
+CREATE TRIGGER trg_bills_revenue AFTER INSERT OR DELETE OR UPDATE OF bill_date, payment_status, bill_amount,
+		appointment_id ON bills
+	FOR EACH ROW EXECUTE FUNCTION track_bill_revenue();
+
+-- Moves a closed-day bill's contribution to the appointment's new doctor. The bill trigger reads the doctor at
+-- the time of its own write, so both triggers agree whichever of the two rows is flushed first.
+CREATE OR REPLACE FUNCTION move_bill_revenue() RETURNS trigger AS $$
+DECLARE
+	b RECORD;
+BEGIN
+	SELECT bill_date, payment_status, bill_amount INTO b FROM bills WHERE appointment_id = NEW.appointment_id;
+	IF FOUND AND is_closed_revenue_day(b.bill_date) THEN
+		PERFORM add_bill_revenue(b.bill_date, OLD.doctor_id, b.payment_status, -1, b.bill_amount);
+		PERFORM add_bill_revenue(b.bill_date, NEW.doctor_id, b.payment_status, 1, b.bill_amount);
+	END IF;
+	RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_appointments_revenue ON appointments;
+CREATE TRIGGER trg_appointments_revenue AFTER UPDATE OF doctor_id ON appointments
+	FOR EACH ROW WHEN (OLD.doctor_id IS DISTINCT FROM NEW.doctor_id) EXECUTE FUNCTION move_bill_revenue();
+
+-- Closes the day after the watermark, if it is not past p_through: waits for that day's open writers (see
+-- is_closed_revenue_day), aggregates its bills and moves the watermark one day. Bills of other days, and every
+-- table, stay writable throughout; callers run it once per day, each in its own transaction. Returns the
+-- summary rows written, or -1 if the watermark had already reached p_through.
+DROP FUNCTION IF EXISTS roll_up_bill_revenue(DATE);
+CREATE OR REPLACE FUNCTION roll_up_bill_revenue_day(p_through DATE) RETURNS integer AS $$
+DECLARE
+	closed DATE;
+	written INTEGER;
+BEGIN
+	SELECT closed_through INTO closed FROM bill_revenue_rollup WHERE id = 1 FOR UPDATE;
+	IF closed IS NULL THEN
+		RAISE EXCEPTION 'bill_revenue_rollup has no watermark';
+	ELSIF closed >= p_through THEN
+		RETURN -1;
+	END IF;
+	PERFORM pg_advisory_xact_lock('bill_revenue_daily'::regclass::integer, (closed + 1) - DATE '2000-01-01');
+	INSERT INTO bill_revenue_daily AS r (bill_date, doctor_id, payment_status, bill_count, amount_minor)
+	SELECT b.bill_date, a.doctor_id, b.payment_status, COUNT(*), SUM(ROUND(b.bill_amount * 100))::bigint
+	FROM bills b JOIN appointments a ON a.appointment_id = b.appointment_id
+	WHERE b.bill_date = closed + 1
+	GROUP BY b.bill_date, a.doctor_id, b.payment_status
+	ON CONFLICT (bill_date, doctor_id, payment_status) DO UPDATE
+	SET bill_count = r.bill_count + EXCLUDED.bill_count, amount_minor = r.amount_minor + EXCLUDED.amount_minor;
+	GET DIAGNOSTICS written = ROW_COUNT;
+	UPDATE bill_revenue_rollup SET closed_through = closed + 1 WHERE id = 1;
+	RETURN written;
+END $$ LANGUAGE plpgsql;
+
+-- The first run closes every day before today at once. Like the patient_balances fill below, it is a one-off
+-- migration: the lock keeps other nodes from writing bills until the watermark and triggers exist.
+DO $$
+BEGIN
+	IF (SELECT closed_through FROM bill_revenue_rollup WHERE id = 1) IS NULL THEN
+		LOCK TABLE appointments, bills IN SHARE MODE;
+		INSERT INTO bill_revenue_daily AS r (bill_date, doctor_id, payment_status, bill_count, amount_minor)
+		SELECT b.bill_date, a.doctor_id, b.payment_status, COUNT(*), SUM(ROUND(b.bill_amount * 100))::bigint
+		FROM bills b JOIN appointments a ON a.appointment_id = b.appointment_id
+		WHERE b.bill_date < CURRENT_DATE
+		GROUP BY b.bill_date, a.doctor_id, b.payment_status
+		ON CONFLICT (bill_date, doctor_id, payment_status) DO UPDATE
+		SET bill_count = r.bill_count + EXCLUDED.bill_count, amount_minor = r.amount_minor + EXCLUDED.amount_minor;
+		UPDATE bill_revenue_rollup SET closed_through = CURRENT_DATE - 1 WHERE id = 1;
+	END IF;
+END $$;
+
+-- Outstanding balance per patient: count and total in cents of the PENDING bills, kept by the trigger below in
+-- the transaction of every bill write (bulk updates included). Filled from the bills once, when created; the lock
+-- keeps other nodes from writing bills until the trigger exists.
+DO $$
+BEGIN
+	IF to_regclass('patient_balances') IS NULL THEN
+		LOCK TABLE bills IN SHARE MODE;
+		CREATE TABLE patient_balances (
+			patient_id BIGINT PRIMARY KEY REFERENCES patient (patient_id) ON DELETE CASCADE,
+			pending_count BIGINT NOT NULL,
+			outstanding_minor BIGINT NOT NULL
+		);
+		INSERT INTO patient_balances (patient_id, pending_count, outstanding_minor)
+		SELECT patient_id, COUNT(*), SUM(ROUND(bill_amount * 100))::bigint FROM bills
+		WHERE payment_status = 'PENDING' GROUP BY patient_id;
+	END IF;
+END $$;
+
+CREATE OR REPLACE FUNCTION add_patient_balance(p_patient_id BIGINT, p_count BIGINT, p_amount NUMERIC)
+		RETURNS void AS $$
+BEGIN
+	INSERT INTO patient_balances AS p (patient_id, pending_count, outstanding_minor)
+	VALUES (p_patient_id, p_count, p_count * ROUND(p_amount * 100)::bigint)
+	ON CONFLICT (patient_id) DO UPDATE
+	SET pending_count = p.pending_count + EXCLUDED.pending_count,
+		outstanding_minor = p.outstanding_minor + EXCLUDED.outstanding_minor;
+END $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION track_patient_balance() RETURNS trigger AS $$
+BEGIN
+	IF TG_OP = 'UPDATE' AND NEW.patient_id = OLD.patient_id AND NEW.payment_status = OLD.payment_status
+			AND NEW.bill_amount = OLD.bill_amount THEN
+		RETURN NULL;
+	END IF;
+	IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.payment_status = 'PENDING' THEN
+		PERFORM add_patient_balance(OLD.patient_id, -1, OLD.bill_amount);
+	END IF;
+	IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.payment_status = 'PENDING' THEN
+		PERFORM add_patient_balance(NEW.patient_id, 1, NEW.bill_amount);
+	END IF;
+	RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_bills_patient_balance ON bills;
+CREATE TRIGGER trg_bills_patient_balance AFTER INSERT OR DELETE OR UPDATE OF patient_id, payment_status, bill_amount
+		ON bills
+	FOR EACH ROW EXECUTE FUNCTION track_patient_balance();
@@ -4,10 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class HmsBackendApplicationTests {
+class HmsBackendApplicationTests extends PostgresIntegrationTest {
 
 	@Autowired
 	private HmsBackendApplication context;
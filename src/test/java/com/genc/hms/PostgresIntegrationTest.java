@@ -0,0 +1,167 @@
+package com.genc.hms;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.genc.hms.dto.AppointmentRequestDTO;
+import com.genc.hms.dto.DoctorAvailabilityDTO;
+import com.genc.hms.dto.DoctorRegisterRequestDTO;
+import com.genc.hms.dto.PatientRegisterRequestDTO;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.entity.DoctorAvailability;
+import com.genc.hms.entity.Patient;
+import com.genc.hms.entity.User;
+import com.genc.hms.enums.Gender;
+import com.genc.hms.enums.Role;
+import com.genc.hms.enums.WeekDay;
+import com.genc.hms.repository.DoctorRepository;
+import com.genc.hms.repository.PatientRepository;
+import com.genc.hms.service.AppointmentService;
+import com.genc.hms.service.UserService;
+import com.genc.hms.util.TimeSlots;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Base class for tests that need the full application context. Starts one
+ * embedded PostgreSQL per JVM (shared by every subclass, so the Spring context
+ * is cached too) and points the datasource at it. The schema is built exactly
+ * as in production: Hibernate ddl update followed by schema-postgresql.sql.
+ * JDBC round trips can be recorded with {@link SqlStatementCounter}. Every
+ * test starts from empty tables, and doctors and patients come from the
+ * fixtures below.
+ */
+@SpringBootTest
+@Import(SqlStatementCounter.class)
+public abstract class PostgresIntegrationTest {
+
+	private static final EmbeddedPostgres POSTGRES = start();
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	private static EmbeddedPostgres start() {
+		try {
+			return EmbeddedPostgres.start();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+		}
+	}
+
+	@DynamicPropertySource
+	static void datasourceProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+		registry.add("spring.datasource.username", () -> "postgres");
+		registry.add("spring.datasource.password", () -> "postgres");
+		// Cron jobs that write ("-" disables them); tests trigger them explicitly
+		registry.add("hms.reminders.cron", () -> "-");
+		registry.add("hms.sweeper.cron", () -> "-");
+	}
+
+	/** Empties every application table; the revenue watermark row stays. */
+	@AfterEach
+	void deleteAllRows() {
+		jdbcTemplate.execute("TRUNCATE users, patient, doctor, doctor_availability, appointments, bills, "
+				+ "waitlist_entries, appointment_reminders, schedule_exceptions, bill_revenue_daily CASCADE");
+	}
+
+	// --- Fixtures ---
+
+	/** One availability window per weekday. */
+	protected static List<DoctorAvailabilityDTO> everyDay(LocalTime start, LocalTime end) {
+		List<DoctorAvailabilityDTO> availabilities = new ArrayList<>();
+		for (WeekDay day : WeekDay.values()) {
+			availabilities.add(new DoctorAvailabilityDTO(day, start, end));
+		}
+		return availabilities;
+	}
+
+	/** A cardiologist charging 500, available 09:00-17:00 every day. */
+	protected static DoctorRegisterRequestDTO doctorRegistration(String email, String name) {
+		return new DoctorRegisterRequestDTO(email, "password123", name, "Cardiology", "9999999999",
+				BigDecimal.valueOf(500), everyDay(LocalTime.of(9, 0), LocalTime.of(17, 0)));
+	}
+
+	protected static PatientRegisterRequestDTO patientRegistration(String email, String name) {
+		return new PatientRegisterRequestDTO(email, "password123", name, LocalDate.of(1990, 1, 1), Gender.FEMALE,
+				"9999999999", "Test Street", null);
+	}
+
+	/** Registers through UserService and returns the doctor ID. */
+	protected Long registerDoctor(DoctorRegisterRequestDTO request) {
+		return userService.registerDoctor(request).getRoleId();
+	}
+
+	protected Long registerDoctor(String email, String name) {
+		return registerDoctor(doctorRegistration(email, name));
+	}
+
+	/** Registers through UserService and returns the patient ID. */
+	protected Long registerPatient(String email, String name) {
+		return userService.registerPatient(patientRegistration(email, name)).getRoleId();
+	}
+
+	/** A checkup in the 30-minute slot starting at startMinute. */
+	protected static AppointmentRequestDTO bookingRequest(Long patientId, Long doctorId, LocalDate date,
+			int startMinute) {
+		return bookingRequest(patientId, doctorId, date, TimeSlots.label(startMinute, startMinute + 30));
+	}
+
+	/** A checkup in the given "HH:mm-HH:mm" slot, for doctors on other slot grids. */
+	protected static AppointmentRequestDTO bookingRequest(Long patientId, Long doctorId, LocalDate date,
+			String timeSlot) {
+		return new AppointmentRequestDTO(patientId, doctorId, date, timeSlot, "Checkup");
+	}
+
+	/** Books through AppointmentService and returns the appointment ID. */
+	protected Long book(Long patientId, Long doctorId, LocalDate date, int startMinute) {
+		return appointmentService.bookAppointment(bookingRequest(patientId, doctorId, date, startMinute))
+				.getAppointmentId();
+	}
+
+	protected Long book(Long patientId, Long doctorId, LocalDate date, String timeSlot) {
+		return appointmentService.bookAppointment(bookingRequest(patientId, doctorId, date, timeSlot))
+				.getAppointmentId();
+	}
+
+	/** Saves the entity graph directly, for tests that hold on to the entities. */
+	protected Doctor createDoctor(String email, String name) {
+		Doctor doctor = new Doctor(new User(null, null, email, "password123", Role.DOCTOR), name, "Cardiology",
+				"9999999999", BigDecimal.valueOf(500), new ArrayList<>());
+		for (WeekDay day : WeekDay.values()) {
+			doctor.getDoctorAvailabilities()
+					.add(new DoctorAvailability(doctor, day, LocalTime.of(9, 0), LocalTime.of(17, 0)));
+		}
+		return doctorRepository.save(doctor);
+	}
+
+	protected Patient createPatient(String email, String name) {
+		return patientRepository.save(new Patient(new User(null, null, email, "password123", Role.PATIENT), name,
+				LocalDate.of(1990, 1, 1), Gender.FEMALE, "9999999999", "Test Street", null));
+	}
+}
@@ -0,0 +1,89 @@
+package com.genc.hms;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+
+/**
+ * Wraps the application DataSource so tests can record the JDBC round trips
+ * issued by the current thread. Each execute call is one round trip and a whole
+ * JDBC batch (executeBatch) counts as one. Recording is off unless a test calls
+ * {@link #start()}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlStatementCounter implements BeanPostProcessor {
+
+	private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+	private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+			"executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+	/** Starts recording round trips issued by the calling thread. */
+	public static void start() {
+		RECORDED.set(new ArrayList<>());
+	}
+
+	/** Stops recording and returns the executed SQL (lower case), in order. */
+	public static List<String> stop() {
+		List<String> recorded = RECORDED.get();
+		RECORDED.remove();
+		return recorded == null ? List.of() : recorded;
+	}
+
+	/** Number of recorded round trips whose SQL starts with the given prefix. */
+	public static long count(List<String> recorded, String sqlPrefix) {
+		String prefix = sqlPrefix.toLowerCase(Locale.ROOT);
+		return recorded.stream().filter(sql -> sql.startsWith(prefix)).count();
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource dataSource) {
+			return wrap(DataSource.class, dataSource, null);
+		}
+		return bean;
+	}
+
+	private static Object wrap(Class<?> type, Object target, String preparedSql) {
+		InvocationHandler handler = (proxy, method, args) -> {
+			if (EXECUTE_METHODS.contains(method.getName())) {
+				record(args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql);
+			}
+			Object result;
+			try {
+				result = method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+			// Keep wrapping whatever carries SQL towards the database
+			Class<?> returnType = method.getReturnType();
+			if (result != null && (returnType == Connection.class || returnType == Statement.class
+					|| returnType == PreparedStatement.class || returnType == CallableStatement.class)) {
+				String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+				return wrap(returnType, result, sql);
+			}
+			return result;
+		};
+		return Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	private static void record(String sql) {
+		List<String> recorded = RECORDED.get();
+		if (recorded != null) {
+			recorded.add(sql == null ? "<batch>" : sql.strip().toLowerCase(Locale.ROOT));
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.genc.hms.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.genc.hms.entity.Appointment;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.entity.DoctorAvailability;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.WeekDay;
+import com.genc.hms.event.SlotChangedEvent;
+import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.repository.DoctorRepository;
+import com.genc.hms.service.AppointmentService;
+import com.genc.hms.service.ScheduleExceptionIndex;
+import com.genc.hms.service.SlotHoldRegistry;
+import com.genc.hms.service.SlotListCache;
+import com.genc.hms.service.SlotOccupancyIndex;
+import com.genc.hms.service.SlotTemplateCache;
+import com.genc.hms.util.SlotRange;
+
+/**
+ * Compares AppointmentService.getAvailableSlots answered from the occupancy
+ * index against the database fallback (repository stubbed with pre-built
+ * entities, so real query latency is NOT included), a slot-list cache hit and
+ * the original LocalTime-formatting implementation.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.genc.hms.benchmark.AvailableSlotsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailableSlotsBenchmark {
+
+	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+	private static final Long DOCTOR_ID = 1L;
+
+	private final LocalDate date = LocalDate.now().plusDays(7);
+
+	private Doctor doctor;
+	private List<Appointment> bookedAppointments;
+	private AppointmentService indexedService;
+	private AppointmentService fallbackService;
+	private AppointmentService cachedService;
+
+	@Setup
+	public void setUp() {
+		doctor = new Doctor(null, "Dr. Bench", "Cardiology", "9999999999", BigDecimal.TEN, new ArrayList<>());
+		ReflectionTestUtils.setField(doctor, "doctorId", DOCTOR_ID);
+		doctor.getDoctorAvailabilities().add(new DoctorAvailability(doctor,
+				WeekDay.valueOf(date.getDayOfWeek().name()), LocalTime.of(9, 0), LocalTime.of(17, 0)));
+
+		// Every third slot of the 09:00-17:00 day is booked
+		bookedAppointments = new ArrayList<>();
+		for (int start = 9 * 60; start + 30 <= 17 * 60; start += 90) {
+			bookedAppointments.add(new Appointment(null, doctor, date, SlotRange.ofDuration(start, 30), "Checkup",
+					AppointmentStatus.CONFIRMED, null));
+		}
+
+		AppointmentRepository repository = stubRepository(bookedAppointments);
+		SlotTemplateCache slotTemplates = new SlotTemplateCache(5);
+		ReflectionTestUtils.setField(slotTemplates, "doctorRepository",
+				Proxy.newProxyInstance(DoctorRepository.class.getClassLoader(),
+						new Class<?>[] { DoctorRepository.class }, (proxy, method, args) -> {
+							if (method.getName().equals("findById"))
+								return Optional.of(doctor);
+							throw new UnsupportedOperationException(method.getName());
+						}));
+
+		SlotOccupancyIndex warmIndex = new SlotOccupancyIndex();
+		ReflectionTestUtils.setField(warmIndex, "appointmentRepository", repository);
+		warmIndex.warm();
+		for (Appointment appointment : bookedAppointments) {
+			SlotRange slot = appointment.getSlot();
+			warmIndex.onSlotChanged(SlotChangedEvent.taken(DOCTOR_ID, date, slot.startMinute(), slot.endMinute()));
+		}
+
+		// A zero-size slot-list cache keeps nothing, so these measure the computation itself
+		indexedService = newService(repository, slotTemplates, warmIndex, new SlotListCache(0, 10));
+		fallbackService = newService(repository, slotTemplates, new SlotOccupancyIndex(), new SlotListCache(0, 10));
+		cachedService = newService(repository, slotTemplates, new SlotOccupancyIndex(), new SlotListCache(100, 10));
+		cachedService.getAvailableSlots(DOCTOR_ID, date);
+	}
+
+	@Benchmark
+	public List<String> occupancyIndex() {
+		return indexedService.getAvailableSlots(DOCTOR_ID, date);
+	}
+
+	@Benchmark
+	public List<String> databaseFallback() {
+		return fallbackService.getAvailableSlots(DOCTOR_ID, date);
+	}
+
+	@Benchmark
+	public List<String> slotListCacheHit() {
+		return cachedService.getAvailableSlots(DOCTOR_ID, date);
+	}
+
+	@Benchmark
+	public List<String> originalImplementation() {
+		DoctorAvailability availability = doctor.getDoctorAvailabilities().stream()
+				.filter(a -> a.getDayOfWeek().name().equals(date.getDayOfWeek().name())).findFirst().orElseThrow();
+		List<String> allSlots = new ArrayList<>();
+		LocalTime current = availability.getStartTime();
+		while (current.plusMinutes(30).isBefore(availability.getEndTime().plusSeconds(1))) {
+			allSlots.add(current.format(TIME_FORMATTER) + "-" + current.plusMinutes(30).format(TIME_FORMATTER));
+			current = current.plusMinutes(30);
+		}
+		Set<String> booked = bookedAppointments.stream().map(Appointment::getTimeSlot).collect(Collectors.toSet());
+		return allSlots.stream().filter(s -> !booked.contains(s)).toList();
+	}
+
+	private static AppointmentService newService(AppointmentRepository repository, SlotTemplateCache slotTemplates,
+			SlotOccupancyIndex index, SlotListCache slotListCache) {
+		AppointmentService service = new AppointmentService();
+		ReflectionTestUtils.setField(service, "appointmentRepository", repository);
+		ReflectionTestUtils.setField(service, "slotTemplates", slotTemplates);
+		ReflectionTestUtils.setField(service, "slotOccupancyIndex", index);
+		ReflectionTestUtils.setField(service, "slotHolds", new SlotHoldRegistry());
+		ReflectionTestUtils.setField(service, "scheduleExceptions", new ScheduleExceptionIndex());
+		ReflectionTestUtils.setField(service, "slotListCache", slotListCache);
+		return service;
+	}
+
+	private static AppointmentRepository stubRepository(List<Appointment> booked) {
+		return (AppointmentRepository) Proxy.newProxyInstance(AppointmentRepository.class.getClassLoader(),
+				new Class<?>[] { AppointmentRepository.class }, (proxy, method, args) -> switch (method.getName()) {
+				case "findByDoctorDoctorIdAndAppointmentDateAndStatusNot" -> booked;
+				case "findBookedSlotsFrom" -> List.of();
+				default -> throw new UnsupportedOperationException(method.getName());
+				});
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(AvailableSlotsBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,198 @@
+package com.genc.hms.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.genc.hms.dto.AvailableSlotDTO;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.entity.DoctorAvailability;
+import com.genc.hms.enums.WeekDay;
+import com.genc.hms.event.SlotChangedEvent;
+import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.repository.AppointmentRepository.BookedSlot;
+import com.genc.hms.repository.DoctorAvailabilityRepository;
+import com.genc.hms.repository.DoctorAvailabilityRepository.ScheduleRow;
+import com.genc.hms.repository.DoctorRepository;
+import com.genc.hms.service.AppointmentService;
+import com.genc.hms.service.ScheduleExceptionIndex;
+import com.genc.hms.service.SlotHoldRegistry;
+import com.genc.hms.service.SlotListCache;
+import com.genc.hms.service.SlotOccupancyIndex;
+import com.genc.hms.service.SlotTemplateCache;
+import com.genc.hms.service.SlotSearchService;
+
+/**
+ * Measures SlotSearchService.findFirstAvailable over 500 doctors x 30 days,
+ * answered from the occupancy index and from the batched booking query
+ * (repositories stubbed, so real query latency is NOT included), against the
+ * client-side fan-out of one getAvailableSlots call per doctor and day.
+ *
+ * Doctor i works 09:00-17:00 Monday to Saturday and is fully booked for the
+ * first (i % 20) days of the window; later days have every third slot taken.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.genc.hms.benchmark.FirstAvailableSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FirstAvailableSearchBenchmark {
+
+	private static final int DOCTORS = 500;
+	private static final int DAYS = 30;
+	private static final int LIMIT = 10;
+	private static final String SPECIALIZATION = "Cardiology";
+	private static final LocalTime DAY_START = LocalTime.of(9, 0);
+	private static final LocalTime DAY_END = LocalTime.of(17, 0);
+
+	private record Row(Long getDoctorId, String getDoctorName, String getSpecialization,
+			BigDecimal getConsultationFee, Integer getSlotDurationMinutes, WeekDay getDayOfWeek, LocalTime getStartTime,
+			LocalTime getEndTime) implements ScheduleRow {
+	}
+
+	private record Booked(Long getDoctorId, LocalDate getAppointmentDate, Integer getSlotStartMinute,
+			Integer getSlotDurationMinutes) implements BookedSlot {
+	}
+
+	private final LocalDate from = LocalDate.now().plusDays(1);
+	private final LocalDate to = from.plusDays(DAYS - 1);
+
+	private SlotSearchService indexedSearch;
+	private SlotSearchService fallbackSearch;
+	private AppointmentService indexedAppointments;
+
+	@Setup
+	public void setUp() {
+		List<ScheduleRow> rows = new ArrayList<>();
+		Map<Long, Doctor> doctors = new HashMap<>();
+		for (long id = 1; id <= DOCTORS; id++) {
+			Doctor doctor = new Doctor(null, "Dr. " + id, SPECIALIZATION, "9999999999", BigDecimal.TEN,
+					new ArrayList<>());
+			ReflectionTestUtils.setField(doctor, "doctorId", id);
+			for (WeekDay day : WeekDay.values()) {
+				if (day == WeekDay.SUNDAY)
+					continue;
+				rows.add(new Row(id, doctor.getName(), SPECIALIZATION, BigDecimal.TEN, 30, day, DAY_START, DAY_END));
+				doctor.getDoctorAvailabilities().add(new DoctorAvailability(doctor, day, DAY_START, DAY_END));
+			}
+			doctors.put(id, doctor);
+		}
+
+		List<BookedSlot> booked = new ArrayList<>();
+		for (long id = 1; id <= DOCTORS; id++) {
+			int fullyBookedDays = (int) (id % 20);
+			for (int d = 0; d < DAYS; d++) {
+				int step = d < fullyBookedDays ? 30 : 90;
+				for (int start = 9 * 60; start + 30 <= 17 * 60; start += step) {
+					booked.add(new Booked(id, from.plusDays(d), start, 30));
+				}
+			}
+		}
+
+		AppointmentRepository appointmentRepository = (AppointmentRepository) Proxy.newProxyInstance(
+				AppointmentRepository.class.getClassLoader(), new Class<?>[] { AppointmentRepository.class },
+				(proxy, method, args) -> switch (method.getName()) {
+				case "findBookedSlotsForDoctorsBetween" -> booked;
+				case "findBookedSlotsFrom" -> List.of();
+				default -> throw new UnsupportedOperationException(method.getName());
+				});
+		DoctorAvailabilityRepository availabilityRepository = (DoctorAvailabilityRepository) Proxy.newProxyInstance(
+				DoctorAvailabilityRepository.class.getClassLoader(),
+				new Class<?>[] { DoctorAvailabilityRepository.class }, (proxy, method, args) -> {
+					if (method.getName().equals("findSchedulesBySpecialization"))
+						return rows;
+					throw new UnsupportedOperationException(method.getName());
+				});
+
+		SlotOccupancyIndex warmIndex = new SlotOccupancyIndex();
+		ReflectionTestUtils.setField(warmIndex, "appointmentRepository", appointmentRepository);
+		warmIndex.warm();
+		for (BookedSlot slot : booked) {
+			warmIndex.onSlotChanged(SlotChangedEvent.taken(slot.getDoctorId(), slot.getAppointmentDate(),
+					slot.getSlotStartMinute(), slot.getSlotStartMinute() + slot.getSlotDurationMinutes()));
+		}
+
+		indexedSearch = newSearch(availabilityRepository, appointmentRepository, warmIndex);
+		fallbackSearch = newSearch(availabilityRepository, appointmentRepository, new SlotOccupancyIndex());
+
+		indexedAppointments = new AppointmentService();
+		ReflectionTestUtils.setField(indexedAppointments, "slotOccupancyIndex", warmIndex);
+		ReflectionTestUtils.setField(indexedAppointments, "slotHolds", new SlotHoldRegistry());
+		ReflectionTestUtils.setField(indexedAppointments, "scheduleExceptions", new ScheduleExceptionIndex());
+		ReflectionTestUtils.setField(indexedAppointments, "slotListCache", new SlotListCache(20_000, 10));
+		SlotTemplateCache slotTemplates = new SlotTemplateCache(5);
+		ReflectionTestUtils.setField(slotTemplates, "doctorRepository",
+				Proxy.newProxyInstance(DoctorRepository.class.getClassLoader(),
+						new Class<?>[] { DoctorRepository.class }, (proxy, method, args) -> {
+							if (method.getName().equals("findById"))
+								return Optional.ofNullable(doctors.get(args[0]));
+							throw new UnsupportedOperationException(method.getName());
+						}));
+		ReflectionTestUtils.setField(indexedAppointments, "slotTemplates", slotTemplates);
+	}
+
+	@Benchmark
+	public List<AvailableSlotDTO> mergeFromIndex() {
+		return indexedSearch.findFirstAvailable(SPECIALIZATION, from, to, null, LIMIT);
+	}
+
+	@Benchmark
+	public List<AvailableSlotDTO> mergeFromBatchedQuery() {
+		return fallbackSearch.findFirstAvailable(SPECIALIZATION, from, to, null, LIMIT);
+	}
+
+	@Benchmark
+	public List<String> clientFanOut() {
+		List<String> all = new ArrayList<>();
+		for (long id = 1; id <= DOCTORS; id++) {
+			for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+				for (String slot : indexedAppointments.getAvailableSlots(id, date)) {
+					all.add(date + " " + slot + " " + id);
+				}
+			}
+		}
+		return all.stream().sorted(Comparator.naturalOrder()).limit(LIMIT).toList();
+	}
+
+	private static SlotSearchService newSearch(DoctorAvailabilityRepository availabilityRepository,
+			AppointmentRepository appointmentRepository, SlotOccupancyIndex index) {
+		SlotSearchService service = new SlotSearchService();
+		ReflectionTestUtils.setField(service, "doctorAvailabilityRepository", availabilityRepository);
+		ReflectionTestUtils.setField(service, "appointmentRepository", appointmentRepository);
+		ReflectionTestUtils.setField(service, "slotOccupancyIndex", index);
+		ReflectionTestUtils.setField(service, "slotHolds", new SlotHoldRegistry());
+		ReflectionTestUtils.setField(service, "scheduleExceptions", new ScheduleExceptionIndex());
+		return service;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(FirstAvailableSearchBenchmark.class.getSimpleName()).build()).run();
+	}
+}
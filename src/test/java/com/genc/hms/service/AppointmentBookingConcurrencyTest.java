@@ -0,0 +1,192 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.entity.Appointment;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.entity.Patient;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.exception.GlobalExceptionHandler.ConflictException;
+import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.util.Constraints;
+import com.genc.hms.util.SlotRange;
+
+/**
+ * Hammers bookAppointment from many threads against a real PostgreSQL and
+ * checks that no slot is ever booked twice. Throughput of each scenario is
+ * logged at INFO.
+ */
+public class AppointmentBookingConcurrencyTest extends PostgresIntegrationTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(AppointmentBookingConcurrencyTest.class);
+
+	private static final int THREADS = 16;
+	private static final int SLOTS_PER_DAY = 16; // 09:00-17:00 in 30-minute slots
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final LocalDate date = LocalDate.now().plusDays(7);
+	private Patient patient;
+
+	@BeforeEach
+	void setUp() {
+		patient = createPatient("patient@stress.test", "Stress Patient");
+	}
+
+	@Test
+	void concurrentBookingsOfTheSameDayNeverDoubleBook() throws Exception {
+		Doctor doctor = createDoctor("contended@stress.test", "Dr. Contended");
+		AtomicInteger booked = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+		List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+
+		// Every thread tries to book every slot of the same doctor-day, in its own order
+		long elapsed = runConcurrently(THREADS, thread -> {
+			List<Integer> starts = new ArrayList<>();
+			for (int i = 0; i < SLOTS_PER_DAY; i++) {
+				starts.add(9 * 60 + i * 30);
+			}
+			Collections.shuffle(starts);
+			for (int start : starts) {
+				try {
+					appointmentService.bookAppointment(
+							bookingRequest(patient.getPatientId(), doctor.getDoctorId(), date, start));
+					booked.incrementAndGet();
+				} catch (ConflictException e) {
+					conflicts.incrementAndGet();
+				} catch (Throwable e) {
+					unexpected.add(e);
+				}
+			}
+		});
+
+		assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+		assertEquals(SLOTS_PER_DAY, booked.get());
+		assertEquals(THREADS * SLOTS_PER_DAY - SLOTS_PER_DAY, conflicts.get());
+		assertNoDoubleBookings(doctor);
+		report("same doctor-day", booked.get(), conflicts.get(), elapsed);
+	}
+
+	@Test
+	void bookingsForDifferentDoctorsRunInParallel() throws Exception {
+		List<Doctor> doctors = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			doctors.add(createDoctor("parallel-" + i + "@stress.test", "Dr. Parallel " + i));
+		}
+		List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+
+		// Each thread books a full day for its own doctor, so no stripe is shared
+		long elapsed = runConcurrently(THREADS, thread -> {
+			Doctor doctor = doctors.get(thread);
+			for (int i = 0; i < SLOTS_PER_DAY; i++) {
+				try {
+					book(patient.getPatientId(), doctor.getDoctorId(), date, 9 * 60 + i * 30);
+				} catch (Throwable e) {
+					failures.add(e);
+				}
+			}
+		});
+
+		assertTrue(failures.isEmpty(), () -> "Unexpected failures: " + failures);
+		for (Doctor doctor : doctors) {
+			assertNoDoubleBookings(doctor);
+		}
+		report("distinct doctor-days", THREADS * SLOTS_PER_DAY, 0, elapsed);
+	}
+
+	@Test
+	void exclusionConstraintRejectsOverlappingActiveBookingsButAllowsCancelledOnes() {
+		Doctor doctor = createDoctor("index@stress.test", "Dr. Index");
+		SlotRange slot = SlotRange.ofDuration(10 * 60, 30);
+		insertDirectly(doctor, slot, AppointmentStatus.CONFIRMED);
+
+		// Bypasses the service (and its locks), as another application node would
+		DataIntegrityViolationException violation = assertThrows(DataIntegrityViolationException.class,
+				() -> insertDirectly(doctor, slot, AppointmentStatus.CONFIRMED));
+		assertTrue(Constraints.isSlotConflict(violation));
+		// A different start or length that still overlaps is rejected too; back-to-back slots are not
+		assertThrows(DataIntegrityViolationException.class,
+				() -> insertDirectly(doctor, SlotRange.ofDuration(10 * 60 + 15, 30), AppointmentStatus.CONFIRMED));
+		assertThrows(DataIntegrityViolationException.class,
+				() -> insertDirectly(doctor, SlotRange.ofDuration(9 * 60 + 30, 60), AppointmentStatus.CONFIRMED));
+		assertDoesNotThrow(() -> insertDirectly(doctor, SlotRange.ofDuration(10 * 60 + 30, 15),
+				AppointmentStatus.CONFIRMED));
+		assertDoesNotThrow(() -> insertDirectly(doctor, slot, AppointmentStatus.CANCELLED));
+	}
+
+	// --- Helpers ---
+
+	private interface ThreadBody {
+		void run(int thread) throws Exception;
+	}
+
+	/** Runs the body on every thread at once and returns the wall-clock time in nanoseconds. */
+	private long runConcurrently(int threads, ThreadBody body) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int thread = t;
+			futures.add(executor.submit(() -> {
+				start.await();
+				body.run(thread);
+				return null;
+			}));
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(2, TimeUnit.MINUTES);
+		}
+		long elapsed = System.nanoTime() - begin;
+		executor.shutdown();
+		return elapsed;
+	}
+
+	private void report(String scenario, int bookings, int conflicts, long elapsedNanos) {
+		double seconds = elapsedNanos / 1e9;
+		logger.info("Booking stress, {}: {} bookings and {} conflicts from {} threads in {} s ({} bookings/s)",
+				scenario, bookings, conflicts, THREADS, String.format("%.2f", seconds),
+				String.format("%.0f", bookings / seconds));
+	}
+
+	private void assertNoDoubleBookings(Doctor doctor) {
+		List<Appointment> active = appointmentRepository.findByDoctorDoctorIdAndAppointmentDateAndStatusNot(
+				doctor.getDoctorId(), date, AppointmentStatus.CANCELLED);
+		long distinctSlots = active.stream().map(Appointment::getSlotStartMinute).distinct().count();
+		assertEquals(active.size(), distinctSlots, "A slot was booked more than once");
+		assertEquals(SLOTS_PER_DAY, active.size());
+	}
+
+	private void insertDirectly(Doctor doctor, SlotRange slot, AppointmentStatus status) {
+		transactionTemplate.executeWithoutResult(tx -> appointmentRepository.saveAndFlush(
+				new Appointment(patient, doctor, date, slot, "Direct insert", status, null)));
+	}
+}
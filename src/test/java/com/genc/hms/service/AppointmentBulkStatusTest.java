@@ -0,0 +1,146 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.SqlStatementCounter;
+import com.genc.hms.dto.AppointmentBulkStatusRequestDTO;
+import com.genc.hms.dto.AppointmentBulkStatusRequestDTO.Item;
+import com.genc.hms.dto.AppointmentBulkStatusResponseDTO;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.PaymentStatus;
+import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.repository.BillRepository;
+
+/**
+ * Drives the bulk status endpoint's service method against a real PostgreSQL
+ * and checks the in-memory validation, the billing side effects and that the
+ * writes go out as one batch per table.
+ */
+public class AppointmentBulkStatusTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private BillingService billingService;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private BillRepository billRepository;
+
+	private final LocalDate date = LocalDate.now().plusDays(3);
+	private Long doctorId;
+	private Long patientId;
+
+	@BeforeEach
+	void setUp() {
+		doctorId = registerDoctor("doctor@bulk.test", "Dr. Bulk");
+		patientId = registerPatient("patient@bulk.test", "Bulk Patient");
+	}
+
+	@Test
+	void itemListAppliesValidTransitionsAndReportsTheRest() {
+		Long completed = book(patientId, doctorId, date, 9 * 60);
+		Long cancelledPaid = book(patientId, doctorId, date, 9 * 60 + 30);
+		Long cancelledPending = book(patientId, doctorId, date, 10 * 60);
+		Long noShow = book(patientId, doctorId, date, 10 * 60 + 30);
+		Long alreadyCancelled = book(patientId, doctorId, date, 11 * 60);
+		appointmentService.cancelAppointment(alreadyCancelled, null);
+		billingService.recordPayment(
+				billRepository.findByAppointment_AppointmentId(cancelledPaid).orElseThrow().getBillId(), null);
+
+		AppointmentBulkStatusRequestDTO request = new AppointmentBulkStatusRequestDTO(List.of(
+				new Item(completed, AppointmentStatus.COMPLETED, "Seen"),
+				new Item(cancelledPaid, AppointmentStatus.CANCELLED, "Doctor unavailable"),
+				new Item(cancelledPending, AppointmentStatus.CANCELLED, null),
+				new Item(noShow, AppointmentStatus.NO_SHOW, null),
+				new Item(alreadyCancelled, AppointmentStatus.COMPLETED, null),
+				new Item(-1L, AppointmentStatus.COMPLETED, null),
+				new Item(completed, AppointmentStatus.CANCELLED, null)));
+
+		SqlStatementCounter.start();
+		AppointmentBulkStatusResponseDTO result = appointmentService.updateAppointmentStatuses(request);
+		List<String> sql = SqlStatementCounter.stop();
+
+		assertEquals(List.of(completed, cancelledPaid, cancelledPending, noShow), result.getUpdated());
+		assertEquals(List.of(completed, alreadyCancelled, -1L),
+				result.getRejected().stream().map(r -> r.getAppointmentId()).toList());
+
+		// One read, one batch of appointment updates, one UPDATE per kind of bill change
+		assertEquals(1, SqlStatementCounter.count(sql, "select"));
+		assertEquals(1, SqlStatementCounter.count(sql, "update appointments"));
+		assertEquals(2, SqlStatementCounter.count(sql, "update bills"));
+
+		assertState(completed, AppointmentStatus.COMPLETED, PaymentStatus.PENDING);
+		assertEquals("Seen", appointmentRepository.findById(completed).orElseThrow().getRemarks());
+		assertState(cancelledPaid, AppointmentStatus.CANCELLED, PaymentStatus.REFUNDED);
+		assertState(cancelledPending, AppointmentStatus.CANCELLED, PaymentStatus.CANCELLED);
+		assertState(noShow, AppointmentStatus.NO_SHOW, PaymentStatus.CANCELLED);
+		assertState(alreadyCancelled, AppointmentStatus.CANCELLED, PaymentStatus.CANCELLED);
+
+		// Cancelled slots are free again
+		assertTrue(appointmentService.getAvailableSlots(doctorId, date).contains("09:30-10:00"));
+	}
+
+	@Test
+	void selectorCompletesEveryConfirmedAppointmentOfTheDay() {
+		List<Long> confirmed = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			confirmed.add(book(patientId, doctorId, date, 9 * 60 + i * 30));
+		}
+		Long cancelled = book(patientId, doctorId, date, 12 * 60);
+		appointmentService.cancelAppointment(cancelled, null);
+
+		SqlStatementCounter.start();
+		AppointmentBulkStatusResponseDTO result = appointmentService.updateAppointmentStatuses(
+				new AppointmentBulkStatusRequestDTO(doctorId, date, AppointmentStatus.COMPLETED, "Clinic closed"));
+		List<String> sql = SqlStatementCounter.stop();
+
+		assertEquals(confirmed, result.getUpdated());
+		assertTrue(result.getRejected().isEmpty());
+		assertEquals(1, SqlStatementCounter.count(sql, "update appointments"));
+		assertEquals(0, SqlStatementCounter.count(sql, "update bills"));
+		for (Long id : confirmed) {
+			assertState(id, AppointmentStatus.COMPLETED, PaymentStatus.PENDING);
+		}
+		assertState(cancelled, AppointmentStatus.CANCELLED, PaymentStatus.CANCELLED);
+
+		// Running it again finds nothing left to close
+		assertTrue(appointmentService.updateAppointmentStatuses(
+				new AppointmentBulkStatusRequestDTO(doctorId, date, AppointmentStatus.COMPLETED, null))
+				.getUpdated().isEmpty());
+	}
+
+	@Test
+	void doctorScopeRejectsOtherDoctorsAppointments() {
+		Long own = book(patientId, doctorId, date, 9 * 60);
+		Long otherDoctorId = registerDoctor("other@bulk.test", "Dr. Other");
+		Long foreign = book(patientId, otherDoctorId, date, 9 * 60);
+
+		AppointmentBulkStatusResponseDTO result = appointmentService.updateAppointmentStatuses(
+				new AppointmentBulkStatusRequestDTO(List.of(new Item(own, AppointmentStatus.COMPLETED, null),
+						new Item(foreign, AppointmentStatus.CANCELLED, null))),
+				doctorId);
+
+		assertEquals(List.of(own), result.getUpdated());
+		assertEquals(List.of(foreign), result.getRejected().stream().map(r -> r.getAppointmentId()).toList());
+		assertState(own, AppointmentStatus.COMPLETED, PaymentStatus.PENDING);
+		assertState(foreign, AppointmentStatus.CONFIRMED, PaymentStatus.PENDING);
+	}
+
+	private void assertState(Long appointmentId, AppointmentStatus status, PaymentStatus paymentStatus) {
+		assertEquals(status, appointmentRepository.findById(appointmentId).orElseThrow().getStatus());
+		assertEquals(paymentStatus, billRepository.findByAppointment_AppointmentId(appointmentId).orElseThrow().getPaymentStatus());
+	}
+}
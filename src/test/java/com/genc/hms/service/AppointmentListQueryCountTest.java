@@ -0,0 +1,111 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.SqlStatementCounter;
+import com.genc.hms.dto.AppointmentResponseDTO;
+import com.genc.hms.dto.CursorPageDTO;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.entity.Patient;
+import com.genc.hms.enums.AppointmentStatus;
+
+/**
+ * Pins the appointment list endpoints, and each keyset page, to one SQL
+ * statement, however many appointments, patients and doctors are involved (no
+ * lazy loads per row).
+ */
+public class AppointmentListQueryCountTest extends PostgresIntegrationTest {
+
+	private static final int DOCTORS = 3;
+	private static final int PATIENTS = 4;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	private final List<Doctor> doctors = new ArrayList<>();
+	private final List<Patient> patients = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < DOCTORS; i++) {
+			doctors.add(createDoctor("doctor" + i + "@list.test", "Dr. " + i));
+		}
+		for (int i = 0; i < PATIENTS; i++) {
+			patients.add(createPatient("patient" + i + "@list.test", "Patient " + i));
+		}
+		// Every patient sees every doctor once
+		LocalDate date = LocalDate.now().plusDays(5);
+		for (int d = 0; d < DOCTORS; d++) {
+			for (int p = 0; p < PATIENTS; p++) {
+				book(patients.get(p).getPatientId(), doctors.get(d).getDoctorId(), date, 9 * 60 + p * 30);
+			}
+		}
+	}
+
+	@Test
+	void listEndpointsIssueOneStatementRegardlessOfRowCount() {
+		List<AppointmentResponseDTO> all = assertSingleStatement(appointmentService::findAllAppointments);
+		assertEquals(DOCTORS * PATIENTS, all.size());
+
+		Long patientId = patients.get(1).getPatientId();
+		List<AppointmentResponseDTO> forPatient = assertSingleStatement(
+				() -> appointmentService.getAppointmentsForPatient(patientId));
+		assertEquals(DOCTORS, forPatient.size());
+		assertEquals("Patient 1", forPatient.get(0).getPatientName());
+		assertEquals("09:30-10:00", forPatient.get(0).getTimeSlot());
+
+		Long doctorId = doctors.get(2).getDoctorId();
+		List<AppointmentResponseDTO> forDoctor = assertSingleStatement(
+				() -> appointmentService.getAppointmentsForDoctor(doctorId));
+		assertEquals(PATIENTS, forDoctor.size());
+		assertEquals("Dr. 2", forDoctor.get(0).getDoctorName());
+		assertEquals("Cardiology", forDoctor.get(0).getSpecialization());
+		assertEquals("09:00-09:30", forDoctor.get(0).getTimeSlot());
+	}
+
+	@Test
+	void keysetPagesWalkEveryRowOnceWithOneStatementPerPage() {
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			String current = cursor;
+			CursorPageDTO<AppointmentResponseDTO> page = assertSingleStatement(
+					() -> appointmentService.findAppointmentsPage(null, null, null, null, null, current, 5));
+			page.getItems().forEach(item -> seen.add(item.getAppointmentId()));
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(3, pages);
+		assertEquals(appointmentService.findAllAppointments().stream().map(AppointmentResponseDTO::getAppointmentId)
+				.sorted().toList(), seen);
+
+		Long doctorId = doctors.get(0).getDoctorId();
+		CursorPageDTO<AppointmentResponseDTO> filtered = appointmentService.findAppointmentsPage(
+				AppointmentStatus.CONFIRMED, doctorId, patients.get(3).getPatientId(), LocalDate.now(), null, null, 5);
+		assertEquals(1, filtered.getItems().size());
+		assertNull(filtered.getNextCursor());
+
+		assertThrows(IllegalArgumentException.class,
+				() -> appointmentService.findAppointmentsPage(null, null, null, null, null, "not-a-cursor", 5));
+	}
+
+	private <T> T assertSingleStatement(Supplier<T> call) {
+		SqlStatementCounter.start();
+		T result = call.get();
+		List<String> sql = SqlStatementCounter.stop();
+		assertEquals(1, sql.size(), () -> "Expected one statement but got " + sql);
+		return result;
+	}
+}
@@ -0,0 +1,137 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.SqlStatementCounter;
+import com.genc.hms.entity.Appointment;
+import com.genc.hms.entity.Bill;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.entity.Patient;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.PaymentStatus;
+import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.repository.BillRepository;
+import com.genc.hms.util.SlotRange;
+
+/**
+ * Runs the stale-appointment sweeper against a real PostgreSQL with a fixed
+ * clock and checks which appointments and bills move, and that every batch is
+ * one ID query plus two bulk updates.
+ */
+public class AppointmentSweeperTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private AppointmentSweeper sweeper;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private BillRepository billRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	// "Now" is noon on day D; with a 60-minute grace, slots ending by 11:00 on D are stale
+	private final LocalDate day = LocalDate.now().plusDays(10);
+	private final LocalDateTime now = day.atTime(12, 0);
+
+	private Doctor doctor;
+	private Patient patient;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(sweeper, "batchSize", 2);
+		doctor = createDoctor("doctor@sweeper.test", "Dr. Sweeper");
+		patient = createPatient("patient@sweeper.test", "Sweeper Patient");
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.setField(sweeper, "staleStatus", AppointmentStatus.COMPLETED);
+	}
+
+	@Test
+	void noShowModeVoidsUnpaidBillsUntilTheStatusIsCorrected() {
+		ReflectionTestUtils.setField(sweeper, "staleStatus", AppointmentStatus.NO_SHOW);
+		Bill earlier = insert(day.minusDays(2), 9 * 60, AppointmentStatus.CONFIRMED, PaymentStatus.PENDING);
+		Bill paid = insert(day.minusDays(1), 9 * 60, AppointmentStatus.CONFIRMED, PaymentStatus.PAID);
+		Bill morning = insert(day, 9 * 60, AppointmentStatus.CONFIRMED, PaymentStatus.PENDING);
+		Bill endsAtCutoff = insert(day, 10 * 60 + 30, AppointmentStatus.CONFIRMED, PaymentStatus.PENDING);
+		Bill inGrace = insert(day, 11 * 60, AppointmentStatus.CONFIRMED, PaymentStatus.PENDING);
+		Bill tomorrow = insert(day.plusDays(1), 9 * 60, AppointmentStatus.CONFIRMED, PaymentStatus.PENDING);
+		Bill completed = insert(day.minusDays(1), 10 * 60, AppointmentStatus.COMPLETED, PaymentStatus.PENDING);
+		Bill cancelled = insert(day.minusDays(1), 11 * 60, AppointmentStatus.CANCELLED, PaymentStatus.CANCELLED);
+
+		SqlStatementCounter.start();
+		int swept = sweeper.sweep(now);
+		List<String> sql = SqlStatementCounter.stop();
+
+		assertEquals(4, swept);
+		// Two full batches and one empty read, no entity loads
+		assertEquals(3, SqlStatementCounter.count(sql, "select"));
+		assertEquals(2, SqlStatementCounter.count(sql, "update appointments"));
+		assertEquals(2, SqlStatementCounter.count(sql, "update bills"));
+
+		assertState(earlier, AppointmentStatus.NO_SHOW, PaymentStatus.CANCELLED);
+		assertState(paid, AppointmentStatus.NO_SHOW, PaymentStatus.PAID);
+		assertState(morning, AppointmentStatus.NO_SHOW, PaymentStatus.CANCELLED);
+		assertState(endsAtCutoff, AppointmentStatus.NO_SHOW, PaymentStatus.CANCELLED);
+		assertState(inGrace, AppointmentStatus.CONFIRMED, PaymentStatus.PENDING);
+		assertState(tomorrow, AppointmentStatus.CONFIRMED, PaymentStatus.PENDING);
+		assertState(completed, AppointmentStatus.COMPLETED, PaymentStatus.PENDING);
+		assertState(cancelled, AppointmentStatus.CANCELLED, PaymentStatus.CANCELLED);
+
+		assertEquals(0, sweeper.sweep(now));
+		assertThrows(IllegalStateException.class,
+				() -> appointmentService.cancelAppointment(earlier.getAppointment().getAppointmentId(), null));
+
+		// The patient did turn up: the voided bill is due again, the paid one is untouched
+		appointmentService.updateAppointmentStatus(morning.getAppointment().getAppointmentId(),
+				AppointmentStatus.COMPLETED, "Seen late", null);
+		appointmentService.updateAppointmentStatus(paid.getAppointment().getAppointmentId(),
+				AppointmentStatus.COMPLETED, "Seen late", null);
+		assertState(morning, AppointmentStatus.COMPLETED, PaymentStatus.PENDING);
+		assertState(paid, AppointmentStatus.COMPLETED, PaymentStatus.PAID);
+	}
+
+	@Test
+	void defaultModeCompletesStaleAppointmentsAndLeavesBillsDue() {
+		Bill stale = insert(day.minusDays(1), 9 * 60, AppointmentStatus.CONFIRMED, PaymentStatus.PENDING);
+
+		assertEquals(1, sweeper.sweep(now));
+		assertState(stale, AppointmentStatus.COMPLETED, PaymentStatus.PENDING);
+	}
+
+	private void assertState(Bill bill, AppointmentStatus appointmentStatus, PaymentStatus paymentStatus) {
+		Long appointmentId = bill.getAppointment().getAppointmentId();
+		assertEquals(appointmentStatus, appointmentRepository.findById(appointmentId).orElseThrow().getStatus());
+		assertEquals(paymentStatus, billRepository.findById(bill.getBillId()).orElseThrow().getPaymentStatus());
+	}
+
+	private Bill insert(LocalDate date, int startMinute, AppointmentStatus status, PaymentStatus paymentStatus) {
+		// Bypasses bookAppointment, which refuses past dates; the bill cascades to its appointment
+		return transactionTemplate.execute(tx -> {
+			Appointment appointment = appointmentRepository.save(new Appointment(patient, doctor, date,
+					SlotRange.ofDuration(startMinute, 30), "Checkup", status, null));
+			return billRepository.save(
+					new Bill(appointment, patient, BigDecimal.valueOf(500), paymentStatus, LocalDate.now()));
+		});
+	}
+}
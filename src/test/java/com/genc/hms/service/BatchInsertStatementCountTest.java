@@ -0,0 +1,122 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.SqlStatementCounter;
+import com.genc.hms.dto.AppointmentRequestDTO;
+import com.genc.hms.dto.AppointmentSeriesRequestDTO;
+import com.genc.hms.dto.AppointmentSeriesResponseDTO;
+import com.genc.hms.enums.WeekDay;
+import com.genc.hms.repository.BillRepository;
+
+/**
+ * Counts JDBC round trips for doctor registration and booking to verify that
+ * sequence-based ids let Hibernate batch inserts, and that a booking writes
+ * its appointment and bill without first looking for the bill. Per-booking
+ * round trips and latency are logged at INFO.
+ */
+public class BatchInsertStatementCountTest extends PostgresIntegrationTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(BatchInsertStatementCountTest.class);
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private BillRepository billRepository;
+
+	@Test
+	void registerDoctorInsertsAllAvailabilitiesInOneBatch() {
+		SqlStatementCounter.start();
+		userService.registerDoctor(doctorRegistration("batch@count.test", "Dr. Count"));
+		List<String> sql = SqlStatementCounter.stop();
+
+		// One round trip per table, however many availability rows there are
+		assertEquals(1, SqlStatementCounter.count(sql, "insert into users "));
+		assertEquals(1, SqlStatementCounter.count(sql, "insert into doctor "));
+		assertEquals(1, SqlStatementCounter.count(sql, "insert into doctor_availability "));
+		assertEquals(3, SqlStatementCounter.count(sql, "insert"));
+	}
+
+	@Test
+	void bookingsShareSequenceBlocksAndIssueOneInsertPerTable() {
+		Long doctorId = registerDoctor("booking@count.test", "Dr. Count");
+		Long patientId = registerPatient("patient@count.test", "Count Patient");
+
+		LocalDate date = LocalDate.now().plusDays(3);
+		int bookings = 16;
+		List<Long> appointmentIds = new ArrayList<>();
+		List<String> all = new ArrayList<>();
+		long elapsed = 0;
+		for (int i = 0; i < bookings; i++) {
+			AppointmentRequestDTO request = bookingRequest(patientId, doctorId, date, 9 * 60 + i * 30);
+
+			SqlStatementCounter.start();
+			long begin = System.nanoTime();
+			appointmentIds.add(appointmentService.bookAppointment(request).getAppointmentId());
+			elapsed += System.nanoTime() - begin;
+			List<String> sql = SqlStatementCounter.stop();
+
+			// The bill cannot exist yet, so nothing reads the bills table
+			assertEquals(0, sql.stream().filter(s -> s.startsWith("select") && s.contains(" from bills ")).count());
+			assertEquals(1, SqlStatementCounter.count(sql, "insert into appointments "));
+			assertEquals(1, SqlStatementCounter.count(sql, "insert into bills "));
+			all.addAll(sql);
+		}
+		assertEquals(bookings, billRepository.count());
+
+		// Ids come from pooled blocks of 50: at most one sequence call per table
+		assertTrue(SqlStatementCounter.count(all, "select nextval('appointments_seq')") <= 1);
+		assertTrue(SqlStatementCounter.count(all, "select nextval('bills_seq')") <= 1);
+
+		// What the removed bill pre-check would cost: the same lookup by appointment, once per booking
+		SqlStatementCounter.start();
+		long begin = System.nanoTime();
+		for (Long appointmentId : appointmentIds) {
+			assertTrue(billRepository.findByAppointment_AppointmentId(appointmentId).isPresent());
+		}
+		long lookups = System.nanoTime() - begin;
+		List<String> lookupSql = SqlStatementCounter.stop();
+
+		logger.info("Booking: {} round trips and {} us per booking; the removed bill pre-check was {} round trip(s) "
+				+ "and {} us per booking", String.format("%.1f", (double) all.size() / bookings),
+				String.format("%.0f", elapsed / 1e3 / bookings), lookupSql.size() / bookings,
+				String.format("%.0f", lookups / 1e3 / bookings));
+	}
+
+	@Test
+	void seriesChecksConflictsOnceAndInsertsInOneBatchPerTable() {
+		Long doctorId = registerDoctor("series@count.test", "Dr. Count");
+		Long patientId = registerPatient("series-patient@count.test", "Series Patient");
+
+		LocalDate startDate = LocalDate.now().plusDays(1);
+		book(patientId, doctorId, startDate.plusWeeks(2), 10 * 60);
+
+		AppointmentSeriesRequestDTO request = new AppointmentSeriesRequestDTO(patientId, doctorId,
+				WeekDay.valueOf(startDate.getDayOfWeek().name()), "10:00-10:30", startDate, 12, null, "Follow-up");
+
+		SqlStatementCounter.start();
+		AppointmentSeriesResponseDTO result = appointmentService.bookAppointmentSeries(request);
+		List<String> sql = SqlStatementCounter.stop();
+
+		assertEquals(11, result.getBooked().size());
+		assertEquals(1, result.getRejected().size());
+		assertEquals(startDate.plusWeeks(2), result.getRejected().get(0).getAppointmentDate());
+		assertEquals(1, SqlStatementCounter.count(sql, "select distinct"));
+		assertEquals(1, SqlStatementCounter.count(sql, "insert into appointments "));
+		assertEquals(1, SqlStatementCounter.count(sql, "insert into bills "));
+	}
+}
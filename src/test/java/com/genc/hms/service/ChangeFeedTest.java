@@ -0,0 +1,147 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.SqlStatementCounter;
+import com.genc.hms.dto.AppointmentResponseDTO;
+import com.genc.hms.dto.BillResponseDTO;
+import com.genc.hms.dto.ChangeFeedDTO;
+import com.genc.hms.entity.Appointment;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.entity.Patient;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.PaymentStatus;
+import com.genc.hms.repository.AppointmentRepository;
+
+/**
+ * Polls the appointment and bill change feeds and checks that each poll
+ * returns exactly the rows written since the previous token, including rows
+ * written by a transaction that was still running during an earlier poll.
+ */
+public class ChangeFeedTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private BillingService billingService;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final List<Long> appointmentIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		Doctor doctor = createDoctor("doctor@changes.test", "Dr. Feed");
+		Patient patient = createPatient("patient@changes.test", "Feed Patient");
+		LocalDate date = LocalDate.now().plusDays(4);
+		for (int i = 0; i < 4; i++) {
+			appointmentIds.add(book(patient.getPatientId(), doctor.getDoctorId(), date, 9 * 60 + i * 30));
+		}
+	}
+
+	@Test
+	void pollsReturnOnlyRowsChangedSinceTheToken() {
+		ChangeFeedDTO<AppointmentResponseDTO> initial = appointmentService.getChangesSince(null, null, 100);
+		assertEquals(appointmentIds, ids(initial));
+		assertFalse(initial.isHasMore());
+		ChangeFeedDTO<BillResponseDTO> initialBills = billingService.getChangesSince(null, null, 100);
+		assertEquals(4, initialBills.getItems().size());
+
+		// Nothing happened: an empty poll costs the horizon read plus one index seek
+		SqlStatementCounter.start();
+		ChangeFeedDTO<AppointmentResponseDTO> idle = appointmentService.getChangesSince(initial.getNextSince(), null,
+				100);
+		List<String> sql = SqlStatementCounter.stop();
+		assertTrue(idle.getItems().isEmpty());
+		assertEquals(2, sql.size(), () -> "Unexpected statements " + sql);
+
+		appointmentService.updateAppointmentStatus(appointmentIds.get(2), AppointmentStatus.COMPLETED, "Seen", null);
+		appointmentService.cancelAppointment(appointmentIds.get(0), null);
+
+		ChangeFeedDTO<AppointmentResponseDTO> changed = appointmentService.getChangesSince(idle.getNextSince(), null,
+				100);
+		assertEquals(List.of(appointmentIds.get(2), appointmentIds.get(0)), ids(changed));
+		assertEquals(AppointmentStatus.COMPLETED, changed.getItems().get(0).getStatus());
+		assertEquals(AppointmentStatus.CANCELLED, changed.getItems().get(1).getStatus());
+
+		// Only the cancelled appointment's bill moved
+		ChangeFeedDTO<BillResponseDTO> changedBills = billingService.getChangesSince(initialBills.getNextSince(), null,
+				100);
+		assertEquals(1, changedBills.getItems().size());
+		assertEquals(appointmentIds.get(0), changedBills.getItems().get(0).appointmentId());
+		assertEquals(PaymentStatus.CANCELLED, changedBills.getItems().get(0).paymentStatus());
+
+		assertTrue(appointmentService.getChangesSince(changed.getNextSince(), null, 100).getItems().isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> appointmentService.getChangesSince("bogus", null, 100));
+	}
+
+	@Test
+	void smallPagesWalkTheBacklogWithoutGapsOrRepeats() {
+		List<Long> seen = new ArrayList<>();
+		String since = null;
+		ChangeFeedDTO<AppointmentResponseDTO> feed;
+		do {
+			feed = appointmentService.getChangesSince(since, null, 3);
+			feed.getItems().forEach(item -> seen.add(item.getAppointmentId()));
+			since = feed.getNextSince();
+		} while (feed.isHasMore());
+
+		assertEquals(appointmentIds, seen);
+		assertTrue(appointmentService.getChangesSince(since, null, 3).getItems().isEmpty());
+	}
+
+	@Test
+	void changesOfATransactionStillRunningAtPollTimeAreNotSkipped() throws Exception {
+		String since = appointmentService.getChangesSince(null, null, 100).getNextSince();
+
+		// A slow transaction writes first and commits last
+		CountDownLatch written = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(tx -> {
+			Appointment appointment = appointmentRepository.findById(appointmentIds.get(1)).orElseThrow();
+			appointment.setRemarks("Slow writer");
+			appointmentRepository.saveAndFlush(appointment);
+			written.countDown();
+			try {
+				commit.await(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		assertTrue(written.await(30, TimeUnit.SECONDS));
+
+		// A later transaction commits while the slow one is still open
+		appointmentService.updateAppointmentStatus(appointmentIds.get(3), AppointmentStatus.COMPLETED, "Fast writer",
+				null);
+		ChangeFeedDTO<AppointmentResponseDTO> during = appointmentService.getChangesSince(since, null, 100);
+		assertTrue(during.getItems().isEmpty(), "Rows above the horizon must wait for the slow transaction");
+
+		commit.countDown();
+		slow.get(30, TimeUnit.SECONDS);
+		ChangeFeedDTO<AppointmentResponseDTO> after = appointmentService.getChangesSince(during.getNextSince(), null,
+				100);
+		assertEquals(List.of(appointmentIds.get(1), appointmentIds.get(3)), ids(after));
+	}
+
+	private static List<Long> ids(ChangeFeedDTO<AppointmentResponseDTO> feed) {
+		return feed.getItems().stream().map(AppointmentResponseDTO::getAppointmentId).toList();
+	}
+}
@@ -0,0 +1,86 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.SqlStatementCounter;
+import com.genc.hms.dto.AppointmentRequestDTO;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.entity.Patient;
+import com.genc.hms.enums.ExportFormat;
+import com.genc.hms.util.TimeSlots;
+
+/**
+ * Exports appointments and bills in both formats and checks the rows, the CSV
+ * escaping and that each export is a single streamed query.
+ */
+public class ExportServiceTest extends PostgresIntegrationTest {
+
+	private static final int APPOINTMENTS = 3;
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void setUp() {
+		Doctor doctor = createDoctor("doctor@export.test", "Dr. Export");
+		Patient patient = createPatient("patient@export.test", "Export Patient");
+
+		for (int i = 0; i < APPOINTMENTS; i++) {
+			int start = 9 * 60 + i * 30;
+			appointmentService.bookAppointment(new AppointmentRequestDTO(patient.getPatientId(), doctor.getDoctorId(),
+					LocalDate.now().plusDays(2), TimeSlots.label(start, start + 30), "Pain, \"sharp\" " + i));
+		}
+	}
+
+	@Test
+	void appointmentsExportAsNdjsonAndCsvWithOneQueryEach() throws Exception {
+		ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+		SqlStatementCounter.start();
+		long rows = exportService.exportAppointments(ExportFormat.NDJSON, ndjson);
+		List<String> sql = SqlStatementCounter.stop();
+
+		assertEquals(APPOINTMENTS, rows);
+		assertEquals(1, sql.size(), () -> "Expected one statement but got " + sql);
+		String[] lines = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(APPOINTMENTS, lines.length);
+		JsonNode first = objectMapper.readTree(lines[0]);
+		assertEquals("09:00-09:30", first.get("timeSlot").asText());
+		assertEquals("Pain, \"sharp\" 0", first.get("reason").asText());
+
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		exportService.exportAppointments(ExportFormat.CSV, csv);
+		String[] records = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+		assertEquals(APPOINTMENTS + 1, records.length);
+		assertTrue(records[0].startsWith("appointmentId,patientId,patientName,"));
+		assertTrue(records[1].contains(",\"Pain, \"\"sharp\"\" 0\",CONFIRMED,"), records[1]);
+	}
+
+	@Test
+	void billsExportOneRowPerBill() throws Exception {
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		long rows = exportService.exportBills(ExportFormat.CSV, csv);
+
+		assertEquals(APPOINTMENTS, rows);
+		String[] records = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+		assertEquals("billId,patientId,patientName,appointmentId,billAmount,paymentStatus,billDate", records[0]);
+		assertTrue(records[1].endsWith(",500.00,PENDING," + LocalDate.now()), records[1]);
+	}
+}
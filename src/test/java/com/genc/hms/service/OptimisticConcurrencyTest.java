@@ -0,0 +1,165 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.dto.AppointmentResponseDTO;
+import com.genc.hms.dto.BillResponseDTO;
+import com.genc.hms.entity.Appointment;
+import com.genc.hms.entity.Bill;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.PaymentStatus;
+import com.genc.hms.exception.GlobalExceptionHandler.PreconditionFailedException;
+import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.repository.BillRepository;
+import com.genc.hms.util.ETags;
+
+/**
+ * Checks that versioned entities reject lost updates: stale If-Match versions
+ * fail with 412, racing writers fail the version check, bulk updates bump the
+ * version, and payments are retried when they lose a race.
+ */
+public class OptimisticConcurrencyTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private BillingService billingService;
+
+	@Autowired
+	private OptimisticRetry optimisticRetry;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private BillRepository billRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final LocalDate date = LocalDate.now().plusDays(4);
+	private Long doctorId;
+	private Long patientId;
+
+	@BeforeEach
+	void setUp() {
+		doctorId = registerDoctor("doctor@version.test", "Dr. Version");
+		patientId = registerPatient("patient@version.test", "Version Patient");
+	}
+
+	@Test
+	void staleIfMatchVersionIsRejectedAndCurrentOneApplies() {
+		AppointmentResponseDTO booked = appointmentService
+				.bookAppointment(bookingRequest(patientId, doctorId, date, 9 * 60));
+		Long readVersion = booked.getVersion();
+		assertNotNull(readVersion);
+
+		AppointmentResponseDTO completed = appointmentService.updateAppointmentStatus(booked.getAppointmentId(),
+				AppointmentStatus.COMPLETED, "Seen", readVersion);
+		assertEquals(readVersion + 1, completed.getVersion());
+
+		// A second client still holding the first read must not overwrite the change
+		assertThrows(PreconditionFailedException.class,
+				() -> appointmentService.cancelAppointment(booked.getAppointmentId(), readVersion));
+		assertEquals(AppointmentStatus.COMPLETED,
+				appointmentRepository.findById(booked.getAppointmentId()).orElseThrow().getStatus());
+	}
+
+	@Test
+	void concurrentWriterOfTheSameRowFailsTheVersionCheck() {
+		Long appointmentId = book(patientId, doctorId, date, 9 * 60);
+
+		// Both writers read version N; the first commit makes the second one stale
+		Appointment first = transactionTemplate.execute(tx -> appointmentRepository.findById(appointmentId).get());
+		Appointment second = transactionTemplate.execute(tx -> appointmentRepository.findById(appointmentId).get());
+
+		first.setRemarks("First writer");
+		transactionTemplate.executeWithoutResult(tx -> appointmentRepository.saveAndFlush(first));
+		second.setRemarks("Second writer");
+		assertThrows(OptimisticLockingFailureException.class,
+				() -> transactionTemplate.executeWithoutResult(tx -> appointmentRepository.saveAndFlush(second)));
+
+		assertEquals("First writer", appointmentRepository.findById(appointmentId).orElseThrow().getRemarks());
+	}
+
+	@Test
+	void bulkUpdatesBumpTheVersion() {
+		AppointmentResponseDTO booked = appointmentService
+				.bookAppointment(bookingRequest(patientId, doctorId, date, 10 * 60));
+		Long billId = billRepository.findByAppointment_AppointmentId(booked.getAppointmentId()).orElseThrow()
+				.getBillId();
+		Long billVersion = billRepository.findById(billId).orElseThrow().getVersion();
+
+		transactionTemplate.executeWithoutResult(tx -> {
+			appointmentRepository.updateStatus(List.of(booked.getAppointmentId()), AppointmentStatus.CONFIRMED,
+					AppointmentStatus.NO_SHOW);
+			billRepository.cancelForAppointments(List.of(booked.getAppointmentId()), PaymentStatus.PAID,
+					PaymentStatus.PENDING, PaymentStatus.REFUNDED, PaymentStatus.CANCELLED);
+		});
+
+		assertEquals(booked.getVersion() + 1,
+				appointmentRepository.findById(booked.getAppointmentId()).orElseThrow().getVersion());
+		assertEquals(billVersion + 1, billRepository.findById(billId).orElseThrow().getVersion());
+
+		// A client that read before the bulk change is now stale
+		assertThrows(PreconditionFailedException.class, () -> appointmentService
+				.updateAppointmentStatus(booked.getAppointmentId(), AppointmentStatus.COMPLETED, null,
+						booked.getVersion()));
+	}
+
+	@Test
+	void paymentIsRetriedAfterLosingARaceUnlessAVersionWasPinned() {
+		Long appointmentId = book(patientId, doctorId, date, 11 * 60);
+		Long billId = billRepository.findByAppointment_AppointmentId(appointmentId).orElseThrow().getBillId();
+		AtomicInteger attempts = new AtomicInteger();
+
+		// The first attempt is overtaken by another node's write between its read and its flush
+		Bill paid = optimisticRetry.execute(() -> {
+			Bill bill = billRepository.findById(billId).orElseThrow();
+			if (attempts.incrementAndGet() == 1) {
+				CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(tx -> {
+					Bill other = billRepository.findById(billId).orElseThrow();
+					other.setBillAmount(other.getBillAmount().add(BigDecimal.ONE));
+				})).join();
+			}
+			bill.setPaymentStatus(PaymentStatus.PAID);
+			return billRepository.saveAndFlush(bill);
+		});
+		assertEquals(2, attempts.get());
+		assertEquals(PaymentStatus.PAID, paid.getPaymentStatus());
+
+		// The concurrent change survived, and a pinned stale version is not retried
+		Bill stored = billRepository.findById(billId).orElseThrow();
+		assertEquals(0, new BigDecimal("501").compareTo(stored.getBillAmount()));
+		assertThrows(PreconditionFailedException.class,
+				() -> billingService.recordPayment(billId, stored.getVersion() - 1));
+		BillResponseDTO again = billingService.recordPayment(billId, stored.getVersion());
+		assertEquals(stored.getVersion(), again.version()); // Already paid: nothing to write
+	}
+
+	@Test
+	void ifMatchHeadersAreParsedStrictly() {
+		assertNull(ETags.parseIfMatch(null));
+		assertNull(ETags.parseIfMatch(" "));
+		assertNull(ETags.parseIfMatch("*"));
+		assertEquals(7L, ETags.parseIfMatch("\"7\""));
+		assertEquals("\"7\"", ETags.of(7L));
+		assertThrows(PreconditionFailedException.class, () -> ETags.parseIfMatch("W/\"7\""));
+		assertThrows(PreconditionFailedException.class, () -> ETags.parseIfMatch("7"));
+		assertThrows(PreconditionFailedException.class, () -> ETags.parseIfMatch("\"abc\""));
+	}
+}
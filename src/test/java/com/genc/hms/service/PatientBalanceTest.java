@@ -0,0 +1,171 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.dto.CursorPageDTO;
+import com.genc.hms.dto.DoctorRegisterRequestDTO;
+import com.genc.hms.dto.PatientBalanceDTO;
+import com.genc.hms.dto.StatementLineDTO;
+import com.genc.hms.entity.Bill;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.PaymentStatus;
+import com.genc.hms.exception.GlobalExceptionHandler.ResourceNotFoundException;
+import com.genc.hms.repository.BillRepository;
+
+/**
+ * Checks that a patient's running-total balance row moves with every bill
+ * change in the same transaction, and that statement pages carry the running
+ * balance across page boundaries.
+ */
+public class PatientBalanceTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private BillingService billingService;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private BillRepository billRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final LocalDate visitDate = LocalDate.now().plusDays(3);
+	private Long doctorId;
+	private Long expensiveDoctorId;
+	private Long patientId;
+	private Long otherPatientId;
+
+	@BeforeEach
+	void setUp() {
+		doctorId = registerDoctorCharging("doctor@balance.test", "500");
+		expensiveDoctorId = registerDoctorCharging("senior@balance.test", "812.50");
+		patientId = registerPatient("patient@balance.test", "Balance Patient");
+		otherPatientId = registerPatient("other@balance.test", "Balance Patient");
+	}
+
+	@Test
+	void balanceFollowsEveryBillChange() {
+		assertBalance(0, "0.00");
+		Long first = book(patientId, doctorId, visitDate, 9 * 60);
+		Long second = book(patientId, doctorId, visitDate, 10 * 60);
+		Long third = book(patientId, doctorId, visitDate, 11 * 60);
+		book(otherPatientId, doctorId, visitDate, 12 * 60);
+		assertBalance(3, "1500.00");
+
+		billingService.recordPayment(billId(first), null);
+		assertBalance(2, "1000.00");
+
+		appointmentService.rescheduleAppointment(second, bookingRequest(patientId, expensiveDoctorId, visitDate, 9 * 60),
+				null);
+		assertBalance(2, "1312.50");
+
+		// Cancelling voids or refunds the bill, on the entity path and on the bulk path alike
+		appointmentService.updateAppointmentStatus(third, AppointmentStatus.CANCELLED, "Called off", null);
+		transactionTemplate.executeWithoutResult(tx -> billingService.cancelBillsForAppointments(List.of(first)));
+		assertBalance(1, "812.50");
+
+		// The row moves inside the writing transaction, and a rollback takes it back
+		transactionTemplate.executeWithoutResult(tx -> {
+			Bill bill = billRepository.findById(billId(second)).orElseThrow();
+			bill.setPaymentStatus(PaymentStatus.PAID);
+			billRepository.saveAndFlush(bill);
+			assertEquals(0, billingService.getPatientBalance(patientId).pendingBills());
+			tx.setRollbackOnly();
+		});
+		assertBalance(1, "812.50");
+
+		assertEquals(0, new BigDecimal("500.00").compareTo(billingService.getPatientBalance(otherPatientId)
+				.outstanding()));
+		assertThrows(ResourceNotFoundException.class, () -> billingService.getPatientBalance(-1L));
+	}
+
+	@Test
+	void statementPagesCarryTheRunningBalance() {
+		List<Long> appointments = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			appointments.add(book(patientId, doctorId, visitDate, (9 + i) * 60));
+		}
+		book(otherPatientId, doctorId, visitDate, 15 * 60);
+		// Two bills on the same day are ordered by ID; the paid one adds nothing
+		backdate(appointments.get(0), 10);
+		backdate(appointments.get(1), 4);
+		backdate(appointments.get(2), 4);
+		billingService.recordPayment(billId(appointments.get(1)), null);
+
+		List<StatementLineDTO> lines = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			CursorPageDTO<StatementLineDTO> page = billingService.getPatientStatement(patientId, cursor, 2);
+			lines.addAll(page.getItems());
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(3, pages);
+		assertEquals(5, lines.size());
+		BigDecimal running = BigDecimal.ZERO;
+		for (int i = 0; i < lines.size(); i++) {
+			StatementLineDTO line = lines.get(i);
+			if (i > 0) {
+				StatementLineDTO previous = lines.get(i - 1);
+				assertTrue(previous.billDate().isBefore(line.billDate()) || (previous.billDate()
+						.equals(line.billDate()) && previous.billId() < line.billId()));
+			}
+			BigDecimal due = line.paymentStatus() == PaymentStatus.PENDING ? line.billAmount() : BigDecimal.ZERO;
+			assertEquals(0, due.compareTo(line.amountDue()));
+			running = running.add(due);
+			assertEquals(0, running.compareTo(line.runningBalance()));
+		}
+
+		// The last line agrees with the running-total row
+		assertEquals(0, billingService.getPatientBalance(patientId).outstanding()
+				.compareTo(lines.get(lines.size() - 1).runningBalance()));
+		assertEquals(0, new BigDecimal("2000").compareTo(running));
+		assertThrows(IllegalArgumentException.class, () -> billingService.getPatientStatement(patientId, null, 0));
+	}
+
+	private void assertBalance(long pendingBills, String outstanding) {
+		PatientBalanceDTO balance = billingService.getPatientBalance(patientId);
+		assertEquals(pendingBills, balance.pendingBills());
+		assertEquals(0, new BigDecimal(outstanding).compareTo(balance.outstanding()));
+
+		// Same as summing the bills
+		BigDecimal summed = billRepository.findByPatientPatientIdOrderByBillDateDesc(patientId).stream()
+				.filter(bill -> bill.getPaymentStatus() == PaymentStatus.PENDING).map(Bill::getBillAmount)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+		assertEquals(0, summed.compareTo(balance.outstanding()));
+	}
+
+	private void backdate(Long appointmentId, int days) {
+		jdbcTemplate.update("UPDATE bills SET bill_date = ? WHERE appointment_id = ?",
+				LocalDate.now().minusDays(days), appointmentId);
+	}
+
+	private Long billId(Long appointmentId) {
+		return billRepository.findByAppointment_AppointmentId(appointmentId).orElseThrow().getBillId();
+	}
+
+	private Long registerDoctorCharging(String email, String fee) {
+		DoctorRegisterRequestDTO request = doctorRegistration(email, "Dr. Balance");
+		request.setConsultationFee(new BigDecimal(fee));
+		return registerDoctor(request);
+	}
+}
@@ -0,0 +1,145 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.dto.ReminderDTO;
+import com.genc.hms.dto.ReminderRunDTO;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.entity.Patient;
+import com.genc.hms.enums.ReminderStatus;
+import com.genc.hms.repository.AppointmentReminderRepository;
+
+/**
+ * Runs the reminder job against a real PostgreSQL with a recording Notifier:
+ * every CONFIRMED appointment of the day is reminded exactly once, failures are
+ * retried, claims taken by another run are respected and sends stay within the
+ * concurrency bound.
+ */
+public class ReminderServiceTest extends PostgresIntegrationTest {
+
+	private static final int MAX_CONCURRENCY = 2;
+
+	@Autowired
+	private ReminderService reminderService;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private AppointmentReminderRepository reminderRepository;
+
+	@Autowired
+	private Notifier defaultNotifier;
+
+	private final LocalDate tomorrow = LocalDate.now().plusDays(1);
+	private final RecordingNotifier notifier = new RecordingNotifier();
+	private final List<Long> confirmed = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(reminderService, "notifier", notifier);
+		ReflectionTestUtils.setField(reminderService, "chunkSize", 2);
+		ReflectionTestUtils.setField(reminderService, "maxConcurrency", MAX_CONCURRENCY);
+
+		Doctor doctor = createDoctor("doctor@reminders.test", "Dr. Reminder");
+		Patient patient = createPatient("patient@reminders.test", "Reminder Patient");
+		for (int i = 0; i < 6; i++) {
+			Long id = book(patient.getPatientId(), doctor.getDoctorId(), tomorrow, 9 * 60 + i * 30);
+			if (i == 5) {
+				appointmentService.cancelAppointment(id, null);
+			} else {
+				confirmed.add(id);
+			}
+		}
+		book(patient.getPatientId(), doctor.getDoctorId(), tomorrow.plusDays(1), 9 * 60);
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.setField(reminderService, "notifier", defaultNotifier);
+	}
+
+	@Test
+	void remindsEveryConfirmedAppointmentOnceInBoundedChunks() {
+		ReminderRunDTO first = reminderService.sendReminders(tomorrow);
+
+		assertEquals(confirmed.size(), first.getSent());
+		assertEquals(0, first.getFailed());
+		assertEquals(3, first.getChunks());
+		assertEquals(Set.copyOf(confirmed), notifier.sent.keySet());
+		assertTrue(notifier.peakInFlight.get() <= MAX_CONCURRENCY, "Too many concurrent sends");
+		assertEquals(confirmed.size(), reminderRepository.countByStatus(ReminderStatus.SENT));
+
+		// Nothing left to do: the second run does not even scan the sent rows
+		ReminderRunDTO second = reminderService.sendReminders(tomorrow);
+		assertEquals(0, second.getScanned());
+		assertEquals(0, second.getSent());
+		assertTrue(notifier.sent.values().stream().allMatch(count -> count.get() == 1));
+		assertSame(second, reminderService.getLastRun().orElseThrow());
+	}
+
+	@Test
+	void failedRemindersAreRetriedOnTheNextRun() {
+		notifier.failing.add(confirmed.get(1));
+		ReminderRunDTO first = reminderService.sendReminders(tomorrow);
+		assertEquals(confirmed.size() - 1, first.getSent());
+		assertEquals(1, first.getFailed());
+
+		notifier.failing.clear();
+		ReminderRunDTO retry = reminderService.sendReminders(tomorrow);
+		assertEquals(1, retry.getScanned());
+		assertEquals(1, retry.getSent());
+		assertEquals(2, reminderRepository.findById(confirmed.get(1)).orElseThrow().getAttempts());
+	}
+
+	@Test
+	void claimsOfAnotherRunAreSkippedUntilTheyGoStale() {
+		LocalDateTime now = LocalDateTime.now();
+		// Another node is sending one reminder right now and died while sending another an hour ago
+		reminderRepository.claim(List.of(confirmed.get(0)), now, now.minusMinutes(30));
+		reminderRepository.claim(List.of(confirmed.get(2)), now.minusHours(1), now.minusHours(2));
+
+		ReminderRunDTO run = reminderService.sendReminders(tomorrow);
+		assertEquals(1, run.getSkipped());
+		assertEquals(confirmed.size() - 1, run.getSent());
+		assertFalse(notifier.sent.containsKey(confirmed.get(0)));
+		assertTrue(notifier.sent.containsKey(confirmed.get(2)));
+	}
+
+	/** Counts sends per appointment and the peak number of concurrent sends. */
+	private static final class RecordingNotifier implements Notifier {
+		final ConcurrentHashMap<Long, AtomicInteger> sent = new ConcurrentHashMap<>();
+		final Set<Long> failing = ConcurrentHashMap.newKeySet();
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger peakInFlight = new AtomicInteger();
+
+		@Override
+		public void sendReminder(ReminderDTO reminder) throws Exception {
+			peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(20); // A slow gateway, so sends overlap
+				if (failing.contains(reminder.appointmentId())) {
+					throw new IllegalStateException("Gateway rejected the message");
+				}
+				sent.computeIfAbsent(reminder.appointmentId(), id -> new AtomicInteger()).incrementAndGet();
+			} finally {
+				inFlight.decrementAndGet();
+			}
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.dto.DoctorRegisterRequestDTO;
+import com.genc.hms.dto.RevenueDTO;
+import com.genc.hms.entity.Bill;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.PaymentStatus;
+import com.genc.hms.enums.RevenueGrouping;
+import com.genc.hms.enums.RevenuePeriod;
+import com.genc.hms.repository.BillRepository;
+
+/**
+ * Checks that revenue served from the summary table plus the live aggregate
+ * always matches a plain GROUP BY over the bills, through payments, doctor
+ * changes, cancellations and roll-ups.
+ */
+public class RevenueAnalyticsTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private RevenueService revenueService;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private BillingService billingService;
+
+	@Autowired
+	private BillRepository billRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final LocalDate today = LocalDate.now();
+	private final LocalDate visitDate = today.plusDays(5);
+	private Long cardiologistId;
+	private Long neurologistId;
+	private Long patientId;
+
+	@BeforeEach
+	void setUp() {
+		cardiologistId = registerDoctor("heart@revenue.test", "Cardiology", "500");
+		neurologistId = registerDoctor("brain@revenue.test", "Neurology", "812.50");
+		patientId = registerPatient("patient@revenue.test", "Revenue Patient");
+	}
+
+	@Test
+	void closedDaysFollowEveryBillChange() {
+		Long first = book(patientId, cardiologistId, visitDate, 9 * 60);
+		Long second = book(patientId, cardiologistId, visitDate, 10 * 60);
+		Long third = book(patientId, neurologistId, visitDate, 9 * 60);
+		book(patientId, neurologistId, visitDate, 11 * 60);
+
+		// Bills backdated into closed days enter the summary; today's stay live
+		backdate(first, 3);
+		backdate(second, 3);
+		backdate(third, 40);
+		assertEquals(3L, jdbcTemplate.queryForObject("SELECT SUM(bill_count) FROM bill_revenue_daily", Long.class));
+		assertMatchesBills();
+
+		// Payment, a move to another doctor (new fee) and a cancellation all reach the summary
+		billingService.recordPayment(billId(first), null);
+		appointmentService.rescheduleAppointment(second, bookingRequest(patientId, neurologistId, visitDate, 14 * 60),
+				null);
+		appointmentService.updateAppointmentStatus(third, AppointmentStatus.CANCELLED, "Called off", null);
+		assertMatchesBills();
+
+		List<RevenueDTO> neurology = revenueService.getRevenue(today.minusDays(3), today.minusDays(3),
+				RevenuePeriod.DAY, RevenueGrouping.SPECIALIZATION);
+		assertEquals(2, neurology.size());
+		RevenueDTO moved = neurology.get(1);
+		assertEquals("Neurology", moved.specialization());
+		assertEquals(PaymentStatus.PENDING, moved.paymentStatus());
+		assertEquals(1, moved.billCount());
+		assertEquals(81250, moved.amountMinor());
+		assertEquals(0, new BigDecimal("812.50").compareTo(moved.amount()));
+
+		// Removing bills takes them out of the summary too
+		billRepository.deleteAllInBatch();
+		assertEquals(0L, jdbcTemplate.queryForObject("SELECT COALESCE(SUM(bill_count), 0) FROM bill_revenue_daily",
+				Long.class));
+		assertTrue(revenueService.getRevenue(today.minusDays(60), today, RevenuePeriod.MONTH, RevenueGrouping.TOTAL)
+				.isEmpty());
+	}
+
+	@Test
+	void rollUpClosesOpenDaysOnce() {
+		// Reopen the last ten days, as if the nightly runs had not happened
+		LocalDate closedThrough = billRepository.findRevenueClosedThrough();
+		LocalDate reopenedAfter = today.minusDays(10);
+		jdbcTemplate.update("DELETE FROM bill_revenue_daily WHERE bill_date > ?", reopenedAfter);
+		jdbcTemplate.update("UPDATE bill_revenue_rollup SET closed_through = ? WHERE id = 1", reopenedAfter);
+
+		Long first = book(patientId, cardiologistId, visitDate, 9 * 60);
+		Long second = book(patientId, neurologistId, visitDate, 9 * 60);
+		book(patientId, neurologistId, visitDate, 10 * 60);
+		backdate(first, 2);
+		backdate(second, 5);
+		assertEquals(0L, jdbcTemplate.queryForObject("SELECT COALESCE(SUM(bill_count), 0) FROM bill_revenue_daily",
+				Long.class));
+		assertMatchesBills(); // All live
+
+		assertEquals(2, revenueService.rollUpThrough(today.minusDays(1)));
+		assertEquals(0, revenueService.rollUpThrough(today.minusDays(1)));
+		assertEquals(today.minusDays(1), billRepository.findRevenueClosedThrough());
+		assertEquals(2L, jdbcTemplate.queryForObject("SELECT SUM(bill_count) FROM bill_revenue_daily", Long.class));
+		assertMatchesBills();
+
+		// Weeks and months add up to the same totals
+		List<RevenueDTO> total = revenueService.getRevenue(today.minusDays(10), today, RevenuePeriod.MONTH,
+				RevenueGrouping.TOTAL);
+		assertEquals(3, total.stream().mapToLong(RevenueDTO::billCount).sum());
+		assertEquals(50000 + 2 * 81250, total.stream().mapToLong(RevenueDTO::amountMinor).sum());
+		List<RevenueDTO> weekly = revenueService.getRevenue(today.minusDays(10), today, RevenuePeriod.WEEK,
+				RevenueGrouping.DOCTOR);
+		assertTrue(weekly.stream().allMatch(row -> row.periodStart().getDayOfWeek() == DayOfWeek.MONDAY));
+		assertEquals(3, weekly.stream().mapToLong(RevenueDTO::billCount).sum());
+
+		assertEquals(closedThrough, billRepository.findRevenueClosedThrough());
+	}
+
+	@Test
+	void rollUpWaitsOnlyForWritesOfTheDayItCloses() throws Exception {
+		jdbcTemplate.update("DELETE FROM bill_revenue_daily WHERE bill_date > ?", today.minusDays(10));
+		jdbcTemplate.update("UPDATE bill_revenue_rollup SET closed_through = ? WHERE id = 1", today.minusDays(10));
+		Long first = book(patientId, cardiologistId, visitDate, 9 * 60);
+		Long second = book(patientId, neurologistId, visitDate, 9 * 60);
+		backdate(first, 2);
+		backdate(second, 5);
+
+		// A payment of the two-day-old bill is in flight while the roll-up runs
+		CountDownLatch paid = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		CompletableFuture<Void> payment = CompletableFuture.runAsync(() -> transactionTemplate
+				.executeWithoutResult(tx -> {
+					Bill bill = billRepository.findById(billId(first)).orElseThrow();
+					bill.setPaymentStatus(PaymentStatus.PAID);
+					billRepository.saveAndFlush(bill);
+					paid.countDown();
+					try {
+						commit.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}));
+		assertTrue(paid.await(10, TimeUnit.SECONDS));
+		CompletableFuture<Integer> rollUp = CompletableFuture
+				.supplyAsync(() -> revenueService.rollUpThrough(today.minusDays(1)));
+
+		// Earlier days close, and bookings for today go through, while that day waits for the payment
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!today.minusDays(3).equals(billRepository.findRevenueClosedThrough())
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertEquals(today.minusDays(3), billRepository.findRevenueClosedThrough());
+		book(patientId, neurologistId, visitDate, 10 * 60);
+		assertFalse(rollUp.isDone());
+
+		commit.countDown();
+		payment.get(10, TimeUnit.SECONDS);
+		assertEquals(2, rollUp.get(10, TimeUnit.SECONDS));
+		assertEquals(today.minusDays(1), billRepository.findRevenueClosedThrough());
+		assertMatchesBills();
+	}
+
+	/** Compares the per-day, per-doctor report with a GROUP BY over the bills. */
+	private void assertMatchesBills() {
+		LocalDate from = today.minusDays(60);
+		Map<String, Long> expected = new HashMap<>();
+		jdbcTemplate.query("SELECT b.bill_date, a.doctor_id, b.payment_status, COUNT(*) AS n, "
+				+ "SUM(b.bill_amount * 100)::bigint AS minor FROM bills b "
+				+ "JOIN appointments a ON a.appointment_id = b.appointment_id WHERE b.bill_date >= ? "
+				+ "GROUP BY 1, 2, 3", rs -> {
+					String key = rs.getObject(1, LocalDate.class) + "/" + rs.getLong(2) + "/" + rs.getString(3);
+					expected.put(key + "/count", rs.getLong("n"));
+					expected.put(key + "/minor", rs.getLong("minor"));
+				}, from);
+
+		Map<String, Long> actual = new HashMap<>();
+		for (RevenueDTO row : revenueService.getRevenue(from, today, RevenuePeriod.DAY, RevenueGrouping.DOCTOR)) {
+			String key = row.periodStart() + "/" + row.doctorId() + "/" + row.paymentStatus();
+			actual.put(key + "/count", row.billCount());
+			actual.put(key + "/minor", row.amountMinor());
+		}
+		assertEquals(expected, actual);
+	}
+
+	private void backdate(Long appointmentId, int days) {
+		jdbcTemplate.update("UPDATE bills SET bill_date = ? WHERE appointment_id = ?", today.minusDays(days),
+				appointmentId);
+	}
+
+	private Long billId(Long appointmentId) {
+		return billRepository.findByAppointment_AppointmentId(appointmentId).orElseThrow().getBillId();
+	}
+
+	private Long registerDoctor(String email, String specialization, String fee) {
+		DoctorRegisterRequestDTO request = doctorRegistration(email, "Dr. " + specialization);
+		request.setSpecialization(specialization);
+		request.setConsultationFee(new BigDecimal(fee));
+		return registerDoctor(request);
+	}
+}
@@ -0,0 +1,109 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.SqlStatementCounter;
+import com.genc.hms.dto.ScheduleExceptionRequestDTO;
+import com.genc.hms.dto.ScheduleExceptionResponseDTO;
+import com.genc.hms.repository.ScheduleExceptionRepository;
+
+/**
+ * Checks that leave and holiday blocks close the affected slots for booking and
+ * slot listings, answered from the in-memory index without extra queries.
+ */
+public class ScheduleExceptionTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private ScheduleExceptionService scheduleExceptionService;
+
+	@Autowired
+	private ScheduleExceptionIndex scheduleExceptionIndex;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private ScheduleExceptionRepository scheduleExceptionRepository;
+
+	private final LocalDate day = LocalDate.now().plusDays(5);
+	private Long doctorId;
+	private Long otherDoctorId;
+	private Long patientId;
+
+	@BeforeEach
+	void setUp() {
+		doctorId = registerDoctor("leave@exceptions.test", "Dr. Exception");
+		otherDoctorId = registerDoctor("present@exceptions.test", "Dr. Exception");
+		patientId = registerPatient("patient@exceptions.test", "Exception Patient");
+	}
+
+	@AfterEach
+	void tearDown() {
+		scheduleExceptionRepository.deleteAllInBatch();
+		scheduleExceptionIndex.rebuild();
+	}
+
+	@Test
+	void blocksCloseSlotsWithoutQueryingThem() {
+		// Afternoon off on day, hospital holiday the day after, a week of leave from day + 3
+		ScheduleExceptionResponseDTO afternoon = scheduleExceptionService.createException(
+				new ScheduleExceptionRequestDTO(doctorId, day, null, LocalTime.of(13, 0), LocalTime.of(14, 0),
+						"Conference call"));
+		scheduleExceptionService.createException(
+				new ScheduleExceptionRequestDTO(null, day.plusDays(1), null, null, null, "Public holiday"));
+		scheduleExceptionService.createException(new ScheduleExceptionRequestDTO(doctorId, day.plusDays(3),
+				day.plusDays(9), null, null, "Annual leave"));
+
+		SqlStatementCounter.start();
+		List<String> slots = appointmentService.getAvailableSlots(doctorId, day);
+		List<String> sql = SqlStatementCounter.stop();
+		assertEquals(0, sql.stream().filter(s -> s.contains("schedule_exceptions")).count());
+		assertEquals(14, slots.size());
+		assertFalse(slots.contains("13:00-13:30"));
+		assertFalse(slots.contains("13:30-14:00"));
+		assertTrue(slots.contains("14:00-14:30"));
+
+		Map<LocalDate, List<String>> calendar = appointmentService.getAvailableSlots(doctorId, day,
+				day.plusDays(4));
+		assertTrue(calendar.get(day.plusDays(1)).isEmpty());
+		assertEquals(16, calendar.get(day.plusDays(2)).size());
+		assertTrue(calendar.get(day.plusDays(3)).isEmpty());
+		assertTrue(calendar.get(day.plusDays(4)).isEmpty());
+
+		// The holiday applies to everyone, the leave only to its doctor
+		assertTrue(appointmentService.getAvailableSlots(otherDoctorId, day.plusDays(1)).isEmpty());
+		assertEquals(16, appointmentService.getAvailableSlots(otherDoctorId, day.plusDays(3)).size());
+
+		assertThrows(IllegalArgumentException.class, () -> book(patientId, doctorId, day, "13:30-14:00"));
+		assertThrows(IllegalArgumentException.class,
+				() -> book(patientId, otherDoctorId, day.plusDays(1), "10:00-10:30"));
+		assertDoesNotThrow(() -> book(patientId, doctorId, day, "14:00-14:30"));
+
+		assertEquals(3, scheduleExceptionService.findExceptions(doctorId, day, day.plusDays(3)).size());
+		assertEquals(1, scheduleExceptionService.findExceptions(otherDoctorId, day, day.plusDays(3)).size());
+
+		// Removing a block reopens its slots
+		scheduleExceptionService.deleteException(afternoon.scheduleExceptionId());
+		assertTrue(appointmentService.getAvailableSlots(doctorId, day).contains("13:00-13:30"));
+	}
+
+	@Test
+	void invalidBlocksAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> scheduleExceptionService.createException(
+				new ScheduleExceptionRequestDTO(doctorId, day, null, LocalTime.of(14, 0), LocalTime.of(13, 0),
+						"Inverted")));
+		assertThrows(IllegalArgumentException.class, () -> scheduleExceptionService.createException(
+				new ScheduleExceptionRequestDTO(doctorId, day, day.minusDays(1), null, null, "Inverted")));
+	}
+}
@@ -0,0 +1,98 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.SqlStatementCounter;
+import com.genc.hms.dto.DoctorProfileUpdateDTO;
+import com.genc.hms.dto.DoctorRegisterRequestDTO;
+
+/**
+ * Checks that each doctor's slot grid follows their own slot duration, that the
+ * cached templates are reused across calls and are rebuilt after a profile
+ * update.
+ */
+public class SlotDurationTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private DoctorService doctorService;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	private final LocalDate day = LocalDate.now().plusDays(4);
+	private Long patientId;
+
+	@BeforeEach
+	void setUp() {
+		patientId = registerPatient("patient@duration.test", "Duration Patient");
+	}
+
+	@Test
+	void eachDoctorGetsTheirOwnSlotGrid() {
+		Long hourly = registerDoctorWithSlots("hourly@duration.test", 60);
+		Long quarterly = registerDoctorWithSlots("quarterly@duration.test", 15);
+		Long standard = registerDoctorWithSlots("standard@duration.test", null);
+
+		List<String> hourlySlots = appointmentService.getAvailableSlots(hourly, day);
+		assertEquals(8, hourlySlots.size());
+		assertEquals("09:00-10:00", hourlySlots.get(0));
+		assertEquals(32, appointmentService.getAvailableSlots(quarterly, day).size());
+		assertEquals(16, appointmentService.getAvailableSlots(standard, day).size());
+
+		// Bookings must match the doctor's own duration
+		assertThrows(IllegalArgumentException.class, () -> book(patientId, hourly, day, "09:00-09:30"));
+		assertDoesNotThrow(() -> book(patientId, hourly, day, "10:00-11:00"));
+		assertDoesNotThrow(() -> book(patientId, quarterly, day, "10:15-10:30"));
+		assertFalse(appointmentService.getAvailableSlots(hourly, day).contains("10:00-11:00"));
+		assertFalse(appointmentService.getAvailableSlots(quarterly, day).contains("10:15-10:30"));
+
+		// Templates are cached: listing slots again reads only the day's bookings
+		SqlStatementCounter.start();
+		appointmentService.getAvailableSlots(hourly, day);
+		List<String> sql = SqlStatementCounter.stop();
+		assertEquals(0, sql.stream().filter(s -> s.contains("from doctor")).count());
+	}
+
+	@Test
+	void profileUpdateRebuildsTheCachedTemplate() {
+		Long doctorId = registerDoctorWithSlots("update@duration.test", null);
+		assertEquals(16, appointmentService.getAvailableSlots(doctorId, day).size());
+
+		DoctorProfileUpdateDTO update = new DoctorProfileUpdateDTO();
+		update.setName("Dr. Duration");
+		update.setSpecialization("Cardiology");
+		update.setContactNumber("9999999999");
+		update.setConsultationFee(BigDecimal.valueOf(500));
+		update.setDoctorAvailabilities(everyDay(LocalTime.of(9, 0), LocalTime.of(17, 0)));
+		update.setSlotDurationMinutes(45);
+		assertEquals(45,
+				doctorService.updateDoctorProfile(doctorId, update, null).orElseThrow().getSlotDurationMinutes());
+
+		// 09:00-17:00 holds ten 45-minute slots, the last ending at 16:30
+		List<String> slots = appointmentService.getAvailableSlots(doctorId, day);
+		assertEquals(10, slots.size());
+		assertEquals("15:45-16:30", slots.get(9));
+		assertThrows(IllegalArgumentException.class, () -> book(patientId, doctorId, day, "09:00-09:30"));
+
+		// Omitting the duration keeps the current one
+		update.setSlotDurationMinutes(null);
+		assertEquals(45,
+				doctorService.updateDoctorProfile(doctorId, update, null).orElseThrow().getSlotDurationMinutes());
+	}
+
+	private Long registerDoctorWithSlots(String email, Integer slotDurationMinutes) {
+		DoctorRegisterRequestDTO request = doctorRegistration(email, "Dr. Duration");
+		request.setSlotDurationMinutes(slotDurationMinutes);
+		return registerDoctor(request);
+	}
+}
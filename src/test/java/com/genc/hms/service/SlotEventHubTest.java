@@ -0,0 +1,106 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.genc.hms.dto.SlotChangeDTO;
+import com.genc.hms.event.SlotChangedEvent;
+import com.genc.hms.exception.GlobalExceptionHandler.ConflictException;
+import com.genc.hms.service.SlotEventHub.Subscriber;
+
+public class SlotEventHubTest {
+
+	private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+
+	private SlotEventHub hub;
+
+	@BeforeEach
+	void setUp() {
+		hub = new SlotEventHub();
+		hub.setMaxSubscribers(100);
+	}
+
+	@Test
+	void changesReachOnlySubscribersOfThatDoctorAndDate() {
+		RecordingEmitter watching = subscribe(1L, DATE, DATE.plusDays(2));
+		RecordingEmitter laterDates = subscribe(1L, DATE.plusDays(3), DATE.plusDays(5));
+		RecordingEmitter otherDoctor = subscribe(2L, DATE, DATE.plusDays(2));
+
+		hub.onSlotChanged(SlotChangedEvent.taken(1L, DATE.plusDays(1), 600, 630));
+		hub.onSlotChanged(SlotChangedEvent.freed(1L, DATE.plusDays(2), 660, 690));
+
+		assertEquals(List.of("slot-taken", "slot-freed"), watching.names);
+		SlotChangeDTO taken = watching.payloads.get(0);
+		assertEquals(DATE.plusDays(1), taken.getAppointmentDate());
+		assertEquals("10:00-10:30", taken.getTimeSlot());
+		assertEquals(SlotChangedEvent.Change.TAKEN, taken.getChange());
+		assertTrue(laterDates.names.isEmpty());
+		assertTrue(otherDoctor.names.isEmpty());
+	}
+
+	@Test
+	void subscribersThatFailToReceiveAreDropped() {
+		RecordingEmitter healthy = subscribe(1L, DATE, DATE);
+		RecordingEmitter gone = subscribe(1L, DATE, DATE);
+		gone.broken = true;
+
+		hub.onSlotChanged(SlotChangedEvent.taken(1L, DATE, 600, 630));
+		assertEquals(1, hub.getSubscriberCount());
+		assertEquals(1, gone.attempts);
+
+		hub.heartbeat();
+		hub.onSlotChanged(SlotChangedEvent.freed(1L, DATE, 600, 630));
+		assertEquals(1, gone.attempts);
+		assertEquals(List.of("slot-taken", "slot-freed"), healthy.names);
+	}
+
+	@Test
+	void subscriptionsAreCappedAndRangesValidated() {
+		hub.setMaxSubscribers(2);
+		subscribe(1L, DATE, DATE);
+		subscribe(2L, DATE, DATE);
+
+		assertThrows(ConflictException.class, () -> subscribe(3L, DATE, DATE));
+		assertEquals(2, hub.getSubscriberCount());
+		assertThrows(IllegalArgumentException.class, () -> hub.subscribe(1L, DATE, DATE.minusDays(1)));
+		assertThrows(IllegalArgumentException.class, () -> hub.subscribe(1L, DATE, DATE.plusDays(31)));
+	}
+
+	private RecordingEmitter subscribe(Long doctorId, LocalDate from, LocalDate to) {
+		RecordingEmitter emitter = new RecordingEmitter();
+		hub.register(doctorId, new Subscriber(emitter, from, to));
+		return emitter;
+	}
+
+	/** Captures named events instead of writing them to a response. */
+	private static final class RecordingEmitter extends SseEmitter {
+		final List<String> names = new ArrayList<>();
+		final List<SlotChangeDTO> payloads = new ArrayList<>();
+		boolean broken;
+		int attempts;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			attempts++;
+			if (broken) {
+				throw new IOException("Broken pipe");
+			}
+			for (DataWithMediaType part : builder.build()) {
+				if (part.getData() instanceof SlotChangeDTO change) {
+					payloads.add(change);
+				} else if (part.getData() instanceof String text && text.startsWith("event:")) {
+					names.add(text.substring("event:".length(), text.indexOf('\n')));
+				}
+			}
+		}
+	}
+}
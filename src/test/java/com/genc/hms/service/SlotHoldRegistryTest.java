@@ -0,0 +1,91 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.genc.hms.event.SlotChangedEvent;
+
+public class SlotHoldRegistryTest {
+
+	private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+	private static final long DOCTOR = 1L;
+
+	private final AtomicLong now = new AtomicLong(1_000_000);
+	private SlotHoldRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SlotHoldRegistry(now::get);
+		registry.setTtlSeconds(60);
+	}
+
+	@Test
+	void heldSlotIsBlockedForOthersButNotForTheHolder() {
+		assertNotNull(registry.hold(10L, DOCTOR, DATE, 600, 630));
+
+		assertNull(registry.hold(20L, DOCTOR, DATE, 615, 645)); // Overlaps
+		assertTrue(registry.isHeldByOther(DOCTOR, DATE, 600, 630, 20L));
+		assertFalse(registry.isHeldByOther(DOCTOR, DATE, 600, 630, 10L));
+		assertFalse(registry.isHeld(DOCTOR, DATE, 630, 660));
+		assertNotNull(registry.hold(20L, DOCTOR, DATE, 630, 660));
+	}
+
+	@Test
+	void holdsExpireLazilyAndAreSweptByTheWheel() {
+		registry.hold(10L, DOCTOR, DATE, 600, 630);
+		registry.advance();
+		assertEquals(1, registry.size());
+
+		now.addAndGet(60_000);
+		assertFalse(registry.isHeld(DOCTOR, DATE, 600, 630)); // Expired before any sweep
+		assertNotNull(registry.hold(20L, DOCTOR, DATE, 600, 630));
+
+		now.addAndGet(61_000);
+		registry.advance();
+		assertEquals(0, registry.size());
+	}
+
+	@Test
+	void holdsLongerThanOneWheelTurnSurviveUntilDue() {
+		registry.setTtlSeconds(1200); // Wheel turns every 512 ticks
+		registry.hold(10L, DOCTOR, DATE, 600, 630);
+
+		for (int second = 1; second < 1200; second += 7) {
+			now.set(1_000_000 + second * 1000L);
+			registry.advance();
+		}
+		assertEquals(1, registry.size());
+		assertTrue(registry.isHeld(DOCTOR, DATE, 600, 630));
+
+		now.set(1_000_000 + 1201 * 1000L);
+		registry.advance();
+		assertEquals(0, registry.size());
+	}
+
+	@Test
+	void newHoldReplacesThePatientsPreviousHold() {
+		registry.hold(10L, DOCTOR, DATE, 600, 630);
+		registry.hold(10L, DOCTOR, DATE.plusDays(1), 600, 630);
+
+		assertFalse(registry.isHeld(DOCTOR, DATE, 600, 630));
+		assertTrue(registry.isHeld(DOCTOR, DATE.plusDays(1), 600, 630));
+		assertEquals(1, registry.size());
+	}
+
+	@Test
+	void bookingOrReleaseDropsTheHold() {
+		registry.hold(10L, DOCTOR, DATE, 600, 630);
+		registry.onSlotChanged(SlotChangedEvent.taken(DOCTOR, DATE, 600, 630));
+		assertFalse(registry.isHeld(DOCTOR, DATE, 600, 630));
+
+		String holdId = registry.hold(10L, DOCTOR, DATE, 660, 690).holdId();
+		assertNotNull(registry.release(holdId));
+		assertNull(registry.release(holdId));
+		assertEquals(0, registry.size());
+	}
+}
@@ -0,0 +1,196 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.SqlStatementCounter;
+import com.genc.hms.dto.AppointmentRequestDTO;
+import com.genc.hms.dto.DoctorProfileUpdateDTO;
+import com.genc.hms.dto.SlotCacheStatsDTO;
+import com.genc.hms.dto.SlotHoldRequestDTO;
+import com.genc.hms.entity.Appointment;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.event.SlotChangedEvent;
+import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.repository.DoctorRepository;
+import com.genc.hms.repository.PatientRepository;
+import com.genc.hms.service.SlotTemplateCache.DayTemplate;
+import com.genc.hms.util.SlotRange;
+
+/**
+ * Checks that slot listings are served from the slot-list cache on repeat and
+ * that every booking change drops exactly the affected days.
+ */
+public class SlotListCacheTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private DoctorService doctorService;
+
+	@Autowired
+	private SlotListCache slotListCache;
+
+	@Autowired
+	private SlotTemplateCache slotTemplateCache;
+
+	@Autowired
+	private SlotOccupancyIndex slotOccupancyIndex;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final LocalDate day = LocalDate.now().plusDays(6);
+	private Long doctorId;
+	private Long otherDoctorId;
+	private Long patientId;
+
+	@BeforeEach
+	void setUp() {
+		doctorId = registerDoctor("cached@slots.test", "Dr. Cached");
+		otherDoctorId = registerDoctor("other@slots.test", "Dr. Cached");
+		patientId = registerPatient("patient@slots.test", "Cache Patient");
+	}
+
+	@Test
+	void bookingChangesDropOnlyTheAffectedDays() {
+		LocalDate nextDay = day.plusDays(1);
+		assertEquals(16, appointmentService.getAvailableSlots(doctorId, day).size());
+		assertEquals(16, appointmentService.getAvailableSlots(doctorId, nextDay).size());
+		assertEquals(16, appointmentService.getAvailableSlots(otherDoctorId, day).size());
+
+		SlotCacheStatsDTO before = slotListCache.stats();
+		appointmentService.getAvailableSlots(doctorId, day);
+		assertEquals(before.hitCount() + 1, slotListCache.stats().hitCount());
+
+		// Booking drops its own day only
+		Long appointmentId = book(patientId, doctorId, day, "10:00-10:30");
+		before = slotListCache.stats();
+		assertFalse(appointmentService.getAvailableSlots(doctorId, day).contains("10:00-10:30"));
+		assertEquals(16, appointmentService.getAvailableSlots(doctorId, nextDay).size());
+		assertEquals(16, appointmentService.getAvailableSlots(otherDoctorId, day).size());
+		SlotCacheStatsDTO after = slotListCache.stats();
+		assertEquals(before.missCount() + 1, after.missCount());
+		assertEquals(before.hitCount() + 2, after.hitCount());
+
+		// Rescheduling to another doctor and date frees the old day and fills the new one
+		AppointmentRequestDTO moved = bookingRequest(patientId, otherDoctorId, nextDay, "11:00-11:30");
+		appointmentService.rescheduleAppointment(appointmentId, moved, null);
+		assertEquals(16, appointmentService.getAvailableSlots(doctorId, day).size());
+		assertFalse(appointmentService.getAvailableSlots(otherDoctorId, nextDay).contains("11:00-11:30"));
+
+		// Status changes that free the slot reopen it
+		appointmentService.updateAppointmentStatus(appointmentId, AppointmentStatus.CANCELLED, "Moved away", null);
+		assertTrue(appointmentService.getAvailableSlots(otherDoctorId, nextDay).contains("11:00-11:30"));
+
+		Long second = book(patientId, doctorId, day, "12:00-12:30");
+		assertEquals(15, appointmentService.getAvailableSlots(doctorId, day).size());
+		appointmentService.cancelAppointment(second, null);
+		assertEquals(16, appointmentService.getAvailableSlots(doctorId, day).size());
+	}
+
+	@Test
+	void changesOfOneDoctorDoNotStopCachingAnother() {
+		DayTemplate template = slotTemplateCache.get(doctorId).forDay(day.getDayOfWeek());
+		long generation = slotListCache.generation(doctorId);
+		long otherGeneration = slotListCache.generation(otherDoctorId);
+
+		// Another doctor's booking commits while this doctor's day is being computed
+		slotListCache.onSlotChanged(SlotChangedEvent.taken(otherDoctorId, day, 10 * 60, 10 * 60 + 30));
+		slotListCache.put(doctorId, day, template, new int[] { 0, 1 }, generation);
+		assertArrayEquals(new int[] { 0, 1 }, slotListCache.get(doctorId, day, template));
+
+		// Its own day is not cached from data read before the change
+		slotListCache.put(otherDoctorId, day, template, new int[] { 0, 1 }, otherGeneration);
+		assertNull(slotListCache.get(otherDoctorId, day, template));
+	}
+
+	@Test
+	void holdsAndScheduleChangesApplyOnTopOfCachedDays() {
+		assertEquals(16, appointmentService.getAvailableSlots(doctorId, day).size());
+
+		// Holds are not booking changes, so the cached day is filtered on the way out
+		appointmentService.holdSlot(new SlotHoldRequestDTO(patientId, doctorId, day, "09:00-09:30"));
+		SlotCacheStatsDTO before = slotListCache.stats();
+		assertFalse(appointmentService.getAvailableSlots(doctorId, day).contains("09:00-09:30"));
+		assertEquals(before.hitCount() + 1, slotListCache.stats().hitCount());
+
+		// A new schedule evicts the doctor's days
+		DoctorProfileUpdateDTO update = new DoctorProfileUpdateDTO();
+		update.setName("Dr. Cached");
+		update.setSpecialization("Cardiology");
+		update.setContactNumber("9999999999");
+		update.setConsultationFee(BigDecimal.valueOf(500));
+		update.setDoctorAvailabilities(everyDay(LocalTime.of(9, 0), LocalTime.of(12, 0)));
+		doctorService.updateDoctorProfile(doctorId, update, null);
+		assertEquals(5, appointmentService.getAvailableSlots(doctorId, day).size());
+	}
+
+	@Test
+	void resyncPicksUpBookingsWrittenByOtherNodes() {
+		assertEquals(16, appointmentService.getAvailableSlots(doctorId, day).size());
+		assertEquals(16, appointmentService.getAvailableSlots(otherDoctorId, day).size());
+
+		// Another node books straight into the shared database; no event reaches this node
+		Appointment remote = transactionTemplate.execute(tx -> appointmentRepository.save(new Appointment(
+				patientRepository.findById(patientId).orElseThrow(), doctorRepository.findById(doctorId).orElseThrow(),
+				day, SlotRange.ofDuration(10 * 60, 30), "Remote booking", AppointmentStatus.CONFIRMED, null)));
+		slotOccupancyIndex.resync();
+		assertFalse(appointmentService.getAvailableSlots(doctorId, day).contains("10:00-10:30"));
+
+		// Only the changed day was dropped from the cache
+		SlotCacheStatsDTO before = slotListCache.stats();
+		appointmentService.getAvailableSlots(otherDoctorId, day);
+		assertEquals(before.hitCount() + 1, slotListCache.stats().hitCount());
+
+		// The remote node cancels it again
+		transactionTemplate.executeWithoutResult(tx -> appointmentRepository.updateStatus(
+				List.of(remote.getAppointmentId()), AppointmentStatus.CONFIRMED, AppointmentStatus.CANCELLED));
+		slotOccupancyIndex.resync();
+		assertTrue(appointmentService.getAvailableSlots(doctorId, day).contains("10:00-10:30"));
+	}
+
+	@Test
+	void databaseFallbackIsQueriedOncePerDay() {
+		// Past dates are outside the occupancy index, so a miss reads the bookings
+		LocalDate past = LocalDate.now().minusDays(3);
+		transactionTemplate.executeWithoutResult(tx -> appointmentRepository.save(new Appointment(
+				patientRepository.findById(patientId).orElseThrow(), doctorRepository.findById(doctorId).orElseThrow(),
+				past, SlotRange.ofDuration(9 * 60, 30), "Past visit", AppointmentStatus.COMPLETED, null)));
+
+		SqlStatementCounter.start();
+		List<String> first = appointmentService.getAvailableSlots(doctorId, past);
+		List<String> missSql = SqlStatementCounter.stop();
+		SqlStatementCounter.start();
+		List<String> second = appointmentService.getAvailableSlots(doctorId, past);
+		List<String> hitSql = SqlStatementCounter.stop();
+
+		assertEquals(15, first.size());
+		assertEquals(first, second);
+		assertEquals(1, missSql.stream().filter(sql -> sql.contains("from appointments")).count());
+		assertEquals(0, hitSql.stream().filter(sql -> sql.contains("from appointments")).count());
+
+		// The range variant reuses the cached day
+		assertEquals(first, appointmentService.getAvailableSlots(doctorId, past, past).get(past));
+	}
+}
@@ -0,0 +1,95 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.dto.AvailableSlotDTO;
+import com.genc.hms.dto.DoctorAvailabilityDTO;
+import com.genc.hms.dto.DoctorRegisterRequestDTO;
+import com.genc.hms.enums.WeekDay;
+
+/**
+ * Checks that a doctor's windows on the same weekday are merged when saved and
+ * that slot listings, booking validation and the first-available search all
+ * honour every window of a split shift.
+ */
+public class SplitShiftTest extends PostgresIntegrationTest {
+
+	private static final String SPECIALIZATION = "Split Shift Dermatology";
+
+	@Autowired
+	private DoctorService doctorService;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private SlotSearchService slotSearchService;
+
+	private final LocalDate day = LocalDate.now().plusDays(3);
+	private Long patientId;
+
+	@BeforeEach
+	void setUp() {
+		patientId = registerPatient("patient@split.test", "Split Patient");
+	}
+
+	@Test
+	void splitShiftKeepsBothWindowsAndMergesOverlaps() {
+		// Morning and afternoon shifts, plus an entry overlapping the morning one
+		WeekDay weekDay = WeekDay.valueOf(day.getDayOfWeek().name());
+		Long doctorId = registerDoctor(List.of(window(weekDay, 14, 0, 17, 0), window(weekDay, 9, 0, 12, 0),
+				window(weekDay, 11, 0, 12, 30)));
+
+		List<DoctorAvailabilityDTO> saved = new ArrayList<>(doctorService.getDoctorAvailability(doctorId));
+		saved.sort(Comparator.comparing(DoctorAvailabilityDTO::getStartTime));
+		assertEquals(2, saved.size());
+		assertEquals(LocalTime.of(9, 0), saved.get(0).getStartTime());
+		assertEquals(LocalTime.of(12, 30), saved.get(0).getEndTime());
+		assertEquals(LocalTime.of(14, 0), saved.get(1).getStartTime());
+		assertEquals(LocalTime.of(17, 0), saved.get(1).getEndTime());
+
+		// 7 morning slots and 6 afternoon slots, nothing over lunch
+		List<String> slots = appointmentService.getAvailableSlots(doctorId, day);
+		assertEquals(13, slots.size());
+		assertEquals("12:00-12:30", slots.get(6));
+		assertEquals("14:00-14:30", slots.get(7));
+
+		assertThrows(IllegalArgumentException.class, () -> book(patientId, doctorId, day, "13:00-13:30"));
+		assertThrows(IllegalArgumentException.class, () -> book(patientId, doctorId, day, "12:15-12:45"));
+		assertDoesNotThrow(() -> book(patientId, doctorId, day, "15:00-15:30"));
+
+		List<AvailableSlotDTO> first = slotSearchService.findFirstAvailable(SPECIALIZATION, day, day, null, 50);
+		assertEquals(12, first.size());
+		assertEquals("14:00-14:30", first.get(7).getTimeSlot());
+		assertTrue(first.stream().noneMatch(slot -> slot.getTimeSlot().equals("15:00-15:30")));
+	}
+
+	@Test
+	void windowThatDoesNotEndAfterItStartsIsRejected() {
+		assertThrows(IllegalArgumentException.class,
+				() -> registerDoctor(List.of(window(WeekDay.MONDAY, 12, 0, 9, 0))));
+	}
+
+	private static DoctorAvailabilityDTO window(WeekDay day, int startHour, int startMinute, int endHour,
+			int endMinute) {
+		return new DoctorAvailabilityDTO(day, LocalTime.of(startHour, startMinute), LocalTime.of(endHour, endMinute));
+	}
+
+	private Long registerDoctor(List<DoctorAvailabilityDTO> availabilities) {
+		DoctorRegisterRequestDTO request = doctorRegistration("doctor@split.test", "Dr. Split");
+		request.setSpecialization(SPECIALIZATION);
+		request.setDoctorAvailabilities(availabilities);
+		return registerDoctor(request);
+	}
+}
@@ -0,0 +1,167 @@
+package com.genc.hms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.genc.hms.PostgresIntegrationTest;
+import com.genc.hms.dto.ScheduleExceptionRequestDTO;
+import com.genc.hms.dto.WaitlistEntryResponseDTO;
+import com.genc.hms.dto.WaitlistRequestDTO;
+import com.genc.hms.entity.Appointment;
+import com.genc.hms.entity.Doctor;
+import com.genc.hms.entity.Patient;
+import com.genc.hms.entity.WaitlistEntry;
+import com.genc.hms.enums.AppointmentStatus;
+import com.genc.hms.enums.WaitlistStatus;
+import com.genc.hms.exception.GlobalExceptionHandler.ConflictException;
+import com.genc.hms.repository.AppointmentRepository;
+import com.genc.hms.repository.ScheduleExceptionRepository;
+import com.genc.hms.repository.WaitlistRepository;
+import com.genc.hms.util.Constraints;
+
+/**
+ * Cancels a booking and checks that the freed slot is backfilled
+ * asynchronously for the oldest eligible waitlisted patient (passing over one
+ * whose booking is rejected), and that joins for a day that cannot be filled,
+ * or twice for the same day, are rejected.
+ */
+public class WaitlistBackfillTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private WaitlistService waitlistService;
+
+	@Autowired
+	private WaitlistRepository waitlistRepository;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private ScheduleExceptionService scheduleExceptionService;
+
+	@Autowired
+	private ScheduleExceptionRepository scheduleExceptionRepository;
+
+	@Autowired
+	private ScheduleExceptionIndex scheduleExceptionIndex;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private SlotHoldRegistry slotHolds;
+
+	private final LocalDate date = LocalDate.now().plusDays(7);
+
+	@AfterEach
+	void tearDown() {
+		scheduleExceptionRepository.deleteAllInBatch();
+		scheduleExceptionIndex.rebuild();
+	}
+
+	@Test
+	void cancelledSlotIsBookedForOldestEligibleWaitingPatient() throws Exception {
+		Doctor doctor = createDoctor("doctor@waitlist.test", "Dr. Waitlist");
+		Patient holder = createPatient("holder@waitlist.test", "holder");
+		Patient alreadyBooked = createPatient("already-booked@waitlist.test", "already-booked");
+		Patient waiting = createPatient("waiting@waitlist.test", "waiting");
+
+		Long cancelled = book(holder.getPatientId(), doctor.getDoctorId(), date, "10:00-10:30");
+		book(alreadyBooked.getPatientId(), doctor.getDoctorId(), date, "11:00-11:30");
+
+		// First in line, but already seen by the doctor that day, so not eligible
+		WaitlistEntryResponseDTO skipped = waitlistService
+				.joinWaitlist(new WaitlistRequestDTO(alreadyBooked.getPatientId(), doctor.getDoctorId(), date, "Any"));
+		WaitlistEntryResponseDTO served = waitlistService
+				.joinWaitlist(new WaitlistRequestDTO(waiting.getPatientId(), doctor.getDoctorId(), date, "Follow-up"));
+
+		appointmentService.cancelAppointment(cancelled, null);
+
+		WaitlistEntry entry = awaitStatus(served.getWaitlistEntryId(), WaitlistStatus.BOOKED);
+		Appointment backfilled = appointmentRepository.findById(entry.getAppointment().getAppointmentId()).get();
+		assertEquals(waiting.getPatientId(), backfilled.getPatient().getPatientId());
+		assertEquals(AppointmentStatus.CONFIRMED, backfilled.getStatus());
+		assertEquals("10:00-10:30", backfilled.getTimeSlot());
+		assertEquals("Follow-up", backfilled.getReason());
+		assertEquals(WaitlistStatus.WAITING,
+				waitlistRepository.findById(skipped.getWaitlistEntryId()).get().getStatus());
+	}
+
+	@Test
+	void rejectedBookingPassesTheSlotToTheNextWaitingPatient() throws Exception {
+		Doctor doctor = createDoctor("next@waitlist.test", "Dr. Next");
+		Patient holder = createPatient("next-holder@waitlist.test", "holder");
+		Patient first = createPatient("first@waitlist.test", "first");
+		Patient second = createPatient("second@waitlist.test", "second");
+
+		Long cancelled = book(holder.getPatientId(), doctor.getDoctorId(), date, 10 * 60);
+		WaitlistEntryResponseDTO passedOver = waitlistService
+				.joinWaitlist(new WaitlistRequestDTO(first.getPatientId(), doctor.getDoctorId(), date, "Any"));
+		WaitlistEntryResponseDTO served = waitlistService
+				.joinWaitlist(new WaitlistRequestDTO(second.getPatientId(), doctor.getDoctorId(), date, "Any"));
+
+		// The second patient already holds the slot, so booking it for the first one is rejected
+		assertNotNull(slotHolds.hold(second.getPatientId(), doctor.getDoctorId(), date, 10 * 60, 10 * 60 + 30));
+		appointmentService.cancelAppointment(cancelled, null);
+
+		WaitlistEntry entry = awaitStatus(served.getWaitlistEntryId(), WaitlistStatus.BOOKED);
+		assertEquals(second.getPatientId(),
+				appointmentRepository.findById(entry.getAppointment().getAppointmentId()).get().getPatient()
+						.getPatientId());
+		assertEquals(WaitlistStatus.WAITING,
+				waitlistRepository.findById(passedOver.getWaitlistEntryId()).get().getStatus());
+	}
+
+	@Test
+	void joinIsRejectedForDaysThatCanNeverBeFilled() {
+		Doctor doctor = createDoctor("leave@waitlist.test", "Dr. Leave");
+		Patient patient = createPatient("patient@waitlist.test", "patient");
+		scheduleExceptionService.createException(
+				new ScheduleExceptionRequestDTO(doctor.getDoctorId(), date, null, null, null, "Annual leave"));
+
+		assertThrows(IllegalArgumentException.class, () -> waitlistService
+				.joinWaitlist(new WaitlistRequestDTO(patient.getPatientId(), doctor.getDoctorId(), date, "Any")));
+		assertEquals(0, waitlistRepository.count());
+	}
+
+	@Test
+	void secondJoinForTheSameDayIsAConflict() {
+		Doctor doctor = createDoctor("twice@waitlist.test", "Dr. Twice");
+		Patient patient = createPatient("twice-patient@waitlist.test", "twice");
+		WaitlistRequestDTO request = new WaitlistRequestDTO(patient.getPatientId(), doctor.getDoctorId(), date,
+				"Any");
+		waitlistService.joinWaitlist(request);
+
+		assertThrows(ConflictException.class, () -> waitlistService.joinWaitlist(request));
+
+		// A racing join that passed the check is stopped by the index, which the handler maps to 409
+		DataIntegrityViolationException violation = assertThrows(DataIntegrityViolationException.class,
+				() -> transactionTemplate.executeWithoutResult(tx -> waitlistRepository
+						.saveAndFlush(new WaitlistEntry(patient, doctor, date, "Race"))));
+		assertTrue(Constraints.isWaitlistConflict(violation));
+	}
+
+	// --- Helpers ---
+
+	private WaitlistEntry awaitStatus(Long entryId, WaitlistStatus status) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (System.currentTimeMillis() < deadline) {
+			WaitlistEntry entry = waitlistRepository.findById(entryId).get();
+			if (entry.getStatus() == status) {
+				return entry;
+			}
+			Thread.sleep(50);
+		}
+		return fail("Waitlist entry " + entryId + " never reached " + status);
+	}
+}